@@ -19,7 +19,9 @@
 package org.apache.olingo.client.api;
 
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
+import org.apache.olingo.client.api.edm.MetadataCache;
 import org.apache.olingo.client.api.http.HttpClientFactory;
 import org.apache.olingo.client.api.http.HttpUriRequestFactory;
 import org.apache.olingo.commons.api.format.ContentType;
@@ -266,4 +268,33 @@ public interface Configuration {
    * @param executorService new executor services.
    */
   void setExecutor(ExecutorService executorService);
+
+  /**
+   * Retrieves the scheduler for delayed tasks, such as the checks of the status monitors of asynchronous requests.
+   *
+   * @return scheduled executor service.
+   */
+  ScheduledExecutorService getScheduledExecutor();
+
+  /**
+   * Sets the scheduler for delayed tasks.
+   *
+   * @param scheduledExecutorService new scheduled executor service.
+   */
+  void setScheduledExecutor(ScheduledExecutorService scheduledExecutorService);
+
+  /**
+   * Gets the cache for the metadata of the services accessed by the EDM-enabled client.
+   *
+   * @return metadata cache or <tt>null</tt> if the metadata are not cached beyond the lifetime of the client
+   */
+  MetadataCache getMetadataCache();
+
+  /**
+   * Sets the cache for the metadata of the services accessed by the EDM-enabled client.
+   *
+   * @param metadataCache metadata cache; <tt>null</tt> to disable caching
+   * @see MetadataCache
+   */
+  void setMetadataCache(MetadataCache metadataCache);
 }
@@ -75,4 +75,10 @@ public interface ODataClient {
   CUDRequestFactory getCUDRequestFactory();
 
   BatchRequestFactory getBatchRequestFactory();
+
+  /**
+   * Releases the resources held by this client, e.g., the connections pooled by a closeable HTTP client factory.
+   * The client must not be used afterwards.
+   */
+  void dispose();
 }
@@ -18,8 +18,6 @@
  */
 package org.apache.olingo.client.api.communication.request;
 
-import java.util.concurrent.Future;
-
 import org.apache.olingo.client.api.communication.response.ODataResponse;
 import org.apache.olingo.commons.api.format.ContentType;
 
@@ -40,9 +38,9 @@ public interface ODataBasicRequest<T extends ODataResponse> extends ODataRequest
   /**
    * Async request execute.
    *
-   * @return <code>Future&lt;ODataResponse&gt;</code> about the executed request.
+   * @return <code>ODataFuture&lt;ODataResponse&gt;</code> about the executed request.
    */
-  Future<T> asyncExecute();
+  ODataFuture<T> asyncExecute();
 
   /**
    * Override configured request Content-Type.
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.api.communication.request;
+
+/**
+ * Callback notified about the completion of an asynchronously executed request.
+ *
+ * @param <T> result type.
+ * @see ODataFuture#addCallback(ODataCallback)
+ */
+public interface ODataCallback<T> {
+
+  /**
+   * Called with the result of a successful execution.
+   *
+   * @param result execution result.
+   */
+  void onSuccess(T result);
+
+  /**
+   * Called if the execution has failed or has been cancelled.
+   *
+   * @param cause failure cause; a <tt>CancellationException</tt> if the execution has been cancelled.
+   */
+  void onFailure(Throwable cause);
+}
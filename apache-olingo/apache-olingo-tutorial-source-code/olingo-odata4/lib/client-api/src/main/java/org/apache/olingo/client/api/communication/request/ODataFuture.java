@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.api.communication.request;
+
+import java.util.concurrent.Future;
+
+/**
+ * Result of an asynchronously executed request that notifies callbacks on completion,
+ * so that no thread has to block waiting for the result.
+ *
+ * @param <T> result type.
+ */
+public interface ODataFuture<T> extends Future<T> {
+
+  /**
+   * Adds a callback to be notified when the execution completes.
+   * <br/>
+   * The callback is called by the thread completing the execution, or immediately by the calling thread
+   * if the execution has already completed; it should therefore not block.
+   *
+   * @param callback callback.
+   * @return this future.
+   */
+  ODataFuture<T> addCallback(ODataCallback<? super T> callback);
+}
@@ -20,6 +20,8 @@ package org.apache.olingo.client.api.communication.response;
 
 import java.net.URI;
 
+import org.apache.olingo.client.api.communication.request.ODataFuture;
+
 public interface AsyncResponseWrapper<R extends ODataResponse> {
 
   /**
@@ -48,6 +50,17 @@ public interface AsyncResponseWrapper<R extends ODataResponse> {
    */
   R getODataResponse();
 
+  /**
+   * Gets the real response without blocking the calling thread.
+   * <br />
+   * The status monitor is checked on the scheduler of the configuration until asynchronous processing has been
+   * terminated. The delay between two checks is given by the 'Retry-After' header; without it, the delay is doubled
+   * each time, up to one minute. Cancel the returned future in order to stop checking.
+   *
+   * @return future of the real OData response.
+   */
+  ODataFuture<R> asyncGetODataResponse();
+
   /**
    * Specifies the location for the next monitor check.
    * <br />
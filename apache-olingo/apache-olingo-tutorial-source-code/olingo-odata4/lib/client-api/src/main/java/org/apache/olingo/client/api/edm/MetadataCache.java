@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.api.edm;
+
+import java.util.Map;
+
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+
+/**
+ * Cache for the parsed metadata of services, used by the EDM-enabled client to avoid downloading and parsing
+ * the metadata document again as long as the service reports it as unchanged.
+ */
+public interface MetadataCache {
+
+  /**
+   * Gets the ETag of the cached metadata of the given service.
+   *
+   * @param serviceRoot service root
+   * @return ETag or <tt>null</tt> if no metadata have been cached for the given service
+   */
+  String getETag(String serviceRoot);
+
+  /**
+   * Gets the cached schemas of the given service, keyed by namespace and alias.
+   * Implementations may read each schema only on its first access.
+   *
+   * @param serviceRoot service root
+   * @param metadataETag ETag the cached metadata must match
+   * @return schemas or <tt>null</tt> if no metadata with the given ETag have been cached for the given service
+   */
+  Map<String, CsdlSchema> getSchemas(String serviceRoot, String metadataETag);
+
+  /**
+   * Caches the schemas of the given service, replacing any metadata cached before for that service.
+   *
+   * @param serviceRoot service root
+   * @param metadataETag ETag of the metadata document
+   * @param schemas schemas keyed by namespace and alias
+   */
+  void putSchemas(String serviceRoot, String metadataETag, Map<String, CsdlSchema> schemas);
+}
@@ -46,4 +46,13 @@ public interface ClientODataDeserializer extends ODataDeserializer {
    * @throws ODataDeserializerException
    */
   ResWrap<Delta> toDelta(InputStream input) throws ODataDeserializerException;
+
+  /**
+   * Gets a reader returning the entities of the entity set represented by the given InputStream one at a time.
+   *
+   * @param input stream to be de-serialized.
+   * @return {@link EntitySetStreamReader} instance.
+   * @throws ODataDeserializerException
+   */
+  EntitySetStreamReader toEntitySetReader(InputStream input) throws ODataDeserializerException;
 }
@@ -22,8 +22,15 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.olingo.client.api.Configuration;
+import org.apache.olingo.client.api.edm.MetadataCache;
 import org.apache.olingo.client.api.http.HttpClientFactory;
 import org.apache.olingo.client.api.http.HttpUriRequestFactory;
 import org.apache.olingo.client.core.http.DefaultHttpClientFactory;
@@ -58,9 +65,52 @@ public class ConfigurationImpl implements Configuration {
 
   private static final String CONTINUE_ON_ERROR = "continueOnError";
 
+  private static final String METADATA_CACHE = "metadataCache";
+
   private final Map<String, Object> CONF = new HashMap<String, Object>();
 
-  private transient ExecutorService executor = Executors.newFixedThreadPool(10);
+  private static final int EXECUTOR_THREADS = 10;
+
+  private static final long EXECUTOR_KEEP_ALIVE_SECONDS = 60;
+
+  private static final int SCHEDULER_THREADS = 2;
+
+  private transient ExecutorService executor = newDefaultExecutor();
+
+  private transient ScheduledExecutorService scheduledExecutor = newDefaultScheduledExecutor();
+
+  /**
+   * Creates the default executor: a bounded pool whose threads are started on demand and stop when idle;
+   * further requests wait for a free thread. The threads do not keep the JVM alive.
+   */
+  private static ExecutorService newDefaultExecutor() {
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(EXECUTOR_THREADS, EXECUTOR_THREADS,
+        EXECUTOR_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+        newDaemonThreadFactory("odata-client-"));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Creates the default scheduler: a couple of threads shared by all delayed tasks, started on demand.
+   * The threads do not keep the JVM alive.
+   */
+  private static ScheduledExecutorService newDefaultScheduledExecutor() {
+    return Executors.newScheduledThreadPool(SCHEDULER_THREADS, newDaemonThreadFactory("odata-client-scheduler-"));
+  }
+
+  private static ThreadFactory newDaemonThreadFactory(final String namePrefix) {
+    return new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+  }
 
   /**
    * Gets given configuration property.
@@ -229,4 +279,24 @@ public class ConfigurationImpl implements Configuration {
   public void setExecutor(final ExecutorService executorService) {
     executor = executorService;
   }
+
+  @Override
+  public ScheduledExecutorService getScheduledExecutor() {
+    return scheduledExecutor;
+  }
+
+  @Override
+  public void setScheduledExecutor(final ScheduledExecutorService scheduledExecutorService) {
+    scheduledExecutor = scheduledExecutorService;
+  }
+
+  @Override
+  public MetadataCache getMetadataCache() {
+    return (MetadataCache) getProperty(METADATA_CACHE, null);
+  }
+
+  @Override
+  public void setMetadataCache(final MetadataCache metadataCache) {
+    setProperty(METADATA_CACHE, metadataCache);
+  }
 }
@@ -18,14 +18,21 @@
  */
 package org.apache.olingo.client.core;
 
+import java.util.Map;
+import java.util.concurrent.Callable;
+
 import org.apache.olingo.client.api.EdmEnabledODataClient;
 import org.apache.olingo.client.api.communication.request.invoke.EdmEnabledInvokeRequestFactory;
 import org.apache.olingo.client.api.communication.request.retrieve.EdmMetadataRequest;
 import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.client.api.edm.MetadataCache;
 import org.apache.olingo.client.api.uri.URIBuilder;
 import org.apache.olingo.client.core.communication.request.invoke.EdmEnabledInvokeRequestFactoryImpl;
+import org.apache.olingo.client.core.edm.LazySchemaMap;
 import org.apache.olingo.client.core.uri.URIBuilderImpl;
 import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
 
 public class EdmEnabledODataClientImpl extends ODataClientImpl implements EdmEnabledODataClient {
 
@@ -54,15 +61,68 @@ public class EdmEnabledODataClientImpl extends ODataClientImpl implements EdmEna
   public Edm getEdm(final String metadataETag) {
     synchronized (this) {
       if (this.edm == null || (metadataETag != null && !metadataETag.equals(this.metadataETag))) {
-        final EdmMetadataRequest metadataReq = getRetrieveRequestFactory().getMetadataRequest(serviceRoot);
-        final ODataRetrieveResponse<Edm> metadataRes = metadataReq.execute();
-        this.metadataETag = metadataRes.getETag();
-        this.edm = metadataRes.getBody();
+        final MetadataCache metadataCache = getConfiguration().getMetadataCache();
+        if (metadataCache == null) {
+          final EdmMetadataRequest metadataReq = getRetrieveRequestFactory().getMetadataRequest(serviceRoot);
+          final ODataRetrieveResponse<Edm> metadataRes = metadataReq.execute();
+          this.metadataETag = metadataRes.getETag();
+          this.edm = metadataRes.getBody();
+        } else {
+          retrieveEdm(metadataCache);
+        }
       }
     }
     return this.edm;
   }
 
+  /**
+   * Retrieves the metadata, using the cached schemas as long as the service confirms that they are still current.
+   */
+  private void retrieveEdm(final MetadataCache metadataCache) {
+    final String cachedETag = metadataCache.getETag(serviceRoot);
+    final Map<String, CsdlSchema> cachedSchemas =
+        cachedETag == null ? null : metadataCache.getSchemas(serviceRoot, cachedETag);
+
+    final EdmMetadataRequest metadataReq = getRetrieveRequestFactory().getMetadataRequest(serviceRoot);
+    if (cachedSchemas != null) {
+      metadataReq.setIfNoneMatch(cachedETag);
+    }
+    final ODataRetrieveResponse<Edm> metadataRes = metadataReq.execute();
+    if (cachedSchemas != null && metadataRes.getStatusCode() == HttpStatusCode.NOT_MODIFIED.getStatusCode()) {
+      metadataRes.close();
+      if (cachedSchemas instanceof LazySchemaMap) {
+        // cached schemas are read lazily; if they have vanished in the meantime, they are retrieved again
+        ((LazySchemaMap) cachedSchemas).setFallback(new Callable<Map<String, CsdlSchema>>() {
+          @Override
+          public Map<String, CsdlSchema> call() {
+            final EdmMetadataRequest request = getRetrieveRequestFactory().getMetadataRequest(serviceRoot);
+            return storeSchemas(metadataCache, request, request.execute());
+          }
+        });
+      }
+      this.metadataETag = cachedETag;
+      this.edm = getReader().readMetadata(cachedSchemas);
+    } else {
+      this.edm = getReader().readMetadata(storeSchemas(metadataCache, metadataReq, metadataRes));
+    }
+  }
+
+  /**
+   * Caches the schemas of a successful metadata request and remembers their ETag.
+   */
+  private Map<String, CsdlSchema> storeSchemas(final MetadataCache metadataCache,
+      final EdmMetadataRequest metadataReq, final ODataRetrieveResponse<Edm> metadataRes) {
+    final Map<String, CsdlSchema> schemas = metadataReq.getXMLMetadata().getSchemaByNsOrAlias();
+    final String etag = metadataRes.getETag();
+    synchronized (this) {
+      this.metadataETag = etag;
+    }
+    if (etag != null) {
+      metadataCache.putSchemas(serviceRoot, etag, schemas);
+    }
+    return schemas;
+  }
+
   @Override
   public Edm getCachedEdm() {
     if (this.edm == null) {
@@ -18,6 +18,9 @@
  */
 package org.apache.olingo.client.core;
 
+import java.io.Closeable;
+
+import org.apache.commons.io.IOUtils;
 import org.apache.olingo.client.api.Configuration;
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.header.ODataHeaders;
@@ -28,6 +31,8 @@ import org.apache.olingo.client.api.communication.request.cud.CUDRequestFactory;
 import org.apache.olingo.client.api.communication.request.invoke.InvokeRequestFactory;
 import org.apache.olingo.client.api.communication.request.retrieve.RetrieveRequestFactory;
 import org.apache.olingo.client.api.domain.ClientObjectFactory;
+import org.apache.olingo.client.api.http.HttpClientFactory;
+import org.apache.olingo.client.api.http.WrappingHttpClientFactory;
 import org.apache.olingo.client.api.serialization.ClientODataDeserializer;
 import org.apache.olingo.client.api.serialization.ODataBinder;
 import org.apache.olingo.client.api.serialization.ODataReader;
@@ -176,4 +181,16 @@ public class ODataClientImpl implements ODataClient {
   public BatchRequestFactory getBatchRequestFactory() {
     return batchReqFact;
   }
+
+  @Override
+  public void dispose() {
+    HttpClientFactory factory = configuration.getHttpClientFactory();
+    while (factory != null) {
+      if (factory instanceof Closeable) {
+        IOUtils.closeQuietly((Closeable) factory);
+      }
+      factory = factory instanceof WrappingHttpClientFactory ?
+          ((WrappingHttpClientFactory) factory).getWrappedHttpClientFactory() : null;
+    }
+  }
 }
@@ -22,13 +22,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.olingo.client.api.ODataBatchConstants;
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.request.ODataBasicRequest;
+import org.apache.olingo.client.api.communication.request.ODataFuture;
 import org.apache.olingo.client.api.communication.request.ODataStreamer;
 import org.apache.olingo.client.api.communication.request.batch.ODataBatchRequest;
 import org.apache.olingo.client.api.communication.response.ODataResponse;
@@ -64,13 +64,15 @@ public abstract class AbstractODataBasicRequest<T extends ODataResponse>
   }
 
   @Override
-  public final Future<T> asyncExecute() {
-    return odataClient.getConfiguration().getExecutor().submit(new Callable<T>() {
+  public final ODataFuture<T> asyncExecute() {
+    final ODataFutureTask<T> task = new ODataFutureTask<T>(new Callable<T>() {
       @Override
       public T call() throws Exception {
         return execute();
       }
     });
+    odataClient.getConfiguration().getExecutor().execute(task);
+    return task;
   }
 
   /**
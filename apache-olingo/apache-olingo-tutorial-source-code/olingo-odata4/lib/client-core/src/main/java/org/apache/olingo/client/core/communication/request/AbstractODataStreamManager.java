@@ -41,6 +41,12 @@ import org.apache.olingo.client.api.http.HttpClientException;
 public abstract class AbstractODataStreamManager<T extends ODataResponse> extends AbstractODataStreamer
         implements ODataPayloadManager<T> {
 
+  /**
+   * Size of the buffer between the stream the payload is written to and the stream the request body is read from;
+   * the writing and the sending thread only have to hand over control when it is full or empty.
+   */
+  private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+
   /**
    * Body input stream.
    */
@@ -76,7 +82,7 @@ public abstract class AbstractODataStreamManager<T extends ODataResponse> extend
 
     this.futureWrap = futureWrap;
     try {
-      this.body = new PipedInputStream(getBodyStreamWriter());
+      this.body = new PipedInputStream(getBodyStreamWriter(), PIPE_BUFFER_SIZE);
     } catch (IOException e) {
       throw new IllegalStateException(e);
     }
@@ -20,6 +20,10 @@ package org.apache.olingo.client.core.communication.request;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,6 +40,7 @@ import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.ODataClientErrorException;
 import org.apache.olingo.client.api.communication.header.ODataPreferences;
 import org.apache.olingo.client.api.communication.request.AsyncRequestWrapper;
+import org.apache.olingo.client.api.communication.request.ODataFuture;
 import org.apache.olingo.client.api.communication.request.ODataRequest;
 import org.apache.olingo.client.api.communication.request.cud.ODataDeleteRequest;
 import org.apache.olingo.client.api.communication.response.AsyncResponseWrapper;
@@ -51,6 +56,13 @@ public class AsyncRequestWrapperImpl<R extends ODataResponse> extends AbstractRe
 
   protected static final int MAX_RETRY = 5;
 
+  /**
+   * Maximum delay, in seconds, between two checks of the status monitor without 'Retry-After' header.
+   */
+  protected static final int MAX_MONITOR_DELAY = 60;
+
+  private static final Random JITTER = new Random();
+
   protected final ODataClient odataClient;
 
   /**
@@ -221,6 +233,59 @@ public class AsyncRequestWrapperImpl<R extends ODataResponse> extends AbstractRe
       return response;
     }
 
+    @Override
+    public ODataFuture<R> asyncGetODataResponse() {
+      final MonitorFuture future = new MonitorFuture();
+      if (response == null) {
+        scheduleMonitorCheck(future, retryAfter);
+      } else {
+        future.complete(response);
+      }
+      return future;
+    }
+
+    private void scheduleMonitorCheck(final MonitorFuture future, final int delay) {
+      // add up to a tenth of the delay so that operations started together do not check their monitors together
+      final long delayInMillis = delay * 1000L + JITTER.nextInt(delay * 100 + 1);
+      try {
+        odataClient.getConfiguration().getScheduledExecutor().schedule(new Runnable() {
+          @Override
+          public void run() {
+            pollMonitor(future, delay);
+          }
+        }, delayInMillis, TimeUnit.MILLISECONDS);
+      } catch (final RejectedExecutionException e) {
+        future.fail(e);
+      }
+    }
+
+    private void pollMonitor(final MonitorFuture future, final int lastDelay) {
+      if (future.isDone()) {
+        // cancelled
+        return;
+      }
+      try {
+        final HttpResponse res = checkMonitor(location);
+        if (res.getStatusLine().getStatusCode() == HttpStatusCode.ACCEPTED.getStatusCode()) {
+          final Header[] headers = res.getHeaders(HttpHeader.RETRY_AFTER);
+          EntityUtils.consumeQuietly(res.getEntity());
+          scheduleMonitorCheck(future, ArrayUtils.isNotEmpty(headers)
+              ? Integer.parseInt(headers[0].getValue())
+              : Math.min(Math.max(lastDelay * 2, 1), MAX_MONITOR_DELAY));
+        } else {
+          location = null;
+          response = instantiateResponse(res);
+          if (response == null) {
+            future.fail(new AsyncRequestException("Invalid async request response. Unreadable final response"));
+          } else {
+            future.complete(response);
+          }
+        }
+      } catch (final RuntimeException e) {
+        future.fail(e);
+      }
+    }
+
     @Override
     public ODataDeleteResponse delete() {
       final ODataDeleteRequest deleteRequest = odataClient.getCUDRequestFactory().getDeleteRequest(location);
@@ -285,6 +350,29 @@ public class AsyncRequestWrapperImpl<R extends ODataResponse> extends AbstractRe
     }
   }
 
+  /**
+   * Future completed by the checks of the status monitor instead of being run.
+   */
+  private class MonitorFuture extends ODataFutureTask<R> {
+
+    MonitorFuture() {
+      super(new Callable<R>() {
+        @Override
+        public R call() {
+          throw new IllegalStateException("The response is provided by the status monitor");
+        }
+      });
+    }
+
+    void complete(final R result) {
+      set(result);
+    }
+
+    void fail(final Throwable cause) {
+      setException(cause);
+    }
+  }
+
   protected final HttpResponse checkMonitor(final URI location) {
     if (location == null) {
       throw new AsyncRequestException("Invalid async request response. Missing monitor URL");
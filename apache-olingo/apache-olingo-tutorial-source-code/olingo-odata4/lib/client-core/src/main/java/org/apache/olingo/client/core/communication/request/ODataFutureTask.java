@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.apache.olingo.client.api.communication.request.ODataCallback;
+import org.apache.olingo.client.api.communication.request.ODataFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Future task notifying its callbacks on completion.
+ *
+ * @param <T> result type.
+ */
+public class ODataFutureTask<T> extends FutureTask<T> implements ODataFuture<T> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ODataFutureTask.class);
+
+  /**
+   * Callbacks to be notified on completion; <tt>null</tt> once they have been notified.
+   */
+  private List<ODataCallback<? super T>> callbacks = new ArrayList<ODataCallback<? super T>>();
+
+  public ODataFutureTask(final Callable<T> callable) {
+    super(callable);
+  }
+
+  @Override
+  public ODataFuture<T> addCallback(final ODataCallback<? super T> callback) {
+    synchronized (this) {
+      if (callbacks != null) {
+        callbacks.add(callback);
+        return this;
+      }
+    }
+    notifyCallback(callback);
+    return this;
+  }
+
+  @Override
+  protected void done() {
+    final List<ODataCallback<? super T>> toBeNotified;
+    synchronized (this) {
+      toBeNotified = callbacks;
+      callbacks = null;
+    }
+    for (ODataCallback<? super T> callback : toBeNotified) {
+      notifyCallback(callback);
+    }
+  }
+
+  private void notifyCallback(final ODataCallback<? super T> callback) {
+    final T result;
+    try {
+      result = get();
+    } catch (final InterruptedException e) {
+      // cannot happen since the task is done
+      Thread.currentThread().interrupt();
+      return;
+    } catch (final ExecutionException e) {
+      notifyFailure(callback, e.getCause());
+      return;
+    } catch (final CancellationException e) {
+      notifyFailure(callback, e);
+      return;
+    }
+    try {
+      callback.onSuccess(result);
+    } catch (final RuntimeException e) {
+      LOG.error("Error in callback", e);
+    }
+  }
+
+  private void notifyFailure(final ODataCallback<? super T> callback, final Throwable cause) {
+    try {
+      callback.onFailure(cause);
+    } catch (final RuntimeException e) {
+      LOG.error("Error in callback", e);
+    }
+  }
+}
@@ -19,6 +19,8 @@
 package org.apache.olingo.client.core.edm;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -157,7 +159,7 @@ public class ClientCsdlEdmProvider extends CsdlAbstractEdmProvider {
   @Override
   public CsdlEntityContainerInfo getEntityContainerInfo(final FullQualifiedName entityContainerName)
           throws ODataException {
-    for (CsdlSchema schema : xmlSchemas.values()) {
+    for (CsdlSchema schema : getContainerCandidates()) {
       if (schema.getEntityContainer() != null) {
         return new CsdlEntityContainerInfo().setContainerName(entityContainerName).setExtendsContainer(
             schema.getEntityContainer().getExtendsContainerFQN());
@@ -168,6 +170,9 @@ public class ClientCsdlEdmProvider extends CsdlAbstractEdmProvider {
 
   @Override
   public List<CsdlAliasInfo> getAliasInfos() throws ODataException {
+    if (xmlSchemas instanceof LazySchemaMap) {
+      return ((LazySchemaMap) xmlSchemas).getAliasInfos();
+    }
     ArrayList<CsdlAliasInfo> aliasInfo = new ArrayList<CsdlAliasInfo>();
     for (CsdlSchema schema : xmlSchemas.values()) {
       if (schema.getAlias() != null) {
@@ -184,7 +189,7 @@ public class ClientCsdlEdmProvider extends CsdlAbstractEdmProvider {
 
   @Override
   public CsdlEntityContainer getEntityContainer() throws ODataException {
-    for (CsdlSchema schema : xmlSchemas.values()) {
+    for (CsdlSchema schema : getContainerCandidates()) {
       if (schema.getEntityContainer() != null) {
         return schema.getEntityContainer();
       }
@@ -192,6 +197,17 @@ public class ClientCsdlEdmProvider extends CsdlAbstractEdmProvider {
     return null;
   }
 
+  /**
+   * Gets the schemas that may hold the entity container; for lazily read schemas only the one known to hold it.
+   */
+  private Collection<CsdlSchema> getContainerCandidates() {
+    if (xmlSchemas instanceof LazySchemaMap) {
+      final CsdlSchema schema = ((LazySchemaMap) xmlSchemas).getContainerSchema();
+      return schema == null ? Collections.<CsdlSchema> emptyList() : Collections.singletonList(schema);
+    }
+    return xmlSchemas.values();
+  }
+
   @Override
   public CsdlAnnotations getAnnotationsGroup(FullQualifiedName targetName) throws ODataException {
     CsdlSchema schema = xmlSchemas.get(targetName.getNamespace());
@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.edm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.client.api.edm.MetadataCache;
+import org.apache.olingo.client.core.edm.LazySchemaMap.SchemaEntry;
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Metadata cache storing the metadata of each service in the given directory: a small binary index file with the
+ * ETag and the namespaces and aliases of the schemas, and one file per serialized schema.
+ * Cached schemas are read only when they are accessed.
+ * <br/>
+ * The cache can be shared between clients and between runs of an application; failures to write to the cache are
+ * logged and do not affect the requests.
+ * <br/>
+ * Schema files are never overwritten, because other clients may still read them lazily.
+ * Whenever metadata are written, schema files that no index refers to anymore are deleted
+ * once they have not been modified for a day; clients still using them retrieve the metadata again.
+ */
+public class FileMetadataCache implements MetadataCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FileMetadataCache.class);
+
+  private static final int FORMAT_VERSION = 1;
+
+  private static final String INDEX_SUFFIX = ".index";
+
+  private static final String SCHEMA_SUFFIX = ".schema";
+
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+
+  /** Minimal age in milliseconds of files no index refers to before they are deleted */
+  private static final long UNREFERENCED_FILE_AGE = 24L * 60 * 60 * 1000;
+
+  private final File directory;
+
+  /**
+   * Constructor.
+   *
+   * @param directory directory for the cache files; it is created if it does not exist
+   */
+  public FileMetadataCache(final File directory) {
+    this.directory = directory;
+  }
+
+  @Override
+  public synchronized String getETag(final String serviceRoot) {
+    final Index index = readIndex(serviceRoot);
+    return index == null ? null : index.metadataETag;
+  }
+
+  @Override
+  public synchronized Map<String, CsdlSchema> getSchemas(final String serviceRoot, final String metadataETag) {
+    final Index index = readIndex(serviceRoot);
+    return index == null || !index.metadataETag.equals(metadataETag) ? null
+        : new LazySchemaMap(index.entries, new Runnable() {
+          @Override
+          public void run() {
+            invalidate(serviceRoot, metadataETag);
+          }
+        });
+  }
+
+  /**
+   * Removes the index of the given service if it still refers to the metadata with the given ETag,
+   * so that these metadata are not used anymore.
+   */
+  private synchronized void invalidate(final String serviceRoot, final String metadataETag) {
+    final Index index = readIndex(serviceRoot);
+    if (index != null && index.metadataETag.equals(metadataETag)
+        && !new File(directory, getPrefix(serviceRoot) + INDEX_SUFFIX).delete()) {
+      LOG.warn("Could not invalidate the cached metadata of {}", serviceRoot);
+    }
+  }
+
+  @Override
+  public synchronized void putSchemas(final String serviceRoot, final String metadataETag,
+      final Map<String, CsdlSchema> schemas) {
+
+    try {
+      writeSchemas(serviceRoot, metadataETag, schemas);
+    } catch (final IOException e) {
+      LOG.warn("Could not cache the metadata of {}", serviceRoot, e);
+    }
+    deleteUnreferencedFiles();
+  }
+
+  /**
+   * Deletes the schema files and temporary files no index refers to and that have not been modified
+   * for {@link #UNREFERENCED_FILE_AGE}; younger files may belong to an index that is just being written.
+   * Nothing is deleted if the references of an index cannot be determined.
+   */
+  private void deleteUnreferencedFiles() {
+    final File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    final Set<String> referencedFileNames = new HashSet<String>();
+    for (File file : files) {
+      if (file.getName().endsWith(INDEX_SUFFIX) && !readFileNames(file, referencedFileNames)) {
+        return;
+      }
+    }
+    final long limit = System.currentTimeMillis() - UNREFERENCED_FILE_AGE;
+    for (File file : files) {
+      final String name = file.getName();
+      if ((name.endsWith(SCHEMA_SUFFIX) || name.endsWith(TEMPORARY_SUFFIX))
+          && !referencedFileNames.contains(name) && file.lastModified() < limit && !file.delete()) {
+        LOG.debug("Could not delete unreferenced cache file {}", file);
+      }
+    }
+  }
+
+  /**
+   * Adds the names of the schema files the given index refers to to the given set.
+   *
+   * @return <tt>false</tt> if the index could not be read
+   */
+  private boolean readFileNames(final File indexFile, final Set<String> fileNames) {
+    DataInputStream input = null;
+    try {
+      input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+      if (input.readInt() != FORMAT_VERSION) {
+        return false;
+      }
+      input.readUTF();
+      input.readUTF();
+      final int count = input.readInt();
+      for (int i = 0; i < count; i++) {
+        input.readUTF();
+        input.readUTF();
+        if (input.readBoolean()) {
+          input.readUTF();
+        }
+        input.readBoolean();
+        fileNames.add(input.readUTF());
+      }
+      return true;
+    } catch (final FileNotFoundException e) {
+      // the index has been removed in the meantime, so it does not refer to any file anymore
+      return true;
+    } catch (final IOException e) {
+      LOG.debug("Could not read cache index {}", indexFile, e);
+      return false;
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+  }
+
+  /**
+   * Gets the prefix of the names of the files of the given service: the hexadecimal SHA-1 hash of the service root.
+   */
+  private String getPrefix(final String serviceRoot) {
+    try {
+      final byte[] hash = MessageDigest.getInstance("SHA-1").digest(serviceRoot.getBytes(Constants.UTF8));
+      final StringBuilder prefix = new StringBuilder(hash.length * 2);
+      for (byte b : hash) {
+        prefix.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return prefix.toString();
+    } catch (final NoSuchAlgorithmException e) {
+      // every Java platform supports SHA-1 and UTF-8
+      throw new IllegalStateException(e);
+    } catch (final UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Index readIndex(final String serviceRoot) {
+    final File file = new File(directory, getPrefix(serviceRoot) + INDEX_SUFFIX);
+    if (!file.isFile()) {
+      return null;
+    }
+    DataInputStream input = null;
+    try {
+      input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      // the index could also be one of an older format or of another service with the same prefix
+      if (input.readInt() != FORMAT_VERSION || !serviceRoot.equals(input.readUTF())) {
+        return null;
+      }
+      final String metadataETag = input.readUTF();
+      final Map<String, SchemaEntry> entries = new LinkedHashMap<String, SchemaEntry>();
+      final Map<String, SchemaEntry> entriesByFile = new LinkedHashMap<String, SchemaEntry>();
+      final int count = input.readInt();
+      for (int i = 0; i < count; i++) {
+        final String key = input.readUTF();
+        final String namespace = input.readUTF();
+        final String alias = input.readBoolean() ? input.readUTF() : null;
+        final boolean entityContainer = input.readBoolean();
+        final String fileName = input.readUTF();
+        SchemaEntry entry = entriesByFile.get(fileName);
+        if (entry == null) {
+          final File schemaFile = new File(directory, fileName);
+          if (!schemaFile.isFile()) {
+            return null;
+          }
+          entry = new SchemaEntry(namespace, alias, entityContainer, schemaFile);
+          entriesByFile.put(fileName, entry);
+        }
+        entries.put(key, entry);
+      }
+      return new Index(metadataETag, entries);
+    } catch (final IOException e) {
+      LOG.warn("Could not read the cached metadata of {}", serviceRoot, e);
+      return null;
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+  }
+
+  private void writeSchemas(final String serviceRoot, final String metadataETag,
+      final Map<String, CsdlSchema> schemas) throws IOException {
+
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Could not create directory " + directory);
+    }
+
+    // a schema is listed under its namespace and its alias but written only once;
+    // each file gets a new unique name so that files other clients may still read are never overwritten
+    final String prefix = getPrefix(serviceRoot);
+    final Map<CsdlSchema, String> fileNames = new IdentityHashMap<CsdlSchema, String>();
+    for (CsdlSchema schema : schemas.values()) {
+      if (!fileNames.containsKey(schema)) {
+        final File file = File.createTempFile(prefix + '-', SCHEMA_SUFFIX, directory);
+        writeSchema(file, schema);
+        fileNames.put(schema, file.getName());
+      }
+    }
+
+    final File temporaryFile = File.createTempFile(prefix, TEMPORARY_SUFFIX, directory);
+    DataOutputStream output = null;
+    boolean written = false;
+    try {
+      output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+      output.writeInt(FORMAT_VERSION);
+      output.writeUTF(serviceRoot);
+      output.writeUTF(metadataETag);
+      output.writeInt(schemas.size());
+      for (Map.Entry<String, CsdlSchema> entry : schemas.entrySet()) {
+        final CsdlSchema schema = entry.getValue();
+        output.writeUTF(entry.getKey());
+        output.writeUTF(schema.getNamespace());
+        output.writeBoolean(schema.getAlias() != null);
+        if (schema.getAlias() != null) {
+          output.writeUTF(schema.getAlias());
+        }
+        output.writeBoolean(schema.getEntityContainer() != null);
+        output.writeUTF(fileNames.get(schema));
+      }
+      output.close();
+      output = null;
+
+      final File indexFile = new File(directory, prefix + INDEX_SUFFIX);
+      written = temporaryFile.renameTo(indexFile) || (indexFile.delete() && temporaryFile.renameTo(indexFile));
+      if (!written) {
+        throw new IOException("Could not write " + indexFile);
+      }
+    } finally {
+      IOUtils.closeQuietly(output);
+      if (!written && !temporaryFile.delete()) {
+        LOG.debug("Could not delete temporary cache file {}", temporaryFile);
+      }
+    }
+  }
+
+  private void writeSchema(final File file, final CsdlSchema schema) throws IOException {
+    ObjectOutputStream output = null;
+    try {
+      output = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+      output.writeObject(schema);
+    } finally {
+      IOUtils.closeQuietly(output);
+    }
+  }
+
+  private static final class Index {
+
+    private final String metadataETag;
+
+    private final Map<String, SchemaEntry> entries;
+
+    private Index(final String metadataETag, final Map<String, SchemaEntry> entries) {
+      this.metadataETag = metadataETag;
+      this.entries = entries;
+    }
+  }
+}
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.edm;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.geo.Geospatial;
+import org.apache.olingo.commons.api.edm.geo.SRID;
+import org.apache.olingo.commons.api.edm.provider.CsdlAliasInfo;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+
+/**
+ * Read-only map of schemas, keyed by namespace and alias, that reads each schema from its file on first access.
+ * Namespace, alias, and whether a schema holds the entity container are known without reading the schema.
+ * <br/>
+ * If a schema file cannot be read anymore, the cached metadata are invalidated and, if a fallback has been set,
+ * all further accesses are served from the schemas it retrieves.
+ */
+public final class LazySchemaMap extends AbstractMap<String, CsdlSchema> {
+
+  /**
+   * Description of a schema stored in a file.
+   */
+  static final class SchemaEntry {
+
+    private final String namespace;
+
+    private final String alias;
+
+    private final boolean entityContainer;
+
+    private final File file;
+
+    SchemaEntry(final String namespace, final String alias, final boolean entityContainer, final File file) {
+      this.namespace = namespace;
+      this.alias = alias;
+      this.entityContainer = entityContainer;
+      this.file = file;
+    }
+  }
+
+  private final Map<String, SchemaEntry> entries;
+
+  private final Runnable invalidation;
+
+  private final Map<File, CsdlSchema> schemas = new HashMap<File, CsdlSchema>();
+
+  private Callable<Map<String, CsdlSchema>> fallback;
+
+  private volatile Map<String, CsdlSchema> reloaded;
+
+  LazySchemaMap(final Map<String, SchemaEntry> entries, final Runnable invalidation) {
+    this.entries = entries;
+    this.invalidation = invalidation;
+  }
+
+  /**
+   * Sets the source of the schemas to be used if the cached schemas cannot be read anymore.
+   *
+   * @param fallback retrieves the current schemas, keyed by namespace and alias
+   */
+  public void setFallback(final Callable<Map<String, CsdlSchema>> fallback) {
+    this.fallback = fallback;
+  }
+
+  @Override
+  public CsdlSchema get(final Object key) {
+    if (reloaded == null) {
+      final SchemaEntry entry = entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      final CsdlSchema schema = read(entry);
+      if (schema != null) {
+        return schema;
+      }
+    }
+    return reloaded.get(key);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return reloaded == null ? entries.containsKey(key) : reloaded.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return reloaded == null ? entries.size() : reloaded.size();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return Collections.unmodifiableSet(reloaded == null ? entries.keySet() : reloaded.keySet());
+  }
+
+  @Override
+  public Set<Map.Entry<String, CsdlSchema>> entrySet() {
+    if (reloaded == null) {
+      final Map<String, CsdlSchema> all = new LinkedHashMap<String, CsdlSchema>();
+      for (Map.Entry<String, SchemaEntry> entry : entries.entrySet()) {
+        final CsdlSchema schema = read(entry.getValue());
+        if (schema == null) {
+          break;
+        }
+        all.put(entry.getKey(), schema);
+      }
+      if (reloaded == null) {
+        return Collections.unmodifiableMap(all).entrySet();
+      }
+    }
+    return Collections.unmodifiableMap(reloaded).entrySet();
+  }
+
+  List<CsdlAliasInfo> getAliasInfos() {
+    final List<CsdlAliasInfo> aliasInfos = new ArrayList<CsdlAliasInfo>();
+    if (reloaded == null) {
+      for (Map.Entry<String, SchemaEntry> entry : entries.entrySet()) {
+        // each schema is listed under its namespace and, if given, under its alias
+        if (entry.getKey().equals(entry.getValue().namespace) && entry.getValue().alias != null) {
+          aliasInfos.add(new CsdlAliasInfo().setNamespace(entry.getValue().namespace)
+              .setAlias(entry.getValue().alias));
+        }
+      }
+    } else {
+      for (Map.Entry<String, CsdlSchema> entry : reloaded.entrySet()) {
+        if (entry.getKey().equals(entry.getValue().getNamespace()) && entry.getValue().getAlias() != null) {
+          aliasInfos.add(new CsdlAliasInfo().setNamespace(entry.getValue().getNamespace())
+              .setAlias(entry.getValue().getAlias()));
+        }
+      }
+    }
+    return aliasInfos;
+  }
+
+  CsdlSchema getContainerSchema() {
+    if (reloaded == null) {
+      for (SchemaEntry entry : entries.values()) {
+        if (entry.entityContainer) {
+          final CsdlSchema schema = read(entry);
+          if (schema != null) {
+            return schema;
+          }
+          break;
+        }
+      }
+    }
+    if (reloaded != null) {
+      for (CsdlSchema schema : reloaded.values()) {
+        if (schema.getEntityContainer() != null) {
+          return schema;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reads the schema of the given entry.
+   *
+   * @return the schema or <tt>null</tt> if it could not be read and the schemas have been reloaded instead
+   */
+  private CsdlSchema read(final SchemaEntry entry) {
+    synchronized (schemas) {
+      if (reloaded != null) {
+        return null;
+      }
+      CsdlSchema schema = schemas.get(entry.file);
+      if (schema == null) {
+        try {
+          schema = readSchema(entry.file);
+        } catch (final IOException e) {
+          reload(entry.file, e);
+          return null;
+        } catch (final ClassNotFoundException e) {
+          reload(entry.file, e);
+          return null;
+        }
+        schemas.put(entry.file, schema);
+      }
+      return schema;
+    }
+  }
+
+  private void reload(final File file, final Exception cause) {
+    invalidation.run();
+    if (fallback == null) {
+      throw new IllegalStateException("Could not read cached schema from " + file, cause);
+    }
+    Map<String, CsdlSchema> current;
+    try {
+      current = fallback.call();
+    } catch (final Exception e) {
+      throw new IllegalStateException("Could not retrieve the metadata again after failing to read " + file, e);
+    }
+    if (current == null) {
+      throw new IllegalStateException("Could not retrieve the metadata again after failing to read " + file, cause);
+    }
+    reloaded = current;
+    schemas.clear();
+  }
+
+  private static CsdlSchema readSchema(final File file) throws IOException, ClassNotFoundException {
+    ObjectInputStream input = null;
+    try {
+      input = new SchemaInputStream(new BufferedInputStream(new FileInputStream(file)));
+      final Object schema = input.readObject();
+      if (!(schema instanceof CsdlSchema)) {
+        throw new InvalidClassException(schema == null ? null : schema.getClass().getName(), "Not a schema");
+      }
+      return (CsdlSchema) schema;
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+  }
+
+  /**
+   * Object input stream that only accepts the classes serialized schemas consist of,
+   * so that a manipulated cache file cannot instantiate arbitrary serializable classes.
+   */
+  private static final class SchemaInputStream extends ObjectInputStream {
+
+    private static final String[] ALLOWED_PACKAGES = {
+        CsdlSchema.class.getPackage().getName() + '.',
+        // the schemas read by the client are instances of its subclasses of the CSDL classes
+        "org.apache.olingo.client.core.edm.xml." };
+
+    private static final Set<String> ALLOWED_CLASSES = new HashSet<String>(Arrays.asList(
+        Boolean.class.getName(), Integer.class.getName(), Number.class.getName(), Enum.class.getName(),
+        ArrayList.class.getName(), HashMap.class.getName(), LinkedHashMap.class.getName(),
+        FullQualifiedName.class.getName(), SRID.class.getName(), Geospatial.Dimension.class.getName()));
+
+    private SchemaInputStream(final InputStream input) throws IOException {
+      super(input);
+    }
+
+    @Override
+    protected Class<?> resolveClass(final ObjectStreamClass description) throws IOException, ClassNotFoundException {
+      final String name = description.getName();
+      if (!ALLOWED_CLASSES.contains(name) && !isInAllowedPackage(name)) {
+        throw new InvalidClassException(name, "Class not allowed in a cached schema");
+      }
+      return super.resolveClass(description);
+    }
+
+    private static boolean isInAllowedPackage(final String name) {
+      for (String allowedPackage : ALLOWED_PACKAGES) {
+        if (name.startsWith(allowedPackage)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
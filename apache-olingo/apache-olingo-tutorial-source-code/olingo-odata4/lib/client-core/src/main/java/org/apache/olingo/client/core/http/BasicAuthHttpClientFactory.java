@@ -35,6 +35,16 @@ public class BasicAuthHttpClientFactory extends DefaultHttpClientFactory {
   private final String password;
 
   public BasicAuthHttpClientFactory(final String username, final String password) {
+    this(username, password, null);
+  }
+
+  /**
+   * Creates a factory whose HttpClients share the connections of the given pool.
+   * @see DefaultHttpClientFactory#DefaultHttpClientFactory(HttpConnectionPool)
+   */
+  public BasicAuthHttpClientFactory(final String username, final String password,
+          final HttpConnectionPool connectionPool) {
+    super(connectionPool);
     this.username = username;
     this.password = password;
   }
@@ -27,12 +27,40 @@ import org.apache.olingo.commons.api.http.HttpMethod;
 
 /**
  * Default implementation returning HttpClients with default parameters.
+ * <br/>
+ * By default each HttpClient opens its own connections, which are closed by {@link #close(HttpClient)};
+ * if a {@link HttpConnectionPool} is given, the HttpClients share its connections instead.
  */
 public class DefaultHttpClientFactory extends AbstractHttpClientFactory {
 
+  private final HttpConnectionPool connectionPool;
+
+  public DefaultHttpClientFactory() {
+    this(null);
+  }
+
+  /**
+   * Creates a factory whose HttpClients share the connections of the given pool.
+   * @param connectionPool the connection pool, or <code>null</code> for HttpClients with their own connections
+   */
+  public DefaultHttpClientFactory(final HttpConnectionPool connectionPool) {
+    this.connectionPool = connectionPool;
+  }
+
+  /** Gets the connection pool; <code>null</code> if the HttpClients do not share connections. */
+  public HttpConnectionPool getConnectionPool() {
+    return connectionPool;
+  }
+
   @Override
   public DefaultHttpClient create(final HttpMethod method, final URI uri) {
-    final DefaultHttpClient client = new DefaultHttpClient();
+    final DefaultHttpClient client;
+    if (connectionPool == null) {
+      client = new DefaultHttpClient();
+    } else {
+      client = new DefaultHttpClient(connectionPool.newConnectionManager());
+      client.setKeepAliveStrategy(connectionPool.getKeepAliveStrategy());
+    }
     client.getParams().setParameter(CoreProtocolPNames.USER_AGENT, USER_AGENT);
     return client;
   }
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.http;
+
+import java.io.Closeable;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Pool of HTTP connections shared by the HttpClients of a {@link DefaultHttpClientFactory}, so that connections
+ * are kept alive and reused across requests instead of being opened (and handshaken) for each request.
+ * <br/>
+ * Each HttpClient gets its own view of the pool; closing the HttpClient via
+ * {@link DefaultHttpClientFactory#close(org.apache.http.client.HttpClient)} returns its connections to the pool
+ * (or closes them if their response has not been consumed completely). Idle connections are evicted
+ * in the background. The pool must be closed when it is not needed any more.
+ */
+public class HttpConnectionPool implements Closeable {
+
+  public static final int DEFAULT_MAX_TOTAL = 20;
+
+  public static final int DEFAULT_MAX_PER_ROUTE = 10;
+
+  /** Default time in milliseconds connections are kept alive if the server does not say otherwise */
+  public static final long DEFAULT_KEEP_ALIVE = 30000;
+
+  /** Default time in milliseconds after which idle connections are evicted */
+  public static final long DEFAULT_IDLE_TIMEOUT = 60000;
+
+  private static final long EVICTION_INTERVAL = 5000;
+
+  private final PoolingClientConnectionManager manager;
+
+  private final ScheduledExecutorService evictor;
+
+  private volatile long keepAlive = DEFAULT_KEEP_ALIVE;
+
+  private volatile long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+  private final ConnectionKeepAliveStrategy keepAliveStrategy = new DefaultConnectionKeepAliveStrategy() {
+    @Override
+    public long getKeepAliveDuration(final HttpResponse response, final HttpContext context) {
+      final long duration = super.getKeepAliveDuration(response, context);
+      return duration < 0 ? keepAlive : duration;
+    }
+  };
+
+  public HttpConnectionPool() {
+    this(DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE);
+  }
+
+  public HttpConnectionPool(final int maxTotal, final int maxPerRoute) {
+    manager = new PoolingClientConnectionManager(SchemeRegistryFactory.createDefault());
+    manager.setMaxTotal(maxTotal);
+    manager.setDefaultMaxPerRoute(maxPerRoute);
+
+    evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "olingo-http-connection-evictor");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    evictor.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        manager.closeExpiredConnections();
+        manager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+      }
+    }, EVICTION_INTERVAL, EVICTION_INTERVAL, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Sets the maximal number of connections to the given host.
+   * @param host the target host, e.g., <code>new HttpHost("localhost", 8080)</code>
+   * @param max maximal number of connections
+   */
+  public void setMaxPerRoute(final HttpHost host, final int max) {
+    manager.setMaxPerRoute(new HttpRoute(host), max);
+  }
+
+  /**
+   * Sets the time in milliseconds connections are kept alive if the server does not send a keep-alive timeout.
+   */
+  public void setKeepAlive(final long keepAlive) {
+    this.keepAlive = keepAlive;
+  }
+
+  /** Sets the time in milliseconds after which idle connections are closed. */
+  public void setIdleTimeout(final long idleTimeout) {
+    this.idleTimeout = idleTimeout;
+  }
+
+  /** Gets the statistics over all routes, i.e., the numbers of leased, pending, and available connections. */
+  public PoolStats getTotalStats() {
+    return manager.getTotalStats();
+  }
+
+  /** Gets the statistics of the connections to the given host. */
+  public PoolStats getStats(final HttpHost host) {
+    return manager.getStats(new HttpRoute(host));
+  }
+
+  public ConnectionKeepAliveStrategy getKeepAliveStrategy() {
+    return keepAliveStrategy;
+  }
+
+  /**
+   * Creates a connection manager for one HttpClient, which leases its connections from this pool.
+   * Shutting it down returns its connections to the pool.
+   */
+  public ClientConnectionManager newConnectionManager() {
+    return new PooledConnectionManager();
+  }
+
+  /** Closes all connections of this pool and stops the eviction of idle connections. */
+  @Override
+  public void close() {
+    evictor.shutdownNow();
+    manager.shutdown();
+  }
+
+  private class PooledConnectionManager implements ClientConnectionManager {
+
+    /** Connections leased by this manager; connections released directly to the pool may still be contained. */
+    private final Set<ManagedClientConnection> leased = new HashSet<ManagedClientConnection>();
+
+    @Override
+    public SchemeRegistry getSchemeRegistry() {
+      return manager.getSchemeRegistry();
+    }
+
+    @Override
+    public ClientConnectionRequest requestConnection(final HttpRoute route, final Object state) {
+      final ClientConnectionRequest request = manager.requestConnection(route, state);
+      return new ClientConnectionRequest() {
+        @Override
+        public ManagedClientConnection getConnection(final long timeout, final TimeUnit unit)
+            throws InterruptedException, ConnectionPoolTimeoutException {
+          final ManagedClientConnection connection = request.getConnection(timeout, unit);
+          synchronized (leased) {
+            leased.add(connection);
+          }
+          return connection;
+        }
+
+        @Override
+        public void abortRequest() {
+          request.abortRequest();
+        }
+      };
+    }
+
+    @Override
+    public void releaseConnection(final ManagedClientConnection connection, final long validDuration,
+        final TimeUnit unit) {
+      synchronized (leased) {
+        leased.remove(connection);
+      }
+      manager.releaseConnection(connection, validDuration, unit);
+    }
+
+    @Override
+    public void closeIdleConnections(final long idleTime, final TimeUnit unit) {
+      manager.closeIdleConnections(idleTime, unit);
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+      manager.closeExpiredConnections();
+    }
+
+    /**
+     * Returns the connections still leased to the pool; the pool closes those which cannot be reused.
+     * Releasing a connection a second time has no effect.
+     */
+    @Override
+    public void shutdown() {
+      final ManagedClientConnection[] connections;
+      synchronized (leased) {
+        connections = leased.toArray(new ManagedClientConnection[leased.size()]);
+        leased.clear();
+      }
+      for (final ManagedClientConnection connection : connections) {
+        manager.releaseConnection(connection, 0, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+}
@@ -49,6 +49,17 @@ public class NTLMAuthHttpClientFactory extends DefaultHttpClientFactory {
   public NTLMAuthHttpClientFactory(final String username, final String password,
           final String workstation, final String domain) {
 
+    this(username, password, workstation, domain, null);
+  }
+
+  /**
+   * Creates a factory whose HttpClients share the connections of the given pool.
+   * @see DefaultHttpClientFactory#DefaultHttpClientFactory(HttpConnectionPool)
+   */
+  public NTLMAuthHttpClientFactory(final String username, final String password,
+          final String workstation, final String domain, final HttpConnectionPool connectionPool) {
+
+    super(connectionPool);
     this.username = username;
     this.password = password;
     this.workstation = workstation;
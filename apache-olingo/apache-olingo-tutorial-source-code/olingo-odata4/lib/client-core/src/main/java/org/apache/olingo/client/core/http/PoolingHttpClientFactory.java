@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.http;
+
+import java.io.Closeable;
+
+/**
+ * Implementation returning HttpClients which share the keep-alive connections of an own
+ * {@link HttpConnectionPool}, so that connections are reused across requests.
+ * <br/>
+ * To be used for all requests of an ODataClient, which closes it when it is disposed; see
+ * {@link org.apache.olingo.client.api.ODataClient#dispose()}.
+ * Other factories like {@link BasicAuthHttpClientFactory} can share connections by being given a pool as well.
+ */
+public class PoolingHttpClientFactory extends DefaultHttpClientFactory implements Closeable {
+
+  public PoolingHttpClientFactory() {
+    super(new HttpConnectionPool());
+  }
+
+  public PoolingHttpClientFactory(final int maxTotal, final int maxPerRoute) {
+    super(new HttpConnectionPool(maxTotal, maxPerRoute));
+  }
+
+  /** Closes all pooled connections. */
+  @Override
+  public void close() {
+    getConnectionPool().close();
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.client.core.serialization;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.sql.Timestamp;
@@ -37,6 +38,7 @@ import javax.xml.stream.events.XMLEvent;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.olingo.client.api.data.ResWrap;
+import org.apache.olingo.client.api.serialization.EntitySetStreamReader;
 import org.apache.olingo.client.api.serialization.ODataDeserializer;
 import org.apache.olingo.client.api.serialization.ODataDeserializerException;
 import org.apache.olingo.commons.api.Constants;
@@ -734,48 +736,18 @@ public class AtomDeserializer extends AbstractAtomDealer implements ODataDeseria
     if (!Constants.QNAME_ATOM_ELEM_FEED.equals(start.getName())) {
       return null;
     }
-    final EntityCollection entitySet = new EntityCollection();
-    final Attribute xmlBase = start.getAttributeByName(Constants.QNAME_ATTR_XML_BASE);
-    if (xmlBase != null) {
-      entitySet.setBaseURI(URI.create(xmlBase.getValue()));
-    }
+    final EntityCollection entitySet = newEntitySet(start);
 
     boolean foundEndFeed = false;
     while (reader.hasNext() && !foundEndFeed) {
       final XMLEvent event = reader.nextEvent();
       if (event.isStartElement()) {
-        if (countQName.equals(event.asStartElement().getName())) {
-          count(reader, event.asStartElement(), entitySet);
-        } else if (Constants.QNAME_ATOM_ELEM_ID.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "id");
-        } else if (Constants.QNAME_ATOM_ELEM_TITLE.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "title");
-        } else if (Constants.QNAME_ATOM_ELEM_SUMMARY.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "summary");
-        } else if (Constants.QNAME_ATOM_ELEM_UPDATED.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "updated");
-        } else if (Constants.QNAME_ATOM_ELEM_LINK.equals(event.asStartElement().getName())) {
-          final Attribute rel = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_REL));
-          if (rel != null) {
-            if (Constants.NEXT_LINK_REL.equals(rel.getValue())) {
-              final Attribute href = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
-              if (href != null) {
-                entitySet.setNext(URI.create(href.getValue()));
-              }
-            }
-            if (Constants.NS_DELTA_LINK_REL.equals(rel.getValue())) {
-              final Attribute href = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
-              if (href != null) {
-                entitySet.setDeltaLink(URI.create(href.getValue()));
-              }
-            }
-          }
-        } else if (Constants.QNAME_ATOM_ELEM_ENTRY.equals(event.asStartElement().getName())) {
+        if (Constants.QNAME_ATOM_ELEM_ENTRY.equals(event.asStartElement().getName())) {
           entitySet.getEntities().add(entity(reader, event.asStartElement()));
         } else if (entryRefQName.equals(event.asStartElement().getName())) {
           entitySet.getEntities().add(entityRef(event.asStartElement()));
-        } else if (annotationQName.equals(event.asStartElement().getName())) {
-          entitySet.getAnnotations().add(annotation(reader, event.asStartElement()));
+        } else {
+          feedElement(reader, event.asStartElement(), entitySet);
         }
       }
 
@@ -787,6 +759,49 @@ public class AtomDeserializer extends AbstractAtomDealer implements ODataDeseria
     return entitySet;
   }
 
+  private EntityCollection newEntitySet(final StartElement start) {
+    final EntityCollection entitySet = new EntityCollection();
+    final Attribute xmlBase = start.getAttributeByName(Constants.QNAME_ATTR_XML_BASE);
+    if (xmlBase != null) {
+      entitySet.setBaseURI(URI.create(xmlBase.getValue()));
+    }
+    return entitySet;
+  }
+
+  private void feedElement(final XMLEventReader reader, final StartElement element, final EntityCollection entitySet)
+      throws XMLStreamException, EdmPrimitiveTypeException {
+
+    if (countQName.equals(element.getName())) {
+      count(reader, element, entitySet);
+    } else if (Constants.QNAME_ATOM_ELEM_ID.equals(element.getName())) {
+      common(reader, element, entitySet, "id");
+    } else if (Constants.QNAME_ATOM_ELEM_TITLE.equals(element.getName())) {
+      common(reader, element, entitySet, "title");
+    } else if (Constants.QNAME_ATOM_ELEM_SUMMARY.equals(element.getName())) {
+      common(reader, element, entitySet, "summary");
+    } else if (Constants.QNAME_ATOM_ELEM_UPDATED.equals(element.getName())) {
+      common(reader, element, entitySet, "updated");
+    } else if (Constants.QNAME_ATOM_ELEM_LINK.equals(element.getName())) {
+      final Attribute rel = element.getAttributeByName(QName.valueOf(Constants.ATTR_REL));
+      if (rel != null) {
+        if (Constants.NEXT_LINK_REL.equals(rel.getValue())) {
+          final Attribute href = element.getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
+          if (href != null) {
+            entitySet.setNext(URI.create(href.getValue()));
+          }
+        }
+        if (Constants.NS_DELTA_LINK_REL.equals(rel.getValue())) {
+          final Attribute href = element.getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
+          if (href != null) {
+            entitySet.setDeltaLink(URI.create(href.getValue()));
+          }
+        }
+      }
+    } else if (annotationQName.equals(element.getName())) {
+      entitySet.getAnnotations().add(annotation(reader, element));
+    }
+  }
+
   @Override
   public ResWrap<EntityCollection> toEntitySet(final InputStream input) throws ODataDeserializerException {
     try {
@@ -800,6 +815,92 @@ public class AtomDeserializer extends AbstractAtomDealer implements ODataDeseria
     }
   }
 
+  /**
+   * Gets a reader returning the entries of the feed represented by the given InputStream one at a time.
+   */
+  public EntitySetStreamReader toEntitySetReader(final InputStream input) throws ODataDeserializerException {
+    try {
+      final XMLEventReader reader = getReader(input);
+      return new AtomEntitySetStreamReader(reader, skipBeforeFirstStartElement(reader));
+    } catch (final XMLStreamException e) {
+      throw new ODataDeserializerException(e);
+    }
+  }
+
+  /**
+   * Reads the entries of a feed directly from the event stream, one at a time.
+   */
+  private class AtomEntitySetStreamReader implements EntitySetStreamReader {
+
+    private final XMLEventReader reader;
+
+    private final StartElement start;
+
+    private final EntityCollection entitySet;
+
+    private boolean foundEndFeed;
+
+    public AtomEntitySetStreamReader(final XMLEventReader reader, final StartElement start) {
+      this.reader = reader;
+      this.start = start;
+      entitySet = newEntitySet(start);
+      foundEndFeed = !Constants.QNAME_ATOM_ELEM_FEED.equals(start.getName());
+    }
+
+    @Override
+    public ResWrap<Entity> next() throws ODataDeserializerException {
+      try {
+        while (reader.hasNext() && !foundEndFeed) {
+          final XMLEvent event = reader.nextEvent();
+          if (event.isStartElement()) {
+            Entity entity = null;
+            if (Constants.QNAME_ATOM_ELEM_ENTRY.equals(event.asStartElement().getName())) {
+              entity = entity(reader, event.asStartElement());
+            } else if (entryRefQName.equals(event.asStartElement().getName())) {
+              entity = entityRef(event.asStartElement());
+            } else {
+              feedElement(reader, event.asStartElement(), entitySet);
+            }
+            if (entity != null) {
+              // entries inherit the base URI of their feed
+              if (entity.getBaseURI() == null) {
+                entity.setBaseURI(entitySet.getBaseURI());
+              }
+              return getContainer(start, entity);
+            }
+          }
+
+          if (event.isEndElement() && start.getName().equals(event.asEndElement().getName())) {
+            foundEndFeed = true;
+          }
+        }
+      } catch (final XMLStreamException e) {
+        throw new ODataDeserializerException(e);
+      } catch (final EdmPrimitiveTypeException e) {
+        throw new ODataDeserializerException(e);
+      }
+      foundEndFeed = true;
+      return null;
+    }
+
+    @Override
+    public ResWrap<EntityCollection> getEntitySet() {
+      if (!foundEndFeed) {
+        throw new IllegalStateException("The entity set must be read completely in order to retrieve its fields");
+      }
+      return getContainer(start, entitySet);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        reader.close();
+      } catch (final XMLStreamException e) {
+        throw new IOException(e);
+      }
+    }
+  }
+
   private ODataError error(final XMLEventReader reader, final StartElement start) throws XMLStreamException {
     final ODataError error = new ODataError();
 
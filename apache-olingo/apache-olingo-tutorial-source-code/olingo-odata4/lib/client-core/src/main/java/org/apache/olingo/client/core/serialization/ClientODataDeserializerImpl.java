@@ -27,6 +27,7 @@ import org.apache.olingo.client.api.data.ResWrap;
 import org.apache.olingo.client.api.data.ServiceDocument;
 import org.apache.olingo.client.api.edm.xml.XMLMetadata;
 import org.apache.olingo.client.api.serialization.ClientODataDeserializer;
+import org.apache.olingo.client.api.serialization.EntitySetStreamReader;
 import org.apache.olingo.client.api.serialization.ODataDeserializer;
 import org.apache.olingo.client.api.serialization.ODataDeserializerException;
 import org.apache.olingo.client.core.data.JSONServiceDocumentDeserializer;
@@ -54,6 +55,8 @@ import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 
 public class ClientODataDeserializerImpl implements ClientODataDeserializer {
 
+  private static final XmlMapper XML_MAPPER = newXmlMapper();
+
   private final ODataDeserializer deserializer;
   private final ContentType contentType;
 
@@ -73,6 +76,13 @@ public class ClientODataDeserializerImpl implements ClientODataDeserializer {
     return deserializer.toEntitySet(input);
   }
 
+  @Override
+  public EntitySetStreamReader toEntitySetReader(final InputStream input) throws ODataDeserializerException {
+    return deserializer instanceof AtomDeserializer ?
+        ((AtomDeserializer) deserializer).toEntitySetReader(input) :
+        ((JsonDeserializer) deserializer).toEntitySetReader(input);
+  }
+
   @Override
   public ResWrap<Entity> toEntity(final InputStream input) throws ODataDeserializerException {
     return deserializer.toEntity(input);
@@ -89,6 +99,13 @@ public class ClientODataDeserializerImpl implements ClientODataDeserializer {
   }
 
   protected XmlMapper getXmlMapper() {
+    return XML_MAPPER;
+  }
+
+  /**
+   * Creates the mapper for metadata documents; it is shared since creating it and its deserializers is expensive.
+   */
+  private static XmlMapper newXmlMapper() {
     final XmlMapper xmlMapper = new XmlMapper(
         new XmlFactory(new InputFactoryImpl(), new OutputFactoryImpl()), new JacksonXmlModule());
 
@@ -32,6 +32,7 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.olingo.client.api.data.ResWrap;
+import org.apache.olingo.client.api.serialization.EntitySetStreamReader;
 import org.apache.olingo.client.api.serialization.ODataDeserializer;
 import org.apache.olingo.client.api.serialization.ODataDeserializerException;
 import org.apache.olingo.commons.api.Constants;
@@ -389,6 +390,13 @@ public class JsonDeserializer implements ODataDeserializer {
     }
   }
 
+  /**
+   * Gets a reader returning the entities of the entity set represented by the given InputStream one at a time.
+   */
+  public EntitySetStreamReader toEntitySetReader(final InputStream input) throws ODataDeserializerException {
+    return new JsonEntitySetStreamReader(serverMode, input);
+  }
+
   @Override
   public ResWrap<Entity> toEntity(final InputStream input) throws ODataDeserializerException {
     try {
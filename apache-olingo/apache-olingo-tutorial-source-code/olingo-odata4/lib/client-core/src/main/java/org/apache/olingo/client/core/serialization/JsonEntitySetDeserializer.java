@@ -31,6 +31,7 @@ import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -53,6 +54,15 @@ public class JsonEntitySetDeserializer extends JsonDeserializer {
       return null;
     }
 
+    return doDeserialize(tree, parser.getCodec());
+  }
+
+  /**
+   * Reads the given tree into an entity set; the tree's fields are removed while they are read.
+   */
+  protected ResWrap<EntityCollection> doDeserialize(final ObjectNode tree, final ObjectCodec codec)
+      throws IOException {
+
     final EntityCollection entitySet = new EntityCollection();
 
     URI contextURL;
@@ -94,7 +104,7 @@ public class JsonEntitySetDeserializer extends JsonDeserializer {
       final JsonEntityDeserializer entityDeserializer = new JsonEntityDeserializer(serverMode);
       for (JsonNode jsonNode : tree.get(Constants.VALUE)) {
         entitySet.getEntities().add(
-            entityDeserializer.doDeserialize(jsonNode.traverse(parser.getCodec())).getPayload());
+            entityDeserializer.doDeserialize(jsonNode.traverse(codec)).getPayload());
       }
       tree.remove(Constants.VALUE);
     }
@@ -107,7 +117,7 @@ public class JsonEntitySetDeserializer extends JsonDeserializer {
         annotation.setTerm(field.getKey().substring(1));
 
         try {
-          value(annotation, field.getValue(), parser.getCodec());
+          value(annotation, field.getValue(), codec);
         } catch (final EdmPrimitiveTypeException e) {
           throw new IOException(e);
         }
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.olingo.client.api.data.ResWrap;
+import org.apache.olingo.client.api.serialization.EntitySetStreamReader;
+import org.apache.olingo.client.api.serialization.ODataDeserializerException;
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Reads a JSON entity set one entity at a time.
+ * <br/>
+ * The entities of the <tt>value</tt> array are deserialized directly from the token stream; all other fields are
+ * collected and read into the entity set once the end of the stream has been reached.
+ */
+public class JsonEntitySetStreamReader implements EntitySetStreamReader {
+
+  private final boolean serverMode;
+
+  private final JsonParser parser;
+
+  private final JsonEntityDeserializer entityDeserializer;
+
+  private final ObjectNode fields = JsonNodeFactory.instance.objectNode();
+
+  private boolean inValue = false;
+
+  private ResWrap<EntityCollection> entitySet;
+
+  public JsonEntitySetStreamReader(final boolean serverMode, final InputStream input)
+      throws ODataDeserializerException {
+
+    this.serverMode = serverMode;
+    entityDeserializer = new JsonEntityDeserializer(serverMode);
+    try {
+      parser = new JsonFactory(new ObjectMapper()).createParser(input);
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new ODataDeserializerException("Expected OData EntitySet, found no JSON object");
+      }
+    } catch (final IOException e) {
+      throw new ODataDeserializerException(e);
+    }
+  }
+
+  @Override
+  public ResWrap<Entity> next() throws ODataDeserializerException {
+    try {
+      while (entitySet == null) {
+        final JsonToken token = parser.nextToken();
+        if (inValue) {
+          if (token == JsonToken.START_OBJECT) {
+            return entityDeserializer.doDeserialize(parser);
+          } else if (token == JsonToken.END_ARRAY) {
+            inValue = false;
+          } else if (token == null) {
+            throw new ODataDeserializerException("Unexpected end of entity set");
+          } else {
+            parser.skipChildren();
+          }
+        } else if (token == JsonToken.FIELD_NAME) {
+          final String name = parser.getCurrentName();
+          if (parser.nextToken() == JsonToken.START_ARRAY && Constants.VALUE.equals(name)) {
+            inValue = true;
+          } else {
+            fields.set(name, parser.getCodec().<JsonNode> readTree(parser));
+          }
+        } else {
+          entitySet = new JsonEntitySetDeserializer(serverMode).doDeserialize(fields, parser.getCodec());
+        }
+      }
+    } catch (final IOException e) {
+      throw new ODataDeserializerException(e);
+    }
+    return null;
+  }
+
+  @Override
+  public ResWrap<EntityCollection> getEntitySet() {
+    if (entitySet == null) {
+      throw new IllegalStateException("The entity set must be read completely in order to retrieve its fields");
+    }
+    return entitySet;
+  }
+
+  @Override
+  public void close() throws IOException {
+    parser.close();
+  }
+}
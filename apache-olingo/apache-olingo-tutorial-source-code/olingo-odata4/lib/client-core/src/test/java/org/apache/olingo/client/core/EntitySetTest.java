@@ -19,9 +19,12 @@
 package org.apache.olingo.client.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -30,7 +33,9 @@ import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.data.ResWrap;
 import org.apache.olingo.client.api.domain.ClientEntity;
 import org.apache.olingo.client.api.domain.ClientEntitySet;
+import org.apache.olingo.client.api.domain.ClientEntitySetIterator;
 import org.apache.olingo.client.api.serialization.ODataDeserializerException;
+import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.junit.Test;
@@ -93,4 +98,49 @@ public class EntitySetTest extends AbstractTest {
   public void jsonRef() throws Exception {
     ref(ContentType.JSON);
   }
+
+  private void iterate(final ContentType contentType) throws ODataDeserializerException {
+    final ClientEntitySet entitySet = getClient().getBinder().getODataEntitySet(getClient().getDeserializer(contentType)
+        .toEntitySet(getClass().getResourceAsStream("Customers." + getSuffix(contentType))));
+
+    final ClientEntitySetIterator<ClientEntitySet, ClientEntity> iterator =
+        new ClientEntitySetIterator<ClientEntitySet, ClientEntity>(getClient(),
+            getClass().getResourceAsStream("Customers." + getSuffix(contentType)), contentType);
+    for (ClientEntity entity : entitySet.getEntities()) {
+      assertTrue(iterator.hasNext());
+      assertEquals(entity, iterator.next());
+    }
+    assertFalse(iterator.hasNext());
+    assertEquals(entitySet.getCount(), iterator.getCount());
+    assertNull(iterator.getNext());
+  }
+
+  @Test
+  public void iterateAtom() throws Exception {
+    iterate(ContentType.APPLICATION_ATOM_XML);
+  }
+
+  @Test
+  public void iterateJSON() throws Exception {
+    iterate(ContentType.JSON);
+  }
+
+  @Test
+  public void iterateJSONWithBracesInStringsAndTrailingNextLink() throws Exception {
+    final String json = "{\"@odata.context\":\"http://host/service/$metadata#ESAllPrim\","
+        + "\"value\":[{\"PropertyInt16\":1,\"PropertyString\":\"{[\\\"\"},"
+        + "{\"PropertyInt16\":2,\"PropertyString\":\"}}]\"}],"
+        + "\"@odata.count\":5,\"@odata.nextLink\":\"http://host/service/ESAllPrim?$skiptoken=2\"}";
+    final ClientEntitySetIterator<ClientEntitySet, ClientEntity> iterator =
+        new ClientEntitySetIterator<ClientEntitySet, ClientEntity>(getClient(),
+            new ByteArrayInputStream(json.getBytes(Constants.UTF8)), ContentType.JSON);
+
+    assertTrue(iterator.hasNext());
+    assertEquals("{[\"", iterator.next().getProperty("PropertyString").getPrimitiveValue().toValue());
+    assertTrue(iterator.hasNext());
+    assertEquals("}}]", iterator.next().getProperty("PropertyString").getPrimitiveValue().toValue());
+    assertFalse(iterator.hasNext());
+    assertEquals(Integer.valueOf(5), iterator.getCount());
+    assertEquals(URI.create("http://host/service/ESAllPrim?$skiptoken=2"), iterator.getNext());
+  }
 }
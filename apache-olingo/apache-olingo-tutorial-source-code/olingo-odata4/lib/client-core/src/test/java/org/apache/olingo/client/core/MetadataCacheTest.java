@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.client.api.EdmEnabledODataClient;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.edm.MetadataCache;
+import org.apache.olingo.client.core.edm.FileMetadataCache;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class MetadataCacheTest extends AbstractTest {
+
+  private static final String SERVICE_ROOT = "http://localhost/service";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Override
+  protected ODataClient getClient() {
+    return v4Client;
+  }
+
+  private Map<String, CsdlSchema> readSchemas(final String resource) {
+    return getClient().getDeserializer(ContentType.APPLICATION_XML).toMetadata(getClass().getResourceAsStream(resource))
+        .getSchemaByNsOrAlias();
+  }
+
+  @Test
+  public void fileCache() throws Exception {
+    final Map<String, CsdlSchema> schemas = new HashMap<String, CsdlSchema>(readSchemas("metadata.xml"));
+    schemas.putAll(readSchemas("Metadata-With-Capabilities.xml"));
+    new FileMetadataCache(folder.getRoot()).putSchemas(SERVICE_ROOT, "W/\"1\"", schemas);
+
+    final MetadataCache cache = new FileMetadataCache(folder.getRoot());
+    assertEquals("W/\"1\"", cache.getETag(SERVICE_ROOT));
+    assertNull(cache.getETag(SERVICE_ROOT + "/other"));
+    assertNull(cache.getSchemas(SERVICE_ROOT, "W/\"2\""));
+
+    final Map<String, CsdlSchema> cachedSchemas = cache.getSchemas(SERVICE_ROOT, "W/\"1\"");
+    assertEquals(schemas.keySet(), cachedSchemas.keySet());
+    final Edm edm = getClient().getReader().readMetadata(cachedSchemas);
+    assertNotNull(edm.getEntityContainer(new FullQualifiedName("Microsoft.Exchange.Services.OData.Model",
+        "EntityContainer")).getEntitySet("Users"));
+    assertNotNull(edm.getEntityType(new FullQualifiedName("Microsoft.Exchange.Services.OData.Model", "User")));
+    assertNotNull(edm.getTerm(new FullQualifiedName("Capabilities", "ConformanceLevel")));
+
+    // new metadata replace the cached ones, but schemas still in use remain readable
+    final Map<String, CsdlSchema> previousSchemas = cache.getSchemas(SERVICE_ROOT, "W/\"1\"");
+    cache.putSchemas(SERVICE_ROOT, "W/\"2\"", readSchemas("demo-metadata.xml"));
+    assertNull(cache.getSchemas(SERVICE_ROOT, "W/\"1\""));
+    assertNotNull(previousSchemas.get("Microsoft.Exchange.Services.OData.Model"));
+    assertNotNull(getClient().getReader().readMetadata(cache.getSchemas(SERVICE_ROOT, "W/\"2\""))
+        .getEntityContainer(new FullQualifiedName("ODataDemo", "DemoService")));
+  }
+
+  @Test
+  public void unreferencedSchemaFilesAreDeleted() throws Exception {
+    final MetadataCache cache = new FileMetadataCache(folder.getRoot());
+    cache.putSchemas(SERVICE_ROOT, "W/\"1\"", readSchemas("metadata.xml"));
+    final Set<String> firstFiles = getSchemaFileNames();
+
+    // recently written files are kept, because they could belong to an index that is just being written
+    cache.putSchemas(SERVICE_ROOT, "W/\"2\"", readSchemas("demo-metadata.xml"));
+    final Set<String> secondFiles = getSchemaFileNames();
+    assertTrue(secondFiles.containsAll(firstFiles));
+
+    final long old = System.currentTimeMillis() - 2 * 24 * 60 * 60 * 1000L;
+    for (File file : folder.getRoot().listFiles()) {
+      assertTrue(file.setLastModified(old));
+    }
+    // only the old files no index refers to anymore are deleted
+    cache.putSchemas(SERVICE_ROOT + "/other", "W/\"1\"", readSchemas("metadata.xml"));
+    final Set<String> referencedFiles = new HashSet<String>(secondFiles);
+    referencedFiles.removeAll(firstFiles);
+    final Set<String> remainingFiles = getSchemaFileNames();
+    assertTrue(remainingFiles.containsAll(referencedFiles));
+    remainingFiles.retainAll(firstFiles);
+    assertTrue(remainingFiles.isEmpty());
+    assertNotNull(getClient().getReader().readMetadata(cache.getSchemas(SERVICE_ROOT, "W/\"2\""))
+        .getEntityContainer(new FullQualifiedName("ODataDemo", "DemoService")));
+    assertNotNull(cache.getSchemas(SERVICE_ROOT + "/other", "W/\"1\"")
+        .get("Microsoft.Exchange.Services.OData.Model"));
+  }
+
+  @Test
+  public void schemaFileWithOtherClassIsRejected() throws Exception {
+    final MetadataCache cache = new FileMetadataCache(folder.getRoot());
+    cache.putSchemas(SERVICE_ROOT, "W/\"1\"", readSchemas("demo-metadata.xml"));
+    for (File file : folder.getRoot().listFiles()) {
+      if (file.getName().endsWith(".schema")) {
+        final ObjectOutputStream output = new ObjectOutputStream(new FileOutputStream(file));
+        output.writeObject(new Date());
+        output.close();
+      }
+    }
+
+    final Map<String, CsdlSchema> schemas = cache.getSchemas(SERVICE_ROOT, "W/\"1\"");
+    try {
+      schemas.get("ODataDemo");
+      fail("Expected an IllegalStateException");
+    } catch (final IllegalStateException e) {
+      assertTrue(e.getCause() instanceof InvalidClassException);
+    }
+    assertNull(cache.getETag(SERVICE_ROOT));
+  }
+
+  private Set<String> getSchemaFileNames() {
+    final Set<String> names = new HashSet<String>();
+    for (File file : folder.getRoot().listFiles()) {
+      if (file.getName().endsWith(".schema")) {
+        names.add(file.getName());
+      }
+    }
+    return names;
+  }
+
+  @Test
+  public void edmEnabledClientRevalidatesCachedMetadata() throws Exception {
+    final byte[] metadata = IOUtils.toByteArray(getClass().getResourceAsStream("metadata.xml"));
+    final AtomicInteger requests = new AtomicInteger();
+    final AtomicInteger notModified = new AtomicInteger();
+    final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        final InputStream request = exchange.getRequestBody();
+        IOUtils.toByteArray(request);
+        request.close();
+        exchange.getResponseHeaders().add("ETag", "W/\"1\"");
+        if ("W/\"1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+          notModified.incrementAndGet();
+          exchange.sendResponseHeaders(304, -1);
+        } else {
+          exchange.getResponseHeaders().add("Content-Type", "application/xml");
+          exchange.sendResponseHeaders(200, metadata.length);
+          final OutputStream body = exchange.getResponseBody();
+          body.write(metadata);
+          body.close();
+        }
+        exchange.close();
+      }
+    });
+    server.start();
+    try {
+      final String serviceRoot = "http://localhost:" + server.getAddress().getPort() + "/service";
+      final MetadataCache cache = new FileMetadataCache(folder.getRoot());
+      final FullQualifiedName user = new FullQualifiedName("Microsoft.Exchange.Services.OData.Model", "User");
+
+      EdmEnabledODataClient client = ODataClientFactory.getEdmEnabledClient(serviceRoot);
+      client.getConfiguration().setMetadataCache(cache);
+      assertNotNull(client.getCachedEdm().getEntityType(user));
+      assertEquals(1, requests.get());
+      assertEquals(0, notModified.get());
+      assertEquals("W/\"1\"", cache.getETag(serviceRoot));
+
+      client = ODataClientFactory.getEdmEnabledClient(serviceRoot);
+      client.getConfiguration().setMetadataCache(cache);
+      assertNotNull(client.getCachedEdm().getEntityType(user));
+      assertEquals(2, requests.get());
+      assertEquals(1, notModified.get());
+      assertTrue(client.getEdm("W/\"1\"") == client.getCachedEdm());
+
+      // vanished schema files are retrieved from the service again
+      client = ODataClientFactory.getEdmEnabledClient(serviceRoot);
+      client.getConfiguration().setMetadataCache(cache);
+      final Edm edm = client.getCachedEdm();
+      assertEquals(3, requests.get());
+      for (File file : folder.getRoot().listFiles()) {
+        if (file.getName().endsWith(".schema")) {
+          assertTrue(file.delete());
+        }
+      }
+      assertNotNull(edm.getEntityType(user));
+      assertEquals(4, requests.get());
+      assertEquals(2, notModified.get());
+      assertEquals("W/\"1\"", cache.getETag(serviceRoot));
+    } finally {
+      server.stop(0);
+    }
+  }
+}
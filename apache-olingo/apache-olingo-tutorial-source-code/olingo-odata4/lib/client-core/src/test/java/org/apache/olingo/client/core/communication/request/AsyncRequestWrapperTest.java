@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.request.ODataFuture;
+import org.apache.olingo.client.api.communication.request.retrieve.ODataEntityRequest;
+import org.apache.olingo.client.api.communication.response.AsyncResponseWrapper;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.client.api.domain.ClientEntity;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class AsyncRequestWrapperTest {
+
+  private static final String FINAL_RESPONSE = "HTTP/1.1 200 OK\r\n"
+      + "Content-Type: application/json\r\n"
+      + "\r\n"
+      + "{\"@odata.context\":\"$metadata#ESAllPrim/$entity\",\"PropertyInt16\":1}\r\n";
+
+  private HttpServer server;
+  private String serviceRoot;
+  private final AtomicInteger monitorChecks = new AtomicInteger();
+  private volatile int pendingChecks;
+  private volatile int finalStatus = 200;
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        final InputStream request = exchange.getRequestBody();
+        IOUtils.toByteArray(request);
+        request.close();
+        if (exchange.getRequestURI().getPath().endsWith("/monitor")
+            && monitorChecks.incrementAndGet() > pendingChecks) {
+          final byte[] body = FINAL_RESPONSE.getBytes("UTF-8");
+          exchange.sendResponseHeaders(finalStatus, body.length);
+          final OutputStream output = exchange.getResponseBody();
+          output.write(body);
+          output.close();
+        } else {
+          exchange.getResponseHeaders().add("Location", serviceRoot + "/monitor");
+          exchange.getResponseHeaders().add("Retry-After", "0");
+          exchange.sendResponseHeaders(202, -1);
+        }
+        exchange.close();
+      }
+    });
+    server.start();
+    serviceRoot = "http://localhost:" + server.getAddress().getPort() + "/service";
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  private AsyncResponseWrapper<ODataRetrieveResponse<ClientEntity>> execute() {
+    final ODataClient client = ODataClientFactory.getClient();
+    final ODataEntityRequest<ClientEntity> request =
+        client.getRetrieveRequestFactory().getEntityRequest(URI.create(serviceRoot + "/ESAllPrim(1)"));
+    return client.getAsyncRequestFactory().<ODataRetrieveResponse<ClientEntity>> getAsyncRequestWrapper(request)
+        .execute();
+  }
+
+  @Test
+  public void responseFromMonitor() throws Exception {
+    pendingChecks = 3;
+    final ODataFuture<ODataRetrieveResponse<ClientEntity>> future = execute().asyncGetODataResponse();
+    final ODataRetrieveResponse<ClientEntity> response = future.get(10, TimeUnit.SECONDS);
+    assertEquals(200, response.getStatusCode());
+    assertEquals(4, monitorChecks.get());
+  }
+
+  @Test
+  public void failureFromMonitor() throws Exception {
+    finalStatus = 500;
+    final ODataFuture<ODataRetrieveResponse<ClientEntity>> future = execute().asyncGetODataResponse();
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      fail("Expected failure from status monitor");
+    } catch (final ExecutionException e) {
+      assertTrue(e.getCause() instanceof RuntimeException);
+    }
+    assertEquals(1, monitorChecks.get());
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.client.api.communication.request.ODataCallback;
+import org.junit.Test;
+
+public class ODataFutureTaskTest {
+
+  private static class RecordingCallback implements ODataCallback<String> {
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private String result;
+    private Throwable cause;
+
+    @Override
+    public void onSuccess(final String result) {
+      this.result = result;
+      latch.countDown();
+    }
+
+    @Override
+    public void onFailure(final Throwable cause) {
+      this.cause = cause;
+      latch.countDown();
+    }
+
+    private void await() throws InterruptedException {
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void callbackOnSuccess() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    final ODataFutureTask<String> task = new ODataFutureTask<String>(new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        started.await();
+        return "result";
+      }
+    });
+    final RecordingCallback before = new RecordingCallback();
+    task.addCallback(before);
+    new Thread(task).start();
+    started.countDown();
+    before.await();
+    assertEquals("result", before.result);
+    assertNull(before.cause);
+
+    // a callback added after completion is called immediately
+    final RecordingCallback after = new RecordingCallback();
+    task.addCallback(after);
+    assertEquals(0, after.latch.getCount());
+    assertEquals("result", after.result);
+  }
+
+  @Test
+  public void callbackOnFailure() throws Exception {
+    final IllegalStateException exception = new IllegalStateException();
+    final ODataFutureTask<String> task = new ODataFutureTask<String>(new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        throw exception;
+      }
+    });
+    final RecordingCallback callback = new RecordingCallback();
+    task.addCallback(callback);
+    task.run();
+    callback.await();
+    assertNull(callback.result);
+    assertEquals(exception, callback.cause);
+  }
+
+  @Test
+  public void callbackOnCancellation() throws Exception {
+    final ODataFutureTask<String> task = new ODataFutureTask<String>(new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        return "result";
+      }
+    });
+    final RecordingCallback callback = new RecordingCallback();
+    task.addCallback(callback);
+    task.cancel(false);
+    callback.await();
+    assertTrue(callback.cause instanceof CancellationException);
+  }
+}
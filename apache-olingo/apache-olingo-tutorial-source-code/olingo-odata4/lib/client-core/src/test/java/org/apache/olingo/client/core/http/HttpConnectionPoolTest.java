@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.http;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class HttpConnectionPoolTest {
+
+  private static final byte[] BODY = new byte[100000];
+
+  private HttpServer server;
+  private URI uri;
+  private final AtomicInteger requests = new AtomicInteger();
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        exchange.sendResponseHeaders(200, BODY.length);
+        final OutputStream body = exchange.getResponseBody();
+        body.write(BODY);
+        body.close();
+      }
+    });
+    server.start();
+    uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/");
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  public void connectionIsReused() throws Exception {
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory();
+    try {
+      for (int i = 0; i < 3; i++) {
+        final HttpClient client = factory.create(HttpMethod.GET, uri);
+        final HttpResponse response = client.execute(new HttpGet(uri));
+        EntityUtils.consume(response.getEntity());
+        factory.close(client);
+
+        assertEquals(0, factory.getConnectionPool().getTotalStats().getLeased());
+        assertEquals(1, factory.getConnectionPool().getTotalStats().getAvailable());
+      }
+      assertEquals(3, requests.get());
+    } finally {
+      factory.close();
+    }
+  }
+
+  @Test
+  public void unconsumedConnectionIsClosed() throws Exception {
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory();
+    try {
+      final HttpClient client = factory.create(HttpMethod.GET, uri);
+      final HttpResponse response = client.execute(new HttpGet(uri));
+      assertEquals(1, factory.getConnectionPool().getTotalStats().getLeased());
+      response.getEntity().getContent().read();
+      factory.close(client);
+
+      assertEquals(0, factory.getConnectionPool().getTotalStats().getLeased());
+      assertEquals(0, factory.getConnectionPool().getTotalStats().getAvailable());
+    } finally {
+      factory.close();
+    }
+  }
+
+  @Test
+  public void clientDisposesFactory() throws Exception {
+    final ODataClient odataClient = ODataClientFactory.getClient();
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory();
+    odataClient.getConfiguration().setHttpClientFactory(new ProxyWrappingHttpClientFactory(uri, factory));
+    final HttpClient client = factory.create(HttpMethod.GET, uri);
+    EntityUtils.consume(client.execute(new HttpGet(uri)).getEntity());
+    factory.close(client);
+    assertEquals(1, factory.getConnectionPool().getTotalStats().getAvailable());
+
+    odataClient.dispose();
+    assertEquals(0, factory.getConnectionPool().getTotalStats().getAvailable());
+  }
+}
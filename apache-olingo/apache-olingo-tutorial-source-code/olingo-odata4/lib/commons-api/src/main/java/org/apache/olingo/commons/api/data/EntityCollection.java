@@ -20,12 +20,13 @@ package org.apache.olingo.commons.api.data;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
  * Data representation for a collection of single entities.
  */
-public class EntityCollection extends AbstractODataObject {
+public class EntityCollection extends AbstractEntityCollection {
 
   private Integer count;
 
@@ -49,6 +50,7 @@ public class EntityCollection extends AbstractODataObject {
    *
    * @return number of entries into the entity set.
    */
+  @Override
   public Integer getCount() {
     return count;
   }
@@ -62,6 +64,11 @@ public class EntityCollection extends AbstractODataObject {
     return entities;
   }
 
+  @Override
+  public Iterator<Entity> iterator() {
+    return entities.iterator();
+  }
+
   /**
    * Sets next link.
    *
@@ -76,6 +83,7 @@ public class EntityCollection extends AbstractODataObject {
    *
    * @return next link if exists; null otherwise.
    */
+  @Override
   public URI getNext() {
     return next;
   }
@@ -85,6 +93,7 @@ public class EntityCollection extends AbstractODataObject {
    *
    * @return delta link if exists; null otherwise.
    */
+  @Override
   public URI getDeltaLink() {
     return deltaLink;
   }
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.net.URI;
+import java.util.Iterator;
+
+/**
+ * Data representation for a collection of single entities which are provided one at a time,
+ * e.g., read from a database cursor, so that they never have to be held in memory all together.
+ * <p>The iterator can be consumed only once. Count and next link may only be known after all entities
+ * have been read; serializers therefore ask for them again after the last entity.</p>
+ */
+public abstract class EntityIterator extends AbstractEntityCollection implements Iterator<Entity> {
+
+  /**
+   * {@inheritDoc}
+   * <p>Removing entities is not supported.</p>
+   */
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("Entities can not be removed from an entity iterator.");
+  }
+
+  /**
+   * Returns this instance; the entities can be iterated over only once.
+   * @return this entity iterator
+   */
+  @Override
+  public Iterator<Entity> iterator() {
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>The default implementation returns <code>null</code>.</p>
+   */
+  @Override
+  public Integer getCount() {
+    return null;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>The default implementation returns <code>null</code>.</p>
+   */
+  @Override
+  public URI getNext() {
+    return null;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>The default implementation returns <code>null</code>.</p>
+   */
+  @Override
+  public URI getDeltaLink() {
+    return null;
+  }
+}
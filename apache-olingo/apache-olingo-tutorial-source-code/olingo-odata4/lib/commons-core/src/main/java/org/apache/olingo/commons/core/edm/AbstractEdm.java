@@ -20,71 +20,83 @@ package org.apache.olingo.commons.core.edm;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmAction;
+import org.apache.olingo.commons.api.edm.EdmActionImport;
 import org.apache.olingo.commons.api.edm.EdmAnnotation;
 import org.apache.olingo.commons.api.edm.EdmAnnotations;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntityContainer;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmEnumType;
 import org.apache.olingo.commons.api.edm.EdmFunction;
+import org.apache.olingo.commons.api.edm.EdmFunctionImport;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.EdmOperation;
+import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.commons.api.edm.EdmSchema;
+import org.apache.olingo.commons.api.edm.EdmSingleton;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
 import org.apache.olingo.commons.api.edm.EdmTerm;
 import org.apache.olingo.commons.api.edm.EdmTypeDefinition;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 
 public abstract class AbstractEdm implements Edm {
 
-  protected Map<String, EdmSchema> schemas;
+  protected volatile Map<String, EdmSchema> schemas;
 
-  protected List<EdmSchema> schemaList;
+  protected volatile List<EdmSchema> schemaList;
 
-  private final Map<FullQualifiedName, EdmEntityContainer> entityContainers =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEntityContainer>());
+  private final ConcurrentMap<FullQualifiedName, EdmEntityContainer> entityContainers =
+      new ConcurrentHashMap<FullQualifiedName, EdmEntityContainer>();
 
-  private final Map<FullQualifiedName, EdmEnumType> enumTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEnumType>());
+  private final ConcurrentMap<FullQualifiedName, EdmEnumType> enumTypes =
+      new ConcurrentHashMap<FullQualifiedName, EdmEnumType>();
 
-  private final Map<FullQualifiedName, EdmTypeDefinition> typeDefinitions =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmTypeDefinition>());
+  private final ConcurrentMap<FullQualifiedName, EdmTypeDefinition> typeDefinitions =
+      new ConcurrentHashMap<FullQualifiedName, EdmTypeDefinition>();
 
-  private final Map<FullQualifiedName, EdmEntityType> entityTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEntityType>());
+  private final ConcurrentMap<FullQualifiedName, EdmEntityType> entityTypes =
+      new ConcurrentHashMap<FullQualifiedName, EdmEntityType>();
 
-  private final Map<FullQualifiedName, EdmComplexType> complexTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmComplexType>());
+  private final ConcurrentMap<FullQualifiedName, EdmComplexType> complexTypes =
+      new ConcurrentHashMap<FullQualifiedName, EdmComplexType>();
 
-  private final Map<FullQualifiedName, EdmAction> unboundActions =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmAction>());
+  private final ConcurrentMap<FullQualifiedName, EdmAction> unboundActions =
+      new ConcurrentHashMap<FullQualifiedName, EdmAction>();
 
-  private final Map<FullQualifiedName, List<EdmFunction>> unboundFunctionsByName =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, List<EdmFunction>>());
+  private final ConcurrentMap<FullQualifiedName, List<EdmFunction>> unboundFunctionsByName =
+      new ConcurrentHashMap<FullQualifiedName, List<EdmFunction>>();
 
-  private final Map<FunctionMapKey, EdmFunction> unboundFunctionsByKey =
-      Collections.synchronizedMap(new HashMap<FunctionMapKey, EdmFunction>());
+  private final ConcurrentMap<FunctionMapKey, EdmFunction> unboundFunctionsByKey =
+      new ConcurrentHashMap<FunctionMapKey, EdmFunction>();
 
-  private final Map<ActionMapKey, EdmAction> boundActions =
-      Collections.synchronizedMap(new HashMap<ActionMapKey, EdmAction>());
+  private final ConcurrentMap<ActionMapKey, EdmAction> boundActions =
+      new ConcurrentHashMap<ActionMapKey, EdmAction>();
 
-  private final Map<FunctionMapKey, EdmFunction> boundFunctions =
-      Collections.synchronizedMap(new HashMap<FunctionMapKey, EdmFunction>());
+  private final ConcurrentMap<FunctionMapKey, EdmFunction> boundFunctions =
+      new ConcurrentHashMap<FunctionMapKey, EdmFunction>();
 
-  private final Map<FullQualifiedName, EdmTerm> terms =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmTerm>());
+  private final ConcurrentMap<FullQualifiedName, EdmTerm> terms =
+      new ConcurrentHashMap<FullQualifiedName, EdmTerm>();
 
-  private final Map<FullQualifiedName, EdmAnnotations> annotationGroups =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmAnnotations>());
+  private final ConcurrentMap<FullQualifiedName, EdmAnnotations> annotationGroups =
+      new ConcurrentHashMap<FullQualifiedName, EdmAnnotations>();
 
-  private final Map<FullQualifiedName, List<EdmAnnotation>> annotations =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, List<EdmAnnotation>>());
+  private final ConcurrentMap<FullQualifiedName, List<EdmAnnotation>> annotations =
+      new ConcurrentHashMap<FullQualifiedName, List<EdmAnnotation>>();
 
-  private Map<String, String> aliasToNamespaceInfo = Collections.synchronizedMap(new HashMap<String, String>());
-  private boolean aliasToNamespaceInfoCreated = false;
+  private volatile EdmEntityContainer defaultEntityContainer;
+
+  private volatile Map<String, String> aliasToNamespaceInfo = new ConcurrentHashMap<String, String>();
+  private volatile boolean aliasToNamespaceInfoCreated = false;
 
   @Override
   public List<EdmSchema> getSchemas() {
@@ -102,23 +114,92 @@ public abstract class AbstractEdm implements Edm {
 
     EdmSchema schema = schemas.get(namespace);
     if (schema == null) {
-      if (!aliasToNamespaceInfoCreated) {
-        aliasToNamespaceInfo = createAliasToNamespaceInfo();
-      }
-      schema = schemas.get(aliasToNamespaceInfo.get(namespace));
+      schema = schemas.get(getAliasToNamespaceInfo().get(namespace));
     }
 
     return schema;
   }
 
-  private void initSchemas() {
-    schemas = createSchemas();
+  private synchronized void initSchemas() {
+    if (schemaList != null) {
+      return;
+    }
+    Map<String, EdmSchema> localSchemas = createSchemas();
     aliasToNamespaceInfoCreated = true;
 
-    if (schemas == null) {
-      schemas = Collections.emptyMap();
+    if (localSchemas == null) {
+      localSchemas = Collections.emptyMap();
+    }
+    schemas = localSchemas;
+    schemaList = Collections.unmodifiableList(new ArrayList<EdmSchema>(localSchemas.values()));
+  }
+
+  /**
+   * Loads all schemas together with all their elements at once.
+   * <br/>
+   * Without preloading, the elements are loaded on first access.
+   * Calling this method at startup ensures that later accesses are served from the cache.
+   */
+  public void preload() {
+    for (final EdmSchema schema : getSchemas()) {
+      // The schema itself has already created and cached its types, operations, and terms.
+      for (final EdmEntityType entityType : schema.getEntityTypes()) {
+        entityType.getKeyPropertyRefs();
+        preloadStructuredType(entityType);
+      }
+      for (final EdmComplexType complexType : schema.getComplexTypes()) {
+        preloadStructuredType(complexType);
+      }
+      for (final EdmAction action : schema.getActions()) {
+        preloadOperation(action);
+      }
+      for (final EdmFunction function : schema.getFunctions()) {
+        preloadOperation(function);
+      }
+      if (schema.getEntityContainer() != null) {
+        preloadEntityContainer(schema.getEntityContainer());
+      }
+    }
+    getEntityContainer(null);
+  }
+
+  private void preloadStructuredType(final EdmStructuredType type) {
+    type.getBaseType();
+    for (final String name : type.getPropertyNames()) {
+      final EdmProperty property = type.getStructuralProperty(name);
+      property.getType();
+    }
+    for (final String name : type.getNavigationPropertyNames()) {
+      final EdmNavigationProperty navigationProperty = type.getNavigationProperty(name);
+      navigationProperty.getType();
+      navigationProperty.getPartner();
+    }
+  }
+
+  private void preloadOperation(final EdmOperation operation) {
+    for (final String name : operation.getParameterNames()) {
+      operation.getParameter(name).getType();
+    }
+    if (operation.getReturnType() != null) {
+      operation.getReturnType().getType();
+    }
+  }
+
+  private void preloadEntityContainer(final EdmEntityContainer container) {
+    for (final EdmEntitySet entitySet : container.getEntitySets()) {
+      entitySet.getEntityType();
+      entitySet.getNavigationPropertyBindings();
+    }
+    for (final EdmSingleton singleton : container.getSingletons()) {
+      singleton.getEntityType();
+      singleton.getNavigationPropertyBindings();
+    }
+    for (final EdmActionImport actionImport : container.getActionImports()) {
+      actionImport.getUnboundAction();
+    }
+    for (final EdmFunctionImport functionImport : container.getFunctionImports()) {
+      functionImport.getUnboundFunctions();
     }
-    schemaList = Collections.unmodifiableList(new ArrayList<EdmSchema>(schemas.values()));
   }
 
   @Override
@@ -129,15 +210,19 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityContainer getEntityContainer(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityContainer container = entityContainers.get(fqn);
-    if (container == null) {
-      container = createEntityContainer(fqn);
-      if (container != null) {
-        entityContainers.put(fqn, container);
-        if (fqn == null) {
-          entityContainers.put(new FullQualifiedName(container.getNamespace(), container.getName()), container);
+    if (fqn == null) {
+      if (defaultEntityContainer == null) {
+        final EdmEntityContainer container = createEntityContainer(null);
+        if (container != null) {
+          defaultEntityContainer = cache(entityContainers,
+              new FullQualifiedName(container.getNamespace(), container.getName()), container);
         }
       }
+      return defaultEntityContainer;
+    }
+    EdmEntityContainer container = entityContainers.get(fqn);
+    if (container == null) {
+      container = cache(entityContainers, fqn, createEntityContainer(fqn));
     }
     return container;
   }
@@ -145,12 +230,9 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEnumType getEnumType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEnumType enumType = enumTypes.get(fqn);
+    EdmEnumType enumType = get(enumTypes, fqn);
     if (enumType == null) {
-      enumType = createEnumType(fqn);
-      if (enumType != null) {
-        enumTypes.put(fqn, enumType);
-      }
+      enumType = cache(enumTypes, fqn, createEnumType(fqn));
     }
     return enumType;
   }
@@ -158,12 +240,9 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmTypeDefinition getTypeDefinition(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmTypeDefinition typeDefinition = typeDefinitions.get(fqn);
+    EdmTypeDefinition typeDefinition = get(typeDefinitions, fqn);
     if (typeDefinition == null) {
-      typeDefinition = createTypeDefinition(fqn);
-      if (typeDefinition != null) {
-        typeDefinitions.put(fqn, typeDefinition);
-      }
+      typeDefinition = cache(typeDefinitions, fqn, createTypeDefinition(fqn));
     }
     return typeDefinition;
   }
@@ -171,12 +250,9 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityType getEntityType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityType entityType = entityTypes.get(fqn);
+    EdmEntityType entityType = get(entityTypes, fqn);
     if (entityType == null) {
-      entityType = createEntityType(fqn);
-      if (entityType != null) {
-        entityTypes.put(fqn, entityType);
-      }
+      entityType = cache(entityTypes, fqn, createEntityType(fqn));
     }
     return entityType;
   }
@@ -184,24 +260,18 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmComplexType getComplexType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmComplexType complexType = complexTypes.get(fqn);
+    EdmComplexType complexType = get(complexTypes, fqn);
     if (complexType == null) {
-      complexType = createComplexType(fqn);
-      if (complexType != null) {
-        complexTypes.put(fqn, complexType);
-      }
+      complexType = cache(complexTypes, fqn, createComplexType(fqn));
     }
     return complexType;
   }
 
   @Override
   public EdmAction getUnboundAction(final FullQualifiedName actionName) {
-    EdmAction action = unboundActions.get(actionName);
+    EdmAction action = get(unboundActions, actionName);
     if (action == null) {
-      action = createUnboundAction(resolvePossibleAlias(actionName));
-      if (action != null) {
-        unboundActions.put(actionName, action);
-      }
+      action = cache(unboundActions, actionName, createUnboundAction(resolvePossibleAlias(actionName)));
     }
 
     return action;
@@ -216,10 +286,8 @@ public abstract class AbstractEdm implements Edm {
     final ActionMapKey key = new ActionMapKey(actionFqn, bindingParameterTypeFqn, isBindingParameterCollection);
     EdmAction action = boundActions.get(key);
     if (action == null) {
-      action = createBoundAction(actionFqn, bindingParameterTypeFqn, isBindingParameterCollection);
-      if (action != null) {
-        boundActions.put(key, action);
-      }
+      action = cache(boundActions, key,
+          createBoundAction(actionFqn, bindingParameterTypeFqn, isBindingParameterCollection));
     }
 
     return action;
@@ -229,20 +297,19 @@ public abstract class AbstractEdm implements Edm {
   public List<EdmFunction> getUnboundFunctions(final FullQualifiedName functionName) {
     final FullQualifiedName functionFqn = resolvePossibleAlias(functionName);
 
-    List<EdmFunction> functions = unboundFunctionsByName.get(functionFqn);
+    List<EdmFunction> functions = get(unboundFunctionsByName, functionFqn);
     if (functions == null) {
       functions = createUnboundFunctions(functionFqn);
       if (functions != null) {
-        unboundFunctionsByName.put(functionFqn, functions);
-
         for (EdmFunction unbound : functions) {
           final FunctionMapKey key = new FunctionMapKey(
               new FullQualifiedName(unbound.getNamespace(), unbound.getName()),
               unbound.getBindingParameterTypeFqn(),
               unbound.isBindingParameterTypeCollection(),
               unbound.getParameterNames());
-          unboundFunctionsByKey.put(key, unbound);
+          unboundFunctionsByKey.putIfAbsent(key, unbound);
         }
+        functions = cache(unboundFunctionsByName, functionFqn, functions);
       }
     }
 
@@ -256,10 +323,7 @@ public abstract class AbstractEdm implements Edm {
     final FunctionMapKey key = new FunctionMapKey(functionFqn, null, null, parameterNames);
     EdmFunction function = unboundFunctionsByKey.get(key);
     if (function == null) {
-      function = createUnboundFunction(functionFqn, parameterNames);
-      if (function != null) {
-        unboundFunctionsByKey.put(key, function);
-      }
+      function = cache(unboundFunctionsByKey, key, createUnboundFunction(functionFqn, parameterNames));
     }
 
     return function;
@@ -276,11 +340,8 @@ public abstract class AbstractEdm implements Edm {
         new FunctionMapKey(functionFqn, bindingParameterTypeFqn, isBindingParameterCollection, parameterNames);
     EdmFunction function = boundFunctions.get(key);
     if (function == null) {
-      function = createBoundFunction(functionFqn, bindingParameterTypeFqn, isBindingParameterCollection,
-          parameterNames);
-      if (function != null) {
-        boundFunctions.put(key, function);
-      }
+      function = cache(boundFunctions, key, createBoundFunction(functionFqn, bindingParameterTypeFqn,
+          isBindingParameterCollection, parameterNames));
     }
 
     return function;
@@ -289,24 +350,18 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmTerm getTerm(final FullQualifiedName termName) {
     final FullQualifiedName fqn = resolvePossibleAlias(termName);
-    EdmTerm term = terms.get(fqn);
+    EdmTerm term = get(terms, fqn);
     if (term == null) {
-      term = createTerm(fqn);
-      if (term != null) {
-        terms.put(fqn, term);
-      }
+      term = cache(terms, fqn, createTerm(fqn));
     }
     return term;
   }
 
   @Override
   public EdmAnnotations getAnnotationGroup(final FullQualifiedName targetName) {
-    EdmAnnotations _annotations = annotationGroups.get(targetName);
+    EdmAnnotations _annotations = get(annotationGroups, targetName);
     if (_annotations == null) {
-      _annotations = createAnnotationGroup(targetName);
-      if (_annotations != null) {
-        annotationGroups.put(targetName, _annotations);
-      }
+      _annotations = cache(annotationGroups, targetName, createAnnotationGroup(targetName));
     }
     return _annotations;
   }
@@ -314,12 +369,9 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public List<EdmAnnotation> getAnnotations(final FullQualifiedName annotatableName) {
     final FullQualifiedName fqn = resolvePossibleAlias(annotatableName);
-    List<EdmAnnotation> _annotations = annotations.get(fqn);
+    List<EdmAnnotation> _annotations = get(annotations, fqn);
     if (_annotations == null) {
-      _annotations = createAnnotations(fqn);
-      if (_annotations != null) {
-        annotations.put(fqn, _annotations);
-      }
+      _annotations = cache(annotations, fqn, createAnnotations(fqn));
     }
     return _annotations;
   }
@@ -338,13 +390,46 @@ public abstract class AbstractEdm implements Edm {
     return result;
   }
 
-  private FullQualifiedName resolvePossibleAlias(final FullQualifiedName namespaceOrAliasFQN) {
+  /** Gets the cached value; <code>null</code> keys are never cached. */
+  private static <K, V> V get(final ConcurrentMap<K, V> map, final K key) {
+    return key == null ? null : map.get(key);
+  }
+
+  /**
+   * Caches the value unless another thread has cached a value for the same key in the meantime.
+   * @return the value in the cache, or the given value if it cannot be cached
+   */
+  private static <K, V> V cache(final ConcurrentMap<K, V> map, final K key, final V value) {
+    if (key == null || value == null) {
+      return value;
+    }
+    final V cached = map.putIfAbsent(key, value);
+    return cached == null ? value : cached;
+  }
+
+  private Map<String, String> getAliasToNamespaceInfo() {
     if (!aliasToNamespaceInfoCreated) {
-      aliasToNamespaceInfo = createAliasToNamespaceInfo();
+      synchronized (this) {
+        if (!aliasToNamespaceInfoCreated) {
+          final Map<String, String> info = createAliasToNamespaceInfo();
+          if (info != null) {
+            for (final Map.Entry<String, String> entry : info.entrySet()) {
+              // providers report schemas without alias with a null alias
+              cacheAliasNamespaceInfo(entry.getKey(), entry.getValue());
+            }
+          }
+          aliasToNamespaceInfoCreated = true;
+        }
+      }
     }
+    return aliasToNamespaceInfo;
+  }
+
+  private FullQualifiedName resolvePossibleAlias(final FullQualifiedName namespaceOrAliasFQN) {
+    final Map<String, String> aliasInfo = getAliasToNamespaceInfo();
     FullQualifiedName finalFQN = null;
     if (namespaceOrAliasFQN != null) {
-      final String namespace = aliasToNamespaceInfo.get(namespaceOrAliasFQN.getNamespace());
+      final String namespace = aliasInfo.get(namespaceOrAliasFQN.getNamespace());
       // If not contained in info it must be a namespace
       if (namespace == null) {
         finalFQN = namespaceOrAliasFQN;
@@ -360,13 +445,19 @@ public abstract class AbstractEdm implements Edm {
   protected abstract Map<String, String> createAliasToNamespaceInfo();
 
   public void cacheAliasNamespaceInfo(final String alias, final String namespace) {
-    aliasToNamespaceInfo.put(alias, namespace);
+    if (alias != null && namespace != null) {
+      aliasToNamespaceInfo.put(alias, namespace);
+    }
   }
 
   protected abstract EdmEntityContainer createEntityContainer(FullQualifiedName containerName);
 
   public void cacheEntityContainer(final FullQualifiedName containerFQN, final EdmEntityContainer container) {
-    entityContainers.put(containerFQN, container);
+    if (containerFQN == null) {
+      defaultEntityContainer = container;
+    } else {
+      entityContainers.put(containerFQN, container);
+    }
   }
 
   protected abstract EdmEnumType createEnumType(FullQualifiedName enumName);
@@ -415,10 +506,12 @@ public abstract class AbstractEdm implements Edm {
     if (function.isBound()) {
       boundFunctions.put(key, function);
     } else {
-      if (!unboundFunctionsByName.containsKey(functionName)) {
-        unboundFunctionsByName.put(functionName, new ArrayList<EdmFunction>());
+      List<EdmFunction> functions = unboundFunctionsByName.get(functionName);
+      if (functions == null) {
+        functions = cache(unboundFunctionsByName, functionName,
+            (List<EdmFunction>) new CopyOnWriteArrayList<EdmFunction>());
       }
-      unboundFunctionsByName.get(functionName).add(function);
+      functions.add(function);
 
       unboundFunctionsByKey.put(key, function);
     }
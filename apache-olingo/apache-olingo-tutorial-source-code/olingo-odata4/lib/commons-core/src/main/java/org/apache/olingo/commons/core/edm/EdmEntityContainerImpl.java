@@ -20,9 +20,9 @@ package org.apache.olingo.commons.core.edm;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.olingo.commons.api.ex.ODataException;
 import org.apache.olingo.commons.api.edm.Edm;
@@ -50,17 +50,17 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
   private final FullQualifiedName parentContainerName;
 
   private List<EdmSingleton> singletons;
-  private final Map<String, EdmSingleton> singletonCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmSingleton>());
+  private final ConcurrentMap<String, EdmSingleton> singletonCache =
+      new ConcurrentHashMap<String, EdmSingleton>();
   private List<EdmEntitySet> entitySets;
-  private final Map<String, EdmEntitySet> entitySetCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmEntitySet>());
+  private final ConcurrentMap<String, EdmEntitySet> entitySetCache =
+      new ConcurrentHashMap<String, EdmEntitySet>();
   private List<EdmActionImport> actionImports;
-  private final Map<String, EdmActionImport> actionImportCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmActionImport>());
+  private final ConcurrentMap<String, EdmActionImport> actionImportCache =
+      new ConcurrentHashMap<String, EdmActionImport>();
   private List<EdmFunctionImport> functionImports;
-  private final Map<String, EdmFunctionImport> functionImportCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmFunctionImport>());
+  private final ConcurrentMap<String, EdmFunctionImport> functionImportCache =
+      new ConcurrentHashMap<String, EdmFunctionImport>();
 
   public EdmEntityContainerImpl(final Edm edm, final CsdlEdmProvider provider,
       final CsdlEntityContainerInfo entityContainerInfo) {
@@ -91,11 +91,11 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmSingleton getSingleton(final String singletonName) {
-    EdmSingleton singleton = singletonCache.get(singletonName);
+    EdmSingleton singleton = singletonName == null ? null : singletonCache.get(singletonName);
     if (singleton == null) {
       singleton = createSingleton(singletonName);
-      if (singleton != null) {
-        singletonCache.put(singletonName, singleton);
+      if (singleton != null && singletonName != null) {
+        singleton = cache(singletonCache, singletonName, singleton);
       }
     }
     return singleton;
@@ -103,11 +103,11 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmEntitySet getEntitySet(final String entitySetName) {
-    EdmEntitySet entitySet = entitySetCache.get(entitySetName);
+    EdmEntitySet entitySet = entitySetName == null ? null : entitySetCache.get(entitySetName);
     if (entitySet == null) {
       entitySet = createEntitySet(entitySetName);
-      if (entitySet != null) {
-        entitySetCache.put(entitySetName, entitySet);
+      if (entitySet != null && entitySetName != null) {
+        entitySet = cache(entitySetCache, entitySetName, entitySet);
       }
     }
     return entitySet;
@@ -115,11 +115,11 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmActionImport getActionImport(final String actionImportName) {
-    EdmActionImport actionImport = actionImportCache.get(actionImportName);
+    EdmActionImport actionImport = actionImportName == null ? null : actionImportCache.get(actionImportName);
     if (actionImport == null) {
       actionImport = createActionImport(actionImportName);
-      if (actionImport != null) {
-        actionImportCache.put(actionImportName, actionImport);
+      if (actionImport != null && actionImportName != null) {
+        actionImport = cache(actionImportCache, actionImportName, actionImport);
       }
     }
     return actionImport;
@@ -127,11 +127,11 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmFunctionImport getFunctionImport(final String functionImportName) {
-    EdmFunctionImport functionImport = functionImportCache.get(functionImportName);
+    EdmFunctionImport functionImport = functionImportName == null ? null : functionImportCache.get(functionImportName);
     if (functionImport == null) {
       functionImport = createFunctionImport(functionImportName);
-      if (functionImport != null) {
-        functionImportCache.put(functionImportName, functionImport);
+      if (functionImport != null && functionImportName != null) {
+        functionImport = cache(functionImportCache, functionImportName, functionImport);
       }
     }
     return functionImport;
@@ -242,8 +242,7 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
     if (providerEntitySets != null) {
       for (CsdlEntitySet entitySet : providerEntitySets) {
         final EdmEntitySetImpl impl = new EdmEntitySetImpl(edm, this, entitySet);
-        entitySetCache.put(impl.getName(), impl);
-        entitySetsLocal.add(impl);
+        entitySetsLocal.add(cache(entitySetCache, impl.getName(), (EdmEntitySet) impl));
       }
       entitySets = entitySetsLocal;
     }
@@ -257,8 +256,7 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
     if (providerFunctionImports != null) {
       for (CsdlFunctionImport functionImport : providerFunctionImports) {
         EdmFunctionImportImpl impl = new EdmFunctionImportImpl(edm, this, functionImport);
-        functionImportCache.put(impl.getName(), impl);
-        functionImportsLocal.add(impl);
+        functionImportsLocal.add(cache(functionImportCache, impl.getName(), (EdmFunctionImport) impl));
       }
       functionImports = functionImportsLocal;
     }
@@ -272,8 +270,7 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
     if (providerSingletons != null) {
       for (CsdlSingleton singleton : providerSingletons) {
         final EdmSingletonImpl impl = new EdmSingletonImpl(edm, this, singleton);
-        singletonCache.put(singleton.getName(), impl);
-        singletonsLocal.add(impl);
+        singletonsLocal.add(cache(singletonCache, singleton.getName(), (EdmSingleton) impl));
       }
       singletons = singletonsLocal;
     }
@@ -287,8 +284,7 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
     if (providerActionImports != null) {
       for (CsdlActionImport actionImport : providerActionImports) {
         final EdmActionImportImpl impl = new EdmActionImportImpl(edm, this, actionImport);
-        actionImportCache.put(actionImport.getName(), impl);
-        actionImportsLocal.add(impl);
+        actionImportsLocal.add(cache(actionImportCache, actionImport.getName(), (EdmActionImport) impl));
       }
       actionImports = actionImportsLocal;
     }
@@ -310,6 +306,12 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
     }
   }
 
+  /** Caches the value unless another thread has already cached one; returns the cached value. */
+  private static <T> T cache(final ConcurrentMap<String, T> map, final String name, final T value) {
+    final T cached = map.putIfAbsent(name, value);
+    return cached == null ? value : cached;
+  }
+
   @Override
   public String getAnnotationsTargetPath() {
     return null;
@@ -22,8 +22,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
@@ -41,11 +39,7 @@ import org.apache.olingo.commons.api.edm.geo.SRID;
 
 public abstract class AbstractGeospatialType<T extends Geospatial> extends SingletonPrimitiveType {
 
-  private static final Pattern PATTERN =
-      Pattern.compile("([a-z]+)'SRID=([0-9]+);([a-zA-Z]+)\\((.*)\\)'");
-
-  private static final Pattern COLLECTION_PATTERN =
-      Pattern.compile("([a-z]+)'SRID=([0-9]+);Collection\\(([a-zA-Z]+)\\((.*)\\)\\)'");
+  private static final String COLLECTION = "Collection(";
 
   private final Class<T> reference;
 
@@ -64,25 +58,100 @@ public abstract class AbstractGeospatialType<T extends Geospatial> extends Singl
     return reference;
   }
 
-  private Matcher getMatcher(final Pattern pattern, final String value) throws EdmPrimitiveTypeException {
-    final Matcher matcher = pattern.matcher(value);
-    if (!matcher.matches()) {
+  /** The parts of a literal of the form <code>dimension'SRID=srid;Type(body)'</code>. */
+  static final class Literal {
+    String srid;
+    String type;
+    String body;
+  }
+
+  /**
+   * Scans a literal of the form <code>dimension'SRID=srid;Type(body)'</code> or, for collections,
+   * <code>dimension'SRID=srid;Collection(Type(body))'</code> and checks the dimension and the type.
+   */
+  Literal scan(final String value, final boolean isCollection) throws EdmPrimitiveTypeException {
+    final Literal literal = new Literal();
+    int index = 0;
+    while (index < value.length() && value.charAt(index) >= 'a' && value.charAt(index) <= 'z') {
+      index++;
+    }
+    final String dimensionName = value.substring(0, index);
+    boolean valid = index > 0 && value.startsWith("'SRID=", index);
+
+    int start = index + "'SRID=".length();
+    index = valid ? LiteralScanner.skipDigits(value, start) : start;
+    valid = valid && index > start && index < value.length() && value.charAt(index) == ';';
+    if (valid) {
+      literal.srid = value.substring(start, index);
+      index++;
+      if (isCollection) {
+        valid = value.startsWith(COLLECTION, index);
+        index += COLLECTION.length();
+      }
+    }
+
+    start = index;
+    while (valid && index < value.length() && isLetter(value.charAt(index))) {
+      index++;
+    }
+    final String suffix = isCollection ? "))'" : ")'";
+    valid = valid && index > start && index < value.length() && value.charAt(index) == '('
+        && value.length() - index - 1 >= suffix.length() && value.endsWith(suffix);
+    if (valid) {
+      literal.type = value.substring(start, index);
+      literal.body = value.substring(index + 1, value.length() - suffix.length());
+      // The body must not contain line terminators, like '.' in regular expressions.
+      for (int position = 0; valid && position < literal.body.length(); position++) {
+        final char character = literal.body.charAt(position);
+        valid = character != '\n' && character != '\r' && character != '\u0085'
+            && character != '\u2028' && character != '\u2029';
+      }
+    }
+    if (!valid) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
     }
 
     Geospatial.Dimension _dimension = null;
     Geospatial.Type _type = null;
     try {
-      _dimension = Geospatial.Dimension.valueOf(matcher.group(1).toUpperCase());
-      _type = Geospatial.Type.valueOf(matcher.group(3).toUpperCase());
+      _dimension = Geospatial.Dimension.valueOf(dimensionName.toUpperCase());
+      _type = Geospatial.Type.valueOf(literal.type.toUpperCase());
     } catch (IllegalArgumentException e) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.", e);
     }
-    if (_dimension != this.dimension || (!pattern.equals(COLLECTION_PATTERN) && _type != this.type)) {
+    if (_dimension != this.dimension || (!isCollection && _type != this.type)) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
     }
 
-    return matcher;
+    return literal;
+  }
+
+  private static boolean isLetter(final char character) {
+    return character >= 'a' && character <= 'z' || character >= 'A' && character <= 'Z';
+  }
+
+  /**
+   * Splits the given value around the given separator like {@link String#split(String)}
+   * but without interpreting the separator as regular expression.
+   */
+  static String[] split(final String value, final String separator) {
+    int index = value.indexOf(separator);
+    if (index < 0) {
+      return new String[] { value };
+    }
+    final List<String> parts = new ArrayList<String>();
+    int start = 0;
+    while (index >= 0) {
+      parts.add(value.substring(start, index));
+      start = index + separator.length();
+      index = value.indexOf(separator, start);
+    }
+    parts.add(value.substring(start));
+    int size = parts.size();
+    while (size > 0 && parts.get(size - 1).isEmpty()) {
+      size--;
+    }
+    return parts.subList(0, size).toArray(new String[size]);
   }
 
   private Point newPoint(final SRID srid, final String point, final Boolean isNullable,
@@ -106,24 +175,24 @@ public abstract class AbstractGeospatialType<T extends Geospatial> extends Singl
   protected Point stringToPoint(final String value, final Boolean isNullable, final Integer maxLength,
       final Integer precision, final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
 
-    final Matcher matcher = getMatcher(PATTERN, value);
+    final Literal literal = scan(value, false);
 
-    return newPoint(SRID.valueOf(matcher.group(2)), matcher.group(4),
+    return newPoint(SRID.valueOf(literal.srid), literal.body,
         isNullable, maxLength, precision, scale, isUnicode);
   }
 
   protected MultiPoint stringToMultiPoint(final String value, final Boolean isNullable, final Integer maxLength,
       final Integer precision, final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
 
-    final Matcher matcher = getMatcher(PATTERN, value);
+    final Literal literal = scan(value, false);
 
     final List<Point> points = new ArrayList<Point>();
-    for (String pointCoo : StringUtils.split(matcher.group(4), ',')) {
+    for (String pointCoo : StringUtils.split(literal.body, ',')) {
       points.add(newPoint(null, pointCoo.substring(1, pointCoo.length() - 1),
           isNullable, maxLength, precision, scale, isUnicode));
     }
 
-    return new MultiPoint(dimension, SRID.valueOf(matcher.group(2)), points);
+    return new MultiPoint(dimension, SRID.valueOf(literal.srid), points);
   }
 
   private LineString newLineString(final SRID srid, final String lineString, final Boolean isNullable,
@@ -141,9 +210,9 @@ public abstract class AbstractGeospatialType<T extends Geospatial> extends Singl
   protected LineString stringToLineString(final String value, final Boolean isNullable, final Integer maxLength,
       final Integer precision, final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
 
-    final Matcher matcher = getMatcher(PATTERN, value);
+    final Literal literal = scan(value, false);
 
-    return newLineString(SRID.valueOf(matcher.group(2)), matcher.group(4),
+    return newLineString(SRID.valueOf(literal.srid), literal.body,
         isNullable, maxLength, precision, scale, isUnicode);
   }
 
@@ -151,11 +220,11 @@ public abstract class AbstractGeospatialType<T extends Geospatial> extends Singl
       final Integer maxLength, final Integer precision, final Integer scale, final Boolean isUnicode)
           throws EdmPrimitiveTypeException {
 
-    final Matcher matcher = getMatcher(PATTERN, value);
+    final Literal literal = scan(value, false);
 
     final List<LineString> lineStrings = new ArrayList<LineString>();
-    for (String coo : matcher.group(4).contains("),(")
-        ? matcher.group(4).split("\\),\\(") : new String[] { matcher.group(4) }) {
+    for (String coo : literal.body.contains("),(")
+        ? split(literal.body, "),(") : new String[] { literal.body }) {
 
       String lineString = coo;
       if (lineString.charAt(0) == '(') {
@@ -168,14 +237,14 @@ public abstract class AbstractGeospatialType<T extends Geospatial> extends Singl
       lineStrings.add(newLineString(null, lineString, isNullable, maxLength, precision, scale, isUnicode));
     }
 
-    return new MultiLineString(this.dimension, SRID.valueOf(matcher.group(2)), lineStrings);
+    return new MultiLineString(this.dimension, SRID.valueOf(literal.srid), lineStrings);
   }
 
   private Polygon newPolygon(final SRID srid, final String polygon, final Boolean isNullable,
       final Integer maxLength, final Integer precision, final Integer scale, final Boolean isUnicode)
           throws EdmPrimitiveTypeException {
 
-    final String[] first = polygon.split("\\),\\(");
+    final String[] first = split(polygon, "),(");
 
     final List<Point> interior = new ArrayList<Point>();
     for (String pointCoo : StringUtils.split(first[0].substring(1, first[0].length()), ',')) {
@@ -192,20 +261,20 @@ public abstract class AbstractGeospatialType<T extends Geospatial> extends Singl
   protected Polygon stringToPolygon(final String value, final Boolean isNullable, final Integer maxLength,
       final Integer precision, final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
 
-    final Matcher matcher = getMatcher(PATTERN, value);
+    final Literal literal = scan(value, false);
 
-    return newPolygon(SRID.valueOf(matcher.group(2)), matcher.group(4),
+    return newPolygon(SRID.valueOf(literal.srid), literal.body,
         isNullable, maxLength, precision, scale, isUnicode);
   }
 
   protected MultiPolygon stringToMultiPolygon(final String value, final Boolean isNullable, final Integer maxLength,
       final Integer precision, final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
 
-    final Matcher matcher = getMatcher(PATTERN, value);
+    final Literal literal = scan(value, false);
 
     final List<Polygon> polygons = new ArrayList<Polygon>();
-    for (String coo : matcher.group(4).contains(")),((")
-        ? matcher.group(4).split("\\)\\),\\(\\(") : new String[] { matcher.group(4) }) {
+    for (String coo : literal.body.contains(")),((")
+        ? split(literal.body, ")),((") : new String[] { literal.body }) {
 
       String polygon = coo;
       if (polygon.startsWith("((")) {
@@ -224,66 +293,66 @@ public abstract class AbstractGeospatialType<T extends Geospatial> extends Singl
       polygons.add(newPolygon(null, polygon, isNullable, maxLength, precision, scale, isUnicode));
     }
 
-    return new MultiPolygon(dimension, SRID.valueOf(matcher.group(2)), polygons);
+    return new MultiPolygon(dimension, SRID.valueOf(literal.srid), polygons);
   }
 
   protected GeospatialCollection stringToCollection(final String value, final Boolean isNullable,
       final Integer maxLength, final Integer precision, final Integer scale, final Boolean isUnicode)
           throws EdmPrimitiveTypeException {
 
-    final Matcher matcher = getMatcher(COLLECTION_PATTERN, value);
+    final Literal literal = scan(value, true);
 
     Geospatial item = null;
-    switch (Geospatial.Type.valueOf(matcher.group(3).toUpperCase())) {
+    switch (Geospatial.Type.valueOf(literal.type.toUpperCase())) {
     case POINT:
-      item = newPoint(SRID.valueOf(matcher.group(2)), matcher.group(4),
+      item = newPoint(SRID.valueOf(literal.srid), literal.body,
           isNullable, maxLength, precision, scale, isUnicode);
       break;
 
     case MULTIPOINT:
       final List<Point> points = new ArrayList<Point>();
-      for (String pointCoo : StringUtils.split(matcher.group(4), ',')) {
+      for (String pointCoo : StringUtils.split(literal.body, ',')) {
         points.add(newPoint(null, pointCoo.substring(1, pointCoo.length() - 1),
             isNullable, maxLength, precision, scale, isUnicode));
       }
 
-      item = new MultiPoint(dimension, SRID.valueOf(matcher.group(2)), points);
+      item = new MultiPoint(dimension, SRID.valueOf(literal.srid), points);
       break;
 
     case LINESTRING:
-      item = newLineString(SRID.valueOf(matcher.group(2)), matcher.group(4),
+      item = newLineString(SRID.valueOf(literal.srid), literal.body,
           isNullable, maxLength, precision, scale, isUnicode);
       break;
 
     case MULTILINESTRING:
       final List<LineString> lineStrings = new ArrayList<LineString>();
-      for (String coo : StringUtils.split(matcher.group(4), ',')) {
+      for (String coo : StringUtils.split(literal.body, ',')) {
         lineStrings.add(newLineString(null, coo.substring(1, coo.length() - 1),
             isNullable, maxLength, precision, scale, isUnicode));
       }
 
-      item = new MultiLineString(this.dimension, SRID.valueOf(matcher.group(2)), lineStrings);
+      item = new MultiLineString(this.dimension, SRID.valueOf(literal.srid), lineStrings);
       break;
 
     case POLYGON:
-      item = newPolygon(SRID.valueOf(matcher.group(2)), matcher.group(4),
+      item = newPolygon(SRID.valueOf(literal.srid), literal.body,
           isNullable, maxLength, precision, scale, isUnicode);
       break;
 
     case MULTIPOLYGON:
       final List<Polygon> polygons = new ArrayList<Polygon>();
-      for (String coo : StringUtils.split(matcher.group(4), ',')) {
+      for (String coo : StringUtils.split(literal.body, ',')) {
         polygons.add(newPolygon(null, coo.substring(1, coo.length() - 1),
             isNullable, maxLength, precision, scale, isUnicode));
       }
 
-      item = new MultiPolygon(dimension, SRID.valueOf(matcher.group(2)), polygons);
+      item = new MultiPolygon(dimension, SRID.valueOf(literal.srid), polygons);
       break;
 
     default:
     }
 
-    return new GeospatialCollection(dimension, SRID.valueOf(matcher.group(2)),
+    return new GeospatialCollection(dimension, SRID.valueOf(literal.srid),
         Collections.<Geospatial> singletonList(item));
   }
 
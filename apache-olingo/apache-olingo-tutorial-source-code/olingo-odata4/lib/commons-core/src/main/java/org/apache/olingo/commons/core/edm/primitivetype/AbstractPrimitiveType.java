@@ -90,6 +90,39 @@ abstract class AbstractPrimitiveType implements EdmPrimitiveType {
       Boolean isNullable, Integer maxLength, Integer precision, Integer scale,
       Boolean isUnicode) throws EdmPrimitiveTypeException;
 
+  /**
+   * Appends the literal representation of the given value to the given buffer.
+   * The value is validated against the facets exactly as in {@link #valueToString},
+   * but types with a fast path write directly into the buffer without an intermediate string.
+   * Nothing is appended for a <code>null</code> value.
+   *
+   * @param value the value
+   * @param isNullable whether the <code>null</code> value is allowed
+   * @param maxLength the maximum length
+   * @param precision the precision
+   * @param scale the scale
+   * @param isUnicode whether non-ASCII characters are allowed (relevant only for Edm.String)
+   * @param buffer the buffer the literal is appended to
+   * @throws EdmPrimitiveTypeException if the value is not valid
+   */
+  public final void appendValue(final Object value,
+      final Boolean isNullable, final Integer maxLength, final Integer precision,
+      final Integer scale, final Boolean isUnicode, final StringBuilder buffer) throws EdmPrimitiveTypeException {
+    if (value == null) {
+      if (isNullable != null && !isNullable) {
+        throw new EdmPrimitiveTypeException("The value NULL is not allowed.");
+      }
+      return;
+    }
+    internalAppendValue(value, isNullable, maxLength, precision, scale, isUnicode, buffer);
+  }
+
+  protected <T> void internalAppendValue(final T value,
+      final Boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
+      final Boolean isUnicode, final StringBuilder buffer) throws EdmPrimitiveTypeException {
+    buffer.append(internalValueToString(value, isNullable, maxLength, precision, scale, isUnicode));
+  }
+
   @Override
   public String toUriLiteral(final String literal) {
     return literal == null ? null :
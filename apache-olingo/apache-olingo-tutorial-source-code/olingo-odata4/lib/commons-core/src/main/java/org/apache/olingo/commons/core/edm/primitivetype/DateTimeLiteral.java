@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.core.edm.primitivetype;
+
+/**
+ * Scanner for the literals of the date and time types, used instead of regular expressions.
+ * It checks the syntax and splits the literal into its fields; it does not check the ranges
+ * of the fields, that is left to the conversion into a value.
+ */
+final class DateTimeLiteral {
+
+  /** The maximum number of digits (including trailing zeroes) of fractional seconds. */
+  private static final int MAX_FRACTIONAL_DIGITS = 12;
+
+  /** The maximum number of digits of a year, so that the year fits into an integer. */
+  private static final int MAX_YEAR_DIGITS = 9;
+
+  private final String value;
+  private int index;
+
+  int year;
+  int month;
+  int day;
+  int hour;
+  int minute;
+  int second;
+  /** The significant digits of the fractional seconds, without trailing zeroes; <code>null</code> if absent. */
+  String fractionalDigits;
+  /** Whether an explicit, non-zero time-zone offset is present. */
+  boolean hasOffset;
+  int offsetHours;
+  int offsetMinutes;
+  /** The offset in minutes, negative for time zones west of Greenwich. */
+  int offsetInMinutes;
+
+  private DateTimeLiteral(final String value) {
+    this.value = value;
+  }
+
+  /**
+   * Scans a literal of the form <code>yyyy-mm-ddThh:mm[:ss[.fffffffffffff]][Z|(+|-)hh:mm]</code>.
+   * @return the scanned literal or <code>null</code> if the syntax is not valid
+   */
+  static DateTimeLiteral parseDateTimeOffset(final String value) {
+    final DateTimeLiteral literal = new DateTimeLiteral(value);
+    return literal.scanDate() && literal.expect('T') && literal.scanTime() && literal.scanOffset()
+        && literal.isAtEnd() ? literal : null;
+  }
+
+  /**
+   * Scans a literal of the form <code>yyyy-mm-dd</code>.
+   * @return the scanned literal or <code>null</code> if the syntax is not valid
+   */
+  static DateTimeLiteral parseDate(final String value) {
+    final DateTimeLiteral literal = new DateTimeLiteral(value);
+    return literal.scanDate() && literal.isAtEnd() ? literal : null;
+  }
+
+  /**
+   * Scans a literal of the form <code>hh:mm[:ss[.fffffffffffff]]</code>.
+   * @return the scanned literal or <code>null</code> if the syntax is not valid
+   */
+  static DateTimeLiteral parseTimeOfDay(final String value) {
+    final DateTimeLiteral literal = new DateTimeLiteral(value);
+    return literal.scanTime() && literal.isAtEnd() ? literal : null;
+  }
+
+  /** Whether the date fields form a valid date in the proleptic Gregorian calendar. */
+  boolean isValidDate() {
+    return month >= 1 && month <= 12 && day >= 1 && day <= getMonthLength(year, month);
+  }
+
+  /** Whether the time fields form a valid time of day. */
+  boolean isValidTime() {
+    return hour <= 23 && minute <= 59 && second <= 59;
+  }
+
+  /** Returns the milliseconds of the fractional seconds, truncated to three digits. */
+  int getMilliseconds() {
+    return getFraction(3);
+  }
+
+  /** Returns the nanoseconds of the fractional seconds, truncated to nine digits. */
+  int getNanoseconds() {
+    return getFraction(9);
+  }
+
+  private int getFraction(final int digits) {
+    int result = 0;
+    for (int position = 0; position < digits; position++) {
+      result = result * 10 + (fractionalDigits != null && position < fractionalDigits.length() ?
+          fractionalDigits.charAt(position) - '0' : 0);
+    }
+    return result;
+  }
+
+  private boolean scanDate() {
+    final boolean negative = index < value.length() && value.charAt(index) == '-';
+    if (negative) {
+      index++;
+    }
+    final int yearStart = index;
+    while (index < value.length() && LiteralScanner.isDigit(value.charAt(index))) {
+      index++;
+    }
+    if (index - yearStart < 4 || index - yearStart > MAX_YEAR_DIGITS) {
+      return false;
+    }
+    year = parseDigits(yearStart, index);
+    if (negative) {
+      year = -year;
+    }
+    if (!expect('-')) {
+      return false;
+    }
+    month = scanTwoDigits();
+    if (month < 0 || !expect('-')) {
+      return false;
+    }
+    day = scanTwoDigits();
+    return day >= 0;
+  }
+
+  private boolean scanTime() {
+    hour = scanTwoDigits();
+    if (hour < 0 || !expect(':')) {
+      return false;
+    }
+    minute = scanTwoDigits();
+    if (minute < 0) {
+      return false;
+    }
+    if (index < value.length() && value.charAt(index) == ':') {
+      index++;
+      second = scanTwoDigits();
+      if (second < 0) {
+        return false;
+      }
+      if (index < value.length() && value.charAt(index) == '.') {
+        index++;
+        final int fractionStart = index;
+        int significantEnd = index;
+        while (index < value.length() && LiteralScanner.isDigit(value.charAt(index))) {
+          if (value.charAt(index) != '0') {
+            significantEnd = index + 1;
+          }
+          index++;
+        }
+        if (index == fractionStart || index - fractionStart > MAX_FRACTIONAL_DIGITS) {
+          return false;
+        }
+        fractionalDigits = value.substring(fractionStart, significantEnd);
+      }
+    }
+    return true;
+  }
+
+  private boolean scanOffset() {
+    if (index < value.length() && value.charAt(index) == 'Z') {
+      index++;
+    } else if (index < value.length() && (value.charAt(index) == '+' || value.charAt(index) == '-')) {
+      final boolean negative = value.charAt(index) == '-';
+      index++;
+      offsetHours = scanTwoDigits();
+      if (offsetHours < 0 || !expect(':')) {
+        return false;
+      }
+      offsetMinutes = scanTwoDigits();
+      if (offsetMinutes < 0) {
+        return false;
+      }
+      offsetInMinutes = (negative ? -1 : 1) * (offsetHours * 60 + offsetMinutes);
+      hasOffset = offsetInMinutes != 0;
+    }
+    return true;
+  }
+
+  /** Returns the offset as used in the ID of a custom time zone, e.g., <code>+01:30</code>. */
+  String getOffsetString() {
+    return value.substring(value.length() - 6);
+  }
+
+  private int scanTwoDigits() {
+    if (index + 2 <= value.length()
+        && LiteralScanner.isDigit(value.charAt(index)) && LiteralScanner.isDigit(value.charAt(index + 1))) {
+      index += 2;
+      return parseDigits(index - 2, index);
+    }
+    return -1;
+  }
+
+  private boolean expect(final char expected) {
+    if (index < value.length() && value.charAt(index) == expected) {
+      index++;
+      return true;
+    }
+    return false;
+  }
+
+  private boolean isAtEnd() {
+    return index == value.length();
+  }
+
+  private int parseDigits(final int start, final int end) {
+    int result = 0;
+    for (int position = start; position < end; position++) {
+      result = result * 10 + value.charAt(position) - '0';
+    }
+    return result;
+  }
+
+  private static int getMonthLength(final int year, final int month) {
+    switch (month) {
+    case 2:
+      return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+    case 4:
+    case 6:
+    case 9:
+    case 11:
+      return 30;
+    default:
+      return 31;
+    }
+  }
+}
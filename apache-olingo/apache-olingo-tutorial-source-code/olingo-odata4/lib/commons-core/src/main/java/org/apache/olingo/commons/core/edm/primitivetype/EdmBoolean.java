@@ -68,9 +68,18 @@ public final class EdmBoolean extends SingletonPrimitiveType {
   protected <T> String internalValueToString(final T value,
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    final StringBuilder result = new StringBuilder();
+    internalAppendValue(value, isNullable, maxLength, precision, scale, isUnicode, result);
+    return result.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValue(final T value,
+      final Boolean isNullable, final Integer maxLength, final Integer precision,
+      final Integer scale, final Boolean isUnicode, final StringBuilder buffer) throws EdmPrimitiveTypeException {
 
     if (value instanceof Boolean) {
-      return Boolean.toString((Boolean) value);
+      buffer.append(((Boolean) value).booleanValue());
     } else {
       throw new EdmPrimitiveTypeException("The value type " + value.getClass() + " is not supported.");
     }
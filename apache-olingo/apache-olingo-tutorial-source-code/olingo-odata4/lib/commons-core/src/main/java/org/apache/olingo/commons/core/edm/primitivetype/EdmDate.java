@@ -19,9 +19,8 @@
 package org.apache.olingo.commons.core.edm.primitivetype;
 
 import java.util.Calendar;
+import java.util.Date;
 import java.util.TimeZone;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 
@@ -30,8 +29,6 @@ import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
  */
 public final class EdmDate extends SingletonPrimitiveType {
 
-  private static final Pattern PATTERN = Pattern.compile("(-?\\p{Digit}{4,})-(\\p{Digit}{2})-(\\p{Digit}{2})");
-
   private static final EdmDate INSTANCE = new EdmDate();
 
   public static EdmDate getInstance() {
@@ -48,20 +45,24 @@ public final class EdmDate extends SingletonPrimitiveType {
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode, final Class<T> returnType) throws EdmPrimitiveTypeException {
 
-    final Calendar dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-    dateTimeValue.clear();
-
-    final Matcher matcher = PATTERN.matcher(value);
-    if (!matcher.matches()) {
+    final DateTimeLiteral literal = DateTimeLiteral.parseDate(value);
+    if (literal == null) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
     }
 
-    dateTimeValue.set(
-        Integer.parseInt(matcher.group(1)),
-        Byte.parseByte(matcher.group(2)) - 1, // month is zero-based
-        Byte.parseByte(matcher.group(3)));
-
     try {
+      if (!returnType.isAssignableFrom(Calendar.class)
+          && EdmDateTimeOffset.isArithmeticallyConvertible(literal.year)) {
+        if (!literal.isValidDate()) {
+          throw new IllegalArgumentException();
+        }
+        return EdmDateTimeOffset.convertMillis(EdmDateTimeOffset.getMillis(literal.year, literal.month, literal.day),
+            0, returnType);
+      }
+
+      final Calendar dateTimeValue = Calendar.getInstance((TimeZone) EdmDateTimeOffset.GMT.clone());
+      dateTimeValue.clear();
+      dateTimeValue.set(literal.year, literal.month - 1, literal.day); // month is zero-based
       return EdmDateTimeOffset.convertDateTime(dateTimeValue, 0, returnType);
     } catch (final IllegalArgumentException e) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.", e);
@@ -74,10 +75,26 @@ public final class EdmDate extends SingletonPrimitiveType {
   protected <T> String internalValueToString(final T value,
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    final StringBuilder result = new StringBuilder(10); // Ten characters are enough for "normal" dates.
+    internalAppendValue(value, isNullable, maxLength, precision, scale, isUnicode, result);
+    return result.toString();
+  }
 
-    final Calendar dateTimeValue = EdmDateTimeOffset.createDateTime(value);
+  @Override
+  protected <T> void internalAppendValue(final T value,
+      final Boolean isNullable, final Integer maxLength, final Integer precision,
+      final Integer scale, final Boolean isUnicode, final StringBuilder result) throws EdmPrimitiveTypeException {
 
-    final StringBuilder result = new StringBuilder(10); // Ten characters are enough for "normal" dates.
+    if (value instanceof Date || value instanceof Long) {
+      final long millis = value instanceof Long ? (Long) value : ((Date) value).getTime();
+      final int offset = value instanceof Long ? 0 : TimeZone.getDefault().getOffset(millis);
+      if (EdmDateTimeOffset.isArithmeticallyFormattable(millis, offset)) {
+        EdmDateTimeOffset.appendDate(result, millis + offset);
+        return;
+      }
+    }
+
+    final Calendar dateTimeValue = EdmDateTimeOffset.createDateTime(value);
     final int year = dateTimeValue.get(Calendar.YEAR);
     if (year < 0 || year >= 10000) {
       result.append(year);
@@ -89,6 +106,5 @@ public final class EdmDate extends SingletonPrimitiveType {
     EdmDateTimeOffset.appendTwoDigits(result, dateTimeValue.get(Calendar.MONTH) + 1); // month is zero-based
     result.append('-');
     EdmDateTimeOffset.appendTwoDigits(result, dateTimeValue.get(Calendar.DAY_OF_MONTH));
-    return result.toString();
   }
 }
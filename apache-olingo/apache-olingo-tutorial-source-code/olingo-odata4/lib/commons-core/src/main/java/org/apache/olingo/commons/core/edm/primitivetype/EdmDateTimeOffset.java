@@ -22,8 +22,6 @@ import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 
@@ -32,10 +30,16 @@ import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
  */
 public final class EdmDateTimeOffset extends SingletonPrimitiveType {
 
-  private static final Pattern PATTERN = Pattern.compile(
-      "(-?\\p{Digit}{4,})-(\\p{Digit}{2})-(\\p{Digit}{2})"
-          + "T(\\p{Digit}{2}):(\\p{Digit}{2})(?::(\\p{Digit}{2})(\\.(\\p{Digit}{0,12}?)0*)?)?"
-          + "(Z|([-+]\\p{Digit}{2}:\\p{Digit}{2}))?");
+  /** The GMT time zone; it must be cloned before use because time zones are mutable. */
+  protected static final TimeZone GMT = TimeZone.getTimeZone("GMT");
+
+  /** The default change from the Julian to the Gregorian calendar, 15 October 1582, in milliseconds. */
+  private static final long GREGORIAN_CUTOVER = -12219292800000L;
+
+  /** The start of the year 10000 in milliseconds. */
+  private static final long YEAR_10000 = 253402300800000L;
+
+  protected static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
 
   private static final EdmDateTimeOffset INSTANCE = new EdmDateTimeOffset();
 
@@ -53,52 +57,39 @@ public final class EdmDateTimeOffset extends SingletonPrimitiveType {
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode, final Class<T> returnType) throws EdmPrimitiveTypeException {
 
-    final Matcher matcher = PATTERN.matcher(value);
-    if (!matcher.matches()) {
+    final DateTimeLiteral literal = DateTimeLiteral.parseDateTimeOffset(value);
+    // A time zone is valid with up to 23 hours and 59 minutes.
+    if (literal == null || literal.offsetHours > 23 || literal.offsetMinutes > 59) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
     }
-
-    final String timeZoneOffset = matcher.group(9) == null || matcher.group(10) == null
-        || matcher.group(10).matches("[-+]0+:0+") ? null : matcher.group(10);
-    final Calendar dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT" + timeZoneOffset));
-    if (dateTimeValue.get(Calendar.ZONE_OFFSET) == 0 && timeZoneOffset != null) {
-      throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
+    if (literal.fractionalDigits != null
+        && literal.fractionalDigits.length() > (precision == null ? 0 : precision)) {
+      throw new EdmPrimitiveTypeException("The literal '" + value + "' does not match the facets' constraints.");
     }
-    dateTimeValue.clear();
-
-    dateTimeValue.set(
-        Short.parseShort(matcher.group(1)),
-        Byte.parseByte(matcher.group(2)) - 1, // month is zero-based
-        Byte.parseByte(matcher.group(3)),
-        Byte.parseByte(matcher.group(4)),
-        Byte.parseByte(matcher.group(5)),
-        matcher.group(6) == null ? 0 : Byte.parseByte(matcher.group(6)));
-
-    int nanoSeconds = 0;
-    if (matcher.group(7) != null) {
-      if (matcher.group(7).length() == 1 || matcher.group(7).length() > 13) {
-        throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
-      }
-      final String decimals = matcher.group(8);
-      if (decimals.length() > (precision == null ? 0 : precision)) {
-        throw new EdmPrimitiveTypeException("The literal '" + value + "' does not match the facets' constraints.");
-      }
-      if (returnType.isAssignableFrom(Timestamp.class)) {
-        if (!decimals.isEmpty()) {
-          nanoSeconds = Integer.parseInt(decimals.length() > 9 ?
-              decimals.substring(0, 9) :
-              decimals + "000000000".substring(decimals.length()));
+    final boolean isTimestamp = returnType.isAssignableFrom(Timestamp.class);
+
+    try {
+      if (!returnType.isAssignableFrom(Calendar.class) && isArithmeticallyConvertible(literal.year)) {
+        if (!literal.isValidDate() || !literal.isValidTime()) {
+          throw new IllegalArgumentException();
         }
-      } else {
-        final String milliSeconds = decimals.length() > 3 ?
-            decimals.substring(0, 3) :
-            decimals + "000".substring(decimals.length());
-        dateTimeValue.set(Calendar.MILLISECOND, Short.parseShort(milliSeconds));
+        final long millis = getMillis(literal.year, literal.month, literal.day)
+            + ((literal.hour * 60L + literal.minute - literal.offsetInMinutes) * 60 + literal.second) * 1000
+            + (isTimestamp ? 0 : literal.getMilliseconds());
+        return convertMillis(millis, isTimestamp ? literal.getNanoseconds() : 0, returnType);
       }
-    }
 
-    try {
-      return convertDateTime(dateTimeValue, nanoSeconds, returnType);
+      // Only a Calendar return value or a date outside the Gregorian range requires a Calendar.
+      final Calendar dateTimeValue = Calendar.getInstance(literal.hasOffset ?
+          TimeZone.getTimeZone("GMT" + literal.getOffsetString()) :
+          (TimeZone) GMT.clone());
+      dateTimeValue.clear();
+      dateTimeValue.set(literal.year, literal.month - 1, // month is zero-based
+          literal.day, literal.hour, literal.minute, literal.second);
+      if (literal.fractionalDigits != null && !isTimestamp) {
+        dateTimeValue.set(Calendar.MILLISECOND, literal.getMilliseconds());
+      }
+      return convertDateTime(dateTimeValue, isTimestamp ? literal.getNanoseconds() : 0, returnType);
     } catch (final IllegalArgumentException e) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.", e);
     } catch (final ClassCastException e) {
@@ -106,6 +97,56 @@ public final class EdmDateTimeOffset extends SingletonPrimitiveType {
     }
   }
 
+  /**
+   * Determines whether a date in the given year can be converted into milliseconds
+   * by {@link #getMillis(int, int, int)} with the same result as a {@link java.util.GregorianCalendar}.
+   */
+  protected static boolean isArithmeticallyConvertible(final int year) {
+    return year > 1582 && year < 10000;
+  }
+
+  /**
+   * Computes the milliseconds since the epoch of the start of the given day in GMT,
+   * according to the proleptic Gregorian calendar.
+   * @param year the year
+   * @param month the month (one-based)
+   * @param day the day of the month
+   */
+  protected static long getMillis(final int year, final int month, final int day) {
+    // Years start on 1 March here so that the leap day is the last day of the year.
+    final int shiftedYear = month <= 2 ? year - 1 : year;
+    final int era = (shiftedYear >= 0 ? shiftedYear : shiftedYear - 399) / 400;
+    final int yearOfEra = shiftedYear - era * 400;
+    final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return (era * 146097L + dayOfEra - 719468) * MILLIS_PER_DAY;
+  }
+
+  /**
+   * Converts milliseconds since the epoch into the requested return type if possible.
+   *
+   * @param millis the value in milliseconds
+   * @param nanoSeconds nanoseconds part of the value; only used for the {@link Timestamp} return type
+   * @param returnType the class of the returned value; it must be one of {@link Long}, {@link Date},
+   * or {@link Timestamp}
+   * @return the converted value
+   * @throws ClassCastException if the return type is not allowed
+   */
+  protected static <T> T convertMillis(final long millis, final int nanoSeconds, final Class<T> returnType)
+      throws ClassCastException {
+    if (returnType.isAssignableFrom(Long.class)) {
+      return returnType.cast(millis);
+    } else if (returnType.isAssignableFrom(Date.class)) {
+      return returnType.cast(new Date(millis));
+    } else if (returnType.isAssignableFrom(Timestamp.class)) {
+      Timestamp timestamp = new Timestamp(millis);
+      timestamp.setNanos(nanoSeconds);
+      return returnType.cast(timestamp);
+    } else {
+      throw new ClassCastException("unsupported return type " + returnType.getSimpleName());
+    }
+  }
+
   /**
    * Converts a {@link Calendar} value into the requested return type if possible.
    *
@@ -149,17 +190,50 @@ public final class EdmDateTimeOffset extends SingletonPrimitiveType {
   protected <T> String internalValueToString(final T value,
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    final StringBuilder result = new StringBuilder();
+    internalAppendValue(value, isNullable, maxLength, precision, scale, isUnicode, result);
+    return result.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValue(final T value,
+      final Boolean isNullable, final Integer maxLength, final Integer precision,
+      final Integer scale, final Boolean isUnicode, final StringBuilder result) throws EdmPrimitiveTypeException {
+
+    if (value instanceof Date || value instanceof Long) {
+      // Timestamps and milliseconds are formatted in GMT, dates in the default time zone;
+      // inside the supported range, this is done arithmetically without creating a Calendar.
+      final long millis = value instanceof Long ? (Long) value : ((Date) value).getTime();
+      final int offset = value instanceof Long || value instanceof Timestamp ? 0
+          : TimeZone.getDefault().getOffset(millis);
+      if (isArithmeticallyFormattable(millis, offset)) {
+        final long localMillis = millis + offset;
+        appendDate(result, localMillis);
+        result.append('T');
+        appendTime(result, localMillis);
+        final int fractionalSecs = value instanceof Timestamp ?
+            ((Timestamp) value).getNanos() :
+            (int) floorMod(localMillis, 1000);
+        try {
+          appendFractionalSeconds(result, fractionalSecs, value instanceof Timestamp, precision);
+        } catch (final IllegalArgumentException e) {
+          throw new EdmPrimitiveTypeException(
+              "The value '" + value + "' does not match the facets' constraints.", e);
+        }
+        appendOffset(result, offset / 60 / 1000);
+        return;
+      }
+    }
 
     Calendar dateTimeValue;
     if (value instanceof Timestamp) {
-      final Calendar tmp = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+      final Calendar tmp = Calendar.getInstance((TimeZone) GMT.clone());
       tmp.setTimeInMillis(((Timestamp) value).getTime());
       dateTimeValue = createDateTime(tmp);
     } else {
       dateTimeValue = createDateTime(value);
     }
 
-    StringBuilder result = new StringBuilder();
     final int year = dateTimeValue.get(Calendar.YEAR);
     appendTwoDigits(result, year / 100);
     appendTwoDigits(result, year % 100);
@@ -185,12 +259,7 @@ public final class EdmDateTimeOffset extends SingletonPrimitiveType {
 
     final int offsetInMinutes = (dateTimeValue.get(Calendar.ZONE_OFFSET)
         + dateTimeValue.get(Calendar.DST_OFFSET)) / 60 / 1000;
-    final int offsetHours = offsetInMinutes / 60;
-    final int offsetMinutes = Math.abs(offsetInMinutes % 60);
-    final String offsetString = offsetInMinutes == 0 ? "Z" : String.format("%+03d:%02d", offsetHours, offsetMinutes);
-    result.append(offsetString);
-
-    return result.toString();
+    appendOffset(result, offsetInMinutes);
   }
 
   /**
@@ -211,7 +280,7 @@ public final class EdmDateTimeOffset extends SingletonPrimitiveType {
     } else if (value instanceof Calendar) {
       dateTimeValue = (Calendar) ((Calendar) value).clone();
     } else if (value instanceof Long) {
-      dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+      dateTimeValue = Calendar.getInstance((TimeZone) GMT.clone());
       dateTimeValue.setTimeInMillis((Long) value);
     } else {
       throw new EdmPrimitiveTypeException("The value type " + value.getClass() + " is not supported.");
@@ -219,6 +288,94 @@ public final class EdmDateTimeOffset extends SingletonPrimitiveType {
     return dateTimeValue;
   }
 
+  /**
+   * Determines whether the given point in time can be formatted by
+   * {@link #appendDate(StringBuilder, long)} and {@link #appendTime(StringBuilder, long)}
+   * with the same result as a {@link java.util.GregorianCalendar}, i.e., whether it lies
+   * in a year with four digits after the Gregorian cutover, both in GMT and in local time.
+   *
+   * @param millis milliseconds since the epoch
+   * @param offset the time-zone offset in milliseconds
+   */
+  protected static boolean isArithmeticallyFormattable(final long millis, final int offset) {
+    final long localMillis = millis + offset;
+    return Math.min(millis, localMillis) >= GREGORIAN_CUTOVER + MILLIS_PER_DAY
+        && Math.max(millis, localMillis) < YEAR_10000;
+  }
+
+  /**
+   * Appends the date part of the given local time as <code>yyyy-MM-dd</code> to the given string builder,
+   * computed with the proleptic Gregorian calendar.
+   *
+   * @param result a {@link StringBuilder}
+   * @param localMillis milliseconds since the epoch, already shifted by the time-zone offset
+   */
+  protected static void appendDate(final StringBuilder result, final long localMillis) {
+    // Days are converted to the civil date relative to a year starting on 1 March
+    // so that the leap day is the last day of the year.
+    final long shifted = floorDiv(localMillis, MILLIS_PER_DAY) + 719468;
+    final long era = (shifted >= 0 ? shifted : shifted - 146096) / 146097;
+    final int dayOfEra = (int) (shifted - era * 146097);
+    final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    final int shiftedMonth = (5 * dayOfYear + 2) / 153;
+    final int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+    final int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+    final int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+
+    appendTwoDigits(result, year / 100);
+    appendTwoDigits(result, year % 100);
+    result.append('-');
+    appendTwoDigits(result, month);
+    result.append('-');
+    appendTwoDigits(result, day);
+  }
+
+  /**
+   * Appends the time part of the given local time as <code>HH:mm:ss</code> to the given string builder.
+   *
+   * @param result a {@link StringBuilder}
+   * @param localMillis milliseconds since the epoch, already shifted by the time-zone offset
+   */
+  protected static void appendTime(final StringBuilder result, final long localMillis) {
+    final int secondOfDay = (int) (floorMod(localMillis, MILLIS_PER_DAY) / 1000);
+    appendTwoDigits(result, secondOfDay / 3600);
+    result.append(':');
+    appendTwoDigits(result, secondOfDay / 60 % 60);
+    result.append(':');
+    appendTwoDigits(result, secondOfDay % 60);
+  }
+
+  /**
+   * Appends the given time-zone offset to the given string builder, either as <code>Z</code>
+   * or as <code>+hh:mm</code> or <code>-hh:mm</code>.
+   *
+   * @param result a {@link StringBuilder}
+   * @param offsetInMinutes the offset from GMT in minutes
+   */
+  protected static void appendOffset(final StringBuilder result, final int offsetInMinutes) {
+    if (offsetInMinutes == 0) {
+      result.append('Z');
+    } else {
+      result.append(offsetInMinutes < 0 ? '-' : '+');
+      appendTwoDigits(result, Math.abs(offsetInMinutes) / 60);
+      result.append(':');
+      appendTwoDigits(result, Math.abs(offsetInMinutes) % 60);
+    }
+  }
+
+  /** Divides rounding towards negative infinity; the divisor must be positive. */
+  protected static long floorDiv(final long dividend, final long divisor) {
+    final long quotient = dividend / divisor;
+    return dividend % divisor < 0 ? quotient - 1 : quotient;
+  }
+
+  /** Computes the non-negative remainder of a division by a positive divisor. */
+  protected static long floorMod(final long dividend, final long divisor) {
+    final long remainder = dividend % divisor;
+    return remainder < 0 ? remainder + divisor : remainder;
+  }
+
   /**
    * Appends the given number to the given string builder, assuming that the number has at most two digits,
    * performance-optimized.
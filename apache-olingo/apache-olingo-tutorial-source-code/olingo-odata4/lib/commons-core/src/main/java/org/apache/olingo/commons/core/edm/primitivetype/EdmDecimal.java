@@ -20,8 +20,6 @@ package org.apache.olingo.commons.core.edm.primitivetype;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
@@ -31,8 +29,6 @@ import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
  */
 public final class EdmDecimal extends SingletonPrimitiveType {
 
-  private static final Pattern PATTERN = Pattern.compile("(?:\\+|-)?(?:0*(\\p{Digit}+?))(?:\\.(\\p{Digit}+?)0*)?");
-
   private static final EdmDecimal INSTANCE = new EdmDecimal();
 
   public static EdmDecimal getInstance() {
@@ -62,22 +58,51 @@ public final class EdmDecimal extends SingletonPrimitiveType {
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode) {
 
-    return value == null
-        ? isNullable == null || isNullable
-        : validateLiteral(value) && validatePrecisionAndScale(value, precision, scale);
+    if (value == null) {
+      return isNullable == null || isNullable;
+    }
+    final long digits = scanLiteral(value);
+    return digits >= 0 && validatePrecisionAndScale(digits, precision, scale);
   }
 
-  private static boolean validateLiteral(final String value) {
-    return PATTERN.matcher(value).matches();
+  /**
+   * Scans a literal of the form <code>[+|-]digits[.digits]</code>.
+   * @return the number of significant integer digits (without leading zeroes) in the upper half
+   * and the number of decimals (without trailing zeroes but at least one) in the lower half,
+   * or <code>-1</code> if the literal is not valid
+   */
+  private static long scanLiteral(final String value) {
+    final int integerStart = LiteralScanner.skipSign(value, 0);
+    final int integerEnd = LiteralScanner.skipDigits(value, integerStart);
+    if (integerEnd == integerStart) {
+      return -1;
+    }
+    int significantStart = integerStart;
+    while (significantStart < integerEnd && value.charAt(significantStart) == '0') {
+      significantStart++;
+    }
+
+    int decimals = 0;
+    if (integerEnd < value.length()) {
+      final int fractionStart = integerEnd + 1;
+      final int fractionEnd = LiteralScanner.skipDigits(value, fractionStart);
+      if (value.charAt(integerEnd) != '.' || fractionEnd == fractionStart || fractionEnd < value.length()) {
+        return -1;
+      }
+      int significantEnd = fractionEnd;
+      while (significantEnd > fractionStart + 1 && value.charAt(significantEnd - 1) == '0') {
+        significantEnd--;
+      }
+      decimals = significantEnd - fractionStart;
+    }
+
+    return (long) (integerEnd - significantStart) << 32 | decimals;
   }
 
-  private static boolean validatePrecisionAndScale(final String value, final Integer precision,
+  private static boolean validatePrecisionAndScale(final long digits, final Integer precision,
       final Integer scale) {
-
-    final Matcher matcher = PATTERN.matcher(value);
-    matcher.matches();
-    final int significantIntegerDigits = matcher.group(1).equals("0") ? 0 : matcher.group(1).length();
-    final int decimals = matcher.group(2) == null ? 0 : matcher.group(2).length();
+    final int significantIntegerDigits = (int) (digits >>> 32);
+    final int decimals = (int) digits;
     return (precision == null || precision >= significantIntegerDigits + decimals)
         && (decimals <= (scale == null ? 0 : scale));
   }
@@ -87,10 +112,11 @@ public final class EdmDecimal extends SingletonPrimitiveType {
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode, final Class<T> returnType) throws EdmPrimitiveTypeException {
 
-    if (!validateLiteral(value)) {
+    final long digits = scanLiteral(value);
+    if (digits < 0) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
     }
-    if (!validatePrecisionAndScale(value, precision, scale)) {
+    if (!validatePrecisionAndScale(digits, precision, scale)) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' does not match the facets' constraints.");
     }
 
@@ -158,15 +184,30 @@ public final class EdmDecimal extends SingletonPrimitiveType {
   protected <T> String internalValueToString(final T value,
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    final StringBuilder result = new StringBuilder();
+    internalAppendValue(value, isNullable, maxLength, precision, scale, isUnicode, result);
+    return result.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValue(final T value,
+      final Boolean isNullable, final Integer maxLength, final Integer precision,
+      final Integer scale, final Boolean isUnicode, final StringBuilder buffer) throws EdmPrimitiveTypeException {
 
-    String result;
-    if (value instanceof Long || value instanceof Integer || value instanceof Short
-        || value instanceof Byte || value instanceof BigInteger) {
-      result = value.toString();
+    if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      final long longValue = ((Number) value).longValue();
+      if (precision != null && precision < countDigits(longValue)) {
+        throw new EdmPrimitiveTypeException("The value '" + value + "' does not match the facets' constraints.");
+      }
+      buffer.append(longValue);
+
+    } else if (value instanceof BigInteger) {
+      final String result = value.toString();
       final int digits = result.startsWith("-") ? result.length() - 1 : result.length();
       if (precision != null && precision < digits) {
         throw new EdmPrimitiveTypeException("The value '" + value + "' does not match the facets' constraints.");
       }
+      buffer.append(result);
 
     } else if (value instanceof Double || value instanceof Float || value instanceof BigDecimal) {
       BigDecimal bigDecimalValue;
@@ -181,7 +222,7 @@ public final class EdmDecimal extends SingletonPrimitiveType {
           ? Math.max(bigDecimalValue.precision(), bigDecimalValue.scale())
               : bigDecimalValue.precision() - bigDecimalValue.scale();
           if ((precision == null || precision >= digits) && (bigDecimalValue.scale() <= (scale == null ? 0 : scale))) {
-            result = bigDecimalValue.toPlainString();
+            buffer.append(bigDecimalValue.toPlainString());
           } else {
             throw new EdmPrimitiveTypeException("The value '" + value + "' does not match the facets' constraints.");
           }
@@ -189,7 +230,14 @@ public final class EdmDecimal extends SingletonPrimitiveType {
     } else {
       throw new EdmPrimitiveTypeException("The value type " + value.getClass() + " is not supported.");
     }
+  }
 
-    return result;
+  /** Counts the decimal digits of the given number, not counting the sign. */
+  private static int countDigits(final long value) {
+    int digits = 1;
+    for (long rest = value / 10; rest != 0; rest /= 10) {
+      digits++;
+    }
+    return digits;
   }
 }
@@ -19,7 +19,6 @@
 package org.apache.olingo.commons.core.edm.primitivetype;
 
 import java.math.BigDecimal;
-import java.util.regex.Pattern;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
@@ -35,9 +34,6 @@ public final class EdmDouble extends SingletonPrimitiveType {
 
   protected static final String NaN = "NaN";
 
-  private static final Pattern PATTERN = Pattern.compile(
-      "(?:\\+|-)?\\p{Digit}{1,17}(?:\\.\\p{Digit}{1,17})?(?:(?:E|e)(?:\\+|-)?\\p{Digit}{1,3})?");
-
   private static final EdmDouble INSTANCE = new EdmDouble();
 
   public static EdmDouble getInstance() {
@@ -77,7 +73,7 @@ public final class EdmDouble extends SingletonPrimitiveType {
       result = Double.NaN;
     } else {
       // Now only "normal" numbers remain.
-      if (!PATTERN.matcher(value).matches()) {
+      if (!LiteralScanner.isFloatingPointLiteral(value, 17, 17, 3)) {
         throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
       }
 
@@ -116,24 +112,45 @@ public final class EdmDouble extends SingletonPrimitiveType {
   protected <T> String internalValueToString(final T value,
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    final StringBuilder result = new StringBuilder();
+    internalAppendValue(value, isNullable, maxLength, precision, scale, isUnicode, result);
+    return result.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValue(final T value,
+      final Boolean isNullable, final Integer maxLength, final Integer precision,
+      final Integer scale, final Boolean isUnicode, final StringBuilder buffer) throws EdmPrimitiveTypeException {
     if (value instanceof Long) {
       if (Math.abs((Long) value) < 1L << 51) {
-        return value.toString();
+        buffer.append(((Long) value).longValue());
       } else {
         throw new EdmPrimitiveTypeException("The value '" + value + "' is not valid.");
       }
     } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
-      return value.toString();
+      buffer.append(((Number) value).intValue());
     } else if (value instanceof Double) {
-      return (Double) value == Double.NEGATIVE_INFINITY ? NEGATIVE_INFINITY
-          : (Double) value == Double.POSITIVE_INFINITY ? POSITIVE_INFINITY : value.toString();
+      final double doubleValue = (Double) value;
+      if (doubleValue == Double.NEGATIVE_INFINITY) {
+        buffer.append(NEGATIVE_INFINITY);
+      } else if (doubleValue == Double.POSITIVE_INFINITY) {
+        buffer.append(POSITIVE_INFINITY);
+      } else {
+        buffer.append(doubleValue);
+      }
     } else if (value instanceof Float) {
-      return (Float) value == Float.NEGATIVE_INFINITY ? NEGATIVE_INFINITY
-          : (Float) value == Float.POSITIVE_INFINITY ? POSITIVE_INFINITY : value.toString();
+      final float floatValue = (Float) value;
+      if (floatValue == Float.NEGATIVE_INFINITY) {
+        buffer.append(NEGATIVE_INFINITY);
+      } else if (floatValue == Float.POSITIVE_INFINITY) {
+        buffer.append(POSITIVE_INFINITY);
+      } else {
+        buffer.append(floatValue);
+      }
     } else if (value instanceof BigDecimal) {
       final double doubleValue = ((BigDecimal) value).doubleValue();
       if (!Double.isInfinite(doubleValue) && BigDecimal.valueOf(doubleValue).compareTo((BigDecimal) value) == 0) {
-        return value.toString();
+        buffer.append(value);
       } else {
         throw new EdmPrimitiveTypeException("The value '" + value + "' is not valid.");
       }
@@ -20,17 +20,11 @@ package org.apache.olingo.commons.core.edm.primitivetype;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 
 public class EdmDuration extends SingletonPrimitiveType {
 
-  private static final Pattern PATTERN = Pattern.compile(
-      "[-+]?P(?:(\\p{Digit}+)D)?(?:T(?:(\\p{Digit}+)H)?(?:(\\p{Digit}+)M)?"
-          + "(?:(\\p{Digit}+(?:\\.(?:\\p{Digit}+?)0*)?)S)?)?");
-
   private static final EdmDuration INSTANCE = new EdmDuration();
 
   {
@@ -52,20 +46,55 @@ public class EdmDuration extends SingletonPrimitiveType {
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode, final Class<T> returnType) throws EdmPrimitiveTypeException {
 
-    final Matcher matcher = PATTERN.matcher(value);
-    if (!matcher.matches()
-        || matcher.group(1) == null && matcher.group(2) == null && matcher.group(3) == null
-        && matcher.group(4) == null) {
+    // The literal has the form [-|+]P[nD][T[nH][nM][n[.n]S]] with at least one component.
+    String days = null;
+    String hours = null;
+    String minutes = null;
+    String seconds = null;
+    int index = LiteralScanner.skipSign(value, 0);
+    boolean valid = index < value.length() && value.charAt(index++) == 'P';
+    boolean inTime = false;
+    while (valid && index < value.length()) {
+      if (!inTime && value.charAt(index) == 'T') {
+        inTime = true;
+        index++;
+        continue;
+      }
+      final int start = index;
+      index = LiteralScanner.skipDigits(value, start);
+      boolean hasFraction = false;
+      if (index > start && index < value.length() && value.charAt(index) == '.') {
+        final int fractionStart = index + 1;
+        index = LiteralScanner.skipDigits(value, fractionStart);
+        hasFraction = index > fractionStart;
+        valid = hasFraction;
+      }
+      final char designator = index > start && index < value.length() ? value.charAt(index) : ' ';
+      final String number = value.substring(start, index++);
+      if (designator == 'D' && !hasFraction && !inTime && days == null) {
+        days = number;
+      } else if (designator == 'H' && !hasFraction && inTime && hours == null && minutes == null
+          && seconds == null) {
+        hours = number;
+      } else if (designator == 'M' && !hasFraction && inTime && minutes == null && seconds == null) {
+        minutes = number;
+      } else if (designator == 'S' && inTime && seconds == null) {
+        seconds = number;
+      } else {
+        valid = false;
+      }
+    }
+    if (!valid || days == null && hours == null && minutes == null && seconds == null) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
     }
 
-    BigDecimal result = (matcher.group(1) == null ? BigDecimal.ZERO
-        : new BigDecimal(matcher.group(1)).multiply(BigDecimal.valueOf(24 * 60 * 60))).
-        add(matcher.group(2) == null ? BigDecimal.ZERO
-            : new BigDecimal(matcher.group(2)).multiply(BigDecimal.valueOf(60 * 60))).
-            add(matcher.group(3) == null ? BigDecimal.ZERO
-                : new BigDecimal(matcher.group(3)).multiply(BigDecimal.valueOf(60))).
-                add(matcher.group(4) == null ? BigDecimal.ZERO : new BigDecimal(matcher.group(4)));
+    BigDecimal result = (days == null ? BigDecimal.ZERO
+        : new BigDecimal(days).multiply(BigDecimal.valueOf(24 * 60 * 60))).
+        add(hours == null ? BigDecimal.ZERO
+            : new BigDecimal(hours).multiply(BigDecimal.valueOf(60 * 60))).
+            add(minutes == null ? BigDecimal.ZERO
+                : new BigDecimal(minutes).multiply(BigDecimal.valueOf(60))).
+                add(seconds == null ? BigDecimal.ZERO : new BigDecimal(seconds));
 
     if (result.scale() <= (precision == null ? 0 : precision)) {
       result = value.charAt(0) == '-' ? result.negate() : result;
@@ -27,8 +27,6 @@ import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
  */
 public final class EdmGuid extends SingletonPrimitiveType {
 
-  private static final String PATTERN = "\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}";
-
   private static final EdmGuid INSTANCE = new EdmGuid();
 
   public static EdmGuid getInstance() {
@@ -47,8 +45,20 @@ public final class EdmGuid extends SingletonPrimitiveType {
     return value == null ? isNullable == null || isNullable : validateLiteral(value);
   }
 
+  /** Checks for five groups of 8, 4, 4, 4, and 12 hexadecimal digits, separated by hyphens. */
   private boolean validateLiteral(final String value) {
-    return value.matches(PATTERN);
+    if (value.length() != 36) {
+      return false;
+    }
+    for (int index = 0; index < 36; index++) {
+      final char character = value.charAt(index);
+      if (index == 8 || index == 13 || index == 18 || index == 23 ?
+          character != '-' :
+          !LiteralScanner.isHexDigit(character)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
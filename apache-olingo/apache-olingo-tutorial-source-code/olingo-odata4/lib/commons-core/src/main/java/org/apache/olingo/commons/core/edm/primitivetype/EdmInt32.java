@@ -74,18 +74,27 @@ public final class EdmInt32 extends SingletonPrimitiveType {
   protected <T> String internalValueToString(final T value,
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    final StringBuilder result = new StringBuilder();
+    internalAppendValue(value, isNullable, maxLength, precision, scale, isUnicode, result);
+    return result.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValue(final T value,
+      final Boolean isNullable, final Integer maxLength, final Integer precision,
+      final Integer scale, final Boolean isUnicode, final StringBuilder buffer) throws EdmPrimitiveTypeException {
 
     if (value instanceof Byte || value instanceof Short || value instanceof Integer) {
-      return value.toString();
+      buffer.append(((Number) value).intValue());
     } else if (value instanceof Long) {
       if ((Long) value >= Integer.MIN_VALUE && (Long) value <= Integer.MAX_VALUE) {
-        return value.toString();
+        buffer.append(((Long) value).longValue());
       } else {
         throw new EdmPrimitiveTypeException("The value '" + value + "' is not valid.");
       }
     } else if (value instanceof BigInteger) {
       if (((BigInteger) value).bitLength() < Integer.SIZE) {
-        return value.toString();
+        buffer.append(value);
       } else {
         throw new EdmPrimitiveTypeException("The value '" + value + "' is not valid.");
       }
@@ -115,12 +115,21 @@ public final class EdmInt64 extends SingletonPrimitiveType {
   protected <T> String internalValueToString(final T value,
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    final StringBuilder result = new StringBuilder();
+    internalAppendValue(value, isNullable, maxLength, precision, scale, isUnicode, result);
+    return result.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValue(final T value,
+      final Boolean isNullable, final Integer maxLength, final Integer precision,
+      final Integer scale, final Boolean isUnicode, final StringBuilder buffer) throws EdmPrimitiveTypeException {
 
     if (value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long) {
-      return value.toString();
+      buffer.append(((Number) value).longValue());
     } else if (value instanceof BigInteger) {
       if (((BigInteger) value).bitLength() < Long.SIZE) {
-        return value.toString();
+        buffer.append(value);
       } else {
         throw new EdmPrimitiveTypeException("The value '" + value + "' is not valid.");
       }
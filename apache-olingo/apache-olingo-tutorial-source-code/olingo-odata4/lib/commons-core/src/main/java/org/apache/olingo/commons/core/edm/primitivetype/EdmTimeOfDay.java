@@ -20,17 +20,13 @@ package org.apache.olingo.commons.core.edm.primitivetype;
 
 import java.sql.Timestamp;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.TimeZone;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 
 public final class EdmTimeOfDay extends SingletonPrimitiveType {
 
-  private static final Pattern PATTERN = Pattern.compile(
-      "(\\p{Digit}{2}):(\\p{Digit}{2})(?::(\\p{Digit}{2})(\\.(\\p{Digit}{0,}?)0*)?)?");
-
   private static final EdmTimeOfDay INSTANCE = new EdmTimeOfDay();
 
   public static EdmTimeOfDay getInstance() {
@@ -47,39 +43,35 @@ public final class EdmTimeOfDay extends SingletonPrimitiveType {
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode, final Class<T> returnType) throws EdmPrimitiveTypeException {
 
-    final Matcher matcher = PATTERN.matcher(value);
-    if (!matcher.matches()) {
+    final DateTimeLiteral literal = DateTimeLiteral.parseTimeOfDay(value);
+    if (literal == null) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
     }
-
-    final Calendar dateTimeValue = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-    dateTimeValue.clear();
-    dateTimeValue.set(Calendar.HOUR_OF_DAY, Byte.parseByte(matcher.group(1)));
-    dateTimeValue.set(Calendar.MINUTE, Byte.parseByte(matcher.group(2)));
-    dateTimeValue.set(Calendar.SECOND, matcher.group(3) == null ? 0 : Byte.parseByte(matcher.group(3)));
-
-    int nanoSeconds = 0;
-    if (matcher.group(4) != null) {
-      if (matcher.group(4).length() == 1 || matcher.group(4).length() > 13) {
-        throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.");
-      }
-      final String decimals = matcher.group(5);
-      if (decimals.length() > (precision == null ? 0 : precision)) {
-        throw new EdmPrimitiveTypeException("The literal '" + value + "' does not match the facets' constraints.");
-      }
-      final String milliSeconds = decimals.length() > 3 ?
-          decimals.substring(0, 3) :
-            decimals + "000".substring(decimals.length());
-          final short millis = Short.parseShort(milliSeconds);
-          if (returnType.isAssignableFrom(Timestamp.class)) {
-            nanoSeconds = millis * 1000 * 1000;
-          } else {
-            dateTimeValue.set(Calendar.MILLISECOND, millis);
-          }
+    if (literal.fractionalDigits != null
+        && literal.fractionalDigits.length() > (precision == null ? 0 : precision)) {
+      throw new EdmPrimitiveTypeException("The literal '" + value + "' does not match the facets' constraints.");
     }
+    final boolean isTimestamp = returnType.isAssignableFrom(Timestamp.class);
+    final int millis = literal.getMilliseconds();
 
     try {
-      return EdmDateTimeOffset.convertDateTime(dateTimeValue, nanoSeconds, returnType);
+      if (!returnType.isAssignableFrom(Calendar.class)) {
+        // The time of day does not depend on the calendar system, so no Calendar is needed.
+        if (!literal.isValidTime()) {
+          throw new IllegalArgumentException();
+        }
+        return EdmDateTimeOffset.convertMillis(
+            ((literal.hour * 60L + literal.minute) * 60 + literal.second) * 1000 + (isTimestamp ? 0 : millis),
+            isTimestamp ? millis * 1000 * 1000 : 0, returnType);
+      }
+
+      final Calendar dateTimeValue = Calendar.getInstance((TimeZone) EdmDateTimeOffset.GMT.clone());
+      dateTimeValue.clear();
+      dateTimeValue.set(Calendar.HOUR_OF_DAY, literal.hour);
+      dateTimeValue.set(Calendar.MINUTE, literal.minute);
+      dateTimeValue.set(Calendar.SECOND, literal.second);
+      dateTimeValue.set(Calendar.MILLISECOND, millis);
+      return EdmDateTimeOffset.convertDateTime(dateTimeValue, 0, returnType);
     } catch (final IllegalArgumentException e) {
       throw new EdmPrimitiveTypeException("The literal '" + value + "' has illegal content.", e);
     } catch (final ClassCastException e) {
@@ -91,32 +83,39 @@ public final class EdmTimeOfDay extends SingletonPrimitiveType {
   protected <T> String internalValueToString(final T value,
       final Boolean isNullable, final Integer maxLength, final Integer precision,
       final Integer scale, final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    final StringBuilder result = new StringBuilder();
+    internalAppendValue(value, isNullable, maxLength, precision, scale, isUnicode, result);
+    return result.toString();
+  }
+
+  @Override
+  protected <T> void internalAppendValue(final T value,
+      final Boolean isNullable, final Integer maxLength, final Integer precision,
+      final Integer scale, final Boolean isUnicode, final StringBuilder result) throws EdmPrimitiveTypeException {
 
-    final Calendar dateTimeValue;
     final int fractionalSecs;
-    if (value instanceof Timestamp) {
-      final Calendar tmp = Calendar.getInstance();
-      tmp.setTimeInMillis(((Timestamp) value).getTime());
-      dateTimeValue = EdmDateTimeOffset.createDateTime(tmp);
-      fractionalSecs = ((Timestamp) value).getNanos();
+    if (value instanceof Date || value instanceof Long) {
+      // The time of day does not depend on the calendar system, so no Calendar is needed.
+      final long millis = value instanceof Long ? (Long) value : ((Date) value).getTime();
+      final long localMillis = millis + (value instanceof Long ? 0 : TimeZone.getDefault().getOffset(millis));
+      EdmDateTimeOffset.appendTime(result, localMillis);
+      fractionalSecs = value instanceof Timestamp ?
+          ((Timestamp) value).getNanos() :
+          (int) EdmDateTimeOffset.floorMod(localMillis, 1000);
     } else {
-      dateTimeValue = EdmDateTimeOffset.createDateTime(value);
+      final Calendar dateTimeValue = EdmDateTimeOffset.createDateTime(value);
+      EdmDateTimeOffset.appendTwoDigits(result, dateTimeValue.get(Calendar.HOUR_OF_DAY));
+      result.append(':');
+      EdmDateTimeOffset.appendTwoDigits(result, dateTimeValue.get(Calendar.MINUTE));
+      result.append(':');
+      EdmDateTimeOffset.appendTwoDigits(result, dateTimeValue.get(Calendar.SECOND));
       fractionalSecs = dateTimeValue.get(Calendar.MILLISECOND);
     }
 
-    final StringBuilder result = new StringBuilder();
-    EdmDateTimeOffset.appendTwoDigits(result, dateTimeValue.get(Calendar.HOUR_OF_DAY));
-    result.append(':');
-    EdmDateTimeOffset.appendTwoDigits(result, dateTimeValue.get(Calendar.MINUTE));
-    result.append(':');
-    EdmDateTimeOffset.appendTwoDigits(result, dateTimeValue.get(Calendar.SECOND));
-
     try {
       EdmDateTimeOffset.appendFractionalSeconds(result, fractionalSecs, value instanceof Timestamp, precision);
     } catch (final IllegalArgumentException e) {
       throw new EdmPrimitiveTypeException("The value '" + value + "' does not match the facets' constraints.", e);
     }
-
-    return result.toString();
   }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.core.edm.primitivetype;
+
+/**
+ * Single-pass checks for the syntax of primitive literals, used instead of regular expressions.
+ * Digits are ASCII digits only, as in the POSIX character classes of regular expressions.
+ */
+final class LiteralScanner {
+
+  private LiteralScanner() { /* private ctor for helper class */ }
+
+  static boolean isDigit(final char character) {
+    return character >= '0' && character <= '9';
+  }
+
+  static boolean isHexDigit(final char character) {
+    return character >= '0' && character <= '9'
+        || character >= 'a' && character <= 'f'
+        || character >= 'A' && character <= 'F';
+  }
+
+  /**
+   * Returns the end of the run of digits in the given value that starts at the given index.
+   * @return the index of the first non-digit character or the length of the value
+   */
+  static int skipDigits(final String value, final int start) {
+    int index = start;
+    while (index < value.length() && isDigit(value.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * Checks a floating-point literal of the form <code>[+|-]digits[.digits][(E|e)[+|-]digits]</code>.
+   * @param value the literal
+   * @param maxIntegerDigits the maximum number of digits before the decimal point
+   * @param maxFractionalDigits the maximum number of digits after the decimal point
+   * @param maxExponentDigits the maximum number of digits of the exponent
+   */
+  static boolean isFloatingPointLiteral(final String value,
+      final int maxIntegerDigits, final int maxFractionalDigits, final int maxExponentDigits) {
+    int index = skipSign(value, 0);
+    int end = skipDigits(value, index);
+    if (end == index || end - index > maxIntegerDigits) {
+      return false;
+    }
+    index = end;
+    if (index < value.length() && value.charAt(index) == '.') {
+      end = skipDigits(value, ++index);
+      if (end == index || end - index > maxFractionalDigits) {
+        return false;
+      }
+      index = end;
+    }
+    if (index < value.length() && (value.charAt(index) == 'E' || value.charAt(index) == 'e')) {
+      index = skipSign(value, index + 1);
+      end = skipDigits(value, index);
+      if (end == index || end - index > maxExponentDigits) {
+        return false;
+      }
+      index = end;
+    }
+    return index == value.length();
+  }
+
+  /** Returns the index after an optional sign at the given index. */
+  static int skipSign(final String value, final int index) {
+    return index < value.length() && (value.charAt(index) == '+' || value.charAt(index) == '-') ? index + 1 : index;
+  }
+
+  /** Checks whether the given value consists of ASCII characters only. */
+  static boolean isAscii(final String value) {
+    for (int index = 0; index < value.length(); index++) {
+      if (value.charAt(index) > 0x7F) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -30,6 +30,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.olingo.commons.api.edm.Edm;
@@ -248,6 +253,43 @@ public class EdmImplCachingTest {
     assertNotSame(function, function2);
   }
 
+  @Test
+  public void preload() {
+    ((AbstractEdm) edm).preload();
+
+    final EdmEntityContainer container = edm.getEntityContainer();
+    assertNotNull(container);
+    assertTrue(container == edm.getEntityContainer(NAME1));
+    assertEquals(1, edm.getSchemas().size());
+  }
+
+  @Test
+  public void cacheEntityTypeConcurrently() throws Exception {
+    final int threadCount = 8;
+    final CountDownLatch start = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    try {
+      final List<Future<EdmEntityType>> results = new ArrayList<Future<EdmEntityType>>();
+      for (int i = 0; i < threadCount; i++) {
+        results.add(executor.submit(new Callable<EdmEntityType>() {
+          @Override
+          public EdmEntityType call() throws Exception {
+            start.await();
+            return edm.getEntityType(NAME1);
+          }
+        }));
+      }
+      start.countDown();
+
+      final EdmEntityType entityType = edm.getEntityType(NAME1);
+      for (Future<EdmEntityType> result : results) {
+        assertTrue(entityType == result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Before
   public void setup() {
     edm = new LocalEdm();
@@ -91,6 +91,26 @@ public class EdmDateTimeOffsetTest extends PrimitiveTypeBaseTest {
     expectTypeErrorInValueToString(instance, 0);
   }
 
+  @Test
+  public void valueToStringWithoutCalendar() throws Exception {
+    // The formatting of milliseconds and dates must agree with the Calendar-based one.
+    final Calendar gmt = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+    final Calendar local = Calendar.getInstance();
+    for (long millis = -12219292800000L + 24 * 3600 * 1000; millis < 253402300800000L; millis += 86399999L * 397) {
+      gmt.setTimeInMillis(millis);
+      assertEquals(instance.valueToString(gmt, null, null, 3, null, null),
+          instance.valueToString(millis, null, null, 3, null, null));
+      local.setTimeInMillis(millis);
+      assertEquals(instance.valueToString(local, null, null, 3, null, null),
+          instance.valueToString(new Date(millis), null, null, 3, null, null));
+    }
+
+    final StringBuilder buffer = new StringBuilder("value=");
+    ((EdmDateTimeOffset) instance).appendValue(951782400000L, null, null, null, null, null, buffer);
+    ((EdmDateTimeOffset) instance).appendValue(null, null, null, null, null, null, buffer);
+    assertEquals("value=2000-02-29T00:00:00Z", buffer.toString());
+  }
+
   @Test
   public void valueOfString() throws Exception {
     Calendar dateTime = Calendar.getInstance();
@@ -139,4 +159,29 @@ public class EdmDateTimeOffsetTest extends PrimitiveTypeBaseTest {
 
     expectTypeErrorInValueOfString(instance, "2012-02-29T01:02:03Z");
   }
+
+  @Test
+  public void valueOfStringWithoutCalendar() throws Exception {
+    // The conversion into milliseconds must agree with the Calendar-based one.
+    for (final String literal : new String[] { "1583-01-01T00:00Z", "1600-02-29T12:00:00.5-01:00",
+        "1899-12-31T23:59:59.999+14:00", "1970-01-01T00:00:00Z", "2000-02-29T01:02:03.004-00:00",
+        "2012-12-31T23:59:59+00:30", "2100-03-01T00:00:00-12:45", "9999-12-31T23:59:59.999Z" }) {
+      assertEquals(literal,
+          instance.valueOfString(literal, null, null, 3, null, null, Calendar.class).getTimeInMillis(),
+          instance.valueOfString(literal, null, null, 3, null, null, Long.class).longValue());
+    }
+
+    final Timestamp timestamp = instance.valueOfString("2000-01-02T03:04:05.123456789Z", null, null, 9, null, null,
+        Timestamp.class);
+    assertEquals(946782245123L, timestamp.getTime());
+    assertEquals(123456789, timestamp.getNanos());
+
+    expectContentErrorInValueOfString(instance, "2013-02-29T00:00Z");
+    expectContentErrorInValueOfString(instance, "2013-13-01T00:00Z");
+    expectContentErrorInValueOfString(instance, "2013-01-01T24:00Z");
+    expectContentErrorInValueOfString(instance, "2013-01-01T00:60Z");
+    expectContentErrorInValueOfString(instance, "2013-01-01T00:00+01:60");
+    expectContentErrorInValueOfString(instance, "2013-1-01T00:00Z");
+    expectContentErrorInValueOfString(instance, "2013-01-01T00:00:00.1234567891234Z");
+  }
 }
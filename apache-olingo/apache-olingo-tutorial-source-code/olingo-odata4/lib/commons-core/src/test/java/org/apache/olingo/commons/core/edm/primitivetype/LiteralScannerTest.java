@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.core.edm.primitivetype;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.geo.Geospatial;
+import org.junit.Test;
+
+/**
+ * Checks that the hand-written literal scanners accept exactly the literals
+ * that the regular expressions used before accepted.
+ * The corpus consists of valid literals and random mutations of them.
+ */
+public class LiteralScannerTest {
+
+  private static final Pattern DECIMAL = Pattern.compile("(?:\\+|-)?(?:0*(\\p{Digit}+?))(?:\\.(\\p{Digit}+?)0*)?");
+  private static final Pattern DOUBLE = Pattern.compile(
+      "(?:\\+|-)?\\p{Digit}{1,17}(?:\\.\\p{Digit}{1,17})?(?:(?:E|e)(?:\\+|-)?\\p{Digit}{1,3})?");
+  private static final Pattern SINGLE = Pattern.compile(
+      "(?:\\+|-)?\\p{Digit}{1,9}(?:\\.\\p{Digit}{1,9})?(?:(?:E|e)(?:\\+|-)?\\p{Digit}{1,2})?");
+  private static final Pattern GUID = Pattern.compile(
+      "\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}");
+  private static final Pattern DURATION = Pattern.compile(
+      "[-+]?P(?:(\\p{Digit}+)D)?(?:T(?:(\\p{Digit}+)H)?(?:(\\p{Digit}+)M)?"
+          + "(?:(\\p{Digit}+(?:\\.(?:\\p{Digit}+?)0*)?)S)?)?");
+  private static final Pattern DATE_TIME_OFFSET = Pattern.compile(
+      "(-?\\p{Digit}{4,9})-(\\p{Digit}{2})-(\\p{Digit}{2})"
+          + "T(\\p{Digit}{2}):(\\p{Digit}{2})(?::(\\p{Digit}{2})(\\.(\\p{Digit}{0,12}?)0*)?)?"
+          + "(Z|([-+]\\p{Digit}{2}:\\p{Digit}{2}))?");
+  private static final Pattern DATE = Pattern.compile("(-?\\p{Digit}{4,9})-(\\p{Digit}{2})-(\\p{Digit}{2})");
+  private static final Pattern TIME_OF_DAY = Pattern.compile(
+      "(\\p{Digit}{2}):(\\p{Digit}{2})(?::(\\p{Digit}{2})(\\.(\\p{Digit}{0,}?)0*)?)?");
+  private static final Pattern GEOSPATIAL = Pattern.compile("([a-z]+)'SRID=([0-9]+);([a-zA-Z]+)\\((.*)\\)'");
+  private static final Pattern GEOSPATIAL_COLLECTION =
+      Pattern.compile("([a-z]+)'SRID=([0-9]+);Collection\\(([a-zA-Z]+)\\((.*)\\)\\)'");
+
+  private static final String NUMBER_CHARACTERS = "0123456789+-.eE";
+
+  @Test
+  public void decimal() {
+    for (final String literal : corpus(NUMBER_CHARACTERS, "0", "-0.0", "+000123.4500", "12345678901234567890.1",
+        "0.000", "00", ".5", "5.", "1e5")) {
+      final Matcher matcher = DECIMAL.matcher(literal);
+      final boolean matches = matcher.matches();
+      for (int precision = 0; precision < 6; precision++) {
+        final boolean expected = matches
+            && precision >= (matcher.group(1).equals("0") ? 0 : matcher.group(1).length())
+            + (matcher.group(2) == null ? 0 : matcher.group(2).length())
+            && (matcher.group(2) == null ? 0 : matcher.group(2).length()) <= 2;
+        assertEquals(literal, expected, EdmDecimal.getInstance().validate(literal, null, null, precision, 2, null));
+      }
+    }
+  }
+
+  @Test
+  public void floatingPoint() {
+    for (final String literal : corpus(NUMBER_CHARACTERS, "1", "-1.5", "+12345678901234567.12345678901234567E-123",
+        "123456789.123456789e12", "1E", "1.e5", ".1", "1e+", "12345678901234567890")) {
+      assertEquals(literal, DOUBLE.matcher(literal).matches(),
+          LiteralScanner.isFloatingPointLiteral(literal, 17, 17, 3));
+      assertEquals(literal, SINGLE.matcher(literal).matches(),
+          LiteralScanner.isFloatingPointLiteral(literal, 9, 9, 2));
+    }
+  }
+
+  @Test
+  public void guid() {
+    for (final String literal : corpus("0123456789abcdefABCDEFgG-",
+        "aabbccdd-aabb-ccdd-eeff-aabbccddeeff", "AABBCCDD-0011-2233-4455-66778899AABB",
+        "aabbccdd-aabb-ccdd-eeff-aabbccddeef", "aabbccdd-aabbc-cdd-eeff-aabbccddeeff")) {
+      assertEquals(literal, GUID.matcher(literal).matches(), EdmGuid.getInstance().validate(literal,
+          null, null, null, null, null));
+    }
+  }
+
+  @Test
+  public void duration() {
+    for (final String literal : corpus("0123456789+-.PTDHMS", "P1D", "-P1DT2H3M4.5S", "PT0.000S", "PT", "P",
+        "P1DT", "PT1M2H", "PT1.5M", "+PT12S", "P1H", "PT1D")) {
+      final Matcher matcher = DURATION.matcher(literal);
+      final boolean expected = matcher.matches()
+          && (matcher.group(1) != null || matcher.group(2) != null || matcher.group(3) != null
+          || matcher.group(4) != null);
+      assertEquals(literal, expected, EdmDuration.getInstance().validate(literal, null, null, 20, null, null));
+    }
+  }
+
+  @Test
+  public void dateAndTime() {
+    for (final String literal : corpus("0123456789+-.:TZ", "2012-02-29T01:02:03Z",
+        "-0001-01-01T00:00:00.123456789012+01:30", "12345-12-31T23:59", "2012-02-29T01:02:03.0000000000000-05:00",
+        "2012-02-29T01:02:03.", "2012-02-29", "01:02:03.5", "01:02")) {
+      final Matcher matcher = DATE_TIME_OFFSET.matcher(literal);
+      assertEquals(literal, matcher.matches() && (matcher.group(7) == null || matcher.group(7).length() > 1
+          && matcher.group(7).length() <= 13),
+          DateTimeLiteral.parseDateTimeOffset(literal) != null);
+
+      assertEquals(literal, DATE.matcher(literal).matches(), DateTimeLiteral.parseDate(literal) != null);
+
+      final Matcher timeMatcher = TIME_OF_DAY.matcher(literal);
+      assertEquals(literal, timeMatcher.matches() && (timeMatcher.group(4) == null
+          || timeMatcher.group(4).length() > 1 && timeMatcher.group(4).length() <= 13),
+          DateTimeLiteral.parseTimeOfDay(literal) != null);
+    }
+  }
+
+  @Test
+  public void geospatial() {
+    final List<String> corpus = corpus("0123456789 ,.()';=SRIDCPoingeghyt\n",
+        "geography'SRID=4326;Point(142.1 64.1)'",
+        "geometry'SRID=0;MultiPolygon(((1 1,2 2,1 1)),((3 3,4 4,3 3)))'",
+        "geography'SRID=4326;Collection(LineString(142.1 64.1,3.14 2.78))'",
+        "geography'SRID=4326;Collection(Collection(Point(1 2)))'",
+        "geography'SRID=;Point(1 2)'", "geography'SRID=12345678901234567890;Point(1 2)'",
+        "geography'SRID=4326,Point(1 2)'", "geography'SRID:4326;Point(1 2)'", "geography'SRID=4326;Point(1 2)\"",
+        "geography'SRID= 4326;Point(1 2)'", "geography 'SRID=4326;Point(1 2)'", "geography'SRID=4326;Point (1 2)'",
+        "geography'SRID=4326;Point(1 2)' ", " geography'SRID=4326;Point(1 2)'", "geography'SRID=4326;Point(1\n2)'",
+        "Geography'SRID=4326;Point(1 2)'", "geography'SRID=4326;point(1 2)'", "geography'SRID=4326;Point()'");
+    for (final AbstractGeospatialType<?> type : Arrays.<AbstractGeospatialType<?>> asList(
+        EdmGeographyPoint.getInstance(), EdmGeometryPoint.getInstance(), EdmGeometryMultiPolygon.getInstance(),
+        EdmGeographyCollection.getInstance())) {
+      final boolean isCollection = type.type == Geospatial.Type.GEOSPATIALCOLLECTION;
+      for (final String literal : corpus) {
+        final Matcher matcher = (isCollection ? GEOSPATIAL_COLLECTION : GEOSPATIAL).matcher(literal);
+        final boolean expected = matcher.matches()
+            && type.dimension.name().equals(matcher.group(1).toUpperCase())
+            && isGeospatialType(matcher.group(3))
+            && (isCollection || type.type.name().equals(matcher.group(3).toUpperCase()));
+        try {
+          final AbstractGeospatialType.Literal scanned = type.scan(literal, isCollection);
+          assertTrue(literal, expected);
+          assertEquals(literal, matcher.group(2), scanned.srid);
+          assertEquals(literal, matcher.group(3), scanned.type);
+          assertEquals(literal, matcher.group(4), scanned.body);
+        } catch (final EdmPrimitiveTypeException e) {
+          assertFalse(literal, expected);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void geospatialSplit() {
+    for (final String separator : new String[] { "),(", ")),((" }) {
+      for (final String body : corpus("0123456789 ,.()", "(1 1,2 2),(3 3,4 4)", "((1 1,2 2)),((3 3,4 4)),((5 5))",
+          "),(", ")),((", "),(),(", "1 2),(", "),(1 2", "(1 2),,(3 4)", "")) {
+        assertArrayEquals(body, body.split(Pattern.quote(separator)),
+            AbstractGeospatialType.split(body, separator));
+      }
+    }
+  }
+
+  private static boolean isGeospatialType(final String name) {
+    try {
+      Geospatial.Type.valueOf(name.toUpperCase());
+      return true;
+    } catch (final IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /** Builds a corpus of the given literals and random mutations of them with characters from the given ones. */
+  private static List<String> corpus(final String characters, final String... literals) {
+    final Random random = new Random(42);
+    final List<String> corpus = new ArrayList<String>();
+    for (final String literal : literals) {
+      corpus.add(literal);
+      for (int count = 0; count < 2000; count++) {
+        final StringBuilder mutation = new StringBuilder(literal);
+        for (int mutations = 1 + random.nextInt(3); mutations > 0; mutations--) {
+          final int position = random.nextInt(mutation.length() + 1);
+          final char character = characters.charAt(random.nextInt(characters.length()));
+          switch (random.nextInt(3)) {
+          case 0:
+            mutation.insert(position, character);
+            break;
+          case 1:
+            if (position < mutation.length()) {
+              mutation.deleteCharAt(position);
+            }
+            break;
+          default:
+            if (position < mutation.length()) {
+              mutation.setCharAt(position, character);
+            }
+          }
+        }
+        corpus.add(mutation.toString());
+      }
+    }
+    return corpus;
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api;
+
+import java.io.OutputStream;
+
+/**
+ * Response content which is written directly into the (servlet) output stream
+ * instead of being buffered and handed over as {@link java.io.InputStream}.
+ */
+public interface ODataContent {
+
+  /**
+   * Writes the content into the given stream.
+   * The stream is flushed but not closed; closing is the responsibility of the caller.
+   * @param stream the stream the content is written to
+   * @throws org.apache.olingo.commons.api.ex.ODataRuntimeException if the content could not be written
+   */
+  void write(OutputStream stream);
+}
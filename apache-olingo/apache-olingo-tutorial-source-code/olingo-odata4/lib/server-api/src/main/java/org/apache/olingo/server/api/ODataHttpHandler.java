@@ -22,9 +22,11 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.olingo.server.api.debug.DebugSupport;
+import org.apache.olingo.server.api.debug.MetricsSupport;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
 import org.apache.olingo.server.api.processor.Processor;
 import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
+import org.apache.olingo.server.api.uri.UriInfoCache;
 
 /**
  * Handles HTTP requests as OData requests.
@@ -73,4 +75,19 @@ public interface ODataHttpHandler {
    */
   void register(DebugSupport debugSupport);
 
+  /**
+   * Registers the metrics support handler which receives the runtime measurements of all requests.
+   * @param metricsSupport
+   * @see MetricsSupport
+   */
+  void register(MetricsSupport metricsSupport);
+
+  /**
+   * Enables caching of parsed URIs.
+   * The cache can be shared by all handlers of a service that use the same {@link ServiceMetadata}.
+   * @param uriInfoCache the cache; <code>null</code> disables caching
+   * @see UriInfoCache
+   */
+  void setUriInfoCache(UriInfoCache uriInfoCache);
+
 }
@@ -32,6 +32,7 @@ public class ODataResponse {
   private int statusCode = HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode();
   private final HttpHeaders headers = new HttpHeaders();
   private InputStream content;
+  private ODataContent odataContent;
 
   /**
    * Sets the status code.
@@ -85,6 +86,15 @@ public class ODataResponse {
     headers.addHeader(name, values);
   }
 
+  /**
+   * <p>Removes a header from the response.</p>
+   * <p>The header name will be handled as case-insensitive key.</p>
+   * @param name case-insensitive header name
+   */
+  public void removeHeader(final String name) {
+    headers.removeHeader(name);
+  }
+
   /**
    * Get all headers with the according values.
    *
@@ -132,4 +142,21 @@ public class ODataResponse {
     return content;
   }
 
+  /**
+   * Sets the content (body) which is written directly into the response stream.
+   * If set, it takes precedence over the content set with {@link #setContent(InputStream)}.
+   * @param content the content as {@link ODataContent}
+   */
+  public void setODataContent(final ODataContent content) {
+    odataContent = content;
+  }
+
+  /**
+   * Gets the content (body) which is written directly into the response stream.
+   * @return the content as {@link ODataContent} or <code>null</code> if not set
+   */
+  public ODataContent getODataContent() {
+    return odataContent;
+  }
+
 }
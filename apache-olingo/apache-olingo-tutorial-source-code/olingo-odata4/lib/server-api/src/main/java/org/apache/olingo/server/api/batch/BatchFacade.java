@@ -17,11 +17,14 @@
  * under the License.
  */package org.apache.olingo.server.api.batch;
 
+import java.util.List;
+
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 
 /**
@@ -60,6 +63,26 @@ public interface BatchFacade {
   public ODataResponsePart handleBatchRequest(BatchRequestPart request)
       throws ODataApplicationException, ODataLibraryException;
 
+  /**
+   * Handles all BatchRequestParts of the given reader and returns the responses in the order of the requests.
+   * <p>If the service has been configured with an executor for batch requests, consecutive parts outside of
+   * change sets which only read data and do not refer to a Content-ID are processed concurrently.
+   * Change sets and all other parts are processed one after another, in order.</p>
+   * <p>Parts are processed while the following parts are still being read, so a malformed part can be detected
+   * only after the parts before it have been processed. In that case the processed parts keep their responses,
+   * the malformed part gets an error response, and no further parts are read.
+   * If the first part is already malformed, nothing is processed and the exception is thrown.</p>
+   * <p>The reader is not closed.</p>
+   * @param reader reader for the parts of the batch request
+   * @param continueOnError whether to continue after a part has failed; if not, no responses are returned
+   *                        for the parts following the failed one
+   * @return corresponding {@link ODataResponsePart}s, in the order of the requests
+   * @throws ODataApplicationException
+   * @throws ODataLibraryException
+   */
+  public List<ODataResponsePart> handleBatchRequests(BatchRequestReader reader, boolean continueOnError)
+      throws ODataApplicationException, ODataLibraryException;
+
   /**
    * Extracts the boundary of a multipart/mixed header.
    * See RFC 2046#5.1
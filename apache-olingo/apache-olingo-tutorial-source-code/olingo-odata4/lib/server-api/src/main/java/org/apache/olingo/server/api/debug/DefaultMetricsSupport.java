@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.debug;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoKind;
+import org.apache.olingo.server.api.uri.UriResource;
+
+/**
+ * <p>Collects latency histograms per runtime measurement and per request type
+ * as well as the number of responses per status code.</p>
+ * <p>Recording is lock-free and does not allocate once a measurement or request type has been seen,
+ * so an instance can be registered permanently and shared by all handlers.
+ * The metrics can be exported via JMX by registering the instance at an MBean server, e.g.,
+ * <code>ManagementFactory.getPlatformMBeanServer().registerMBean(metricsSupport,
+ * new ObjectName("org.apache.olingo:type=Metrics"))</code>.</p>
+ */
+public class DefaultMetricsSupport implements MetricsSupport, DefaultMetricsSupportMXBean {
+
+  private static final String UNKNOWN = "unknown";
+  private static final int MAX_STATUS_CODE = 600;
+
+  private final ConcurrentMap<String, ConcurrentMap<String, Histogram>> measurements =
+      new ConcurrentHashMap<String, ConcurrentMap<String, Histogram>>();
+  private final ConcurrentMap<String, Histogram> requests = new ConcurrentHashMap<String, Histogram>();
+  private final AtomicLongArray statusCodes = new AtomicLongArray(MAX_STATUS_CODE);
+
+  @Override
+  public void recordMeasurement(final String className, final String methodName, final long nanoseconds) {
+    ConcurrentMap<String, Histogram> methods = measurements.get(className);
+    if (methods == null) {
+      final ConcurrentMap<String, Histogram> newMethods = new ConcurrentHashMap<String, Histogram>();
+      methods = measurements.putIfAbsent(className, newMethods);
+      if (methods == null) {
+        methods = newMethods;
+      }
+    }
+    getHistogram(methods, methodName).record(nanoseconds);
+  }
+
+  @Override
+  public void recordRequest(final HttpMethod method, final UriInfo uriInfo, final int statusCode,
+      final long nanoseconds) {
+    getHistogram(requests, (method == null ? UNKNOWN : method.name()) + ' ' + getResourceKind(uriInfo))
+        .record(nanoseconds);
+    if (statusCode >= 0 && statusCode < MAX_STATUS_CODE) {
+      statusCodes.incrementAndGet(statusCode);
+    }
+  }
+
+  private static Histogram getHistogram(final ConcurrentMap<String, Histogram> histograms, final String key) {
+    Histogram histogram = histograms.get(key);
+    if (histogram == null) {
+      final Histogram newHistogram = new Histogram();
+      histogram = histograms.putIfAbsent(key, newHistogram);
+      if (histogram == null) {
+        histogram = newHistogram;
+      }
+    }
+    return histogram;
+  }
+
+  /** Returns the kind of the last resource part or the kind of the URI if it does not address a resource. */
+  private static String getResourceKind(final UriInfo uriInfo) {
+    if (uriInfo == null || uriInfo.getKind() == null) {
+      return UNKNOWN;
+    }
+    if (uriInfo.getKind() == UriInfoKind.resource) {
+      final List<UriResource> parts = uriInfo.getUriResourceParts();
+      if (parts != null && !parts.isEmpty()) {
+        return parts.get(parts.size() - 1).getKind().name();
+      }
+    }
+    return uriInfo.getKind().name();
+  }
+
+  @Override
+  public Map<String, Statistics> getMeasurements() {
+    Map<String, Statistics> result = new TreeMap<String, Statistics>();
+    for (final Map.Entry<String, ConcurrentMap<String, Histogram>> methods : measurements.entrySet()) {
+      for (final Map.Entry<String, Histogram> entry : methods.getValue().entrySet()) {
+        result.put(methods.getKey() + '.' + entry.getKey(), entry.getValue().getStatistics());
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public Map<String, Statistics> getRequests() {
+    Map<String, Statistics> result = new TreeMap<String, Statistics>();
+    for (final Map.Entry<String, Histogram> entry : requests.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().getStatistics());
+    }
+    return result;
+  }
+
+  @Override
+  public Map<Integer, Long> getStatusCodes() {
+    Map<Integer, Long> result = new TreeMap<Integer, Long>();
+    for (int statusCode = 0; statusCode < MAX_STATUS_CODE; statusCode++) {
+      final long count = statusCodes.get(statusCode);
+      if (count > 0) {
+        result.put(statusCode, count);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void reset() {
+    measurements.clear();
+    requests.clear();
+    for (int statusCode = 0; statusCode < MAX_STATUS_CODE; statusCode++) {
+      statusCodes.set(statusCode, 0);
+    }
+  }
+
+  /**
+   * Histogram with power-of-two buckets; bucket <i>i</i> counts the durations
+   * from 2<sup>i-1</sup> to 2<sup>i</sup>-1 nanoseconds.
+   */
+  private static class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(final long nanoseconds) {
+      final long value = Math.max(nanoseconds, 0);
+      buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value));
+      total.addAndGet(value);
+      long currentMax = max.get();
+      while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+        currentMax = max.get();
+      }
+    }
+
+    public Statistics getStatistics() {
+      long[] counts = new long[BUCKETS];
+      long count = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        counts[i] = buckets.get(i);
+        count += counts[i];
+      }
+      final long maximum = max.get();
+      return new Statistics(count, total.get(), maximum,
+          getPercentile(counts, count, 50, maximum),
+          getPercentile(counts, count, 90, maximum),
+          getPercentile(counts, count, 99, maximum));
+    }
+
+    private static long getPercentile(final long[] counts, final long count, final int percent, final long maximum) {
+      final long rank = (count * percent + 99) / 100;
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += counts[i];
+        if (seen >= rank && seen > 0) {
+          return Math.min(i == 0 ? 0 : (1L << i) - 1, maximum);
+        }
+      }
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.debug;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link DefaultMetricsSupport} which exports the collected metrics via JMX.
+ */
+public interface DefaultMetricsSupportMXBean {
+
+  /**
+   * Gets the latencies of the runtime measurements.
+   * @return the statistics per measured method, keyed by <code>className.methodName</code>
+   */
+  Map<String, Statistics> getMeasurements();
+
+  /**
+   * Gets the latencies of the requests.
+   * @return the statistics per request type, keyed by HTTP method and kind of the requested resource,
+   * e.g., <code>GET entitySet</code>
+   */
+  Map<String, Statistics> getRequests();
+
+  /**
+   * Gets the number of responses per status code.
+   * @return the number of responses, keyed by status code
+   */
+  Map<Integer, Long> getStatusCodes();
+
+  /**
+   * Discards all collected metrics.
+   */
+  void reset();
+
+  /**
+   * Latency statistics of a measurement or a request type.
+   * The percentiles are approximated as upper bounds of power-of-two buckets.
+   */
+  public static class Statistics {
+
+    private final long count;
+    private final long totalNanoseconds;
+    private final long maxNanoseconds;
+    private final long medianNanoseconds;
+    private final long percentile90Nanoseconds;
+    private final long percentile99Nanoseconds;
+
+    public Statistics(final long count, final long totalNanoseconds, final long maxNanoseconds,
+        final long medianNanoseconds, final long percentile90Nanoseconds, final long percentile99Nanoseconds) {
+      this.count = count;
+      this.totalNanoseconds = totalNanoseconds;
+      this.maxNanoseconds = maxNanoseconds;
+      this.medianNanoseconds = medianNanoseconds;
+      this.percentile90Nanoseconds = percentile90Nanoseconds;
+      this.percentile99Nanoseconds = percentile99Nanoseconds;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getTotalNanoseconds() {
+      return totalNanoseconds;
+    }
+
+    public long getMeanNanoseconds() {
+      return count == 0 ? 0 : totalNanoseconds / count;
+    }
+
+    public long getMaxNanoseconds() {
+      return maxNanoseconds;
+    }
+
+    public long getMedianNanoseconds() {
+      return medianNanoseconds;
+    }
+
+    public long getPercentile90Nanoseconds() {
+      return percentile90Nanoseconds;
+    }
+
+    public long getPercentile99Nanoseconds() {
+      return percentile99Nanoseconds;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.debug;
+
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.uri.UriInfo;
+
+/**
+ * <p>Register this interface to receive the runtime measurements of every request,
+ * independent of the debug mode, e.g., to collect metrics for monitoring.</p>
+ * <p>The methods are called on the request threads, possibly concurrently, so implementations
+ * must be thread-safe and should return quickly.</p>
+ * <p>The measurements are those of the debug output. Serialization done by a processor is part of the
+ * measurement of the dispatching; writing streamed content is measured as <code>convertToHttp</code>.</p>
+ * @see DefaultMetricsSupport
+ */
+public interface MetricsSupport {
+
+  /**
+   * Records a finished runtime measurement.
+   * @param className  the name of the class that has been measured
+   * @param methodName the name of the method that has been measured
+   * @param nanoseconds the duration of the measurement in nanoseconds
+   * @see RuntimeMeasurement
+   */
+  void recordMeasurement(String className, String methodName, long nanoseconds);
+
+  /**
+   * Records a finished request.
+   * @param method      the HTTP method of the request; <code>null</code> if it could not be determined
+   * @param uriInfo     the parsed URI of the request; <code>null</code> if the URI could not be parsed
+   * @param statusCode  the status code of the response
+   * @param nanoseconds the duration of the request, including writing the response, in nanoseconds
+   */
+  void recordRequest(HttpMethod method, UriInfo uriInfo, int statusCode, long nanoseconds);
+}
@@ -19,12 +19,14 @@
 package org.apache.olingo.server.api.deserializer;
 
 import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
 import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
 
 public interface FixedFormatDeserializer {
 
@@ -35,6 +37,16 @@ public interface FixedFormatDeserializer {
    */
   public byte[] binary(InputStream content) throws DeserializerException;
 
+  /**
+   * Reads binary data from an InputStream into a channel, without holding the data in memory.
+   * A {@link java.nio.channels.FileChannel} receives the data at its current position,
+   * which is advanced by the number of bytes read.
+   * @param content the binary data as input stream
+   * @param target the channel the binary data are written to; it is not closed
+   * @return the number of bytes read
+   */
+  public long binary(InputStream content, WritableByteChannel target) throws DeserializerException;
+
   /**
    * Reads primitive-type data from an InputStream.
    * @param content  the textual value as input stream
@@ -51,4 +63,15 @@ public interface FixedFormatDeserializer {
    */
   public List<BatchRequestPart> parseBatchRequest(InputStream content, String boundary, BatchOptions options)
       throws BatchDeserializerException;
+
+  /**
+   * Creates a reader which returns the parts of a batch request one at a time while reading the InputStream.
+   * The caller is responsible for closing the reader.
+   * @param content  the data as multipart input stream
+   * @param boundary the boundary between the parts
+   * @param options  options for the deserializer
+   * @return a reader for the batch-request parts
+   */
+  public BatchRequestReader readBatchRequest(InputStream content, String boundary, BatchOptions options)
+      throws BatchDeserializerException;
 }
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.deserializer.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull-based reader for the parts of a batch request body.
+ * The parts are read from the underlying stream on demand, so a part can be processed
+ * while the following parts have not been received yet.
+ * Only the part returned last is held in memory.
+ */
+public interface BatchRequestReader extends Closeable {
+
+  /**
+   * Checks whether a further part is available, reading the underlying stream up to the next boundary.
+   * @return true if {@link #next()} will return a part
+   * @throws BatchDeserializerException if the body is malformed
+   */
+  boolean hasNext() throws BatchDeserializerException;
+
+  /**
+   * Reads the next part of the batch request.
+   * @return the next {@link BatchRequestPart}
+   * @throws BatchDeserializerException if the part is malformed
+   * @throws java.util.NoSuchElementException if there is no further part
+   */
+  BatchRequestPart next() throws BatchDeserializerException;
+
+  /**
+   * Closes the underlying stream.
+   */
+  @Override
+  void close() throws IOException;
+}
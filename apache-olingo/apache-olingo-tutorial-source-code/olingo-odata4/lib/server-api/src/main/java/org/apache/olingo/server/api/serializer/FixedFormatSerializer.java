@@ -19,6 +19,7 @@
 package org.apache.olingo.server.api.serializer;
 
 import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
 import java.util.List;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
@@ -34,6 +35,16 @@ public interface FixedFormatSerializer {
    */
   InputStream binary(byte[] binary) throws SerializerException;
 
+  /**
+   * Writes binary output from a channel directly into the response, without holding the data in memory.
+   * The data of a {@link java.nio.channels.FileChannel} are transferred from its current position
+   * to its end, and requests for a single byte range of them are answered with that range.
+   * The channel is closed after writing.
+   * @param channel the binary data
+   * @return result with the content to be set as response content
+   */
+  SerializerStreamResult binary(ReadableByteChannel channel) throws SerializerException;
+
   /**
    * Writes a count into an InputStream as plain text.
    * @param count the count
@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.server.api.serializer;
 
+import org.apache.olingo.commons.api.data.AbstractEntityCollection;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.Property;
@@ -63,6 +64,20 @@ public interface ODataSerializer {
   SerializerResult entityCollection(ServiceMetadata metadata, EdmEntityType entityType,
       EntityCollection entitySet, EntityCollectionSerializerOptions options) throws SerializerException;
 
+  /**
+   * Prepares entity-collection data to be written directly into the response stream.
+   * The data are serialized on {@link org.apache.olingo.server.api.ODataContent#write(java.io.OutputStream)},
+   * so no intermediate buffer is needed; errors during serialization can no longer change the response status.
+   * If the data are given as {@link org.apache.olingo.commons.api.data.EntityIterator}, the entities are
+   * consumed one at a time; count and next link are written after the entities if they are not known before.
+   * @param metadata   metadata for the service
+   * @param entityType the {@link EdmEntityType}
+   * @param entitySet  the data of the entity set
+   * @param options    options for the serializer
+   */
+  SerializerStreamResult entityCollectionStreamed(ServiceMetadata metadata, EdmEntityType entityType,
+      AbstractEntityCollection entitySet, EntityCollectionSerializerOptions options) throws SerializerException;
+
   /**
    * Writes entity data into an InputStream.
    * @param metadata   metadata for the service
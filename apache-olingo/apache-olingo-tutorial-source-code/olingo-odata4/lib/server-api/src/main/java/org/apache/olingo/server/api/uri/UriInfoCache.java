@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.uri;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.olingo.commons.api.edm.Edm;
+
+/**
+ * Bounded cache of parsed URIs, keyed by the raw OData path, the raw query, the fragment,
+ * and the identity of the {@link Edm} the URI has been parsed against.
+ * <p>If the cache is full, the least recently used entry is removed.
+ * The cache is thread-safe and can be shared by several handlers.</p>
+ * <p>Cached {@link UriInfo} instances are handed out to all requests with the same URI;
+ * they must therefore not be modified.
+ * If the Edm of a service changes, its entries must be removed with {@link #invalidate(Edm)}.</p>
+ */
+public class UriInfoCache {
+
+  public static final int DEFAULT_MAX_SIZE = 1000;
+
+  private final Map<Key, UriInfo> entries;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  /** Creates a cache with a maximum of {@link #DEFAULT_MAX_SIZE} entries. */
+  public UriInfoCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Creates a cache with the given maximum number of entries.
+   * @param maxSize maximum number of entries; must be positive
+   */
+  public UriInfoCache(final int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("The maximum size of the cache must be positive.");
+    }
+    entries = new LinkedHashMap<Key, UriInfo>(16, 0.75F, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Key, UriInfo> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Gets the parsed URI.
+   * @return the cached {@link UriInfo} or <code>null</code> if the URI has not been cached
+   */
+  public UriInfo get(final String path, final String query, final String fragment, final Edm edm) {
+    UriInfo uriInfo;
+    synchronized (entries) {
+      uriInfo = entries.get(new Key(path, query, fragment, edm));
+    }
+    if (uriInfo == null) {
+      missCount.incrementAndGet();
+    } else {
+      hitCount.incrementAndGet();
+    }
+    return uriInfo;
+  }
+
+  /** Puts the parsed URI into the cache. */
+  public void put(final String path, final String query, final String fragment, final Edm edm,
+      final UriInfo uriInfo) {
+    synchronized (entries) {
+      entries.put(new Key(path, query, fragment, edm), uriInfo);
+    }
+  }
+
+  /**
+   * Removes all entries that have been parsed against the given Edm.
+   * @param edm the Edm which has changed
+   */
+  public void invalidate(final Edm edm) {
+    synchronized (entries) {
+      for (Iterator<Key> iterator = entries.keySet().iterator(); iterator.hasNext();) {
+        if (iterator.next().edm == edm) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  /** Removes all entries. The hit and miss counters are not reset. */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /** Gets the current number of entries. */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /** Gets the number of lookups which have found a cached entry. */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /** Gets the number of lookups which have not found a cached entry. */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  private static class Key {
+    private final String path;
+    private final String query;
+    private final String fragment;
+    private final Edm edm;
+
+    Key(final String path, final String query, final String fragment, final Edm edm) {
+      this.path = path;
+      this.query = query;
+      this.fragment = fragment;
+      this.edm = edm;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = System.identityHashCode(edm);
+      result = 31 * result + (path == null ? 0 : path.hashCode());
+      result = 31 * result + (query == null ? 0 : query.hashCode());
+      result = 31 * result + (fragment == null ? 0 : fragment.hashCode());
+      return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return edm == other.edm
+          && (path == null ? other.path == null : path.equals(other.path))
+          && (query == null ? other.query == null : query.equals(other.query))
+          && (fragment == null ? other.fragment == null : fragment.equals(other.fragment));
+    }
+  }
+}
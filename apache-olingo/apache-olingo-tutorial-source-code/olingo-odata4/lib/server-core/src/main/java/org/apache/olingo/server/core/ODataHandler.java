@@ -20,11 +20,13 @@ package org.apache.olingo.server.core;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataLibraryException;
@@ -42,7 +44,9 @@ import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
 import org.apache.olingo.server.api.serializer.RepresentationType;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.core.serializer.BinaryContent;
 import org.apache.olingo.server.core.uri.parser.Parser;
 import org.apache.olingo.server.core.uri.parser.UriParserException;
 import org.apache.olingo.server.core.uri.parser.UriParserSemanticException;
@@ -52,6 +56,8 @@ import org.apache.olingo.server.core.uri.validator.UriValidator;
 
 public class ODataHandler {
 
+  private static final String BYTES_UNIT = "bytes";
+
   private final OData odata;
   private final ServiceMetadata serviceMetadata;
   private final List<Processor> processors = new LinkedList<Processor>();
@@ -59,9 +65,9 @@ public class ODataHandler {
 
   private CustomContentTypeSupport customContentTypeSupport;
   private CustomETagSupport customETagSupport;
-
-  private UriInfo uriInfo;
-  private Exception lastThrownException;
+  private UriInfoCache uriInfoCache;
+  private Executor batchExecutor;
+  private volatile ProcessingInfo lastInfo = new ProcessingInfo();
 
   public ODataHandler(final OData server, final ServiceMetadata serviceMetadata, ServerCoreDebugger debugger) {
     odata = server;
@@ -73,49 +79,57 @@ public class ODataHandler {
   }
 
   public ODataResponse process(final ODataRequest request) {
+    return process(request, new ProcessingInfo());
+  }
+
+  /**
+   * Processes the request and records the parsed URI and the thrown exception, if any, in the given info.
+   */
+  ODataResponse process(final ODataRequest request, final ProcessingInfo info) {
+    lastInfo = info;
     ODataResponse response = new ODataResponse();
     final int responseHandle = debugger.startRuntimeMeasurement("ODataHandler", "process");
     try {
-      processInternal(request, response);
+      processInternal(request, response, info);
     } catch (final UriValidationException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
+      handleException(request, response, serverError, e, info);
     } catch (final UriParserSemanticException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
+      handleException(request, response, serverError, e, info);
     } catch (final UriParserSyntaxException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
+      handleException(request, response, serverError, e, info);
     } catch (final UriParserException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
+      handleException(request, response, serverError, e, info);
     } catch (ContentNegotiatorException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
+      handleException(request, response, serverError, e, info);
     } catch (SerializerException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
+      handleException(request, response, serverError, e, info);
     } catch (DeserializerException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
+      handleException(request, response, serverError, e, info);
     } catch (PreconditionException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
+      handleException(request, response, serverError, e, info);
     } catch (ODataHandlerException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
+      handleException(request, response, serverError, e, info);
     } catch (ODataApplicationException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e);
-      handleException(request, response, serverError, e);
+      handleException(request, response, serverError, e, info);
     } catch (Exception e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e);
-      handleException(request, response, serverError, e);
+      handleException(request, response, serverError, e, info);
     }
     debugger.stopRuntimeMeasurement(responseHandle);
     return response;
   }
 
-  private void processInternal(final ODataRequest request, final ODataResponse response)
+  private void processInternal(final ODataRequest request, final ODataResponse response, final ProcessingInfo info)
       throws ODataApplicationException, ODataLibraryException {
     final int measurementHandle = debugger.startRuntimeMeasurement("ODataHandler", "processInternal");
 
@@ -128,8 +142,9 @@ public class ODataHandler {
     }
 
     final int measurementUriParser = debugger.startRuntimeMeasurement("UriParser", "parseUri");
+    final UriInfo uriInfo;
     try {
-      uriInfo = new Parser().parseUri(request.getRawODataPath(), request.getRawQueryPath(), null,
+      uriInfo = new Parser(uriInfoCache).parseUri(request.getRawODataPath(), request.getRawQueryPath(), null,
           serviceMetadata.getEdm());
     } catch (final ODataLibraryException e) {
       debugger.stopRuntimeMeasurement(measurementUriParser);
@@ -137,6 +152,7 @@ public class ODataHandler {
       throw e;
     }
     debugger.stopRuntimeMeasurement(measurementUriParser);
+    info.uriInfo = uriInfo;
 
     final int measurementUriValidator = debugger.startRuntimeMeasurement("UriValidator", "validate");
     final HttpMethod method = request.getMethod();
@@ -156,11 +172,99 @@ public class ODataHandler {
       debugger.stopRuntimeMeasurement(measurementDispatcher);
       debugger.stopRuntimeMeasurement(measurementHandle);
     }
+    handleRange(request, response);
+  }
+
+  /**
+   * Answers a request for a single byte range (RFC 7233) of binary content of known size with that range.
+   * Other range requests are answered with the complete content, as allowed by RFC 7233;
+   * this includes conditional range requests whose If-Range header does not match the strong ETag of the content.
+   */
+  private void handleRange(final ODataRequest request, final ODataResponse response) {
+    if (!(response.getODataContent() instanceof BinaryContent)
+        || ((BinaryContent) response.getODataContent()).getSize() < 0) {
+      return;
+    }
+    final BinaryContent content = (BinaryContent) response.getODataContent();
+    final long size = content.getSize();
+    response.setHeader(HttpHeader.ACCEPT_RANGES, BYTES_UNIT);
+
+    final String range = request.getHeader(HttpHeader.RANGE);
+    if (range == null || request.getMethod() != HttpMethod.GET
+        || response.getStatusCode() != HttpStatusCode.OK.getStatusCode()
+        || !range.startsWith(BYTES_UNIT + '=') || range.indexOf(',') >= 0) {
+      return;
+    }
+    // a range of changed content must not be combined with a previously received part (RFC 7233, section 3.2)
+    final String ifRange = request.getHeader(HttpHeader.IF_RANGE);
+    final String etag = response.getHeader(HttpHeader.ETAG);
+    if (ifRange != null && (etag == null || etag.startsWith("W/") || !ifRange.trim().equals(etag))) {
+      return;
+    }
+    final String spec = range.substring(BYTES_UNIT.length() + 1).trim();
+    final int dash = spec.indexOf('-');
+    long first;
+    long last;
+    if (dash == 0) {
+      // suffix range: the last bytes
+      final long suffix = parseBytePosition(spec.substring(1));
+      if (suffix < 0) {
+        return;
+      }
+      first = suffix == 0 ? size : Math.max(size - suffix, 0);
+      last = size - 1;
+    } else if (dash > 0) {
+      first = parseBytePosition(spec.substring(0, dash));
+      last = dash == spec.length() - 1 ? Long.MAX_VALUE : parseBytePosition(spec.substring(dash + 1));
+      if (first < 0 || last < first) {
+        return;
+      }
+      last = Math.min(last, size - 1);
+    } else {
+      return;
+    }
+
+    if (first >= size) {
+      content.close();
+      response.setODataContent(null);
+      response.setStatusCode(HttpStatusCode.RANGE_NOT_SATISFIABLE.getStatusCode());
+      response.setHeader(HttpHeader.CONTENT_RANGE, BYTES_UNIT + " */" + size);
+      response.removeHeader(HttpHeader.CONTENT_LENGTH);
+    } else {
+      response.setODataContent(content.getRange(first, last - first + 1));
+      response.setStatusCode(HttpStatusCode.PARTIAL_CONTENT.getStatusCode());
+      response.setHeader(HttpHeader.CONTENT_RANGE, BYTES_UNIT + ' ' + first + '-' + last + '/' + size);
+      response.setHeader(HttpHeader.CONTENT_LENGTH, Long.toString(last - first + 1));
+    }
+  }
+
+  /**
+   * Parses a byte position of a range.
+   * @return the position or -1 if the value is not a non-negative decimal number
+   */
+  private static long parseBytePosition(final String value) {
+    if (value.isEmpty() || value.length() > 18) {
+      return -1;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+        return -1;
+      }
+    }
+    return Long.parseLong(value);
   }
 
   public void handleException(final ODataRequest request, final ODataResponse response,
-      final ODataServerError serverError, Exception exception) {
-    this.lastThrownException = exception;
+      final ODataServerError serverError, final Exception exception) {
+    final ProcessingInfo info = new ProcessingInfo();
+    lastInfo = info;
+    handleException(request, response, serverError, exception, info);
+  }
+
+  private void handleException(final ODataRequest request, final ODataResponse response,
+      final ODataServerError serverError, final Exception exception, final ProcessingInfo info) {
+    info.exception = exception;
+    final UriInfo uriInfo = info.uriInfo;
     ErrorProcessor exceptionProcessor;
     try {
       exceptionProcessor = selectProcessor(ErrorProcessor.class);
@@ -220,11 +324,54 @@ public class ODataHandler {
     return customETagSupport;
   }
 
+  /**
+   * Sets the cache for parsed URIs; <code>null</code> (the default) disables caching.
+   * @param uriInfoCache the cache, which may be shared between handlers
+   */
+  public void setUriInfoCache(final UriInfoCache uriInfoCache) {
+    this.uriInfoCache = uriInfoCache;
+  }
+
+  /**
+   * Sets the executor on which independent parts of a batch request are processed concurrently;
+   * <code>null</code> (the default) processes all parts one after another on the calling thread.
+   * Registered processors must be thread-safe if an executor is set.
+   * @param batchExecutor the executor, which may be shared between handlers
+   */
+  public void setBatchExecutor(final Executor batchExecutor) {
+    this.batchExecutor = batchExecutor;
+  }
+
+  public Executor getBatchExecutor() {
+    return batchExecutor;
+  }
+
+  /**
+   * Gets the exception thrown while processing the most recent request.
+   * @deprecated The result is unreliable if requests are processed concurrently, e.g., the parts of a batch
+   * request; the debug output receives this information per request.
+   */
+  @Deprecated
   public Exception getLastThrownException() {
-    return lastThrownException;
+    return lastInfo.exception;
   }
 
+  /**
+   * Gets the parsed URI of the most recent request.
+   * @deprecated The result is unreliable if requests are processed concurrently, e.g., the parts of a batch
+   * request; the debug output receives this information per request.
+   */
+  @Deprecated
   public UriInfo getUriInfo() {
-    return uriInfo;
+    return lastInfo.uriInfo;
+  }
+
+  /**
+   * Information about the processing of a single request, for the debug output.
+   * It is kept outside of the handler so that the handler can process several requests at once.
+   */
+  static final class ProcessingInfo {
+    UriInfo uriInfo;
+    Exception exception;
   }
 }
@@ -18,10 +18,13 @@
  */
 package org.apache.olingo.server.core;
 
+import java.io.Closeable;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channel;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
@@ -30,6 +33,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Executor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -45,10 +49,12 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.debug.DebugSupport;
+import org.apache.olingo.server.api.debug.MetricsSupport;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
 import org.apache.olingo.server.api.processor.Processor;
 import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
+import org.apache.olingo.server.api.uri.UriInfoCache;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
 
 public class ODataHttpHandlerImpl implements ODataHttpHandler {
@@ -68,15 +74,17 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
   @Override
   public void process(final HttpServletRequest request, final HttpServletResponse response) {
     ODataRequest odRequest = new ODataRequest();
+    final ODataHandler.ProcessingInfo info = new ODataHandler.ProcessingInfo();
     Exception exception = null;
     ODataResponse odResponse;
     debugger.resolveDebugMode(request);
 
+    final long timeStarted = debugger.isMetricsEnabled() ? System.nanoTime() : 0;
     final int processMethodHandle = debugger.startRuntimeMeasurement("ODataHttpHandlerImpl", "process");
     try {
       fillODataRequest(odRequest, request, split);
 
-      odResponse = handler.process(odRequest);
+      odResponse = handler.process(odRequest, info);
       // ALL future methods after process must not throw exceptions!
     } catch (Exception e) {
       exception = e;
@@ -88,14 +96,20 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
       Map<String, String> serverEnvironmentVariables = createEnvironmentVariablesMap(request);
       if (exception == null) {
         // This is to ensure that we have access to the thrown OData Exception
-        exception = handler.getLastThrownException();
+        exception = info.exception;
       }
       odResponse =
-          debugger.createDebugResponse(odRequest, odResponse, exception, handler.getUriInfo(),
+          debugger.createDebugResponse(odRequest, odResponse, exception, info.uriInfo,
               serverEnvironmentVariables);
     }
 
-    convertToHttp(response, odResponse);
+    final int convertHandle = debugger.startRuntimeMeasurement("ODataHttpHandlerImpl", "convertToHttp");
+    try {
+      convertToHttp(response, odResponse);
+    } finally {
+      debugger.stopRuntimeMeasurement(convertHandle);
+      debugger.recordRequest(odRequest.getMethod(), info.uriInfo, odResponse.getStatusCode(), timeStarted);
+    }
   }
 
   private Map<String, String> createEnvironmentVariablesMap(HttpServletRequest request) {
@@ -126,6 +140,20 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     this.split = split;
   }
 
+  @Override
+  public void setUriInfoCache(final UriInfoCache uriInfoCache) {
+    handler.setUriInfoCache(uriInfoCache);
+  }
+
+  /**
+   * Enables the concurrent processing of independent parts of batch requests.
+   * @param batchExecutor the executor; <code>null</code> processes all parts one after another
+   * @see ODataHandler#setBatchExecutor(Executor)
+   */
+  public void setBatchExecutor(final Executor batchExecutor) {
+    handler.setBatchExecutor(batchExecutor);
+  }
+
   private ODataResponse handleException(final ODataRequest odRequest, final Exception e) {
     ODataResponse resp = new ODataResponse();
     ODataServerError serverError;
@@ -149,22 +177,51 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
       }
     }
 
-    if (odResponse.getContent() != null) {
+    if (odResponse.getODataContent() != null) {
+      writeContent(odResponse, response);
+    } else if (odResponse.getContent() != null) {
       copyContent(odResponse, response);
     }
   }
 
+  static void writeContent(final ODataResponse odataResponse, final HttpServletResponse servletResponse) {
+    OutputStream output = null;
+    try {
+      output = servletResponse.getOutputStream();
+      odataResponse.getODataContent().write(output);
+    } catch (IOException e) {
+      throw new ODataRuntimeException("Error on writing response content", e);
+    } finally {
+      closeStream(output);
+    }
+  }
+
   static void copyContent(final ODataResponse odataResponse, final HttpServletResponse servletResponse) {
     ReadableByteChannel input = null;
     WritableByteChannel output = null;
     try {
-      ByteBuffer inBuffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
       output = Channels.newChannel(servletResponse.getOutputStream());
-      input = Channels.newChannel(odataResponse.getContent());
-      while (input.read(inBuffer) > 0) {
-        inBuffer.flip();
-        output.write(inBuffer);
-        inBuffer.rewind();
+      if (odataResponse.getContent() instanceof FileInputStream) {
+        // let the file channel transfer the data; as the servlet output is a stream,
+        // they are still copied through a heap buffer, but no buffer of our own is needed
+        final FileChannel file = ((FileInputStream) odataResponse.getContent()).getChannel();
+        input = file;
+        long position = file.position();
+        final long end = file.size();
+        long transferred;
+        while (position < end && (transferred = file.transferTo(position, end - position, output)) > 0) {
+          position += transferred;
+        }
+      } else {
+        ByteBuffer inBuffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+        input = Channels.newChannel(odataResponse.getContent());
+        while (input.read(inBuffer) > 0) {
+          inBuffer.flip();
+          while (inBuffer.hasRemaining()) {
+            output.write(inBuffer);
+          }
+          inBuffer.clear();
+        }
       }
     } catch (IOException e) {
       throw new ODataRuntimeException("Error on reading request content", e);
@@ -174,7 +231,7 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     }
   }
 
-  private static void closeStream(final Channel closeable) {
+  private static void closeStream(final Closeable closeable) {
     if (closeable != null) {
       try {
         closeable.close();
@@ -304,4 +361,9 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
   public void register(final DebugSupport debugSupport) {
     debugger.setDebugSupportProcessor(debugSupport);
   }
+
+  @Override
+  public void register(final MetricsSupport metricsSupport) {
+    debugger.setMetricsSupport(metricsSupport);
+  }
 }
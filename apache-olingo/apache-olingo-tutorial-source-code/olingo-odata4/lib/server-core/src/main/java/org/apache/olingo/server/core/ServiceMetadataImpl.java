@@ -18,25 +18,42 @@
  */
 package org.apache.olingo.server.core;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
 import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
 import org.apache.olingo.commons.core.edm.EdmProviderImpl;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.edmx.EdmxReference;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.apache.olingo.server.core.serializer.json.SerializationPlan;
 
 /**
  */
 public class ServiceMetadataImpl implements ServiceMetadata {
 
+  private static final int MAX_SERIALIZATION_PLANS = 1000;
+
   private final EdmProviderImpl edm;
   private final List<EdmxReference> references = new ArrayList<EdmxReference>();
   private final ServiceMetadataETagSupport serviceMetadataETagSupport;
+  private final ConcurrentMap<String, SerializedDocument> documents =
+      new ConcurrentHashMap<String, SerializedDocument>();
+  private final ConcurrentMap<String, SerializationPlan> serializationPlans =
+      new ConcurrentHashMap<String, SerializationPlan>();
 
   public ServiceMetadataImpl(CsdlEdmProvider edmProvider, List<EdmxReference> references,
       ServiceMetadataETagSupport serviceMetadataETagSupport) {
@@ -64,4 +81,81 @@ public class ServiceMetadataImpl implements ServiceMetadata {
   public ServiceMetadataETagSupport getServiceMetadataETagSupport() {
     return serviceMetadataETagSupport;
   }
+
+  /**
+   * Gets a document serialized from this metadata, e.g., the metadata document or the service document,
+   * as it has been stored with {@link #cacheDocument(String, InputStream)}.
+   * Documents are cached only as long as the metadata ETag (if there is one) does not change.
+   * @param key identifies the document and its format
+   * @return the content of the cached document or <code>null</code>
+   */
+  public InputStream getCachedDocument(final String key) {
+    final SerializedDocument document = documents.get(key);
+    return document == null || !document.isValidFor(getMetadataETag()) ?
+        null :
+        new ByteArrayInputStream(document.content);
+  }
+
+  /**
+   * Stores a document serialized from this metadata so that it can be served
+   * without serializing it again.
+   * @param key identifies the document and its format
+   * @param content the serialized document; it is read completely
+   * @return the content of the cached document
+   * @throws IOException if the content could not be read
+   */
+  public InputStream cacheDocument(final String key, final InputStream content) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    int count;
+    while ((count = content.read(buffer)) != -1) {
+      bytes.write(buffer, 0, count);
+    }
+    content.close();
+    final SerializedDocument document = new SerializedDocument(getMetadataETag(), bytes.toByteArray());
+    documents.put(key, document);
+    return new ByteArrayInputStream(document.content);
+  }
+
+  /**
+   * Gets the plan to serialize instances of a structured type with the given $select and $expand.
+   * Plans are compiled on first use and kept for later requests, up to {@value #MAX_SERIALIZATION_PLANS}
+   * distinct combinations of type and options.
+   * @param type the structured type
+   * @param select the $select option or <code>null</code>
+   * @param expand the $expand option or <code>null</code>
+   * @return the serialization plan
+   * @throws SerializerException if the options are not supported
+   */
+  public SerializationPlan getSerializationPlan(final EdmStructuredType type, final SelectOption select,
+      final ExpandOption expand) throws SerializerException {
+    final String key = SerializationPlan.getKey(type, select, expand);
+    SerializationPlan plan = serializationPlans.get(key);
+    if (plan == null) {
+      plan = SerializationPlan.compile(type, select, expand);
+      if (serializationPlans.size() < MAX_SERIALIZATION_PLANS) {
+        final SerializationPlan cached = serializationPlans.putIfAbsent(key, plan);
+        plan = cached == null ? plan : cached;
+      }
+    }
+    return plan;
+  }
+
+  private String getMetadataETag() {
+    return serviceMetadataETagSupport == null ? null : serviceMetadataETagSupport.getMetadataETag();
+  }
+
+  private static class SerializedDocument {
+    private final String metadataETag;
+    private final byte[] content;
+
+    public SerializedDocument(final String metadataETag, final byte[] content) {
+      this.metadataETag = metadataETag;
+      this.content = content;
+    }
+
+    public boolean isValidFor(final String currentMetadataETag) {
+      return metadataETag == null ? currentMetadataETag == null : metadataETag.equals(currentMetadataETag);
+    }
+  }
 }
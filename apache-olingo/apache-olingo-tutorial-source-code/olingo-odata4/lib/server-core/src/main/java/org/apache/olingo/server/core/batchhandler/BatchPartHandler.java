@@ -18,7 +18,17 @@
  */
 package org.apache.olingo.server.core.batchhandler;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
@@ -26,8 +36,10 @@ import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.batch.BatchFacade;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.processor.BatchProcessor;
+import org.apache.olingo.server.core.ODataExceptionHelper;
 import org.apache.olingo.server.core.ODataHandler;
 import org.apache.olingo.server.core.batchhandler.referenceRewriting.BatchReferenceRewriter;
 
@@ -60,6 +72,139 @@ public class BatchPartHandler {
     }
   }
 
+  public List<ODataResponsePart> handleBatchRequests(final BatchRequestReader reader, final boolean continueOnError)
+      throws ODataApplicationException, ODataLibraryException {
+    final Executor executor = oDataHandler.getBatchExecutor();
+    final List<ODataResponsePart> responseParts = new ArrayList<ODataResponsePart>();
+    // Independent parts are submitted as soon as they have been read;
+    // their responses are collected before the next dependent part is handled.
+    final List<Future<ODataResponsePart>> pending = new ArrayList<Future<ODataResponsePart>>();
+
+    try {
+      BatchRequestPart part;
+      while ((part = nextPart(reader, pending, responseParts, continueOnError)) != null) {
+        if (executor != null && isIndependent(part)) {
+          pending.add(submit(executor, part));
+        } else {
+          if (!collect(pending, responseParts, continueOnError)) {
+            return responseParts;
+          }
+          final ODataResponsePart responsePart = handleBatchRequest(part);
+          responseParts.add(responsePart);
+          if (isFailed(responsePart) && !continueOnError) {
+            return responseParts;
+          }
+        }
+      }
+      collect(pending, responseParts, continueOnError);
+      return responseParts;
+    } finally {
+      // parts still running after a failure are interrupted; their responses are discarded anyway
+      for (final Future<ODataResponsePart> future : pending) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * Reads the next part. If a part is malformed before any part has been processed, the exception is thrown;
+   * otherwise the parts processed so far keep their responses, the malformed part gets an error response,
+   * and <code>null</code> is returned as no further part can be read.
+   */
+  private BatchRequestPart nextPart(final BatchRequestReader reader, final List<Future<ODataResponsePart>> pending,
+      final List<ODataResponsePart> responseParts, final boolean continueOnError) throws ODataLibraryException {
+    try {
+      return reader.hasNext() ? reader.next() : null;
+    } catch (final BatchDeserializerException e) {
+      if (responseParts.isEmpty() && pending.isEmpty()) {
+        throw e;
+      }
+      if (collect(pending, responseParts, continueOnError)) {
+        responseParts.add(new ODataResponsePart(handleMalformedPart(e), false));
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Parts outside of change sets which only read data and do not refer to the result of a previous request
+   * can be processed concurrently.
+   */
+  private boolean isIndependent(final BatchRequestPart part) {
+    if (part.isChangeSet()) {
+      return false;
+    }
+    final ODataRequest request = part.getRequests().get(0);
+    final String path = request.getRawODataPath();
+    return request.getMethod() == HttpMethod.GET
+        && (path == null || !path.startsWith("/$") || path.startsWith("/$metadata"));
+  }
+
+  private Future<ODataResponsePart> submit(final Executor executor, final BatchRequestPart part) {
+    final FutureTask<ODataResponsePart> task = new FutureTask<ODataResponsePart>(new Callable<ODataResponsePart>() {
+      @Override
+      public ODataResponsePart call() throws Exception {
+        return new ODataResponsePart(handle(part.getRequests().get(0), false), false);
+      }
+    });
+    executor.execute(task);
+    return task;
+  }
+
+  /**
+   * Waits for the pending parts and adds their responses in order.
+   * @return <code>false</code> if a part has failed and processing must not continue
+   */
+  private boolean collect(final List<Future<ODataResponsePart>> pending, final List<ODataResponsePart> responseParts,
+      final boolean continueOnError) throws ODataLibraryException {
+    try {
+      for (final Future<ODataResponsePart> future : pending) {
+        final ODataResponsePart responsePart = getResult(future);
+        responseParts.add(responsePart);
+        if (isFailed(responsePart) && !continueOnError) {
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      for (final Future<ODataResponsePart> future : pending) {
+        future.cancel(true);
+      }
+      pending.clear();
+    }
+  }
+
+  private ODataResponsePart getResult(final Future<ODataResponsePart> future) throws ODataLibraryException {
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ODataRuntimeException("Interrupted while processing the batch request", e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof ODataLibraryException) {
+        throw (ODataLibraryException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new ODataRuntimeException((Exception) cause);
+      }
+    }
+  }
+
+  private ODataResponse handleMalformedPart(final BatchDeserializerException e) {
+    final ODataResponse response = new ODataResponse();
+    oDataHandler.handleException(new ODataRequest(), response, ODataExceptionHelper.createServerErrorObject(e, null),
+        e);
+    return response;
+  }
+
+  private boolean isFailed(final ODataResponsePart responsePart) {
+    return responsePart.getResponses().get(0).getStatusCode() >= 400;
+  }
+
   public ODataResponse handle(final ODataRequest request, final boolean isChangeSet)
       throws BatchDeserializerException {
     ODataResponse response;
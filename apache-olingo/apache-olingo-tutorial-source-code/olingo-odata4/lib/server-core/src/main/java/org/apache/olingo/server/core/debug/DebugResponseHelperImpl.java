@@ -41,9 +41,8 @@ import org.apache.olingo.server.api.debug.DebugResponseHelper;
 import org.apache.olingo.server.api.debug.DebugSupport;
 import org.apache.olingo.server.api.debug.RuntimeMeasurement;
 import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
+import org.apache.olingo.server.core.serializer.utils.JsonFactoryHolder;
 
-import com.fasterxml.jackson.core.JsonEncoding;
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 
 public class DebugResponseHelperImpl implements DebugResponseHelper {
@@ -141,7 +140,7 @@ public class DebugResponseHelperImpl implements DebugResponseHelper {
     try {
       CircleStreamBuffer csb = new CircleStreamBuffer();
       outputStream = csb.getOutputStream();
-      JsonGenerator gen = new JsonFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+      JsonGenerator gen = JsonFactoryHolder.createGenerator(outputStream);
 
       gen.writeStartObject();
       DebugTab requestInfo = parts.get(0);
@@ -36,8 +36,8 @@ import org.apache.olingo.server.api.uri.queryoption.SelectOption;
 import org.apache.olingo.server.api.uri.queryoption.SkipOption;
 import org.apache.olingo.server.api.uri.queryoption.TopOption;
 import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.core.serializer.utils.JsonFactoryHolder;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 
@@ -238,7 +238,7 @@ public class DebugTabUri implements DebugTab {
   public void appendHtml(final Writer writer) throws IOException {
     writer.append("<h2>Uri Information</h2>\n")
         .append("<ul class=\"json\">\n<li>\n");
-    JsonGenerator json = new JsonFactory().createGenerator(writer)
+    JsonGenerator json = JsonFactoryHolder.createGenerator(writer)
         .setPrettyPrinter(new DefaultPrettyPrinter());
     appendJson(json);
     json.close();
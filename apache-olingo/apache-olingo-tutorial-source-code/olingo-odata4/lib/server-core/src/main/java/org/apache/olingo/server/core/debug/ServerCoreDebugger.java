@@ -19,7 +19,9 @@
 package org.apache.olingo.server.core.debug;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -28,14 +30,17 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.debug.DebugInformation;
 import org.apache.olingo.server.api.debug.DebugSupport;
+import org.apache.olingo.server.api.debug.MetricsSupport;
 import org.apache.olingo.server.api.debug.RuntimeMeasurement;
 import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 
 public class ServerCoreDebugger {
 
@@ -44,6 +49,7 @@ public class ServerCoreDebugger {
 
   private boolean isDebugMode = false;
   private DebugSupport debugSupport;
+  private MetricsSupport metricsSupport;
   private String debugFormat;
 
   public ServerCoreDebugger(OData odata) {
@@ -51,6 +57,12 @@ public class ServerCoreDebugger {
   }
 
   public void resolveDebugMode(HttpServletRequest request) {
+    if (metricsSupport != null) {
+      // measurements are also recorded outside of debug mode and must not pile up across requests
+      synchronized (runtimeInformation) {
+        runtimeInformation.clear();
+      }
+    }
     if (debugSupport != null) {
       // Should we read the parameter from the servlet here and ignore multiple parameters?
       debugFormat = request.getParameter(DebugSupport.ODATA_DEBUG_QUERY_PARAMETER);
@@ -69,6 +81,7 @@ public class ServerCoreDebugger {
     }
 
     try {
+      bufferStreamedContent(response);
       DebugInformation debugInfo =
           createDebugInformation(request, response, exception, uriInfo, serverEnvironmentVariables);
 
@@ -78,6 +91,18 @@ public class ServerCoreDebugger {
     }
   }
 
+  /** Streamed content is written into a buffer so that the debug tabs can read it. */
+  private void bufferStreamedContent(final ODataResponse response) throws IOException {
+    if (response != null && response.getODataContent() != null) {
+      CircleStreamBuffer buffer = new CircleStreamBuffer();
+      OutputStream outputStream = buffer.getOutputStream();
+      response.getODataContent().write(outputStream);
+      outputStream.close();
+      response.setContent(buffer.getInputStream());
+      response.setODataContent(null);
+    }
+  }
+
   private ODataResponse createFailResponse() {
     ODataResponse odResponse = new ODataResponse();
     odResponse.setStatusCode(HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
@@ -104,29 +129,52 @@ public class ServerCoreDebugger {
   }
 
   public int startRuntimeMeasurement(final String className, final String methodName) {
-    if (isDebugMode) {
-      int handleId = runtimeInformation.size();
-
+    if (isDebugMode || metricsSupport != null) {
       final RuntimeMeasurement measurement = new RuntimeMeasurement();
       measurement.setTimeStarted(System.nanoTime());
       measurement.setClassName(className);
       measurement.setMethodName(methodName);
 
-      runtimeInformation.add(measurement);
-
-      return handleId;
+      // parts of a batch request may be measured concurrently
+      synchronized (runtimeInformation) {
+        int handleId = runtimeInformation.size();
+        runtimeInformation.add(measurement);
+        return handleId;
+      }
     } else {
       return 0;
     }
   }
 
   public void stopRuntimeMeasurement(final int handle) {
-    if (isDebugMode && handle < runtimeInformation.size()) {
+    if (isDebugMode || metricsSupport != null) {
       long stopTime = System.nanoTime();
-      RuntimeMeasurement runtimeMeasurement = runtimeInformation.get(handle);
-      if (runtimeMeasurement != null) {
-        runtimeMeasurement.setTimeStopped(stopTime);
+      RuntimeMeasurement runtimeMeasurement;
+      synchronized (runtimeInformation) {
+        runtimeMeasurement = handle < runtimeInformation.size() ? runtimeInformation.get(handle) : null;
+        if (runtimeMeasurement != null) {
+          runtimeMeasurement.setTimeStopped(stopTime);
+        }
       }
+      if (runtimeMeasurement != null && metricsSupport != null) {
+        metricsSupport.recordMeasurement(runtimeMeasurement.getClassName(), runtimeMeasurement.getMethodName(),
+            stopTime - runtimeMeasurement.getTimeStarted());
+      }
+    }
+  }
+
+  /**
+   * Reports a finished request to the registered metrics support, if any.
+   * @param method the HTTP method of the request
+   * @param uriInfo the parsed URI of the request or <code>null</code>
+   * @param statusCode the status code of the response
+   * @param timeStarted the start time of the request in nanoseconds
+   * @see System#nanoTime()
+   */
+  public void recordRequest(final HttpMethod method, final UriInfo uriInfo, final int statusCode,
+      final long timeStarted) {
+    if (metricsSupport != null) {
+      metricsSupport.recordRequest(method, uriInfo, statusCode, System.nanoTime() - timeStarted);
     }
   }
 
@@ -134,6 +182,14 @@ public class ServerCoreDebugger {
     this.debugSupport = debugSupport;
   }
 
+  public void setMetricsSupport(MetricsSupport metricsSupport) {
+    this.metricsSupport = metricsSupport;
+  }
+
+  public boolean isMetricsEnabled() {
+    return metricsSupport != null;
+  }
+
   public boolean isDebugMode() {
     return isDebugMode;
   }
@@ -23,6 +23,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
@@ -33,14 +38,18 @@ import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
 import org.apache.olingo.server.core.deserializer.batch.BatchParser;
+import org.apache.olingo.server.core.deserializer.batch.BatchRequestReaderImpl;
 
 public class FixedFormatDeserializerImpl implements FixedFormatDeserializer {
 
+  private static final int BUFFER_SIZE = 8192;
+
   @Override
   public byte[] binary(final InputStream content) throws DeserializerException {
     ByteArrayOutputStream result = new ByteArrayOutputStream();
-    byte[] buffer = new byte[128];
+    byte[] buffer = new byte[BUFFER_SIZE];
     int count;
     try {
       while ((count = content.read(buffer)) > -1) {
@@ -54,6 +63,39 @@ public class FixedFormatDeserializerImpl implements FixedFormatDeserializer {
     return result.toByteArray();
   }
 
+  @Override
+  public long binary(final InputStream content, final WritableByteChannel target) throws DeserializerException {
+    final ReadableByteChannel input = Channels.newChannel(content);
+    long count = 0;
+    try {
+      // a file channel cannot transfer to a position beyond the end of the file
+      if (target instanceof FileChannel && ((FileChannel) target).position() <= ((FileChannel) target).size()) {
+        final FileChannel file = (FileChannel) target;
+        final long start = file.position();
+        long transferred;
+        while ((transferred = file.transferFrom(input, start + count, Long.MAX_VALUE - start - count)) > 0) {
+          count += transferred;
+        }
+        file.position(start + count);
+      } else {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int read;
+        while ((read = input.read(buffer)) >= 0) {
+          count += read;
+          buffer.flip();
+          while (buffer.hasRemaining()) {
+            target.write(buffer);
+          }
+          buffer.clear();
+        }
+      }
+    } catch (final IOException e) {
+      throw new DeserializerException("An I/O exception occurred.", e,
+          DeserializerException.MessageKeys.IO_EXCEPTION);
+    }
+    return count;
+  }
+
   @Override
   public Object primitiveValue(InputStream content, final EdmProperty property) throws DeserializerException {
     if (property == null || !property.isPrimitive()) {
@@ -87,4 +129,10 @@ public class FixedFormatDeserializerImpl implements FixedFormatDeserializer {
 
     return parser.parseBatchRequest(content, boundary, options);
   }
+
+  @Override
+  public BatchRequestReader readBatchRequest(final InputStream content, final String boundary,
+      final BatchOptions options) throws BatchDeserializerException {
+    return new BatchRequestReaderImpl(content, boundary, options);
+  }
 }
@@ -18,20 +18,19 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
-import java.util.List;
-
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 
 public class BatchChangeSetPart extends BatchQueryOperation {
   private BatchQueryOperation request;
 
-  public BatchChangeSetPart(final List<Line> message, final boolean isStrict) throws BatchDeserializerException {
+  public BatchChangeSetPart(final BatchPartContent message, final boolean isStrict) throws BatchDeserializerException {
     super(message, isStrict);
   }
 
   @Override
   public BatchChangeSetPart parse() throws BatchDeserializerException {
     headers = BatchParserCommon.consumeHeaders(message);
+    message.setCharset(BatchParserCommon.getCharset(headers, message.getCharset()));
     BatchParserCommon.consumeBlankLine(message, isStrict);
 
     request = new BatchQueryOperation(message, isStrict).parse();
@@ -44,7 +43,7 @@ public class BatchChangeSetPart extends BatchQueryOperation {
   }
 
   @Override
-  public List<Line> getBody() {
+  public BatchPartContent getBody() {
     return request.getBody();
   }
 
@@ -30,53 +30,33 @@ import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
 
 public class BatchParser {
 
-  private BatchOptions options;
-
   public List<BatchRequestPart> parseBatchRequest(final InputStream content, final String boundary,
       final BatchOptions options)
           throws BatchDeserializerException {
-    this.options = options;
-
-    BatchRequestTransformator transformator = new BatchRequestTransformator(options.getRawBaseUri(),
-        options.getRawServiceResolutionUri());
-    return parse(content, boundary, transformator);
-  }
-
-  private List<BatchRequestPart> parse(final InputStream in, final String boundary,
-      final BatchRequestTransformator transformator)
-      throws BatchDeserializerException {
+    final BatchRequestReaderImpl reader = new BatchRequestReaderImpl(content, boundary, options);
     try {
-      return parseBatch(in, boundary, transformator);
-    } catch (IOException e) {
-      throw new ODataRuntimeException(e);
+      return parseBatch(reader);
     } finally {
       try {
-        in.close();
+        reader.close();
       } catch (IOException e) {
         throw new ODataRuntimeException(e);
       }
     }
   }
 
-  private List<BatchRequestPart> parseBatch(final InputStream in, final String boundary,
-      final BatchRequestTransformator transformator) throws IOException, BatchDeserializerException {
+  private List<BatchRequestPart> parseBatch(final BatchRequestReaderImpl reader) throws BatchDeserializerException {
     final List<BatchRequestPart> resultList = new LinkedList<BatchRequestPart>();
-    final List<List<Line>> bodyPartStrings = splitBodyParts(in, boundary);
-
-    for (List<Line> bodyPartString : bodyPartStrings) {
-      BatchBodyPart bodyPart = new BatchBodyPart(bodyPartString, boundary, options.isStrict()).parse();
-      resultList.addAll(transformator.transform(bodyPart));
+    try {
+      while (reader.hasNext()) {
+        resultList.add(reader.next());
+      }
+    } catch (final BatchDeserializerException e) {
+      // A missing close delimiter is reported in favor of errors in the parts, as the whole message is read anyway.
+      reader.skipRemainingParts();
+      throw e;
     }
 
     return resultList;
   }
-
-  private List<List<Line>> splitBodyParts(final InputStream in, final String boundary) throws IOException,
-      BatchDeserializerException {
-    final BatchLineReader reader = new BatchLineReader(in);
-    final List<Line> message = reader.toLineList();
-    reader.close();
-
-    return BatchParserCommon.splitMessageByBoundary(message, boundary);
-  }
 }
@@ -18,17 +18,17 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.io.IOException;
 import java.nio.charset.Charset;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 
 public class BatchParserCommon {
@@ -36,8 +36,8 @@ public class BatchParserCommon {
   private static final String PATTERN_BOUNDARY =
       "([a-zA-Z0-9_\\-\\.'\\+]{1,70})|"
       + "\"([a-zA-Z0-9_\\-\\.'\\+\\s\\(\\),/:=\\?]{1,69}[a-zA-Z0-9_\\-\\.'\\+\\(\\),/:=\\?])\"";
-  private static final Pattern PATTERN_LAST_CRLF = Pattern.compile("(.*)\\r\\n\\s*", Pattern.DOTALL);
   private static final Pattern PATTERN_HEADER_LINE = Pattern.compile("([a-zA-Z\\-]+):\\s?(.*)\\s*");
+  private static final Pattern PATTERN_BLANK_LINE = Pattern.compile("\\s*\r?\n\\s*");
 
   public static final String CONTENT_TRANSFER_ENCODING = "Content-Transfer-Encoding";
 
@@ -105,130 +105,78 @@ public class BatchParserCommon {
     return boundary;
   }
 
-  public static List<List<Line>> splitMessageByBoundary(final List<Line> message, final String boundary)
+  public static List<BatchPartContent> splitMessageByBoundary(final BatchPartContent message, final String boundary)
       throws BatchDeserializerException {
-    final List<List<Line>> messageParts = new LinkedList<List<Line>>();
-    List<Line> currentPart = new LinkedList<Line>();
-    boolean isEndReached = false;
-
-    final String quotedBoundary = Pattern.quote(boundary);
-    final Pattern boundaryDelimiterPattern = Pattern.compile("--" + quotedBoundary + "--\\s*");
-    final Pattern boundaryPattern = Pattern.compile("--" + quotedBoundary + "\\s*");
-
-    for (Line currentLine : message) {
-      if (boundaryDelimiterPattern.matcher(currentLine.toString()).matches()) {
-        removeEndingCRLFFromList(currentPart);
-        messageParts.add(currentPart);
-        isEndReached = true;
-      } else if (boundaryPattern.matcher(currentLine.toString()).matches()) {
-        removeEndingCRLFFromList(currentPart);
-        messageParts.add(currentPart);
-        currentPart = new LinkedList<Line>();
-      } else {
-        currentPart.add(currentLine);
-      }
-
-      if (isEndReached) {
-        break;
+    final List<BatchPartContent> messageParts = new LinkedList<BatchPartContent>();
+    final BatchPartSplitter splitter =
+        new BatchPartSplitter(message.getInputStream(), boundary, message.getLineNumber());
+    try {
+      BatchPartContent part;
+      while ((part = splitter.nextPart()) != null) {
+        messageParts.add(part);
       }
-    }
-
-    // Remove preamble
-    if (messageParts.size() > 0) {
-      messageParts.remove(0);
-    }
-
-    if (!isEndReached) {
-      final int lineNumber = (message.size() > 0) ? message.get(0).getLineNumber() : 0;
-      throw new BatchDeserializerException("Missing close boundary delimiter",
-          BatchDeserializerException.MessageKeys.MISSING_CLOSE_DELIMITER, Integer.toString(lineNumber));
+    } catch (final IOException e) {
+      throw new ODataRuntimeException(e);
     }
 
     return messageParts;
   }
 
-  private static void removeEndingCRLFFromList(List<Line> list) {
-    if (list.size() > 0) {
-      Line lastLine = list.remove(list.size() - 1);
-      list.add(removeEndingCRLF(lastLine));
+  public static Header consumeHeaders(final BatchPartContent remainingMessage) {
+    final Header headers = new Header(remainingMessage.getLineNumber());
+    Line currentLine;
+
+    while ((currentLine = remainingMessage.peekLine()) != null && addHeader(headers, currentLine)) {
+      remainingMessage.readLine();
     }
+
+    return headers;
   }
 
-  public static Line removeEndingCRLF(final Line line) {
-    Matcher matcher = PATTERN_LAST_CRLF.matcher(line.toString());
-    if (matcher.matches()) {
-      return new Line(matcher.group(1), line.getLineNumber());
-    } else {
-      return line;
+  /**
+   * Returns the charset given in the Content-Type header of <code>headers</code>,
+   * or <code>defaultCharset</code> if there is none or it is not supported.
+   */
+  public static Charset getCharset(final Header headers, final Charset defaultCharset) {
+    final String contentType = headers.getHeader(HttpHeader.CONTENT_TYPE);
+    if (contentType != null) {
+      try {
+        final String charset = ContentType.create(contentType).getParameter(ContentType.PARAMETER_CHARSET);
+        if (charset != null) {
+          return Charset.forName(charset);
+        }
+      } catch (final IllegalArgumentException e) {
+        // An invalid content type is reported when the part is processed.
+      }
     }
+    return defaultCharset;
   }
 
-  public static Header consumeHeaders(List<Line> remainingMessage) {
-    final int headerLineNumber = remainingMessage.size() != 0 ? remainingMessage.get(0).getLineNumber() : 0;
-    final Header headers = new Header(headerLineNumber);
-    final Iterator<Line> iter = remainingMessage.iterator();
-    Line currentLine;
-    boolean isHeader = true;
-
-    while (iter.hasNext() && isHeader) {
-      currentLine = iter.next();
-      final Matcher headerMatcher = PATTERN_HEADER_LINE.matcher(currentLine.toString());
-
-      if (headerMatcher.matches() && headerMatcher.groupCount() == 2) {
-        iter.remove();
+  private static boolean addHeader(final Header headers, final Line currentLine) {
+    final Matcher headerMatcher = PATTERN_HEADER_LINE.matcher(currentLine.toString());
 
-        String headerName = headerMatcher.group(1).trim();
-        String headerValue = headerMatcher.group(2).trim();
+    if (headerMatcher.matches() && headerMatcher.groupCount() == 2) {
+      String headerName = headerMatcher.group(1).trim();
+      String headerValue = headerMatcher.group(2).trim();
 
-        headers.addHeader(headerName, Header.splitValuesByComma(headerValue), currentLine.getLineNumber());
-      } else {
-        isHeader = false;
-      }
+      headers.addHeader(headerName, Header.splitValuesByComma(headerValue), currentLine.getLineNumber());
+      return true;
+    } else {
+      return false;
     }
-
-    return headers;
   }
 
-  public static void consumeBlankLine(List<Line> remainingMessage, final boolean isStrict)
+  public static void consumeBlankLine(final BatchPartContent remainingMessage, final boolean isStrict)
       throws BatchDeserializerException {
-    if (remainingMessage.size() > 0 && remainingMessage.get(0).toString().matches("\\s*\r?\n\\s*")) {
-      remainingMessage.remove(0);
+    final Line currentLine = remainingMessage.peekLine();
+    if (currentLine != null && PATTERN_BLANK_LINE.matcher(currentLine.toString()).matches()) {
+      remainingMessage.readLine();
     } else {
       if (isStrict) {
-        final int lineNumber = (remainingMessage.size() > 0) ? remainingMessage.get(0).getLineNumber() : 0;
+        final int lineNumber = (currentLine != null) ? currentLine.getLineNumber() : 0;
         throw new BatchDeserializerException("Missing blank line",
             BatchDeserializerException.MessageKeys.MISSING_BLANK_LINE, "[None]", Integer.toString(lineNumber));
       }
     }
   }
-
-  public static InputStream convertLineListToInputStream(final List<Line> messageList, final Charset charset) {
-    final String message = lineListToString(messageList);
-
-    return new ByteArrayInputStream(message.getBytes(charset));
-  }
-
-  private static String lineListToString(final List<Line> messageList) {
-    final StringBuilder builder = new StringBuilder();
-
-    for (Line currentLine : messageList) {
-      builder.append(currentLine.toString());
-    }
-
-    return builder.toString();
-  }
-
-  public static String trimLineListToLength(final List<Line> list, final int length) {
-    final String message = lineListToString(list);
-    final int lastIndex = Math.min(length, message.length());
-
-    return (lastIndex > 0) ? message.substring(0, lastIndex) : "";
-  }
-
-  public static InputStream convertLineListToInputStream(final List<Line> list, final Charset charset,
-                                                         final int length) {
-    final String message = trimLineListToLength(list, length);
-
-    return new ByteArrayInputStream(message.getBytes(charset));
-  }
 }
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * The raw bytes of a MIME part of a batch request.
+ * Header and request lines are decoded on demand while they are consumed, as UTF-8 unless
+ * another charset has been set from a Content-Type header; the remaining content (the body) stays as bytes.
+ */
+public class BatchPartContent {
+  public static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  private final byte[] data;
+  private final int end;
+  private int position;
+  private int lineNumber;
+  private Line nextLine;
+  private Charset charset = DEFAULT_CHARSET;
+
+  public BatchPartContent(final byte[] data, final int offset, final int length, final int lineNumber) {
+    this.data = data;
+    position = offset;
+    end = offset + length;
+    this.lineNumber = lineNumber;
+  }
+
+  public boolean hasRemaining() {
+    return position < end;
+  }
+
+  /** Returns the number of the line at the current position. */
+  public int getLineNumber() {
+    return lineNumber;
+  }
+
+  public Charset getCharset() {
+    return charset;
+  }
+
+  /** Sets the charset the following lines are decoded with. */
+  public void setCharset(final Charset charset) {
+    this.charset = charset;
+    nextLine = null;
+  }
+
+  /** Returns the line at the current position, including its line break, without consuming it. */
+  public Line peekLine() {
+    if (nextLine == null && hasRemaining()) {
+      nextLine = new Line(new String(data, position, getLineEnd() - position, charset), lineNumber);
+    }
+    return nextLine;
+  }
+
+  /** Consumes the line at the current position; returns it including its line break. */
+  public Line readLine() {
+    final Line line = peekLine();
+    if (line != null) {
+      position = getLineEnd();
+      lineNumber++;
+      nextLine = null;
+    }
+    return line;
+  }
+
+  /** Returns true if the remaining content is empty or consists of a single line of white space only. */
+  public boolean isEmptyOrBlankLine() {
+    if (!hasRemaining()) {
+      return true;
+    }
+    final int lineEnd = getLineEnd();
+    for (int index = position; index < lineEnd; index++) {
+      if ((data[index] & 0xFF) > ' ') {
+        return false;
+      }
+    }
+    return lineEnd == end;
+  }
+
+  /** Returns the remaining content, limited to <code>maxLength</code> bytes if it is not negative. */
+  public InputStream getInputStream(final int maxLength) {
+    final int length = maxLength < 0 ? end - position : Math.min(maxLength, end - position);
+    return new ByteArrayInputStream(data, position, length);
+  }
+
+  /** Returns the remaining content. */
+  public InputStream getInputStream() {
+    return getInputStream(-1);
+  }
+
+  private int getLineEnd() {
+    int index = position;
+    while (index < end) {
+      final byte current = data[index++];
+      if (current == LF) {
+        break;
+      } else if (current == CR) {
+        if (index < end && data[index] == LF) {
+          index++;
+        }
+        break;
+      }
+    }
+    return index;
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
+
+/**
+ * Splits a multipart message into its MIME parts while reading the underlying stream.
+ * The preamble and the epilogue are skipped; each part is returned as soon as its closing boundary
+ * has been read, so only the current part is held in memory.
+ */
+public class BatchPartSplitter {
+  private static final Charset CS_ISO_8859_1 = Charset.forName("iso-8859-1");
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+  private static final byte DASH = '-';
+  private static final int EOF = -1;
+  private static final int BUFFER_SIZE = 8192;
+
+  private final InputStream in;
+  private final byte[] dashBoundary;
+  private final int firstLineNumber;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int offset = 0;
+  private int limit = 0;
+  private byte[] part = new byte[BUFFER_SIZE];
+  private int partLength = 0;
+  private int lineNumber;
+  private boolean isStarted = false;
+  private boolean isEndReached = false;
+
+  public BatchPartSplitter(final InputStream in, final String boundary, final int firstLineNumber) {
+    this.in = in;
+    dashBoundary = ("--" + boundary).getBytes(CS_ISO_8859_1);
+    this.firstLineNumber = firstLineNumber;
+    lineNumber = firstLineNumber;
+  }
+
+  /**
+   * Reads the next part.
+   * @return the content of the next part or <code>null</code> if the close delimiter has been reached
+   * @throws BatchDeserializerException if the stream ends before the close delimiter
+   */
+  public BatchPartContent nextPart() throws IOException, BatchDeserializerException {
+    if (!isStarted) {
+      isStarted = true;
+      skipPreamble();
+    }
+    if (isEndReached) {
+      return null;
+    }
+
+    partLength = 0;
+    final int partLineNumber = lineNumber;
+    int lineStart;
+    do {
+      lineStart = partLength;
+      if (!readLine()) {
+        throw missingCloseDelimiter();
+      }
+    } while (!isBoundary(lineStart));
+    partLength = lineStart;
+
+    // The line break before the boundary belongs to the boundary.
+    if (partLength >= 2 && part[partLength - 2] == CR && part[partLength - 1] == LF) {
+      partLength -= 2;
+    }
+    return new BatchPartContent(Arrays.copyOf(part, partLength), 0, partLength, partLineNumber);
+  }
+
+  private void skipPreamble() throws IOException, BatchDeserializerException {
+    do {
+      partLength = 0;
+      if (!readLine()) {
+        throw missingCloseDelimiter();
+      }
+    } while (!isBoundary(0));
+  }
+
+  private BatchDeserializerException missingCloseDelimiter() {
+    return new BatchDeserializerException("Missing close boundary delimiter",
+        BatchDeserializerException.MessageKeys.MISSING_CLOSE_DELIMITER, Integer.toString(firstLineNumber));
+  }
+
+  /**
+   * Checks whether the line starting at <code>lineStart</code> in the part buffer is a boundary
+   * delimiter line, optionally followed by white space; marks the end if it is the close delimiter.
+   */
+  private boolean isBoundary(final int lineStart) {
+    if (partLength - lineStart < dashBoundary.length) {
+      return false;
+    }
+    for (int index = 0; index < dashBoundary.length; index++) {
+      if (part[lineStart + index] != dashBoundary[index]) {
+        return false;
+      }
+    }
+    int index = lineStart + dashBoundary.length;
+    final boolean isClose = partLength - index >= 2 && part[index] == DASH && part[index + 1] == DASH;
+    if (isClose) {
+      index += 2;
+    }
+    while (index < partLength) {
+      if (!isWhitespace(part[index++])) {
+        return false;
+      }
+    }
+    isEndReached = isClose;
+    return true;
+  }
+
+  private static boolean isWhitespace(final byte current) {
+    return current == ' ' || current == '\t' || current == LF || current == 0x0B || current == '\f' || current == CR;
+  }
+
+  /**
+   * Appends the next line including its line break to the part buffer.
+   * @return <code>false</code> if the end of the stream has been reached before
+   */
+  private boolean readLine() throws IOException {
+    boolean isRead = false;
+    while (offset < limit || fillBuffer() != EOF) {
+      if (offset == limit) {
+        continue;
+      }
+      final byte current = buffer[offset++];
+      append(current);
+      isRead = true;
+      if (current == LF) {
+        break;
+      } else if (current == CR) {
+        if (offset == limit) {
+          fillBuffer();
+        }
+        if (offset < limit && buffer[offset] == LF) {
+          append(LF);
+          offset++;
+        }
+        break;
+      }
+    }
+    if (isRead) {
+      lineNumber++;
+    }
+    return isRead;
+  }
+
+  private void append(final byte current) {
+    if (partLength == part.length) {
+      part = Arrays.copyOf(part, part.length * 2);
+    }
+    part[partLength++] = current;
+  }
+
+  private int fillBuffer() throws IOException {
+    if (limit != EOF) {
+      limit = in.read(buffer, 0, buffer.length);
+      offset = 0;
+    }
+    return limit;
+  }
+}
@@ -18,8 +18,6 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
-import java.util.List;
-
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 
 public class BatchQueryOperation implements BatchPart {
@@ -27,11 +25,10 @@ public class BatchQueryOperation implements BatchPart {
   protected final boolean isStrict;
   protected Line httpStatusLine;
   protected Header headers;
-  protected List<Line> body;
-  protected int bodySize;
-  protected List<Line> message;
+  protected BatchPartContent body;
+  protected BatchPartContent message;
 
-  public BatchQueryOperation(final List<Line> message, final boolean isStrict) {
+  public BatchQueryOperation(final BatchPartContent message, final boolean isStrict) {
     this.isStrict = isStrict;
     this.message = message;
   }
@@ -45,14 +42,14 @@ public class BatchQueryOperation implements BatchPart {
     return this;
   }
 
-  protected Line consumeHttpStatusLine(final List<Line> message) throws BatchDeserializerException {
-    if (message.size() > 0 && !message.get(0).toString().trim().equals("")) {
-      final Line method = message.get(0);
-      message.remove(0);
+  protected Line consumeHttpStatusLine(final BatchPartContent message) throws BatchDeserializerException {
+    final Line method = message.peekLine();
+    if (method != null && !method.toString().trim().equals("")) {
+      message.readLine();
 
       return method;
     } else {
-      final int line = (message.size() > 0) ? message.get(0).getLineNumber() : 0;
+      final int line = (method != null) ? method.getLineNumber() : 0;
       throw new BatchDeserializerException("Missing http request line",
           BatchDeserializerException.MessageKeys.INVALID_STATUS_LINE, "" + line);
     }
@@ -62,14 +59,10 @@ public class BatchQueryOperation implements BatchPart {
     return httpStatusLine;
   }
 
-  public List<Line> getBody() {
+  public BatchPartContent getBody() {
     return body;
   }
 
-  public int getBodySize() {
-    return bodySize;
-  }
-
   @Override
   public Header getHeaders() {
     return headers;
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
+import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
+
+public class BatchRequestReaderImpl implements BatchRequestReader {
+  private final InputStream in;
+  private final String boundary;
+  private final boolean isStrict;
+  private final BatchPartSplitter splitter;
+  private final BatchRequestTransformator transformator;
+  private final LinkedList<BatchRequestPart> parts = new LinkedList<BatchRequestPart>();
+
+  public BatchRequestReaderImpl(final InputStream in, final String boundary, final BatchOptions options) {
+    this.in = in;
+    this.boundary = boundary;
+    isStrict = options.isStrict();
+    splitter = new BatchPartSplitter(in, boundary, 1);
+    transformator = new BatchRequestTransformator(options.getRawBaseUri(), options.getRawServiceResolutionUri());
+  }
+
+  @Override
+  public boolean hasNext() throws BatchDeserializerException {
+    try {
+      BatchPartContent content;
+      while (parts.isEmpty() && (content = splitter.nextPart()) != null) {
+        parts.addAll(transformator.transform(new BatchBodyPart(content, boundary, isStrict).parse()));
+      }
+    } catch (final IOException e) {
+      throw new ODataRuntimeException(e);
+    }
+    return !parts.isEmpty();
+  }
+
+  @Override
+  public BatchRequestPart next() throws BatchDeserializerException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return parts.removeFirst();
+  }
+
+  /**
+   * Reads the remaining parts without parsing them.
+   * @throws BatchDeserializerException if the close delimiter is missing
+   */
+  public void skipRemainingParts() throws BatchDeserializerException {
+    parts.clear();
+    try {
+      while (splitter.nextPart() != null) {
+        // The content of the part is not needed.
+      }
+    } catch (final IOException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
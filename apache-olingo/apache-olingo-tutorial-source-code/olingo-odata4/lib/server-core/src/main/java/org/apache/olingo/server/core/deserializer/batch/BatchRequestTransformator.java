@@ -20,7 +20,6 @@ package org.apache.olingo.server.core.deserializer.batch;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
-import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -34,7 +33,6 @@ import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException.MessageKeys;
 
 public class BatchRequestTransformator {
-  private static final Charset DEFAULT_CHARSET = Charset.forName("utf-8");
   private final String baseUri;
   private final String rawServiceResolutionUri;
 
@@ -106,8 +104,7 @@ public class BatchRequestTransformator {
     statusLine.validateHttpMethod(isChangeSet);
 
     validateBody(statusLine, operation);
-    Charset charset = getCharset(operation);
-    InputStream bodyStrean = getBodyStream(operation, statusLine, charset);
+    InputStream bodyStrean = getBodyStream(operation, statusLine);
 
     validateForbiddenHeader(operation);
 
@@ -127,20 +124,6 @@ public class BatchRequestTransformator {
     return request;
   }
 
-  private Charset getCharset(BatchQueryOperation operation) {
-    String ct = operation.getHeaders().getHeader(HttpHeader.CONTENT_TYPE);
-    if(ct != null) {
-      ContentType contentType = ContentType.parse(ct);
-      if(contentType != null) {
-        String charsetValue = contentType.getParameter(ContentType.PARAMETER_CHARSET);
-        if(charsetValue != null) {
-          return Charset.forName(charsetValue);
-        }
-      }
-    }
-    return DEFAULT_CHARSET;
-  }
-
   private void validateForbiddenHeader(final BatchQueryOperation operation) throws BatchDeserializerException {
     final Header header = operation.getHeaders();
 
@@ -152,19 +135,13 @@ public class BatchRequestTransformator {
     }
   }
 
-  private InputStream getBodyStream(final BatchQueryOperation operation, final HttpRequestStatusLine statusLine,
-                                    final Charset charset)
+  private InputStream getBodyStream(final BatchQueryOperation operation, final HttpRequestStatusLine statusLine)
       throws BatchDeserializerException {
     if (statusLine.getMethod().equals(HttpMethod.GET)) {
       return new ByteArrayInputStream(new byte[0]);
     } else {
-      int contentLength = BatchTransformatorCommon.getContentLength(operation.getHeaders());
-
-      if (contentLength == -1) {
-        return BatchParserCommon.convertLineListToInputStream(operation.getBody(), charset);
-      } else {
-        return BatchParserCommon.convertLineListToInputStream(operation.getBody(), charset, contentLength);
-      }
+      // The body is passed on as it has been received, limited to the content length if there is one.
+      return operation.getBody().getInputStream(BatchTransformatorCommon.getContentLength(operation.getHeaders()));
     }
   }
 
@@ -177,8 +154,7 @@ public class BatchRequestTransformator {
   }
 
   private boolean isUnvalidGetRequestBody(final BatchQueryOperation operation) {
-    return (operation.getBody().size() > 1)
-        || (operation.getBody().size() == 1 && !"".equals(operation.getBody().get(0).toString().trim()));
+    return !operation.getBody().isEmptyOrBlankLine();
   }
 
   private void validateHeader(final BatchPart bodyPart, final boolean isChangeSet) throws BatchDeserializerException {
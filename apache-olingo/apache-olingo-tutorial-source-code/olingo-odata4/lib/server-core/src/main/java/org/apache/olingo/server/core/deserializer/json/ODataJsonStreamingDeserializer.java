@@ -0,0 +1,801 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.data.ComplexValue;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Link;
+import org.apache.olingo.commons.api.data.Parameter;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.EdmAction;
+import org.apache.olingo.commons.api.edm.EdmComplexType;
+import org.apache.olingo.commons.api.edm.EdmElement;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmEnumType;
+import org.apache.olingo.commons.api.edm.EdmMapping;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.EdmParameter;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.api.edm.EdmTypeDefinition;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.ODataLibraryException.MessageKey;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.api.deserializer.DeserializerException.MessageKeys;
+import org.apache.olingo.server.api.deserializer.DeserializerResult;
+import org.apache.olingo.server.core.deserializer.DeserializerResultImpl;
+import org.apache.olingo.server.core.deserializer.helper.ExpandTreeBuilder;
+import org.apache.olingo.server.core.deserializer.helper.ExpandTreeBuilderImpl;
+import org.apache.olingo.server.core.serializer.utils.JsonFactoryHolder;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+
+/**
+ * Deserializer for JSON request bodies that builds entities, entity collections, and action parameters
+ * directly from the token stream of the parser, without building a JSON tree first.
+ * Validation is the same as in {@link ODataJsonDeserializer}; as there, syntax errors and duplicate properties
+ * are reported in favor of all other errors. For payloads with more than one other error, the reported error
+ * may differ because the content is validated in document order.
+ */
+public class ODataJsonStreamingDeserializer extends ODataJsonDeserializer {
+
+  private static final String AN_IO_EXCEPTION_OCCURRED_MSG = "An IOException occurred";
+  private static final String DUPLICATE_JSON_PROPERTY_DETECTED_MSG = "Duplicate json property detected";
+  private static final String AN_JSON_PARSE_EXCEPTION_OCCURRED_MSG = "A JsonParseException occurred";
+  private static final String ODATA_ANNOTATION_MARKER = "@";
+  private static final String ODATA_CONTROL_INFORMATION_PREFIX = "@odata.";
+
+  public ODataJsonStreamingDeserializer(final ContentType contentType) {
+    super(contentType);
+  }
+
+  @Override
+  public DeserializerResult entityCollection(final InputStream stream, final EdmEntityType edmEntityType)
+      throws DeserializerException {
+    DuplicateCheckingParser parser = null;
+    try {
+      parser = createParser(stream);
+      return DeserializerResultImpl.with().entityCollection(consumeEntitySet(parser, edmEntityType)).build();
+    } catch (final DeserializerException e) {
+      throw checkRemainingContent(parser, e, MessageKeys.DUPLICATE_JSON_PROPERTY);
+    } catch (final IOException e) {
+      throw createException(e, MessageKeys.DUPLICATE_JSON_PROPERTY);
+    }
+  }
+
+  @Override
+  public DeserializerResult entity(final InputStream stream, final EdmEntityType edmEntityType)
+      throws DeserializerException {
+    DuplicateCheckingParser parser = null;
+    try {
+      parser = createParser(stream);
+      final ExpandTreeBuilderImpl expandBuilder = new ExpandTreeBuilderImpl();
+      return DeserializerResultImpl.with()
+          .entity(consumeEntity(parser, edmEntityType, expandBuilder))
+          .expandOption(expandBuilder.build())
+          .build();
+    } catch (final DeserializerException e) {
+      throw checkRemainingContent(parser, e, MessageKeys.DUPLICATE_PROPERTY);
+    } catch (final IOException e) {
+      throw createException(e, MessageKeys.DUPLICATE_PROPERTY);
+    }
+  }
+
+  @Override
+  public DeserializerResult actionParameters(final InputStream stream, final EdmAction edmAction)
+      throws DeserializerException {
+    DuplicateCheckingParser parser = null;
+    try {
+      parser = createParser(stream);
+      return DeserializerResultImpl.with().actionParameters(consumeParameters(parser, edmAction)).build();
+    } catch (final DeserializerException e) {
+      throw checkRemainingContent(parser, e, MessageKeys.DUPLICATE_PROPERTY);
+    } catch (final IOException e) {
+      throw createException(e, MessageKeys.DUPLICATE_PROPERTY);
+    }
+  }
+
+  /** Creates a parser positioned at the start of the JSON object that is the root of the content. */
+  private DuplicateCheckingParser createParser(final InputStream stream) throws IOException, DeserializerException {
+    final DuplicateCheckingParser parser = new DuplicateCheckingParser(JsonFactoryHolder.createParser(stream));
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new DeserializerException("Invalid JSON syntax.",
+          DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
+    }
+    return parser;
+  }
+
+  /**
+   * Reads the rest of the content after a validation error. The tree-based deserializer reads the whole content
+   * before it validates anything, so syntax errors and duplicate properties are reported in favor of the error.
+   */
+  private DeserializerException checkRemainingContent(final DuplicateCheckingParser parser,
+      final DeserializerException error, final MessageKey duplicateKey) {
+    if (parser != null) {
+      try {
+        parser.skipRemainingContent();
+      } catch (final IOException e) {
+        return createException(e, duplicateKey);
+      }
+    }
+    return error;
+  }
+
+  private DeserializerException createException(final IOException e, final MessageKey duplicateKey) {
+    if (e instanceof DuplicatePropertyException) {
+      return new DeserializerException(DUPLICATE_JSON_PROPERTY_DETECTED_MSG, e, duplicateKey);
+    } else if (e instanceof JsonParseException) {
+      return new DeserializerException(AN_JSON_PARSE_EXCEPTION_OCCURRED_MSG, e,
+          DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
+    } else {
+      return new DeserializerException(AN_IO_EXCEPTION_OCCURRED_MSG, e, DeserializerException.MessageKeys.IO_EXCEPTION);
+    }
+  }
+
+  private EntityCollection consumeEntitySet(final JsonParser parser, final EdmEntityType edmEntityType)
+      throws IOException, DeserializerException {
+    EntityCollection entitySet = new EntityCollection();
+    boolean hasValue = false;
+    String unknownField = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.getCurrentName();
+      final JsonToken token = parser.nextToken();
+      if (Constants.VALUE.equals(field)) {
+        if (token != JsonToken.START_ARRAY) {
+          throw new DeserializerException("The content of the value tag must be an Array but is not. ",
+              DeserializerException.MessageKeys.VALUE_TAG_MUST_BE_AN_ARRAY);
+        }
+        consumeEntitySetArray(parser, edmEntityType, null, entitySet.getEntities());
+        hasValue = true;
+      } else {
+        unknownField = consumeOtherField(parser, field, unknownField);
+      }
+    }
+    if (!hasValue) {
+      throw new DeserializerException("Could not find value array.",
+          DeserializerException.MessageKeys.VALUE_ARRAY_NOT_PRESENT);
+    }
+    assertNoUnknownField(unknownField);
+    return entitySet;
+  }
+
+  private void consumeEntitySetArray(final JsonParser parser, final EdmEntityType edmEntityType,
+      final ExpandTreeBuilder expandBuilder, final List<Entity> entities) throws IOException, DeserializerException {
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+        throw new DeserializerException("Nested Arrays and primitive values are not allowed for an entity value.",
+            DeserializerException.MessageKeys.INVALID_ENTITY);
+      }
+      entities.add(consumeEntity(parser, edmEntityType, expandBuilder));
+    }
+  }
+
+  private Entity consumeEntity(final JsonParser parser, final EdmEntityType edmEntityType,
+      final ExpandTreeBuilder expandBuilder) throws IOException, DeserializerException {
+    Entity entity = new Entity();
+    entity.setType(edmEntityType.getFullQualifiedName().getFullQualifiedNameAsString());
+
+    String unknownField = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.getCurrentName();
+      final JsonToken token = parser.nextToken();
+
+      final EdmElement edmElement = edmEntityType.getProperty(field);
+      if (edmElement instanceof EdmProperty) {
+        final EdmProperty edmProperty = (EdmProperty) edmElement;
+        if (token == JsonToken.VALUE_NULL && !edmProperty.isNullable()) {
+          throw new DeserializerException("Property: " + field + " must not be null.",
+              DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, field);
+        }
+        entity.addProperty(consumeProperty(parser, edmProperty));
+      } else if (edmElement instanceof EdmNavigationProperty) {
+        final EdmNavigationProperty edmNavigationProperty = (EdmNavigationProperty) edmElement;
+        if (token == JsonToken.VALUE_NULL
+            && (!edmNavigationProperty.isNullable() || edmNavigationProperty.isCollection())) {
+          throw new DeserializerException("Property: " + field + " must not be null.",
+              MessageKeys.INVALID_NULL_PROPERTY, field);
+        }
+        entity.getNavigationLinks().add(consumeLink(parser, expandBuilder, field, edmNavigationProperty));
+      } else if (field.contains(Constants.JSON_BIND_LINK_SUFFIX)) {
+        entity.getNavigationBindings().add(consumeBindingLink(parser, field, edmEntityType));
+      } else {
+        unknownField = consumeOtherField(parser, field, unknownField);
+      }
+    }
+    assertNoUnknownField(unknownField);
+    sortProperties(entity.getProperties(), edmEntityType.getPropertyNames());
+    sortLinks(entity.getNavigationLinks(), edmEntityType.getNavigationPropertyNames());
+    return entity;
+  }
+
+  private Link consumeLink(final JsonParser parser, final ExpandTreeBuilder expandBuilder,
+      final String navigationPropertyName, final EdmNavigationProperty edmNavigationProperty)
+      throws IOException, DeserializerException {
+    Link link = new Link();
+    link.setTitle(navigationPropertyName);
+    final ExpandTreeBuilder childExpandBuilder = (expandBuilder != null) ?
+        expandBuilder.expand(edmNavigationProperty) : null;
+    final JsonToken token = parser.getCurrentToken();
+    if (token == JsonToken.START_ARRAY && edmNavigationProperty.isCollection()) {
+      link.setType(Constants.ENTITY_SET_NAVIGATION_LINK_TYPE);
+      EntityCollection inlineEntitySet = new EntityCollection();
+      consumeEntitySetArray(parser, edmNavigationProperty.getType(), childExpandBuilder,
+          inlineEntitySet.getEntities());
+      link.setInlineEntitySet(inlineEntitySet);
+    } else if ((token == JsonToken.START_OBJECT || token == JsonToken.VALUE_NULL)
+        && !edmNavigationProperty.isCollection()) {
+      link.setType(Constants.ENTITY_NAVIGATION_LINK_TYPE);
+      if (token == JsonToken.START_OBJECT) {
+        link.setInlineEntity(consumeEntity(parser, edmNavigationProperty.getType(), childExpandBuilder));
+      }
+    } else {
+      throw new DeserializerException("Invalid value: " + getNodeType(token)
+          + " for expanded navigation property: " + navigationPropertyName,
+          MessageKeys.INVALID_VALUE_FOR_NAVIGATION_PROPERTY, navigationPropertyName);
+    }
+    return link;
+  }
+
+  private Link consumeBindingLink(final JsonParser parser, final String key, final EdmEntityType edmEntityType)
+      throws IOException, DeserializerException {
+    final String navigationPropertyName = key.split("@")[0];
+    final EdmNavigationProperty edmNavigationProperty = edmEntityType.getNavigationProperty(navigationPropertyName);
+    if (edmNavigationProperty == null) {
+      throw new DeserializerException("Invalid navigationPropertyName: " + navigationPropertyName,
+          DeserializerException.MessageKeys.NAVIGATION_PROPERTY_NOT_FOUND, navigationPropertyName);
+    }
+    Link bindingLink = new Link();
+    bindingLink.setTitle(navigationPropertyName);
+
+    assertIsNotNull(key, parser.getCurrentToken());
+    if (edmNavigationProperty.isCollection()) {
+      if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+        throw new DeserializerException("Binding annotation: " + key + " must be an array.",
+            DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
+      }
+      List<String> bindingLinkStrings = new ArrayList<String>();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        assertIsNotNull(key, parser.getCurrentToken());
+        if (parser.getCurrentToken() != JsonToken.VALUE_STRING) {
+          throw new DeserializerException("Binding annotation: " + key + " must have string valued array.",
+              DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
+        }
+        bindingLinkStrings.add(parser.getText());
+      }
+      bindingLink.setType(Constants.ENTITY_COLLECTION_BINDING_LINK_TYPE);
+      bindingLink.setBindingLinks(bindingLinkStrings);
+    } else {
+      if (!parser.getCurrentToken().isScalarValue()) {
+        throw new DeserializerException("Binding annotation: " + key + " must be a string value.",
+            DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
+      }
+      bindingLink.setBindingLink(getScalarText(parser));
+      bindingLink.setType(Constants.ENTITY_BINDING_LINK_TYPE);
+    }
+    return bindingLink;
+  }
+
+  private void assertIsNotNull(final String key, final JsonToken token) throws DeserializerException {
+    if (token == JsonToken.VALUE_NULL) {
+      throw new DeserializerException("Annotation: " + key + "must not have a null value.",
+          DeserializerException.MessageKeys.INVALID_NULL_ANNOTATION, key);
+    }
+  }
+
+  private Map<String, Parameter> consumeParameters(final JsonParser parser, final EdmAction edmAction)
+      throws IOException, DeserializerException {
+    List<String> parameterNames = edmAction.getParameterNames();
+    if (edmAction.isBound()) {
+      // The binding parameter must not occur in the payload.
+      parameterNames = parameterNames.subList(1, parameterNames.size());
+    }
+    for (final String paramName : parameterNames) {
+      final EdmParameter edmParameter = edmAction.getParameter(paramName);
+      switch (edmParameter.getType().getKind()) {
+      case PRIMITIVE:
+      case DEFINITION:
+      case ENUM:
+      case COMPLEX:
+        break;
+      case ENTITY:
+        throw new DeserializerException("Entity parameters are not allowed",
+            DeserializerException.MessageKeys.INVALID_ACTION_PARAMETER_TYPE);
+      default:
+        throw new DeserializerException("Invalid type kind " + edmParameter.getType().getKind().toString()
+            + " for action parameter: " + paramName, DeserializerException.MessageKeys.INVALID_ACTION_PARAMETER_TYPE,
+            paramName);
+      }
+    }
+
+    Map<String, Parameter> readParameters = new HashMap<String, Parameter>();
+    String unknownField = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.getCurrentName();
+      parser.nextToken();
+      if (parameterNames.contains(field)) {
+        readParameters.put(field, consumeParameter(parser, field, edmAction.getParameter(field)));
+      } else {
+        unknownField = consumeOtherField(parser, field, unknownField);
+      }
+    }
+
+    // The parameters are returned in the order of their definition.
+    Map<String, Parameter> parameters = new LinkedHashMap<String, Parameter>();
+    for (final String paramName : parameterNames) {
+      Parameter parameter = readParameters.get(paramName);
+      if (parameter == null) {
+        parameter = consumeParameter(null, paramName, edmAction.getParameter(paramName));
+      }
+      parameters.put(paramName, parameter);
+    }
+    assertNoUnknownField(unknownField);
+    return parameters;
+  }
+
+  /** Reads the current value of the parser into a parameter; a <code>null</code> parser stands for a missing value. */
+  private Parameter consumeParameter(final JsonParser parser, final String paramName, final EdmParameter edmParameter)
+      throws IOException, DeserializerException {
+    Parameter parameter = new Parameter();
+    parameter.setName(paramName);
+    if (parser == null || parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+      if (!edmParameter.isNullable()) {
+        throw new DeserializerException("Non-nullable parameter not present or null",
+            MessageKeys.INVALID_NULL_PARAMETER, paramName);
+      }
+      if (edmParameter.isCollection()) {
+        throw new DeserializerException("Collection must not be null for parameter: " + paramName,
+            MessageKeys.INVALID_NULL_PARAMETER, paramName);
+      }
+      parameter.setValue(ValueType.PRIMITIVE, null);
+    } else {
+      final Property property = consumeProperty(parser, edmParameter.getName(), edmParameter.getType(),
+          edmParameter.isCollection(), edmParameter.isNullable(), edmParameter.getMaxLength(),
+          edmParameter.getPrecision(), edmParameter.getScale(), true, edmParameter.getMapping());
+      parameter.setValue(property.getValueType(), property.getValue());
+    }
+    return parameter;
+  }
+
+  /**
+   * Consumes a field that is neither a property nor a navigation property:
+   * control information is ignored, custom annotations are not supported, and unknown content is remembered
+   * so that it can be reported after all known content has been checked.
+   * @return the first unknown field found so far
+   */
+  private String consumeOtherField(final JsonParser parser, final String field, final String unknownField)
+      throws IOException, DeserializerException {
+    if (field.contains(ODATA_CONTROL_INFORMATION_PREFIX)) {
+      // Control Information is ignored for requests as per specification chapter "4.5 Control Information"
+      parser.skipChildren();
+      return unknownField;
+    } else if (field.contains(ODATA_ANNOTATION_MARKER)) {
+      throw new DeserializerException("Custom annotation with field name: " + field + " not supported",
+          DeserializerException.MessageKeys.NOT_IMPLEMENTED);
+    } else {
+      parser.skipChildren();
+      return unknownField == null ? field : unknownField;
+    }
+  }
+
+  /** Puts the properties into the order of their declaration, the same order the tree-based deserializer uses. */
+  private void sortProperties(final List<Property> properties, final List<String> declaredNames) {
+    if (properties.size() > 1) {
+      Collections.sort(properties, new Comparator<Property>() {
+        @Override
+        public int compare(final Property first, final Property second) {
+          return declaredNames.indexOf(first.getName()) - declaredNames.indexOf(second.getName());
+        }
+      });
+    }
+  }
+
+  private void sortLinks(final List<Link> links, final List<String> declaredNames) {
+    if (links.size() > 1) {
+      Collections.sort(links, new Comparator<Link>() {
+        @Override
+        public int compare(final Link first, final Link second) {
+          return declaredNames.indexOf(first.getTitle()) - declaredNames.indexOf(second.getTitle());
+        }
+      });
+    }
+  }
+
+  private void assertNoUnknownField(final String unknownField) throws DeserializerException {
+    if (unknownField != null) {
+      throw new DeserializerException("Tree should be empty but still has content left: " + unknownField,
+          DeserializerException.MessageKeys.UNKNOWN_CONTENT, unknownField);
+    }
+  }
+
+  private Property consumeProperty(final JsonParser parser, final EdmProperty edmProperty)
+      throws IOException, DeserializerException {
+    return consumeProperty(parser, edmProperty.getName(), edmProperty.getType(), edmProperty.isCollection(),
+        edmProperty.isNullable(), edmProperty.getMaxLength(), edmProperty.getPrecision(), edmProperty.getScale(),
+        edmProperty.isUnicode(), edmProperty.getMapping());
+  }
+
+  private Property consumeProperty(final JsonParser parser, final String name, final EdmType type,
+      final boolean isCollection, final boolean isNullable, final Integer maxLength, final Integer precision,
+      final Integer scale, final boolean isUnicode, final EdmMapping mapping)
+      throws IOException, DeserializerException {
+    Property property = new Property();
+    property.setName(name);
+    property.setType(type.getFullQualifiedName().getFullQualifiedNameAsString());
+    if (isCollection) {
+      if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+        throw new DeserializerException("Value for property: " + name + " must be an array but is not.",
+            DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+      }
+      List<Object> valueArray = new ArrayList<Object>();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        valueArray.add(readValue(parser, name, type, isNullable, maxLength, precision, scale, isUnicode, mapping));
+      }
+      property.setValue(getCollectionValueType(name, type), valueArray);
+    } else {
+      final Object value = readValue(parser, name, type, isNullable, maxLength, precision, scale, isUnicode,
+          mapping);
+      property.setValue(getValueType(name, type), value);
+    }
+    return property;
+  }
+
+  private ValueType getValueType(final String name, final EdmType type) throws DeserializerException {
+    switch (type.getKind()) {
+    case PRIMITIVE:
+    case DEFINITION:
+      return ValueType.PRIMITIVE;
+    case ENUM:
+      return ValueType.ENUM;
+    case COMPLEX:
+      return ValueType.COMPLEX;
+    default:
+      throw new DeserializerException("Invalid Type Kind for a property found: " + type.getKind(),
+          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+  }
+
+  private ValueType getCollectionValueType(final String name, final EdmType type) throws DeserializerException {
+    switch (type.getKind()) {
+    case PRIMITIVE:
+    case DEFINITION:
+      return ValueType.COLLECTION_PRIMITIVE;
+    case ENUM:
+      return ValueType.COLLECTION_ENUM;
+    case COMPLEX:
+      return ValueType.COLLECTION_COMPLEX;
+    default:
+      throw new DeserializerException("Invalid Type Kind for a property found: " + type.getKind(),
+          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+  }
+
+  private Object readValue(final JsonParser parser, final String name, final EdmType type,
+      final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
+      final boolean isUnicode, final EdmMapping mapping) throws IOException, DeserializerException {
+    switch (type.getKind()) {
+    case PRIMITIVE:
+      return readPrimitiveValue(parser, name, (EdmPrimitiveType) type, isNullable, maxLength, precision, scale,
+          isUnicode, mapping);
+    case DEFINITION:
+      return readTypeDefinitionValue(parser, name, (EdmTypeDefinition) type, isNullable, mapping);
+    case ENUM:
+      return readEnumValue(parser, name, (EdmEnumType) type, isNullable, maxLength, precision, scale, isUnicode,
+          mapping);
+    case COMPLEX:
+      return readComplexValue(parser, name, (EdmComplexType) type, isNullable);
+    default:
+      throw new DeserializerException("Invalid Type Kind for a property found: " + type.getKind(),
+          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+  }
+
+  private ComplexValue readComplexValue(final JsonParser parser, final String name, final EdmStructuredType type,
+      final boolean isNullable) throws IOException, DeserializerException {
+    if (isValidNull(parser, name, isNullable)) {
+      return null;
+    }
+    if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+      throw new DeserializerException(
+          "Invalid value for property: " + name + " must not be an array or primitive value.",
+          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+    // Even if there are no properties defined we have to give back an empty list
+    ComplexValue complexValue = new ComplexValue();
+    String unknownField = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.getCurrentName();
+      final JsonToken token = parser.nextToken();
+      final EdmElement edmElement = type.getProperty(field);
+      if (edmElement instanceof EdmProperty) {
+        final EdmProperty edmProperty = (EdmProperty) edmElement;
+        if (token == JsonToken.VALUE_NULL && !edmProperty.isNullable()) {
+          throw new DeserializerException("Property: " + field + " must not be null.",
+              DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, field);
+        }
+        complexValue.getValue().add(consumeProperty(parser, edmProperty));
+      } else {
+        unknownField = consumeOtherField(parser, field, unknownField);
+      }
+    }
+    assertNoUnknownField(unknownField);
+    sortProperties(complexValue.getValue(), type.getPropertyNames());
+    return complexValue;
+  }
+
+  private Object readTypeDefinitionValue(final JsonParser parser, final String name,
+      final EdmTypeDefinition type, final boolean isNullable, final EdmMapping mapping)
+      throws IOException, DeserializerException {
+    checkForValueNode(parser, name);
+    if (isValidNull(parser, name, isNullable)) {
+      return null;
+    }
+    final String text = getScalarText(parser);
+    try {
+      checkJsonTypeBasedOnPrimitiveType(parser, name, type.getUnderlyingType().getName());
+      Class<?> javaClass = getJavaClassForPrimitiveType(mapping, type.getUnderlyingType());
+      return type.valueOfString(text, isNullable, type.getMaxLength(), type.getPrecision(), type.getScale(),
+          type.isUnicode(), javaClass);
+    } catch (EdmPrimitiveTypeException e) {
+      throw new DeserializerException("Invalid value: " + text + " for property: " + name, e,
+          DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+    }
+  }
+
+  private Object readEnumValue(final JsonParser parser, final String name, final EdmEnumType type,
+      final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
+      final boolean isUnicode, final EdmMapping mapping) throws IOException, DeserializerException {
+    checkForValueNode(parser, name);
+    if (isValidNull(parser, name, isNullable)) {
+      return null;
+    }
+    // Enum values must be strings
+    if (parser.getCurrentToken() != JsonToken.VALUE_STRING) {
+      throw new DeserializerException("Invalid json type: " + getNodeType(parser.getCurrentToken())
+          + " for enum property: " + name,
+          DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+    }
+    final String text = parser.getText();
+    try {
+      Class<?> javaClass = getJavaClassForPrimitiveType(mapping, type.getUnderlyingType());
+      return type.valueOfString(text, isNullable, maxLength, precision, scale, isUnicode, javaClass);
+    } catch (EdmPrimitiveTypeException e) {
+      throw new DeserializerException("Invalid value: " + text + " for property: " + name, e,
+          DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+    }
+  }
+
+  private Object readPrimitiveValue(final JsonParser parser, final String name, final EdmPrimitiveType type,
+      final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
+      final boolean isUnicode, final EdmMapping mapping) throws IOException, DeserializerException {
+    checkForValueNode(parser, name);
+    if (isValidNull(parser, name, isNullable)) {
+      return null;
+    }
+    final String text = getScalarText(parser);
+    try {
+      final EdmPrimitiveTypeKind kind = checkJsonTypeBasedOnPrimitiveType(parser, name, type.getName());
+      if (isIEEE754Compatible
+          && (kind == EdmPrimitiveTypeKind.Int64 || kind == EdmPrimitiveTypeKind.Decimal)
+          && text.length() == 0) {
+        throw new DeserializerException("IEEE754Compatible values must not be of length 0",
+            MessageKeys.INVALID_NULL_PROPERTY, name);
+      }
+      Class<?> javaClass = getJavaClassForPrimitiveType(mapping, type);
+      return type.valueOfString(text, isNullable, maxLength, precision, scale, isUnicode, javaClass);
+    } catch (EdmPrimitiveTypeException e) {
+      throw new DeserializerException("Invalid value: " + text + " for property: " + name, e,
+          DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
+    }
+  }
+
+  private boolean isValidNull(final JsonParser parser, final String name, final boolean isNullable)
+      throws DeserializerException {
+    if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+      if (isNullable) {
+        return true;
+      } else {
+        throw new DeserializerException("Property: " + name + " must not be null.",
+            DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, name);
+      }
+    }
+    return false;
+  }
+
+  private void checkForValueNode(final JsonParser parser, final String name) throws DeserializerException {
+    if (!parser.getCurrentToken().isScalarValue()) {
+      throw new DeserializerException("Invalid value for property: " + name + " must not be an object or array.",
+          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+  }
+
+  /**
+   * Gets the text of the current scalar value the same way a JSON tree node would render it,
+   * so that both deserializers hand over identical literals to the primitive types.
+   */
+  private String getScalarText(final JsonParser parser) throws IOException {
+    switch (parser.getCurrentToken()) {
+    case VALUE_NUMBER_INT:
+      switch (parser.getNumberType()) {
+      case INT:
+        return Integer.toString(parser.getIntValue());
+      case LONG:
+        return Long.toString(parser.getLongValue());
+      default:
+        return parser.getBigIntegerValue().toString();
+      }
+    case VALUE_NUMBER_FLOAT:
+      return Double.toString(parser.getDoubleValue());
+    default:
+      return parser.getText();
+    }
+  }
+
+  private EdmPrimitiveTypeKind checkJsonTypeBasedOnPrimitiveType(final JsonParser parser, final String propertyName,
+      final String edmPrimitiveTypeName) throws DeserializerException {
+    EdmPrimitiveTypeKind primKind;
+    try {
+      primKind = EdmPrimitiveTypeKind.valueOf(edmPrimitiveTypeName);
+    } catch (IllegalArgumentException e) {
+      throw new DeserializerException("Unknown Primitive Type: " + edmPrimitiveTypeName, e,
+          DeserializerException.MessageKeys.UNKNOWN_PRIMITIVE_TYPE, edmPrimitiveTypeName, propertyName);
+    }
+
+    final JsonToken token = parser.getCurrentToken();
+    final boolean isNumber = token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT;
+    boolean valid;
+    switch (primKind) {
+    case String:
+    case Binary:
+    case Date:
+    case DateTimeOffset:
+    case Duration:
+    case Guid:
+    case TimeOfDay:
+      valid = token == JsonToken.VALUE_STRING;
+      break;
+    case Int16:
+    case Int32:
+    case Byte:
+    case SByte:
+    case Single:
+    case Double:
+      valid = isNumber;
+      break;
+    case Boolean:
+      valid = token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE;
+      break;
+    case Int64:
+    case Decimal:
+      // Numbers (either numbers or string)
+      valid = isIEEE754Compatible ? token == JsonToken.VALUE_STRING : isNumber;
+      break;
+    default:
+      valid = false;
+    }
+
+    if (!valid) {
+      throw new DeserializerException("Invalid json type: " + getNodeType(token) + " for edm " + primKind
+          + " property: " + propertyName, DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, propertyName);
+    }
+    return primKind;
+  }
+
+  private JsonNodeType getNodeType(final JsonToken token) {
+    switch (token) {
+    case START_ARRAY:
+      return JsonNodeType.ARRAY;
+    case START_OBJECT:
+      return JsonNodeType.OBJECT;
+    case VALUE_STRING:
+      return JsonNodeType.STRING;
+    case VALUE_NUMBER_INT:
+    case VALUE_NUMBER_FLOAT:
+      return JsonNodeType.NUMBER;
+    case VALUE_TRUE:
+    case VALUE_FALSE:
+      return JsonNodeType.BOOLEAN;
+    case VALUE_NULL:
+      return JsonNodeType.NULL;
+    default:
+      return JsonNodeType.MISSING;
+    }
+  }
+
+  /**
+   * Parser that checks each JSON object of the content for duplicate property names while it is read,
+   * including the content that is skipped.
+   */
+  private static class DuplicateCheckingParser extends JsonParserDelegate {
+    private final Deque<Set<String>> fieldNames = new ArrayDeque<Set<String>>();
+
+    public DuplicateCheckingParser(final JsonParser parser) {
+      super(parser);
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+      final JsonToken token = super.nextToken();
+      if (token == JsonToken.START_OBJECT) {
+        fieldNames.push(new HashSet<String>());
+      } else if (token == JsonToken.END_OBJECT) {
+        fieldNames.pop();
+      } else if (token == JsonToken.FIELD_NAME && !fieldNames.peek().add(getCurrentName())) {
+        throw new DuplicatePropertyException(getCurrentName(), getCurrentLocation());
+      }
+      return token;
+    }
+
+    @Override
+    public JsonParser skipChildren() throws IOException {
+      if (getCurrentToken() != null && getCurrentToken().isStructStart()) {
+        int open = 1;
+        JsonToken token;
+        while (open > 0 && (token = nextToken()) != null) {
+          if (token.isStructStart()) {
+            open++;
+          } else if (token.isStructEnd()) {
+            open--;
+          }
+        }
+      }
+      return this;
+    }
+
+    /** Reads the content up to the end of the root object. */
+    public void skipRemainingContent() throws IOException {
+      while (!fieldNames.isEmpty() && nextToken() != null) {
+        // Only the checks while reading are needed.
+      }
+    }
+  }
+
+  private static class DuplicatePropertyException extends JsonParseException {
+    private static final long serialVersionUID = -3474513787826838578L;
+
+    public DuplicatePropertyException(final String name, final JsonLocation location) {
+      super("Duplicate field '" + name + "'", location);
+    }
+  }
+}
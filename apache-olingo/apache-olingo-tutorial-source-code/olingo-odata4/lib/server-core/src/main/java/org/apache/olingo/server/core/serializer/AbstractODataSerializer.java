@@ -19,10 +19,13 @@
 package org.apache.olingo.server.core.serializer;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 
+import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.core.ServiceMetadataImpl;
 
 public abstract class AbstractODataSerializer implements ODataSerializer {
   
@@ -43,5 +46,27 @@ public abstract class AbstractODataSerializer implements ODataSerializer {
       }
     }
   }
- 
+
+  /**
+   * Gets a document pre-serialized for the given service metadata.
+   * Only documents without explicit service root are cached because they do not depend on the request.
+   * @return the content of the document or <code>null</code> if it has to be serialized
+   */
+  protected InputStream getCachedDocument(final ServiceMetadata metadata, final String serviceRoot,
+      final String key) {
+    return serviceRoot == null && metadata instanceof ServiceMetadataImpl ?
+        ((ServiceMetadataImpl) metadata).getCachedDocument(key) :
+        null;
+  }
+
+  /**
+   * Caches the serialized document for the given service metadata if possible.
+   * @return the content of the document
+   */
+  protected InputStream cacheDocument(final ServiceMetadata metadata, final String serviceRoot,
+      final String key, final InputStream content) throws IOException {
+    return serviceRoot == null && metadata instanceof ServiceMetadataImpl ?
+        ((ServiceMetadataImpl) metadata).cacheDocument(key, content) :
+        content;
+  }
 }
@@ -82,7 +82,9 @@ public class AsyncResponseSerializer {
 
   private void appendBody(ODataResponse response, ByteArrayOutputStream buffer) throws IOException {
     InputStream input = response.getContent();
-    if (input != null) {
+    if (response.getODataContent() != null) {
+      response.getODataContent().write(buffer);
+    } else if (input != null) {
       ByteBuffer inBuffer = ByteBuffer.allocate(BUFFER_SIZE);
       ReadableByteChannel ic = Channels.newChannel(input);
       WritableByteChannel oc = Channels.newChannel(buffer);
@@ -242,6 +242,11 @@ public class BatchResponseSerializer {
     }
 
     private byte[] getBody(final ODataResponse response) {
+      if (response != null && response.getODataContent() != null) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getODataContent().write(output);
+        return output.toByteArray();
+      }
       if (response == null || response.getContent() == null) {
         return new byte[0];
       }
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.server.api.ODataContent;
+
+/**
+ * Binary content written from a channel into the output stream.
+ * The data of a file channel are transferred by the channel itself; as the target is an output stream,
+ * they are still copied through a heap buffer chunk by chunk.
+ * Their size is known, so that a byte range of them can be written instead.
+ */
+public class BinaryContent implements ODataContent, Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final ReadableByteChannel channel;
+
+  private final long position;
+
+  private final long size;
+
+  public BinaryContent(final ReadableByteChannel channel) throws IOException {
+    this.channel = channel;
+    if (channel instanceof FileChannel) {
+      position = ((FileChannel) channel).position();
+      size = Math.max(((FileChannel) channel).size() - position, 0);
+    } else {
+      position = 0;
+      size = -1;
+    }
+  }
+
+  private BinaryContent(final ReadableByteChannel channel, final long position, final long size) {
+    this.channel = channel;
+    this.position = position;
+    this.size = size;
+  }
+
+  /**
+   * Returns the size of the content in bytes or <code>-1</code> if it is not known in advance.
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the content restricted to the given byte range; only possible if the size is known.
+   * @param first offset of the first byte of the range
+   * @param length number of bytes of the range
+   */
+  public BinaryContent getRange(final long first, final long length) {
+    if (size < 0 || first < 0 || length < 0 || first + length > size) {
+      throw new IllegalArgumentException("Invalid range of binary content.");
+    }
+    return new BinaryContent(channel, position + first, length);
+  }
+
+  @Override
+  public void write(final OutputStream stream) {
+    try {
+      final WritableByteChannel output = Channels.newChannel(stream);
+      if (size < 0) {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (channel.read(buffer) >= 0) {
+          buffer.flip();
+          while (buffer.hasRemaining()) {
+            output.write(buffer);
+          }
+          buffer.clear();
+        }
+      } else {
+        final FileChannel file = (FileChannel) channel;
+        long written = 0;
+        while (written < size) {
+          final long transferred = file.transferTo(position + written, size - written, output);
+          if (transferred <= 0) {
+            throw new IOException("The file has been truncated while writing.");
+          }
+          written += transferred;
+        }
+      }
+      stream.flush();
+    } catch (final IOException e) {
+      throw new ODataRuntimeException("Error on writing binary content", e);
+    } finally {
+      close();
+    }
+  }
+
+  /**
+   * Closes the channel; used if the content is not written.
+   */
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (final IOException e) {
+      // ignore
+    }
+  }
+}
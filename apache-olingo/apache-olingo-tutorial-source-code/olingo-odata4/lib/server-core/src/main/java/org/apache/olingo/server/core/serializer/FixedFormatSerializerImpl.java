@@ -19,8 +19,10 @@
 package org.apache.olingo.server.core.serializer;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.ReadableByteChannel;
 import java.util.List;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
@@ -31,6 +33,7 @@ import org.apache.olingo.server.api.serializer.BatchSerializerException;
 import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
 import org.apache.olingo.server.api.serializer.PrimitiveValueSerializerOptions;
 import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 
 public class FixedFormatSerializerImpl implements FixedFormatSerializer {
 
@@ -39,6 +42,15 @@ public class FixedFormatSerializerImpl implements FixedFormatSerializer {
     return new ByteArrayInputStream(binary);
   }
 
+  @Override
+  public SerializerStreamResult binary(final ReadableByteChannel channel) throws SerializerException {
+    try {
+      return SerializerStreamResultImpl.with().content(new BinaryContent(channel)).build();
+    } catch (final IOException e) {
+      throw new SerializerException("An I/O exception occurred.", e, SerializerException.MessageKeys.IO_EXCEPTION);
+    }
+  }
+
   @Override
   public InputStream count(final Integer count) throws SerializerException {
     try {
@@ -19,13 +19,14 @@
 package org.apache.olingo.server.core.serializer.json;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.data.AbstractEntityCollection;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.Entity;
@@ -43,8 +44,10 @@ import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.commons.api.edm.EdmStructuredType;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.serializer.ComplexSerializerOptions;
@@ -55,24 +58,33 @@ import org.apache.olingo.server.api.serializer.ReferenceCollectionSerializerOpti
 import org.apache.olingo.server.api.serializer.ReferenceSerializerOptions;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.api.uri.UriHelper;
-import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
 import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
 import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.apache.olingo.server.core.ServiceMetadataImpl;
 import org.apache.olingo.server.core.serializer.AbstractODataSerializer;
 import org.apache.olingo.server.core.serializer.SerializerResultImpl;
+import org.apache.olingo.server.core.serializer.SerializerStreamResultImpl;
 import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 import org.apache.olingo.server.core.serializer.utils.ContentTypeHelper;
+import org.apache.olingo.server.core.serializer.json.SerializationPlan.NavigationPlan;
+import org.apache.olingo.server.core.serializer.json.SerializationPlan.PropertyPlan;
 import org.apache.olingo.server.core.serializer.utils.ContextURLBuilder;
-import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
+import org.apache.olingo.server.core.serializer.utils.JsonFactoryHolder;
+import org.apache.olingo.server.core.serializer.utils.PrimitiveValueBuffer;
 import org.apache.olingo.server.core.uri.UriHelperImpl;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 
 public class ODataJsonSerializer extends AbstractODataSerializer {
 
   private final boolean isIEEE754Compatible;
+  /**
+   * Buffer reused by consecutive primitive values; a thread finding it taken by another thread
+   * uses a buffer of its own, so the serializer can be shared.
+   */
+  private final AtomicReference<PrimitiveValueBuffer> valueBuffer = new AtomicReference<PrimitiveValueBuffer>();
   private final boolean isODataMetadataNone;
 
   public ODataJsonSerializer(final ContentType contentType) {
@@ -83,18 +95,25 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   @Override
   public SerializerResult serviceDocument(final ServiceMetadata metadata, final String serviceRoot)
       throws SerializerException {
+    final String key = isODataMetadataNone ? "json/service/none" : "json/service";
+    final InputStream cachedContent = getCachedDocument(metadata, serviceRoot, key);
+    if (cachedContent != null) {
+      return SerializerResultImpl.with().content(cachedContent).build();
+    }
     OutputStream outputStream = null;
     SerializerException cachedException = null;
 
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = JsonFactoryHolder.createGenerator(outputStream);
       new ServiceDocumentJsonSerializer(metadata, serviceRoot, isODataMetadataNone).writeServiceDocument(json);
 
       json.close();
       outputStream.close();
-      return SerializerResultImpl.with().content(buffer.getInputStream()).build();
+      return SerializerResultImpl.with()
+          .content(cacheDocument(metadata, serviceRoot, key, buffer.getInputStream()))
+          .build();
     } catch (final IOException e) {
       cachedException =
           new SerializerException(IO_EXCEPTION_TEXT, e, SerializerException.MessageKeys.IO_EXCEPTION);
@@ -117,7 +136,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = JsonFactoryHolder.createGenerator(outputStream);
       new ODataErrorSerializer().writeErrorDocument(json, error);
 
       json.close();
@@ -141,25 +160,9 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
-      json.writeStartObject();
-
+      JsonGenerator json = JsonFactoryHolder.createGenerator(outputStream);
       final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-      writeContextURL(contextURL, json);
-
-      writeMetadataETag(metadata, json);
-
-      if (options != null && options.getCount() != null && options.getCount().getValue()) {
-        writeCount(entitySet, json);
-      }
-      json.writeFieldName(Constants.VALUE);
-      if (options == null) {
-        writeEntitySet(metadata, entityType, entitySet, null, null, false, json);
-      } else {
-        writeEntitySet(metadata, entityType, entitySet,
-            options.getExpand(), options.getSelect(), options.getWriteOnlyReferences(), json);
-      }
-      writeNextLink(entitySet, json);
+      writeEntityCollection(metadata, entityType, entitySet, contextURL, options, json);
 
       json.close();
       outputStream.close();
@@ -173,6 +176,57 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     }
   }
 
+  @Override
+  public SerializerStreamResult entityCollectionStreamed(final ServiceMetadata metadata,
+      final EdmEntityType entityType, final AbstractEntityCollection entitySet,
+      final EntityCollectionSerializerOptions options) throws SerializerException {
+    final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
+    return SerializerStreamResultImpl.with().content(new ODataContent() {
+      @Override
+      public void write(final OutputStream stream) {
+        try {
+          JsonGenerator json = JsonFactoryHolder.createGenerator(stream);
+          json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+          writeEntityCollection(metadata, entityType, entitySet, contextURL, options, json);
+          json.close();
+        } catch (final IOException e) {
+          throw new ODataRuntimeException(IO_EXCEPTION_TEXT, e);
+        } catch (final SerializerException e) {
+          throw new ODataRuntimeException(e);
+        }
+      }
+    }).build();
+  }
+
+  private void writeEntityCollection(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final AbstractEntityCollection entitySet, final ContextURL contextURL,
+      final EntityCollectionSerializerOptions options, final JsonGenerator json)
+      throws IOException, SerializerException {
+    json.writeStartObject();
+    writeContextURL(contextURL, json);
+
+    writeMetadataETag(metadata, json);
+
+    final boolean isCountRequested = options != null && options.getCount() != null && options.getCount().getValue();
+    final boolean isCountKnown = entitySet.getCount() != null;
+    if (isCountRequested && isCountKnown) {
+      writeCount(entitySet, json);
+    }
+    json.writeFieldName(Constants.VALUE);
+    if (options == null) {
+      writeEntitySet(metadata, getPlan(metadata, entityType, null, null), entitySet, false, json);
+    } else {
+      writeEntitySet(metadata, getPlan(metadata, entityType, options.getSelect(), options.getExpand()),
+          entitySet, options.getWriteOnlyReferences(), json);
+    }
+    // The count of an entity iterator may only be known after the last entity has been read.
+    if (isCountRequested && !isCountKnown) {
+      writeCount(entitySet, json);
+    }
+    writeNextLink(entitySet, json);
+    json.writeEndObject();
+  }
+
   @Override
   public SerializerResult entity(final ServiceMetadata metadata, final EdmEntityType entityType,
       final Entity entity, final EntitySerializerOptions options) throws SerializerException {
@@ -182,10 +236,11 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
-      writeEntity(metadata, entityType, entity, contextURL,
-          options == null ? null : options.getExpand(),
+      JsonGenerator json = JsonFactoryHolder.createGenerator(outputStream);
+      writeEntity(metadata, getPlan(metadata, entityType,
           options == null ? null : options.getSelect(),
+          options == null ? null : options.getExpand()),
+          entity, contextURL,
           options == null ? false : options.getWriteOnlyReferences(),
           json);
 
@@ -210,27 +265,37 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     return contextURL;
   }
 
-  protected void writeEntitySet(final ServiceMetadata metadata, final EdmEntityType entityType,
-      final EntityCollection entitySet, final ExpandOption expand, final SelectOption select,
-      final boolean onlyReference, final JsonGenerator json) throws IOException,
-      SerializerException {
+  /**
+   * Gets the plan to serialize instances of a structured type with the given $select and $expand,
+   * from the cache of the service metadata if possible.
+   */
+  protected SerializationPlan getPlan(final ServiceMetadata metadata, final EdmStructuredType type,
+      final SelectOption select, final ExpandOption expand) throws SerializerException {
+    return metadata instanceof ServiceMetadataImpl ?
+        ((ServiceMetadataImpl) metadata).getSerializationPlan(type, select, expand) :
+        SerializationPlan.compile(type, select, expand);
+  }
+
+  protected void writeEntitySet(final ServiceMetadata metadata, final SerializationPlan plan,
+      final AbstractEntityCollection entitySet, final boolean onlyReference, final JsonGenerator json)
+      throws IOException, SerializerException {
     json.writeStartArray();
-    for (final Entity entity : entitySet.getEntities()) {
+    for (final Entity entity : entitySet) {
       if (onlyReference) {
         json.writeStartObject();
         json.writeStringField(Constants.JSON_ID, entity.getId().toASCIIString());
         json.writeEndObject();
       } else {
-        writeEntity(metadata, entityType, entity, null, expand, select, false, json);
+        writeEntity(metadata, plan, entity, null, false, json);
       }
     }
     json.writeEndArray();
   }
 
-  protected void writeEntity(final ServiceMetadata metadata, final EdmEntityType entityType,
-      final Entity entity, final ContextURL contextURL, final ExpandOption expand,
-      final SelectOption select, final boolean onlyReference, final JsonGenerator json)
+  protected void writeEntity(final ServiceMetadata metadata, final SerializationPlan plan,
+      final Entity entity, final ContextURL contextURL, final boolean onlyReference, final JsonGenerator json)
       throws IOException, SerializerException {
+    final EdmEntityType entityType = (EdmEntityType) plan.getType();
     json.writeStartObject();
     if (!isODataMetadataNone) {
       if (contextURL != null) { // top-level entity
@@ -262,8 +327,9 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       if (!isODataMetadataNone && !resolvedType.equals(entityType)) {
         json.writeStringField(Constants.JSON_TYPE, "#" + entity.getType());
       }
-      writeProperties(resolvedType, entity.getProperties(), select, json);
-      writeNavigationProperties(metadata, resolvedType, entity, expand, json);
+      final SerializationPlan resolvedPlan = plan.getPlan(resolvedType);
+      writeProperties(resolvedPlan, entity.getProperties(), json);
+      writeNavigationProperties(metadata, resolvedPlan, entity, json);
       json.writeEndObject();
     }
   }
@@ -316,74 +382,53 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
             .getFullQualifiedName().getFullQualifiedNameAsString());
   }
 
-  protected void writeProperties(final EdmStructuredType type, final List<Property> properties,
-      final SelectOption select, final JsonGenerator json)
-      throws IOException, SerializerException {
-    final boolean all = ExpandSelectHelper.isAll(select);
-    final Set<String> selected = all ? new HashSet<String>() :
-        ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
-    for (final String propertyName : type.getPropertyNames()) {
-      if (all || selected.contains(propertyName)) {
-        final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
-        final Property property = findProperty(propertyName, properties);
-        final Set<List<String>> selectedPaths = all || edmProperty.isPrimitive() ? null :
-            ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName);
-        writeProperty(edmProperty, property, selectedPaths, json);
-      }
+  protected void writeProperties(final SerializationPlan plan, final List<Property> properties,
+      final JsonGenerator json) throws IOException, SerializerException {
+    // The properties are usually in the order of their declaration, so each one is looked for after the previous one.
+    int next = 0;
+    for (final PropertyPlan propertyPlan : plan.getProperties()) {
+      final int index = propertyPlan.indexOf(properties, next);
+      writeProperty(propertyPlan, index < 0 ? null : properties.get(index), json);
+      next = index + 1;
     }
   }
 
-  protected void writeNavigationProperties(final ServiceMetadata metadata,
-      final EdmStructuredType type, final Linked linked, final ExpandOption expand,
-      final JsonGenerator json) throws SerializerException, IOException {
-    if (ExpandSelectHelper.hasExpand(expand)) {
-      final boolean expandAll = ExpandSelectHelper.isExpandAll(expand);
-      final Set<String> expanded = expandAll ? new HashSet<String>() :
-          ExpandSelectHelper.getExpandedPropertyNames(expand.getExpandItems());
-      for (final String propertyName : type.getNavigationPropertyNames()) {
-        if (expandAll || expanded.contains(propertyName)) {
-          final EdmNavigationProperty property = type.getNavigationProperty(propertyName);
-          final Link navigationLink = linked.getNavigationLink(property.getName());
-          final ExpandItem innerOptions = expandAll ? null :
-              ExpandSelectHelper.getExpandItem(expand.getExpandItems(), propertyName);
-          if (innerOptions != null && innerOptions.getLevelsOption() != null) {
-            throw new SerializerException("Expand option $levels is not supported.",
-                SerializerException.MessageKeys.NOT_IMPLEMENTED);
-          }
-          writeExpandedNavigationProperty(metadata, property, navigationLink,
-              innerOptions == null ? null : innerOptions.getExpandOption(),
-              innerOptions == null ? null : innerOptions.getSelectOption(), json);
-        }
-      }
+  protected void writeNavigationProperties(final ServiceMetadata metadata, final SerializationPlan plan,
+      final Linked linked, final JsonGenerator json) throws SerializerException, IOException {
+    if (plan.hasLevels()) {
+      throw new SerializerException("Expand option $levels is not supported.",
+          SerializerException.MessageKeys.NOT_IMPLEMENTED);
+    }
+    for (final NavigationPlan navigationPlan : plan.getNavigationProperties()) {
+      writeExpandedNavigationProperty(metadata, navigationPlan,
+          linked.getNavigationLink(navigationPlan.getProperty().getName()), json);
     }
   }
 
-  protected void writeExpandedNavigationProperty(final ServiceMetadata metadata, final EdmNavigationProperty property,
-      final Link navigationLink, final ExpandOption innerExpand, final SelectOption innerSelect,
-      final JsonGenerator json) throws IOException, SerializerException {
-    json.writeFieldName(property.getName());
+  protected void writeExpandedNavigationProperty(final ServiceMetadata metadata, final NavigationPlan plan,
+      final Link navigationLink, final JsonGenerator json) throws IOException, SerializerException {
+    final EdmNavigationProperty property = plan.getProperty();
+    json.writeFieldName(plan.getFieldName());
     if (property.isCollection()) {
       if (navigationLink == null || navigationLink.getInlineEntitySet() == null) {
         json.writeStartArray();
         json.writeEndArray();
       } else {
-        writeEntitySet(metadata, property.getType(), navigationLink.getInlineEntitySet(), innerExpand,
-            innerSelect, false, json);
+        writeEntitySet(metadata, plan.getTargetPlan(), navigationLink.getInlineEntitySet(), false, json);
       }
     } else {
       if (navigationLink == null || navigationLink.getInlineEntity() == null) {
         json.writeNull();
       } else {
-        writeEntity(metadata, property.getType(), navigationLink.getInlineEntity(), null,
-            innerExpand, innerSelect, false, json);
+        writeEntity(metadata, plan.getTargetPlan(), navigationLink.getInlineEntity(), null, false, json);
       }
     }
   }
 
-  protected void writeProperty(final EdmProperty edmProperty, final Property property,
-      final Set<List<String>> selectedPaths, final JsonGenerator json)
+  protected void writeProperty(final PropertyPlan plan, final Property property, final JsonGenerator json)
       throws IOException, SerializerException {
-    json.writeFieldName(edmProperty.getName());
+    final EdmProperty edmProperty = plan.getEdmProperty();
+    json.writeFieldName(plan.getFieldName());
     if (property == null || property.isNull()) {
       if (edmProperty.isNullable() == Boolean.FALSE) {
         throw new SerializerException("Non-nullable property not present!",
@@ -392,13 +437,13 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
         json.writeNull();
       }
     } else {
-      writePropertyValue(edmProperty, property, selectedPaths, json);
+      writePropertyValue(plan, property, json);
     }
   }
 
-  private void writePropertyValue(final EdmProperty edmProperty,
-      final Property property, final Set<List<String>> selectedPaths, final JsonGenerator json)
+  private void writePropertyValue(final PropertyPlan plan, final Property property, final JsonGenerator json)
       throws IOException, SerializerException {
+    final EdmProperty edmProperty = plan.getEdmProperty();
     try {
       if (edmProperty.isPrimitive()) {
         if (edmProperty.isCollection()) {
@@ -411,9 +456,9 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
               edmProperty.getPrecision(), edmProperty.getScale(), edmProperty.isUnicode(), json);
         }
       } else if (edmProperty.isCollection()) {
-        writeComplexCollection((EdmComplexType) edmProperty.getType(), property, selectedPaths, json);
+        writeComplexCollection(plan.getComplexPlan(), property, json);
       } else if (property.isComplex()) {
-        writeComplexValue((EdmComplexType) edmProperty.getType(), property.asComplex().getValue(), selectedPaths, json);
+        writeComplexValue(plan.getComplexPlan(), property.asComplex().getValue(), json);
       } else if (property.isEnum()) {
         writePrimitive((EdmPrimitiveType) edmProperty.getType(), property,
             edmProperty.isNullable(), edmProperty.getMaxLength(),
@@ -459,14 +504,13 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     json.writeEndArray();
   }
 
-  private void writeComplexCollection(final EdmComplexType type, final Property property,
-      final Set<List<String>> selectedPaths, final JsonGenerator json)
-      throws IOException, SerializerException {
+  private void writeComplexCollection(final SerializationPlan plan, final Property property,
+      final JsonGenerator json) throws IOException, SerializerException {
     json.writeStartArray();
     for (Object value : property.asCollection()) {
       switch (property.getValueType()) {
       case COLLECTION_COMPLEX:
-        writeComplexValue(type, ((ComplexValue) value).getValue(), selectedPaths, json);
+        writeComplexValue(plan, ((ComplexValue) value).getValue(), json);
         break;
       default:
         throw new SerializerException("Property type not yet supported!",
@@ -498,49 +542,39 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
   protected void writePrimitiveValue(final EdmPrimitiveType type, final Object primitiveValue,
       final Boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
       final Boolean isUnicode, final JsonGenerator json) throws EdmPrimitiveTypeException, IOException {
-    final String value = type.valueToString(primitiveValue,
-        isNullable, maxLength, precision, scale, isUnicode);
-    if (value == null) {
-      json.writeNull();
-    } else if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean)) {
-      json.writeBoolean(Boolean.parseBoolean(value));
-    } else if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Byte)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Double)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int16)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int32)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.SByte)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Single)
-        || (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Decimal)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int64))
-        && !isIEEE754Compatible) {
-      json.writeNumber(value);
-    } else {
-      json.writeString(value);
+    PrimitiveValueBuffer buffer = valueBuffer.getAndSet(null);
+    if (buffer == null) {
+      buffer = new PrimitiveValueBuffer();
     }
-  }
-
-  protected void writeComplexValue(final EdmComplexType type, final List<Property> properties,
-      final Set<List<String>> selectedPaths, final JsonGenerator json)
-      throws IOException, SerializerException {
-    json.writeStartObject();
-    for (final String propertyName : type.getPropertyNames()) {
-      final Property property = findProperty(propertyName, properties);
-      if (selectedPaths == null || ExpandSelectHelper.isSelected(selectedPaths, propertyName)) {
-        writeProperty((EdmProperty) type.getProperty(propertyName), property,
-            selectedPaths == null ? null : ExpandSelectHelper.getReducedSelectedPaths(selectedPaths, propertyName),
-            json);
+    try {
+      if (!buffer.fill(type, primitiveValue, isNullable, maxLength, precision, scale, isUnicode)) {
+        json.writeNull();
+      } else if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean)) {
+        json.writeBoolean(buffer.getChars()[0] == 't');
+      } else if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Byte)
+          || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Double)
+          || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int16)
+          || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int32)
+          || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.SByte)
+          || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Single)
+          || (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Decimal)
+          || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int64))
+          && !isIEEE754Compatible) {
+        // The literal is a valid JSON number, so it can be written without conversion.
+        json.writeRawValue(buffer.getChars(), 0, buffer.length());
+      } else {
+        json.writeString(buffer.getChars(), 0, buffer.length());
       }
+    } finally {
+      valueBuffer.set(buffer);
     }
-    json.writeEndObject();
   }
 
-  private Property findProperty(final String propertyName, final List<Property> properties) {
-    for (final Property property : properties) {
-      if (propertyName.equals(property.getName())) {
-        return property;
-      }
-    }
-    return null;
+  protected void writeComplexValue(final SerializationPlan plan, final List<Property> properties,
+      final JsonGenerator json) throws IOException, SerializerException {
+    json.writeStartObject();
+    writeProperties(plan, properties, json);
+    json.writeEndObject();
   }
 
   @Override
@@ -552,7 +586,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = JsonFactoryHolder.createGenerator(outputStream);
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
@@ -595,7 +629,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = JsonFactoryHolder.createGenerator(outputStream);
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
@@ -605,10 +639,12 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       }
       final List<Property> values =
           property.isNull() ? Collections.<Property> emptyList() : property.asComplex().getValue();
-      writeProperties(type, values, options == null ? null : options.getSelect(), json);
+      final SerializationPlan plan = getPlan(metadata, type,
+          options == null ? null : options.getSelect(),
+          options == null ? null : options.getExpand());
+      writeProperties(plan, values, json);
       if (!property.isNull() && property.isComplex()) {
-        writeNavigationProperties(metadata, type, property.asComplex(),
-            options == null ? null : options.getExpand(), json);
+        writeNavigationProperties(metadata, plan, property.asComplex(), json);
       }
       json.writeEndObject();
 
@@ -633,7 +669,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = JsonFactoryHolder.createGenerator(outputStream);
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
@@ -667,12 +703,12 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = JsonFactoryHolder.createGenerator(outputStream);
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
       json.writeFieldName(Constants.VALUE);
-      writeComplexCollection(type, property, null, json);
+      writeComplexCollection(getPlan(metadata, type, null, null), property, json);
       json.writeEndObject();
 
       json.close();
@@ -698,7 +734,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       final UriHelper uriHelper = new UriHelperImpl();
       outputStream = buffer.getOutputStream();
-      final JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      final JsonGenerator json = JsonFactoryHolder.createGenerator(outputStream);
 
       json.writeStartObject();
       writeContextURL(contextURL, json);
@@ -729,7 +765,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       final UriHelper uriHelper = new UriHelperImpl();
       outputStream = buffer.getOutputStream();
-      final JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      final JsonGenerator json = JsonFactoryHolder.createGenerator(outputStream);
       json.writeStartObject();
 
       writeContextURL(contextURL, json);
@@ -778,7 +814,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     }
   }
 
-  private void writeCount(final EntityCollection entityCollection, JsonGenerator json) throws IOException {
+  private void writeCount(final AbstractEntityCollection entityCollection, JsonGenerator json) throws IOException {
     if (entityCollection.getCount() != null) {
       if (isIEEE754Compatible) {
         json.writeStringField(Constants.JSON_COUNT, entityCollection.getCount().toString());
@@ -788,7 +824,7 @@ public class ODataJsonSerializer extends AbstractODataSerializer {
     }
   }
 
-  private void writeNextLink(final EntityCollection entitySet, JsonGenerator json) throws IOException {
+  private void writeNextLink(final AbstractEntityCollection entitySet, JsonGenerator json) throws IOException {
     if (entitySet.getNext() != null) {
       json.writeStringField(Constants.JSON_NEXT_LINK, entitySet.getNext().toASCIIString());
     }
@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceNavigation;
+import org.apache.olingo.server.api.uri.UriResourceProperty;
+import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
+import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
+import org.apache.olingo.server.api.uri.queryoption.SelectItem;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * The properties and expanded navigation properties of a structured type that are serialized
+ * for a given $select and $expand.
+ * A plan is compiled once and then applied to every instance of the type; the plans for complex
+ * properties, expanded entities and derived types are compiled on first use and kept in the plan.
+ * Plans are immutable apart from these caches and can be shared between threads.
+ */
+public class SerializationPlan {
+
+  private final EdmStructuredType type;
+  private final SelectOption select;
+  private final ExpandOption expand;
+  private final List<PropertyPlan> properties;
+  private final List<NavigationPlan> navigationProperties;
+  private final boolean hasLevels;
+  private final ConcurrentMap<EdmStructuredType, SerializationPlan> derivedTypePlans =
+      new ConcurrentHashMap<EdmStructuredType, SerializationPlan>();
+
+  private SerializationPlan(final EdmStructuredType type, final SelectOption select, final ExpandOption expand,
+      final List<PropertyPlan> properties, final List<NavigationPlan> navigationProperties,
+      final boolean hasLevels) {
+    this.type = type;
+    this.select = select;
+    this.expand = expand;
+    this.properties = Collections.unmodifiableList(properties);
+    this.navigationProperties = Collections.unmodifiableList(navigationProperties);
+    this.hasLevels = hasLevels;
+  }
+
+  /**
+   * Compiles the plan for a structured type.
+   * @param type the structured type
+   * @param select the $select option, or <code>null</code> if all properties are selected
+   * @param expand the $expand option, or <code>null</code> if nothing is expanded
+   */
+  public static SerializationPlan compile(final EdmStructuredType type, final SelectOption select,
+      final ExpandOption expand) throws SerializerException {
+    final List<PropertyPlan> properties = new ArrayList<PropertyPlan>();
+    final boolean all = ExpandSelectHelper.isAll(select);
+    final Set<String> selected = all ? null : ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
+    for (final String propertyName : type.getPropertyNames()) {
+      if (all || selected.contains(propertyName)) {
+        final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
+        properties.add(new PropertyPlan(edmProperty, all || edmProperty.isPrimitive() ? null :
+            ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName)));
+      }
+    }
+
+    final List<NavigationPlan> navigationProperties = new ArrayList<NavigationPlan>();
+    boolean hasLevels = false;
+    if (ExpandSelectHelper.hasExpand(expand)) {
+      final boolean expandAll = ExpandSelectHelper.isExpandAll(expand);
+      final Set<String> expanded = expandAll ? null :
+          ExpandSelectHelper.getExpandedPropertyNames(expand.getExpandItems());
+      for (final String propertyName : type.getNavigationPropertyNames()) {
+        if (expandAll || expanded.contains(propertyName)) {
+          final ExpandItem innerOptions = expandAll ? null :
+              ExpandSelectHelper.getExpandItem(expand.getExpandItems(), propertyName);
+          hasLevels |= innerOptions != null && innerOptions.getLevelsOption() != null;
+          navigationProperties.add(new NavigationPlan(type.getNavigationProperty(propertyName),
+              innerOptions == null ? null : innerOptions.getExpandOption(),
+              innerOptions == null ? null : innerOptions.getSelectOption()));
+        }
+      }
+    }
+
+    return new SerializationPlan(type, select, expand, properties, navigationProperties, hasLevels);
+  }
+
+  /** Compiles the plan for the value of a complex property, restricted to the given selected paths. */
+  private static SerializationPlan compile(final EdmStructuredType type, final Set<List<String>> selectedPaths) {
+    final List<PropertyPlan> properties = new ArrayList<PropertyPlan>();
+    for (final String propertyName : type.getPropertyNames()) {
+      if (selectedPaths == null || ExpandSelectHelper.isSelected(selectedPaths, propertyName)) {
+        properties.add(new PropertyPlan((EdmProperty) type.getProperty(propertyName),
+            selectedPaths == null ? null : ExpandSelectHelper.getReducedSelectedPaths(selectedPaths, propertyName)));
+      }
+    }
+    return new SerializationPlan(type, null, null, properties, Collections.<NavigationPlan> emptyList(), false);
+  }
+
+  public EdmStructuredType getType() {
+    return type;
+  }
+
+  /** Returns the plans of the properties to serialize, in the order of their declaration. */
+  public List<PropertyPlan> getProperties() {
+    return properties;
+  }
+
+  /** Returns the plans of the navigation properties to expand, in the order of their declaration. */
+  public List<NavigationPlan> getNavigationProperties() {
+    return navigationProperties;
+  }
+
+  /** Returns whether an expanded navigation property has the (unsupported) $levels option. */
+  public boolean hasLevels() {
+    return hasLevels;
+  }
+
+  /**
+   * Returns the plan with the same $select and $expand for the given type,
+   * which is either the type of this plan or a type derived from it.
+   */
+  public SerializationPlan getPlan(final EdmStructuredType resolvedType) throws SerializerException {
+    if (resolvedType == type) {
+      return this;
+    }
+    SerializationPlan plan = derivedTypePlans.get(resolvedType);
+    if (plan == null) {
+      plan = compile(resolvedType, select, expand);
+      final SerializationPlan cached = derivedTypePlans.putIfAbsent(resolvedType, plan);
+      plan = cached == null ? plan : cached;
+    }
+    return plan;
+  }
+
+  /**
+   * Returns a key that identifies the plan for the given type, $select and $expand;
+   * plans with equal keys serialize the same properties.
+   */
+  public static String getKey(final EdmStructuredType type, final SelectOption select, final ExpandOption expand) {
+    final StringBuilder key = new StringBuilder(type.getFullQualifiedName().getFullQualifiedNameAsString());
+    appendKey(select, key);
+    appendKey(expand, key);
+    return key.toString();
+  }
+
+  private static void appendKey(final SelectOption select, final StringBuilder key) {
+    key.append("|$select=");
+    if (ExpandSelectHelper.hasSelect(select)) {
+      for (final SelectItem item : select.getSelectItems()) {
+        if (item.isStar()) {
+          key.append('*');
+        } else {
+          final List<UriResource> parts = item.getResourcePath().getUriResourceParts();
+          if (parts.get(0) instanceof UriResourceProperty) {
+            key.append(((UriResourceProperty) parts.get(0)).getProperty().getName());
+            for (final UriResource part : parts.subList(1, parts.size())) {
+              key.append('/');
+              if (part instanceof UriResourceProperty) {
+                key.append(((UriResourceProperty) part).getProperty().getName());
+              }
+            }
+          }
+        }
+        key.append(',');
+      }
+    }
+  }
+
+  private static void appendKey(final ExpandOption expand, final StringBuilder key) {
+    key.append("|$expand=");
+    if (ExpandSelectHelper.hasExpand(expand)) {
+      for (final ExpandItem item : expand.getExpandItems()) {
+        if (item.isStar()) {
+          key.append('*');
+        } else {
+          final UriResource resource = item.getResourcePath().getUriResourceParts().get(0);
+          if (resource instanceof UriResourceNavigation) {
+            key.append(((UriResourceNavigation) resource).getProperty().getName())
+                .append(item.getLevelsOption() == null ? "(" : "($levels");
+            appendKey(item.getSelectOption(), key);
+            appendKey(item.getExpandOption(), key);
+            key.append(')');
+          }
+        }
+        key.append(',');
+      }
+    }
+  }
+
+  /** The plan for a structural property: its pre-encoded name and the selection of its complex value. */
+  public static class PropertyPlan {
+    private final EdmProperty edmProperty;
+    private final SerializableString fieldName;
+    private final Set<List<String>> selectedPaths;
+    private volatile SerializationPlan complexPlan;
+
+    private PropertyPlan(final EdmProperty edmProperty, final Set<List<String>> selectedPaths) {
+      this.edmProperty = edmProperty;
+      fieldName = new SerializedString(edmProperty.getName());
+      this.selectedPaths = selectedPaths;
+    }
+
+    public EdmProperty getEdmProperty() {
+      return edmProperty;
+    }
+
+    public SerializableString getFieldName() {
+      return fieldName;
+    }
+
+    public Set<List<String>> getSelectedPaths() {
+      return selectedPaths;
+    }
+
+    /** Returns the plan for the values of this complex property. */
+    public SerializationPlan getComplexPlan() {
+      if (complexPlan == null) {
+        complexPlan = compile((EdmStructuredType) edmProperty.getType(), selectedPaths);
+      }
+      return complexPlan;
+    }
+
+    /**
+     * Finds the property of this plan in a list of properties.
+     * @param properties the properties of an instance
+     * @param start the position where the property is expected
+     * @return the position of the property or -1 if it is not in the list
+     */
+    public int indexOf(final List<Property> properties, final int start) {
+      final String name = edmProperty.getName();
+      if (start < properties.size() && name.equals(properties.get(start).getName())) {
+        return start;
+      }
+      int index = 0;
+      for (final Property property : properties) {
+        if (name.equals(property.getName())) {
+          return index;
+        }
+        index++;
+      }
+      return -1;
+    }
+  }
+
+  /** The plan for an expanded navigation property: its pre-encoded name and the options for the inline content. */
+  public static class NavigationPlan {
+    private final EdmNavigationProperty property;
+    private final SerializableString fieldName;
+    private final ExpandOption innerExpand;
+    private final SelectOption innerSelect;
+    private volatile SerializationPlan targetPlan;
+
+    private NavigationPlan(final EdmNavigationProperty property, final ExpandOption innerExpand,
+        final SelectOption innerSelect) {
+      this.property = property;
+      fieldName = new SerializedString(property.getName());
+      this.innerExpand = innerExpand;
+      this.innerSelect = innerSelect;
+    }
+
+    public EdmNavigationProperty getProperty() {
+      return property;
+    }
+
+    public SerializableString getFieldName() {
+      return fieldName;
+    }
+
+    /** Returns the plan for the entities of the navigation property's target type. */
+    public SerializationPlan getTargetPlan() throws SerializerException {
+      if (targetPlan == null) {
+        targetPlan = compile(property.getType(), innerSelect, innerExpand);
+      }
+      return targetPlan;
+    }
+  }
+}
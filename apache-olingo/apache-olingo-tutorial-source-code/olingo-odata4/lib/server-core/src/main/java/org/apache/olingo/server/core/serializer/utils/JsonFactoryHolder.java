@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * Creates the JSON generators and parsers of the library with one shared {@link JsonFactory}.
+ * The factory is not handed out so that nobody can reconfigure it; as long as it is not reconfigured,
+ * it is thread-safe and recycles its buffers per thread.
+ */
+public final class JsonFactoryHolder {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private JsonFactoryHolder() {
+    // Private constructor for utility classes
+  }
+
+  /** Creates a generator writing UTF-8 encoded JSON to the given stream. */
+  public static JsonGenerator createGenerator(final OutputStream outputStream) throws IOException {
+    return JSON_FACTORY.createGenerator(outputStream);
+  }
+
+  /** Creates a generator writing JSON to the given writer. */
+  public static JsonGenerator createGenerator(final Writer writer) throws IOException {
+    return JSON_FACTORY.createGenerator(writer);
+  }
+
+  /** Creates a parser reading JSON from the given stream; the encoding is detected from the content. */
+  public static JsonParser createParser(final InputStream inputStream) throws IOException {
+    return JSON_FACTORY.createParser(inputStream);
+  }
+}
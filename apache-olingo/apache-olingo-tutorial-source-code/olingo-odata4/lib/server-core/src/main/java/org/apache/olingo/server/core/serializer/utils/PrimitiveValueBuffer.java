@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.core.edm.primitivetype.SingletonPrimitiveType;
+
+/**
+ * Reusable buffer for the literal representation of primitive values.
+ * The built-in primitive types append their literals directly into the buffer,
+ * so serializing a value does not create an intermediate string.
+ * Instances are not thread-safe; a serializer hands its buffer to one thread at a time.
+ */
+public final class PrimitiveValueBuffer {
+
+  private final StringBuilder builder = new StringBuilder(32);
+  private char[] chars = new char[32];
+  private int length;
+
+  /**
+   * Fills the buffer with the literal representation of the given value,
+   * validated against the given facets.
+   * @return <code>false</code> if the value is <code>null</code>, <code>true</code> otherwise
+   * @throws EdmPrimitiveTypeException if the value is not valid for the type and the facets
+   */
+  public boolean fill(final EdmPrimitiveType type, final Object value,
+      final Boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
+      final Boolean isUnicode) throws EdmPrimitiveTypeException {
+    builder.setLength(0);
+    if (type instanceof SingletonPrimitiveType) {
+      ((SingletonPrimitiveType) type).appendValue(value, isNullable, maxLength, precision, scale, isUnicode, builder);
+      if (value == null) {
+        return false;
+      }
+    } else {
+      final String literal = type.valueToString(value, isNullable, maxLength, precision, scale, isUnicode);
+      if (literal == null) {
+        return false;
+      }
+      builder.append(literal);
+    }
+
+    length = builder.length();
+    if (length > chars.length) {
+      chars = new char[Math.max(length, 2 * chars.length)];
+    }
+    builder.getChars(0, length, chars, 0);
+    return true;
+  }
+
+  /** Returns the characters of the current literal; only the first {@link #length()} ones are valid. */
+  public char[] getChars() {
+    return chars;
+  }
+
+  /** Returns the length of the current literal. */
+  public int length() {
+    return length;
+  }
+}
@@ -19,12 +19,14 @@
 package org.apache.olingo.server.core.serializer.xml;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -32,6 +34,7 @@ import javax.xml.stream.XMLStreamWriter;
 
 import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.ex.ODataErrorDetail;
+import org.apache.olingo.commons.api.data.AbstractEntityCollection;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.Entity;
@@ -49,7 +52,9 @@ import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.commons.api.edm.EdmStructuredType;
 import org.apache.olingo.commons.api.edm.EdmType;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.core.edm.primitivetype.EdmString;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.serializer.ComplexSerializerOptions;
@@ -61,14 +66,17 @@ import org.apache.olingo.server.api.serializer.ReferenceCollectionSerializerOpti
 import org.apache.olingo.server.api.serializer.ReferenceSerializerOptions;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
 import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
 import org.apache.olingo.server.api.uri.queryoption.SelectOption;
 import org.apache.olingo.server.core.serializer.AbstractODataSerializer;
 import org.apache.olingo.server.core.serializer.SerializerResultImpl;
+import org.apache.olingo.server.core.serializer.SerializerStreamResultImpl;
 import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 import org.apache.olingo.server.core.serializer.utils.ContextURLBuilder;
 import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
+import org.apache.olingo.server.core.serializer.utils.PrimitiveValueBuffer;
 
 public class ODataXmlSerializer extends AbstractODataSerializer {
 
@@ -82,16 +90,30 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
   private static final String NS_METADATA = "http://docs.oasis-open.org/odata/ns/metadata";
   private static final String NS_DATA = "http://docs.oasis-open.org/odata/ns/data";
   private static final String NS_SCHEMA = "http://docs.oasis-open.org/odata/ns/scheme";
+  private static final String SERVICE_DOCUMENT_KEY = "xml/service";
+  private static final String METADATA_DOCUMENT_KEY = "xml/metadata";
+  /** Looked up only once; the factory is thread-safe as long as its configuration is not changed. */
+  private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+  /**
+   * Buffer reused by consecutive primitive values; a thread finding it taken by another thread
+   * uses a buffer of its own, so the serializer can be shared.
+   */
+  private final AtomicReference<PrimitiveValueBuffer> valueBuffer = new AtomicReference<PrimitiveValueBuffer>();
 
   @Override
   public SerializerResult serviceDocument(final ServiceMetadata metadata, final String serviceRoot)
       throws SerializerException {
+    final InputStream cachedContent = getCachedDocument(metadata, serviceRoot, SERVICE_DOCUMENT_KEY);
+    if (cachedContent != null) {
+      return SerializerResultImpl.with().content(cachedContent).build();
+    }
     OutputStream outputStream = null;
     SerializerException cachedException = null;
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
       ServiceDocumentXmlSerializer serializer = new ServiceDocumentXmlSerializer(metadata, serviceRoot);
       serializer.writeServiceDocument(writer);
 
@@ -99,7 +121,9 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       writer.close();
       outputStream.close();
 
-      return SerializerResultImpl.with().content(buffer.getInputStream()).build();
+      return SerializerResultImpl.with()
+          .content(cacheDocument(metadata, serviceRoot, SERVICE_DOCUMENT_KEY, buffer.getInputStream()))
+          .build();
     } catch (final XMLStreamException e) {
       cachedException =
           new SerializerException(IO_EXCEPTION_TEXT, e, SerializerException.MessageKeys.IO_EXCEPTION);
@@ -115,12 +139,16 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
 
   @Override
   public SerializerResult metadataDocument(final ServiceMetadata serviceMetadata) throws SerializerException {
+    final InputStream cachedContent = getCachedDocument(serviceMetadata, null, METADATA_DOCUMENT_KEY);
+    if (cachedContent != null) {
+      return SerializerResultImpl.with().content(cachedContent).build();
+    }
     OutputStream outputStream = null;
     SerializerException cachedException = null;
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
       MetadataDocumentXmlSerializer serializer = new MetadataDocumentXmlSerializer(serviceMetadata);
       serializer.writeMetadataDocument(writer);
 
@@ -128,7 +156,9 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       writer.close();
       outputStream.close();
 
-      return SerializerResultImpl.with().content(buffer.getInputStream()).build();
+      return SerializerResultImpl.with()
+          .content(cacheDocument(serviceMetadata, null, METADATA_DOCUMENT_KEY, buffer.getInputStream()))
+          .build();
     } catch (final XMLStreamException e) {
       cachedException =
           new SerializerException(IO_EXCEPTION_TEXT, e, SerializerException.MessageKeys.IO_EXCEPTION);
@@ -154,7 +184,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
 
       writer.writeStartElement("error");
@@ -224,40 +254,8 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
-      writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
-      writer.writeStartElement(ATOM, "feed", NS_ATOM);
-      writer.writeNamespace(ATOM, NS_ATOM);
-      writer.writeNamespace(METADATA, NS_METADATA);
-      writer.writeNamespace(DATA, NS_DATA);
-
-      writer.writeAttribute(METADATA, NS_METADATA, "context",
-          ContextURLBuilder.create(contextURL).toASCIIString());
-      writeMetadataETag(metadata, writer);
-
-      if (options != null) {
-        writer.writeStartElement(ATOM, "id", NS_ATOM);
-        writer.writeCharacters(options.getId());
-        writer.writeEndElement();
-      }
-
-      if (options != null && options.getCount() != null && options.getCount().getValue()
-          && entitySet.getCount() != null) {
-        writeCount(entitySet, writer);
-      }
-      if (entitySet.getNext() != null) {
-        writeNextLink(entitySet, writer);
-      }
-
-      if (options == null) {
-        writeEntitySet(metadata, entityType, entitySet, null, null, writer);
-      } else {
-        writeEntitySet(metadata, entityType, entitySet,
-            options.getExpand(), options.getSelect(), writer);
-      }
-
-      writer.writeEndElement();
-      writer.writeEndDocument();
+      XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      writeEntityCollection(metadata, entityType, entitySet, contextURL, options, writer);
 
       writer.flush();
       writer.close();
@@ -277,6 +275,82 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     }
   }
 
+  @Override
+  public SerializerStreamResult entityCollectionStreamed(final ServiceMetadata metadata,
+      final EdmEntityType entityType, final AbstractEntityCollection entitySet,
+      final EntityCollectionSerializerOptions options) throws SerializerException {
+    final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
+    return SerializerStreamResultImpl.with().content(new ODataContent() {
+      @Override
+      public void write(final OutputStream stream) {
+        try {
+          XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(stream, DEFAULT_CHARSET);
+          if (options != null && options.getWriteOnlyReferences()) {
+            writeReferenceCollection(entitySet,
+                ReferenceCollectionSerializerOptions.with().contextURL(contextURL).build(), writer);
+          } else {
+            writeEntityCollection(metadata, entityType, entitySet, contextURL, options, writer);
+          }
+          writer.flush();
+          writer.close();
+        } catch (final XMLStreamException e) {
+          throw new ODataRuntimeException(IO_EXCEPTION_TEXT, e);
+        } catch (final SerializerException e) {
+          throw new ODataRuntimeException(e);
+        }
+      }
+    }).build();
+  }
+
+  private void writeEntityCollection(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final AbstractEntityCollection entitySet, final ContextURL contextURL,
+      final EntityCollectionSerializerOptions options, final XMLStreamWriter writer)
+      throws XMLStreamException, SerializerException {
+    writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
+    writer.writeStartElement(ATOM, "feed", NS_ATOM);
+    writer.writeNamespace(ATOM, NS_ATOM);
+    writer.writeNamespace(METADATA, NS_METADATA);
+    writer.writeNamespace(DATA, NS_DATA);
+
+    writer.writeAttribute(METADATA, NS_METADATA, "context",
+        ContextURLBuilder.create(contextURL).toASCIIString());
+    writeMetadataETag(metadata, writer);
+
+    if (options != null) {
+      writer.writeStartElement(ATOM, "id", NS_ATOM);
+      writer.writeCharacters(options.getId());
+      writer.writeEndElement();
+    }
+
+    final boolean isCountRequested = options != null && options.getCount() != null && options.getCount().getValue();
+    final boolean isCountKnown = entitySet.getCount() != null;
+    final boolean isNextKnown = entitySet.getNext() != null;
+    if (isCountRequested && isCountKnown) {
+      writeCount(entitySet, writer);
+    }
+    if (isNextKnown) {
+      writeNextLink(entitySet, writer);
+    }
+
+    if (options == null) {
+      writeEntitySet(metadata, entityType, entitySet, null, null, writer);
+    } else {
+      writeEntitySet(metadata, entityType, entitySet,
+          options.getExpand(), options.getSelect(), writer);
+    }
+
+    // Count and next link of an entity iterator may only be known after the last entity has been read.
+    if (isCountRequested && !isCountKnown && entitySet.getCount() != null) {
+      writeCount(entitySet, writer);
+    }
+    if (!isNextKnown && entitySet.getNext() != null) {
+      writeNextLink(entitySet, writer);
+    }
+
+    writer.writeEndElement();
+    writer.writeEndDocument();
+  }
+
   @Override
   public SerializerResult entity(final ServiceMetadata metadata, final EdmEntityType entityType,
       final Entity entity, final EntitySerializerOptions options) throws SerializerException {
@@ -292,7 +366,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writeEntity(metadata, entityType, entity, contextURL,
           options == null ? null : options.getExpand(),
@@ -335,9 +409,9 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
   }
 
   protected void writeEntitySet(final ServiceMetadata metadata, final EdmEntityType entityType,
-      final EntityCollection entitySet, final ExpandOption expand, final SelectOption select,
+      final AbstractEntityCollection entitySet, final ExpandOption expand, final SelectOption select,
       final XMLStreamWriter writer) throws XMLStreamException, SerializerException {
-    for (final Entity entity : entitySet.getEntities()) {
+    for (final Entity entity : entitySet) {
       writeEntity(metadata, entityType, entity, null, expand, select, writer, false);
     }
   }
@@ -746,12 +820,18 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       final Boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
       final Boolean isUnicode,
       final XMLStreamWriter writer) throws EdmPrimitiveTypeException, XMLStreamException {
-    final String value = type.valueToString(primitiveValue,
-        isNullable, maxLength, precision, scale, isUnicode);
-    if (value == null) {
-      writer.writeAttribute(DATA, NS_DATA, "null", "true");
-    } else {
-      writer.writeCharacters(value);
+    PrimitiveValueBuffer buffer = valueBuffer.getAndSet(null);
+    if (buffer == null) {
+      buffer = new PrimitiveValueBuffer();
+    }
+    try {
+      if (buffer.fill(type, primitiveValue, isNullable, maxLength, precision, scale, isUnicode)) {
+        writer.writeCharacters(buffer.getChars(), 0, buffer.length());
+      } else {
+        writer.writeAttribute(DATA, NS_DATA, "null", "true");
+      }
+    } finally {
+      valueBuffer.set(buffer);
     }
   }
 
@@ -787,7 +867,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
 
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(METADATA, "value", NS_METADATA);
@@ -844,7 +924,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       EdmComplexType resolvedType = resolveComplexType(metadata, type, property.getType());
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(METADATA, "value", NS_METADATA);
       writer.writeNamespace(METADATA, NS_METADATA);
@@ -889,7 +969,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
 
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(METADATA, "value", NS_METADATA);
@@ -942,7 +1022,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
 
       writer.writeStartElement(METADATA, "value", NS_METADATA);
       writer.writeNamespace(METADATA, NS_METADATA);
@@ -984,7 +1064,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writeReference(entity, options == null ? null : options.getContextURL(), writer, true);
       writer.writeEndDocument();
@@ -1034,27 +1114,8 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
-      writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
-      writer.writeStartElement(ATOM, "feed", NS_ATOM);
-      writer.writeNamespace(ATOM, NS_ATOM);
-      writer.writeNamespace(METADATA, NS_METADATA);
-      if (options != null && options.getContextURL() != null) { // top-level entity
-        writer.writeAttribute(METADATA, NS_METADATA, CONTEXT, ContextURLBuilder.create(options.getContextURL())
-            .toASCIIString());
-      }
-      if (options != null && options.getCount() != null && options.getCount().getValue()
-          && entitySet.getCount() != null) {
-        writeCount(entitySet, writer);
-      }
-      if (entitySet.getNext() != null) {
-        writeNextLink(entitySet, writer);
-      }
-      for (final Entity entity : entitySet.getEntities()) {
-        writeReference(entity, options == null ? null : options.getContextURL(), writer, false);
-      }
-      writer.writeEndElement();
-      writer.writeEndDocument();
+      XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      writeReferenceCollection(entitySet, options, writer);
       writer.flush();
       writer.close();
       outputStream.close();
@@ -1073,14 +1134,46 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     }
   }
 
-  private void writeCount(final EntityCollection entitySet, XMLStreamWriter writer)
+  private void writeReferenceCollection(final AbstractEntityCollection entitySet,
+      final ReferenceCollectionSerializerOptions options, final XMLStreamWriter writer) throws XMLStreamException {
+    writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
+    writer.writeStartElement(ATOM, "feed", NS_ATOM);
+    writer.writeNamespace(ATOM, NS_ATOM);
+    writer.writeNamespace(METADATA, NS_METADATA);
+    if (options != null && options.getContextURL() != null) { // top-level entity
+      writer.writeAttribute(METADATA, NS_METADATA, CONTEXT, ContextURLBuilder.create(options.getContextURL())
+          .toASCIIString());
+    }
+    final boolean isCountRequested = options != null && options.getCount() != null && options.getCount().getValue();
+    final boolean isCountKnown = entitySet.getCount() != null;
+    final boolean isNextKnown = entitySet.getNext() != null;
+    if (isCountRequested && isCountKnown) {
+      writeCount(entitySet, writer);
+    }
+    if (isNextKnown) {
+      writeNextLink(entitySet, writer);
+    }
+    for (final Entity entity : entitySet) {
+      writeReference(entity, options == null ? null : options.getContextURL(), writer, false);
+    }
+    if (isCountRequested && !isCountKnown && entitySet.getCount() != null) {
+      writeCount(entitySet, writer);
+    }
+    if (!isNextKnown && entitySet.getNext() != null) {
+      writeNextLink(entitySet, writer);
+    }
+    writer.writeEndElement();
+    writer.writeEndDocument();
+  }
+
+  private void writeCount(final AbstractEntityCollection entitySet, XMLStreamWriter writer)
       throws XMLStreamException {
     writer.writeStartElement(METADATA, "count", NS_METADATA);
     writer.writeCharacters(String.valueOf(entitySet.getCount()));
     writer.writeEndElement();
   }
 
-  private void writeNextLink(final EntityCollection entitySet, XMLStreamWriter writer)
+  private void writeNextLink(final AbstractEntityCollection entitySet, XMLStreamWriter writer)
       throws XMLStreamException {
     writer.writeStartElement(ATOM, "link", NS_ATOM);
     writer.writeAttribute("rel", "next");
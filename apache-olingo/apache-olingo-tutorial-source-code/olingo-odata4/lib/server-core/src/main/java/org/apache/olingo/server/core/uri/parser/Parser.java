@@ -19,6 +19,7 @@
 package org.apache.olingo.server.core.uri.parser;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
@@ -33,6 +34,7 @@ import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
 import org.apache.olingo.server.api.uri.UriInfoKind;
 import org.apache.olingo.server.api.uri.UriResource;
 import org.apache.olingo.server.api.uri.UriResourceCount;
@@ -70,19 +72,85 @@ public class Parser {
   private static final String ATOM = "atom";
   private static final String JSON = "json";
   private static final String XML = "xml";
+  private static final ThreadLocal<GrammarParser> GRAMMAR_PARSER = new ThreadLocal<GrammarParser>() {
+    @Override
+    protected GrammarParser initialValue() {
+      return new GrammarParser();
+    }
+  };
+
   int logLevel = 0;
+  /** Whether simple resource paths are parsed without the grammar; see {@link SimplePathParser}. */
+  boolean fastPathEnabled = true;
+
+  private final UriInfoCache cache;
 
   private enum ParserEntryRules {
     All, Batch, CrossJoin, Entity, ExpandItems, FilterExpression, Metadata, PathSegment, Orderby, Select
   }
 
+  public Parser() {
+    this(null);
+  }
+
+  /**
+   * Creates a parser which looks up parsed URIs in the given cache before parsing them.
+   * @param cache the cache of parsed URIs; <code>null</code> disables caching
+   */
+  public Parser(final UriInfoCache cache) {
+    this.cache = cache;
+  }
+
   public Parser setLogLevel(final int logLevel) {
     this.logLevel = logLevel;
     return this;
   }
 
+  /**
+   * Parses the given URIs in order to prime the prediction caches of the URI grammar.
+   * These caches are shared by all parsers; filling them at startup avoids the cost of
+   * building them while the first requests are being processed.
+   * The parse results are discarded; URIs that cannot be parsed are ignored.
+   * @param edm  the EDM to parse the URIs against
+   * @param uris representative URIs relative to the service root, with optional query part,
+   *             e.g., <code>ESAllPrim?$filter=PropertyInt16%20eq%201</code>
+   * @return the number of URIs that have been parsed successfully
+   */
+  public static int warmUp(final Edm edm, final Collection<String> uris) {
+    Parser parser = new Parser();
+    // The fast path does not need any warm-up; the grammar should see all paths.
+    parser.fastPathEnabled = false;
+    int count = 0;
+    for (final String uri : uris) {
+      final int index = uri.indexOf('?');
+      try {
+        parser.parse(index < 0 ? uri : uri.substring(0, index), index < 0 ? null : uri.substring(index + 1),
+            null, edm);
+        count++;
+      } catch (final UriParserException e) {
+        // The grammar has been used nevertheless.
+      } catch (final RuntimeException e) {
+        // The grammar has been used nevertheless.
+      }
+    }
+    return count;
+  }
+
   public UriInfo parseUri(final String path, final String query, final String fragment, final Edm edm)
       throws UriParserException {
+    if (cache == null) {
+      return parse(path, query, fragment, edm);
+    }
+    UriInfo uriInfo = cache.get(path, query, fragment, edm);
+    if (uriInfo == null) {
+      uriInfo = parse(path, query, fragment, edm);
+      cache.put(path, query, fragment, edm, uriInfo);
+    }
+    return uriInfo;
+  }
+
+  private UriInfo parse(final String path, final String query, final String fragment, final Edm edm)
+      throws UriParserException {
 
     UriContext context = new UriContext();
     UriParseTreeVisitor uriParseTreeVisitor = new UriParseTreeVisitor(edm, context);
@@ -134,18 +202,24 @@ public class Parser {
 
         uriParseTreeVisitor.visitCrossjoinEOF(ctxResourcePathEOF);
       } else {
-        List<PathSegmentEOFContext> ctxPathSegments = new ArrayList<PathSegmentEOFContext>();
-        for (String pathSegment : uri.pathSegmentListDecoded) {
-          PathSegmentEOFContext ctxPathSegment =
-              (PathSegmentEOFContext) parseRule(pathSegment, ParserEntryRules.PathSegment);
-          ctxPathSegments.add(ctxPathSegment);
-        }
+        context.contextUriInfo = fastPathEnabled ?
+            new SimplePathParser(edm).parse(uri.pathSegmentListDecoded) :
+            null;
+
+        if (context.contextUriInfo == null) {
+          List<PathSegmentEOFContext> ctxPathSegments = new ArrayList<PathSegmentEOFContext>();
+          for (String pathSegment : uri.pathSegmentListDecoded) {
+            PathSegmentEOFContext ctxPathSegment =
+                (PathSegmentEOFContext) parseRule(pathSegment, ParserEntryRules.PathSegment);
+            ctxPathSegments.add(ctxPathSegment);
+          }
 
-        context.contextUriInfo = new UriInfoImpl().setKind(UriInfoKind.resource);
+          context.contextUriInfo = new UriInfoImpl().setKind(UriInfoKind.resource);
 
-        for (PathSegmentEOFContext ctxPathSegment : ctxPathSegments) {
-          // add checks for batch, entity, metadata, all, crossjoin
-          uriParseTreeVisitor.visitPathSegmentEOF(ctxPathSegment);
+          for (PathSegmentEOFContext ctxPathSegment : ctxPathSegments) {
+            // add checks for batch, entity, metadata, all, crossjoin
+            uriParseTreeVisitor.visitPathSegmentEOF(ctxPathSegment);
+          }
         }
 
         UriResource lastSegment = context.contextUriInfo.getLastResourcePart();
@@ -301,143 +375,102 @@ public class Parser {
 
   private ParserRuleContext parseRule(final String input, final ParserEntryRules entryPoint)
       throws UriParserSyntaxException {
-    UriParserParser parser = null;
-    UriLexer lexer = null;
-    ParserRuleContext ret = null;
-
-    // Use 2 stage approach to improve performance
-    // see https://github.com/antlr/antlr4/issues/192
+    if (logLevel > 0) {
+      //TODO: Discuss if we should keep this code
+      showTokens(input, new UriLexer(new ANTLRInputStream(input)).getAllTokens());
+    }
 
-    // stage = 1
+    // The lexer and the parser are re-used within a thread; their prediction caches (DFA)
+    // are static in the generated classes and therefore shared between all threads.
+    GrammarParser grammarParser = GRAMMAR_PARSER.get();
+    if (grammarParser.inUse) {
+      grammarParser = new GrammarParser();
+    }
+    grammarParser.inUse = true;
     try {
+      final UriParserParser parser = grammarParser.start(input);
+      final UriLexer lexer = grammarParser.lexer;
+      ParserRuleContext ret = null;
 
-      // create parser
-      if (logLevel > 0) {
-        //TODO: Discuss if we should keep this code
-        lexer = new UriLexer(new ANTLRInputStream(input));
-        showTokens(input, lexer.getAllTokens());
-      }
+      // Use 2 stage approach to improve performance
+      // see https://github.com/antlr/antlr4/issues/192
+
+      // stage = 1
+      try {
+        // Set error strategy
+        addStage1ErrorStategy(parser);
 
-      lexer = new UriLexer(new ANTLRInputStream(input));
-      parser = new UriParserParser(new CommonTokenStream(lexer));
-
-      // Set error strategy
-      addStage1ErrorStategy(parser);
-
-      // Set error collector
-      addStage1ErrorListener(parser);
-
-      // user the faster LL parsing
-      parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
-
-      // parse
-      switch (entryPoint) {
-      case All:
-        ret = parser.allEOF();
-        break;
-      case Batch:
-        ret = parser.batchEOF();
-        break;
-      case CrossJoin:
-        ret = parser.crossjoinEOF();
-        break;
-      case Metadata:
-        ret = parser.metadataEOF();
-        break;
-      case PathSegment:
-        ret = parser.pathSegmentEOF();
-        break;
-      case FilterExpression:
-        lexer.mode(Lexer.DEFAULT_MODE);
-        ret = parser.filterExpressionEOF();
-        break;
-      case Orderby:
-        lexer.mode(Lexer.DEFAULT_MODE);
-        ret = parser.orderByEOF();
-        break;
-      case ExpandItems:
-        lexer.mode(Lexer.DEFAULT_MODE);
-        ret = parser.expandItemsEOF();
-        break;
-      case Entity:
-        ret = parser.entityEOF();
-        break;
-      case Select:
-        ret = parser.selectEOF();
-        break;
-      default:
-        break;
+        // Set error collector
+        addStage1ErrorListener(parser);
 
-      }
+        // user the faster LL parsing
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
 
-    } catch (ParseCancellationException hardException) {
-      // stage = 2
-      try {
+        ret = parseEntryRule(parser, lexer, entryPoint);
 
-        // create parser
-        lexer = new UriLexer(new ANTLRInputStream(input));
-        parser = new UriParserParser(new CommonTokenStream(lexer));
+      } catch (ParseCancellationException hardException) {
+        // stage = 2
+        try {
+          // Start again with the tokens already read in stage 1.
+          grammarParser.restart();
 
-        // Set error strategy
-        addStage2ErrorStategy(parser);
+          // Set error strategy
+          addStage2ErrorStategy(parser);
 
-        // Set error collector
-        addStage2ErrorListener(parser);
-
-        // Use the slower SLL parsing
-        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
-
-        // parse
-        switch (entryPoint) {
-        case All:
-          ret = parser.allEOF();
-          break;
-        case Batch:
-          ret = parser.batchEOF();
-          break;
-        case CrossJoin:
-          ret = parser.crossjoinEOF();
-          break;
-        case Metadata:
-          ret = parser.metadataEOF();
-          break;
-        case PathSegment:
-          ret = parser.pathSegmentEOF();
-          break;
-        case FilterExpression:
-          lexer.mode(Lexer.DEFAULT_MODE);
-          ret = parser.filterExpressionEOF();
-          break;
-        case Orderby:
-          lexer.mode(Lexer.DEFAULT_MODE);
-          ret = parser.orderByEOF();
-          break;
-        case ExpandItems:
-          lexer.mode(Lexer.DEFAULT_MODE);
-          ret = parser.expandItemsEOF();
-          break;
-        case Entity:
-          ret = parser.entityEOF();
-          break;
-        case Select:
-          ret = parser.selectEOF();
-          break;
-        default:
-          break;
-        }
+          // Set error collector
+          addStage2ErrorListener(parser);
 
-      } catch (final RecognitionException weakException) {
-        throw new UriParserSyntaxException("Error in syntax", weakException,
-            UriParserSyntaxException.MessageKeys.SYNTAX);
+          // Use the slower SLL parsing
+          parser.getInterpreter().setPredictionMode(PredictionMode.LL);
 
-        // exceptionOnStage = 2;
+          ret = parseEntryRule(parser, lexer, entryPoint);
+
+        } catch (final RecognitionException weakException) {
+          throw new UriParserSyntaxException("Error in syntax", weakException,
+              UriParserSyntaxException.MessageKeys.SYNTAX);
+
+          // exceptionOnStage = 2;
+        }
+      } catch (final RecognitionException hardException) {
+        throw new UriParserSyntaxException("Error in syntax", hardException,
+            UriParserSyntaxException.MessageKeys.SYNTAX);
       }
-    } catch (final RecognitionException hardException) {
-      throw new UriParserSyntaxException("Error in syntax", hardException,
-          UriParserSyntaxException.MessageKeys.SYNTAX);
+
+      return ret;
+    } finally {
+      grammarParser.inUse = false;
     }
+  }
 
-    return ret;
+  private ParserRuleContext parseEntryRule(final UriParserParser parser, final UriLexer lexer,
+      final ParserEntryRules entryPoint) {
+    switch (entryPoint) {
+    case All:
+      return parser.allEOF();
+    case Batch:
+      return parser.batchEOF();
+    case CrossJoin:
+      return parser.crossjoinEOF();
+    case Metadata:
+      return parser.metadataEOF();
+    case PathSegment:
+      return parser.pathSegmentEOF();
+    case FilterExpression:
+      lexer.mode(Lexer.DEFAULT_MODE);
+      return parser.filterExpressionEOF();
+    case Orderby:
+      lexer.mode(Lexer.DEFAULT_MODE);
+      return parser.orderByEOF();
+    case ExpandItems:
+      lexer.mode(Lexer.DEFAULT_MODE);
+      return parser.expandItemsEOF();
+    case Entity:
+      return parser.entityEOF();
+    case Select:
+      return parser.selectEOF();
+    default:
+      return null;
+    }
   }
 
   protected void addStage1ErrorStategy(final UriParserParser parser) {
@@ -486,4 +519,33 @@ public class Parser {
     System.out.println("tokens: " + out.toString());
   }
 
+
+  /** Lexer and parser of the URI grammar, re-used for consecutive inputs. */
+  private static class GrammarParser {
+    private UriLexer lexer;
+    private CommonTokenStream tokens;
+    private UriParserParser parser;
+    private boolean inUse;
+
+    private UriParserParser start(final String input) {
+      if (parser == null) {
+        lexer = new UriLexer(new ANTLRInputStream(input));
+        tokens = new CommonTokenStream(lexer);
+        parser = new UriParserParser(tokens);
+      } else {
+        lexer.setInputStream(new ANTLRInputStream(input));
+        // The token stream cannot be re-used once it has reached the end of its input.
+        tokens = new CommonTokenStream(lexer);
+        parser.setTokenStream(tokens);
+      }
+      return parser;
+    }
+
+    private void restart() {
+      // Read the remaining tokens in the current lexer mode before the parser is reset.
+      tokens.fill();
+      tokens.seek(0);
+      parser.setTokenStream(tokens);
+    }
+  }
 }
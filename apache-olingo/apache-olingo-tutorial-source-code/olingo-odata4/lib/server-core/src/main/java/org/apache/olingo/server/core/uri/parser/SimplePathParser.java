@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmElement;
+import org.apache.olingo.commons.api.edm.EdmEntityContainer;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.EdmSingleton;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.apache.olingo.server.api.uri.UriInfoKind;
+import org.apache.olingo.server.core.uri.UriInfoImpl;
+import org.apache.olingo.server.core.uri.UriParameterImpl;
+import org.apache.olingo.server.core.uri.UriResourceCountImpl;
+import org.apache.olingo.server.core.uri.UriResourceEntitySetImpl;
+import org.apache.olingo.server.core.uri.UriResourceNavigationPropertyImpl;
+import org.apache.olingo.server.core.uri.UriResourceSingletonImpl;
+import org.apache.olingo.server.core.uri.UriResourceWithKeysImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.LiteralImpl;
+
+/**
+ * Parses the most common resource paths directly against the EDM, without the ANTLR grammar.
+ * <br>
+ * Supported are paths consisting of an entity set or a singleton, optionally followed by
+ * navigation properties, where each entity set or collection-valued navigation property may have
+ * a key predicate with integer or string literals, and optionally terminated by <code>$count</code>.
+ * The result is identical to the result of the {@link UriParseTreeVisitor}.
+ * <br>
+ * For every other path, including all erroneous ones, <code>null</code> is returned,
+ * so that the caller can use the full grammar (which also creates the appropriate error messages).
+ */
+class SimplePathParser {
+
+  private static final String COUNT = "$count";
+
+  /** Words the URI lexer recognizes as tokens of their own instead of as OData identifiers. */
+  private static final Set<String> KEYWORDS = new HashSet<String>(Arrays.asList(
+      "max", "null", "true", "false", "NaN", "INF",
+      "asc", "desc", "mul", "div", "mod", "has", "add", "sub", "any", "all",
+      "gt", "ge", "lt", "le", "isof", "eq", "ne", "and", "or", "not",
+      "contains", "startswith", "endswith", "length", "indexof", "substring", "tolower", "toupper",
+      "trim", "concat", "year", "month", "day", "hour", "minute", "second", "fractionalseconds",
+      "totalseconds", "date", "time", "totaloffsetminutes", "mindatetime", "maxdatetime", "now",
+      "round", "floor", "ceiling", "cast", "Collection"));
+
+  /** Maximum number of digits of an integer literal that surely fits into a long value. */
+  private static final int MAX_INT_DIGITS = 18;
+
+  private final EdmEntityContainer container;
+
+  SimplePathParser(final Edm edm) {
+    container = edm.getEntityContainer(null);
+  }
+
+  /**
+   * Parses the decoded path segments.
+   * @return the URI info with all resource parts, or <code>null</code> if the path is not supported
+   */
+  UriInfoImpl parse(final List<String> segments) {
+    if (container == null || segments.isEmpty()) {
+      return null;
+    }
+    UriInfoImpl uriInfo = new UriInfoImpl().setKind(UriInfoKind.resource);
+    EdmEntityType type = null;
+    boolean isCollection = false;
+
+    for (int index = 0; index < segments.size(); index++) {
+      final String segment = segments.get(index);
+
+      if (COUNT.equals(segment)) {
+        if (index == 0 || index < segments.size() - 1 || !isCollection) {
+          return null;
+        }
+        uriInfo.addResourcePart(new UriResourceCountImpl());
+        return uriInfo;
+      }
+
+      final int nameEnd = scanIdentifier(segment, 0);
+      if (nameEnd == 0) {
+        return null;
+      }
+      final String name = segment.substring(0, nameEnd);
+
+      UriResourceWithKeysImpl resource;
+      if (index == 0) {
+        final EdmEntitySet entitySet = container.getEntitySet(name);
+        if (entitySet != null) {
+          resource = new UriResourceEntitySetImpl().setEntitSet(entitySet);
+          type = entitySet.getEntityType();
+        } else {
+          final EdmSingleton singleton = container.getSingleton(name);
+          if (singleton == null || nameEnd < segment.length()) {
+            return null;
+          }
+          uriInfo.addResourcePart(new UriResourceSingletonImpl().setSingleton(singleton));
+          type = singleton.getEntityType();
+          isCollection = false;
+          continue;
+        }
+      } else {
+        if (isCollection) {
+          return null;
+        }
+        final EdmElement property = type.getProperty(name);
+        if (!(property instanceof EdmNavigationProperty)) {
+          return null;
+        }
+        final EdmNavigationProperty navigationProperty = (EdmNavigationProperty) property;
+        if (!navigationProperty.isCollection() && nameEnd < segment.length()) {
+          return null;
+        }
+        resource = new UriResourceNavigationPropertyImpl().setNavigationProperty(navigationProperty);
+        type = navigationProperty.getType();
+      }
+
+      if (nameEnd < segment.length()) {
+        final List<UriParameterImpl> keys = parseKeyPredicate(segment, nameEnd, type);
+        if (keys == null) {
+          return null;
+        }
+        resource.setKeyPredicates(keys);
+      }
+      uriInfo.addResourcePart(resource);
+      isCollection = resource.isCollection();
+    }
+
+    return uriInfo;
+  }
+
+  /**
+   * Parses a key predicate in parentheses that must extend to the end of the segment.
+   * @return the key parameters or <code>null</code> if the key predicate is not supported
+   */
+  private List<UriParameterImpl> parseKeyPredicate(final String segment, final int start,
+      final EdmEntityType type) {
+    if (segment.charAt(start) != '(' || segment.charAt(segment.length() - 1) != ')') {
+      return null;
+    }
+    final int end = segment.length() - 1;
+    final List<String> keyNames = type.getKeyPredicateNames();
+    List<UriParameterImpl> keys = new ArrayList<UriParameterImpl>();
+
+    final int literalEnd = scanLiteral(segment, start + 1);
+    if (literalEnd == end) {
+      // single key value without name
+      if (keyNames.size() != 1) {
+        return null;
+      }
+      keys.add(createParameter(keyNames.get(0), segment.substring(start + 1, end)));
+      return keys;
+    }
+
+    int position = start + 1;
+    while (true) {
+      final int nameEnd = scanIdentifier(segment, position);
+      if (nameEnd == position || nameEnd >= end || segment.charAt(nameEnd) != '=') {
+        return null;
+      }
+      final int valueEnd = scanLiteral(segment, nameEnd + 1);
+      if (valueEnd < 0) {
+        return null;
+      }
+      keys.add(createParameter(segment.substring(position, nameEnd), segment.substring(nameEnd + 1, valueEnd)));
+      if (valueEnd == end) {
+        break;
+      } else if (segment.charAt(valueEnd) == ',') {
+        position = valueEnd + 1;
+      } else {
+        return null;
+      }
+    }
+    return keys.size() == keyNames.size() ? keys : null;
+  }
+
+  private UriParameterImpl createParameter(final String name, final String text) {
+    final EdmType type;
+    if (text.charAt(0) == '\'') {
+      type = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.String);
+    } else {
+      // the same type inference as in the parse-tree visitor
+      final long value = Long.parseLong(text);
+      if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+        type = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.SByte);
+      } else if (value >= 0 && value <= 255) {
+        type = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Byte);
+      } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+        type = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int16);
+      } else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+        type = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int32);
+      } else {
+        type = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int64);
+      }
+    }
+    return new UriParameterImpl()
+        .setName(name)
+        .setText(text)
+        .setExpression(new LiteralImpl().setText(text).setType(type));
+  }
+
+  /**
+   * Scans an OData identifier consisting of ASCII letters, digits, and underscores,
+   * not starting with a digit and not being a keyword of the URI lexer.
+   * @return the index after the identifier or <code>start</code> if there is no such identifier
+   */
+  private int scanIdentifier(final String segment, final int start) {
+    int position = start;
+    while (position < segment.length()) {
+      final char c = segment.charAt(position);
+      if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_'
+          || position > start && c >= '0' && c <= '9') {
+        position++;
+      } else {
+        break;
+      }
+    }
+    if (position > start) {
+      final String identifier = segment.substring(start, position);
+      if (KEYWORDS.contains(identifier)
+          || "true".equalsIgnoreCase(identifier) || "false".equalsIgnoreCase(identifier)) {
+        return start;
+      }
+    }
+    return position;
+  }
+
+  /**
+   * Scans an integer literal or a string literal in single quotes.
+   * @return the index after the literal or <code>-1</code> if there is no such literal
+   */
+  private int scanLiteral(final String segment, final int start) {
+    int position = start;
+    if (position >= segment.length()) {
+      return -1;
+    }
+    if (segment.charAt(position) == '\'') {
+      position++;
+      while (position < segment.length()) {
+        if (segment.charAt(position) == '\'') {
+          if (position + 1 < segment.length() && segment.charAt(position + 1) == '\'') {
+            position += 2;
+          } else {
+            return position + 1;
+          }
+        } else {
+          position++;
+        }
+      }
+      return -1;
+    }
+
+    if (segment.charAt(position) == '-') {
+      position++;
+    }
+    final int digitsStart = position;
+    while (position < segment.length() && segment.charAt(position) >= '0' && segment.charAt(position) <= '9') {
+      position++;
+    }
+    final int digits = position - digitsStart;
+    if (digits == 0 || digits > MAX_INT_DIGITS) {
+      return -1;
+    }
+    // Literals such as dates, times, decimals, or GUIDs start with digits, too.
+    if (position < segment.length()) {
+      final char c = segment.charAt(position);
+      if (c != ')' && c != ',') {
+        return -1;
+      }
+    }
+    return position;
+  }
+}
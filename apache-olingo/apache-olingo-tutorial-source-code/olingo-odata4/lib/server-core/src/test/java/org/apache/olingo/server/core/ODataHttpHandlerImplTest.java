@@ -21,13 +21,30 @@ package org.apache.olingo.server.core;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
+import org.apache.olingo.commons.api.edm.provider.CsdlAbstractEdmProvider;
+import org.apache.olingo.commons.api.ex.ODataRuntimeException;
 import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataContent;
+import org.apache.olingo.server.api.ODataHttpHandler;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.debug.DefaultMetricsSupport;
+import org.apache.olingo.server.api.edmx.EdmxReference;
 import org.junit.Test;
 
 public class ODataHttpHandlerImplTest {
@@ -164,4 +181,64 @@ public class ODataHttpHandlerImplTest {
       assertEquals(rawServiceResolutionUri, odr.getRawServiceResolutionUri());
     }
   }
+
+  @Test
+  public void metricsRecordFailedWrites() throws Exception {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getMethod()).thenReturn("GET");
+    when(request.getRequestURL()).thenReturn(new StringBuffer("http://localhost/"));
+    when(request.getRequestURI()).thenReturn("/");
+    when(request.getContextPath()).thenReturn("");
+    when(request.getServletPath()).thenReturn("");
+    when(request.getHeaderNames()).thenReturn(Collections.enumeration(Collections.<String> emptyList()));
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    when(response.getOutputStream()).thenThrow(new IOException("connection closed"));
+
+    final OData odata = OData.newInstance();
+    ODataHttpHandler handler = odata.createHandler(odata.createServiceMetadata(
+        new CsdlAbstractEdmProvider() {}, Collections.<EdmxReference> emptyList()));
+    DefaultMetricsSupport metrics = new DefaultMetricsSupport();
+    handler.register(metrics);
+    try {
+      handler.process(request, response);
+      fail("Expected an ODataRuntimeException");
+    } catch (final ODataRuntimeException e) {
+      // expected
+    }
+
+    assertEquals(1, metrics.getRequests().size());
+    assertEquals(1, metrics.getRequests().values().iterator().next().getCount());
+    assertEquals(1, metrics.getMeasurements().get("ODataHttpHandlerImpl.convertToHttp").getCount());
+    assertEquals(1, metrics.getStatusCodes().size());
+  }
+
+  @Test
+  public void convertToHttpWritesODataContent() throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    HttpServletResponse hr = mock(HttpServletResponse.class);
+    when(hr.getOutputStream()).thenReturn(new ServletOutputStream() {
+      @Override
+      public void write(final int b) throws IOException {
+        output.write(b);
+      }
+    });
+
+    ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(200);
+    odResponse.setContent(new ByteArrayInputStream("buffered".getBytes("UTF-8")));
+    odResponse.setODataContent(new ODataContent() {
+      @Override
+      public void write(final OutputStream stream) {
+        try {
+          stream.write("streamed".getBytes("UTF-8"));
+        } catch (final IOException e) {
+          fail(e.getMessage());
+        }
+      }
+    });
+    ODataHttpHandlerImpl.convertToHttp(hr, odResponse);
+
+    verify(hr).setStatus(200);
+    assertEquals("streamed", output.toString("UTF-8"));
+  }
 }
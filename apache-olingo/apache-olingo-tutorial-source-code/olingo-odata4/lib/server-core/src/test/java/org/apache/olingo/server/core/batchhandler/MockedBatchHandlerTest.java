@@ -21,10 +21,13 @@ package org.apache.olingo.server.core.batchhandler;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -33,7 +36,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.ex.ODataException;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
@@ -44,16 +53,18 @@ import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.batch.BatchFacade;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestReader;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.processor.BatchProcessor;
 import org.apache.olingo.server.api.serializer.BatchSerializerException;
 import org.apache.olingo.server.core.ODataHandler;
-import org.apache.olingo.server.core.deserializer.batch.BatchLineReader;
+import org.apache.olingo.server.core.deserializer.batch.BatchPartContent;
 import org.apache.olingo.server.core.deserializer.batch.BatchParserCommon;
 import org.junit.Before;
 import org.junit.Test;
@@ -149,11 +160,7 @@ public class MockedBatchHandlerTest {
 
     batchHandler.process(request, response, true);
 
-    BatchLineReader reader =
-        new BatchLineReader(response.getContent());
-
-    final List<String> responseContent = reader.toList();
-    reader.close();
+    final List<String> responseContent = readLines(response.getContent());
 
     int line = 0;
     assertEquals(62, responseContent.size());
@@ -220,10 +227,7 @@ public class MockedBatchHandlerTest {
 
     batchHandler.process(request, response, true);
 
-    BatchLineReader reader =
-        new BatchLineReader(response.getContent());
-
-    final List<String> responseContent = reader.toList();
+    final List<String> responseContent = readLines(response.getContent());
     int line = 0;
 
     assertEquals(9, responseContent.size());
@@ -238,8 +242,6 @@ public class MockedBatchHandlerTest {
     assertTrue(responseContent.get(line++).contains("--batch_"));
 
     assertEquals(9, line);
-
-    reader.close();
   }
 
   @Test
@@ -299,11 +301,7 @@ public class MockedBatchHandlerTest {
 
     batchHandler.process(request, response, true);
 
-    BatchLineReader reader =
-        new BatchLineReader(response.getContent());
-
-    final List<String> responseContent = reader.toList();
-    reader.close();
+    final List<String> responseContent = readLines(response.getContent());
 
     int line = 0;
     assertEquals(47, responseContent.size());
@@ -417,11 +415,7 @@ public class MockedBatchHandlerTest {
 
     batchHandler.process(request, response, true);
 
-    BatchLineReader reader =
-        new BatchLineReader(response.getContent());
-
-    final List<String> responseContent = reader.toList();
-    reader.close();
+    final List<String> responseContent = readLines(response.getContent());
 
     int line = 0;
     assertEquals(44, responseContent.size());
@@ -519,6 +513,170 @@ public class MockedBatchHandlerTest {
     batchHandler.process(request, response, true);
   }
 
+  @Test
+  public void concurrentIndependentParts() throws Exception {
+    final String content = getPart("GET ESAllPrim(0)")
+        + getPart("GET ESAllPrim(1)")
+        + "--batch_12345" + CRLF
+        + "Content-Type: multipart/mixed; boundary=changeset_12345" + CRLF
+        + CRLF
+        + "--changeset_12345" + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + "Content-Id: 1" + CRLF
+        + CRLF
+        + "PUT ESAllPrim(1) HTTP/1.1" + CRLF
+        + "Content-Type: application/json;odata=verbose" + CRLF
+        + CRLF
+        + CRLF
+        + "--changeset_12345--" + CRLF
+        + getPart("GET ESAllPrim(2)")
+        + getPart("GET ESAllPrim(3)")
+        + "--batch_12345--";
+
+    // The first two and the last two GET requests wait for each other; this only succeeds if they run concurrently.
+    final CountDownLatch first = new CountDownLatch(2);
+    final CountDownLatch second = new CountDownLatch(2);
+    final AtomicBoolean concurrent = new AtomicBoolean(true);
+    final List<String> processed = Collections.synchronizedList(new ArrayList<String>());
+    when(oDataHandler.process(any(ODataRequest.class))).then(new Answer<ODataResponse>() {
+      @Override
+      public ODataResponse answer(final InvocationOnMock invocation) throws Throwable {
+        final ODataRequest request = (ODataRequest) invocation.getArguments()[0];
+        if (request.getMethod() == HttpMethod.GET) {
+          final CountDownLatch latch = processed.contains("PUT") ? second : first;
+          latch.countDown();
+          if (!latch.await(10, TimeUnit.SECONDS)) {
+            concurrent.set(false);
+          }
+        }
+        processed.add(request.getMethod().name());
+        final ODataResponse response = buildResponse(request);
+        response.setHeader(HttpHeader.LOCATION, request.getRawODataPath());
+        return response;
+      }
+    });
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      when(oDataHandler.getBatchExecutor()).thenReturn(executor);
+      final List<ODataResponsePart> responseParts = handleBatchRequests(content, false);
+
+      assertTrue(concurrent.get());
+      assertEquals(5, responseParts.size());
+      assertEquals("/ESAllPrim(0)", responseParts.get(0).getResponses().get(0).getHeader(HttpHeader.LOCATION));
+      assertEquals("/ESAllPrim(1)", responseParts.get(1).getResponses().get(0).getHeader(HttpHeader.LOCATION));
+      assertTrue(responseParts.get(2).isChangeSet());
+      assertEquals("/ESAllPrim(2)", responseParts.get(3).getResponses().get(0).getHeader(HttpHeader.LOCATION));
+      assertEquals("/ESAllPrim(3)", responseParts.get(4).getResponses().get(0).getHeader(HttpHeader.LOCATION));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void concurrentPartsStopAfterFailure() throws Exception {
+    final String content = getPart("GET ESAllPrim(0)")
+        + getPart("GET ESAllPrim(1)")
+        + getPart("GET ESAllPrim(2)")
+        + "--batch_12345--";
+
+    when(oDataHandler.process(any(ODataRequest.class))).then(new Answer<ODataResponse>() {
+      @Override
+      public ODataResponse answer(final InvocationOnMock invocation) throws Throwable {
+        final ODataRequest request = (ODataRequest) invocation.getArguments()[0];
+        final ODataResponse response = buildResponse(request);
+        if (request.getRawODataPath().equals("/ESAllPrim(1)")) {
+          response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
+        }
+        return response;
+      }
+    });
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      when(oDataHandler.getBatchExecutor()).thenReturn(executor);
+      List<ODataResponsePart> responseParts = handleBatchRequests(content, false);
+      assertEquals(2, responseParts.size());
+      assertEquals(HttpStatusCode.NOT_FOUND.getStatusCode(),
+          responseParts.get(1).getResponses().get(0).getStatusCode());
+
+      responseParts = handleBatchRequests(content, true);
+      assertEquals(3, responseParts.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void runningPartsAreInterruptedAfterFailure() throws Exception {
+    final String content = getPart("GET ESAllPrim(0)")
+        + getPart("GET ESAllPrim(1)")
+        + getPart("GET ESAllPrim(2)")
+        + "--batch_12345--";
+
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch interrupted = new CountDownLatch(1);
+    when(oDataHandler.process(any(ODataRequest.class))).then(new Answer<ODataResponse>() {
+      @Override
+      public ODataResponse answer(final InvocationOnMock invocation) throws Throwable {
+        final ODataRequest request = (ODataRequest) invocation.getArguments()[0];
+        final ODataResponse response = buildResponse(request);
+        if (request.getRawODataPath().equals("/ESAllPrim(1)")) {
+          started.await(10, TimeUnit.SECONDS);
+          response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
+        } else if (request.getRawODataPath().equals("/ESAllPrim(2)")) {
+          started.countDown();
+          try {
+            new CountDownLatch(1).await(10, TimeUnit.SECONDS);
+          } catch (final InterruptedException e) {
+            interrupted.countDown();
+            throw e;
+          }
+        }
+        return response;
+      }
+    });
+
+    final ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      when(oDataHandler.getBatchExecutor()).thenReturn(executor);
+      assertEquals(2, handleBatchRequests(content, false).size());
+      assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void malformedPartAfterProcessedParts() throws Exception {
+    final String malformedPart = "--batch_12345" + CRLF
+        + CRLF
+        + "GET ESAllPrim(1) HTTP/1.1" + CRLF
+        + CRLF
+        + CRLF;
+    when(oDataHandler.process(any(ODataRequest.class))).then(new Answer<ODataResponse>() {
+      @Override
+      public ODataResponse answer(final InvocationOnMock invocation) throws Throwable {
+        return buildResponse((ODataRequest) invocation.getArguments()[0]);
+      }
+    });
+
+    final List<ODataResponsePart> responseParts =
+        handleBatchRequests(getPart("GET ESAllPrim(0)") + malformedPart + getPart("GET ESAllPrim(2)")
+            + "--batch_12345--", true);
+    assertEquals(2, responseParts.size());
+    verify(oDataHandler).handleException(any(ODataRequest.class), any(ODataResponse.class),
+        any(ODataServerError.class), any(BatchDeserializerException.class));
+
+    try {
+      handleBatchRequests(malformedPart + getPart("GET ESAllPrim(2)") + "--batch_12345--", true);
+      fail("Expected exception not thrown.");
+    } catch (final BatchDeserializerException e) {
+      assertEquals(BatchDeserializerException.MessageKeys.MISSING_CONTENT_TYPE, e.getMessageKey());
+    }
+  }
+
   /*
    * Helper methods
    */
@@ -538,6 +696,40 @@ public class MockedBatchHandlerTest {
     return contentId;
   }
 
+  private String getPart(final String requestLine) {
+    return "--batch_12345" + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + CRLF
+        + requestLine + " HTTP/1.1" + CRLF
+        + CRLF
+        + CRLF;
+  }
+
+  private List<ODataResponsePart> handleBatchRequests(final String content, final boolean continueOnError)
+      throws Exception {
+    final OData odata = OData.newInstance();
+    final BatchFacade facade = new BatchFacadeImpl(oDataHandler, null, new BatchTestProcessorImpl(), true);
+    final BatchRequestReader reader = odata.createFixedFormatDeserializer().readBatchRequest(
+        new ByteArrayInputStream(content.getBytes("UTF-8")), "batch_12345",
+        BatchOptions.with().isStrict(true).rawBaseUri(BASE_URI).build());
+    try {
+      return facade.handleBatchRequests(reader, continueOnError);
+    } finally {
+      reader.close();
+    }
+  }
+
+  private List<String> readLines(final InputStream content) throws IOException {
+    final byte[] data = IOUtils.toByteArray(content);
+    final BatchPartContent message = new BatchPartContent(data, 0, data.length, 1);
+    final List<String> lines = new ArrayList<String>();
+    while (message.hasRemaining()) {
+      lines.add(message.readLine().toString());
+    }
+    return lines;
+  }
+
   private Map<String, List<String>> getMimeHeader() {
     return Collections.singletonMap(HttpHeader.CONTENT_TYPE, Collections.singletonList(BATCH_CONTENT_TYPE));
   }
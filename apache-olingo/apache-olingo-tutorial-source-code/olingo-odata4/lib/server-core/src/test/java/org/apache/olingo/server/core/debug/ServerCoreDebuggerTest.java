@@ -20,22 +20,31 @@ package org.apache.olingo.server.core.debug;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.ex.ODataRuntimeException;
+import org.apache.olingo.commons.api.http.HttpMethod;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.debug.DebugInformation;
 import org.apache.olingo.server.api.debug.DebugSupport;
+import org.apache.olingo.server.api.debug.DefaultMetricsSupport;
+import org.apache.olingo.server.api.debug.DefaultMetricsSupportMXBean.Statistics;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -108,4 +117,46 @@ public class ServerCoreDebuggerTest {
 
     assertEquals(odResponse, debugResponse);
   }
+
+  @Test
+  public void metricsOutsideDebugMode() throws Exception {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    DefaultMetricsSupport metrics = new DefaultMetricsSupport();
+    debugger.setMetricsSupport(metrics);
+
+    for (int i = 0; i < 3; i++) {
+      debugger.resolveDebugMode(request);
+      assertFalse(debugger.isDebugMode());
+      final long timeStarted = System.nanoTime();
+      final int handle = debugger.startRuntimeMeasurement("ODataHandler", "process");
+      // measurements of finished requests are discarded
+      assertEquals(0, handle);
+      debugger.stopRuntimeMeasurement(handle);
+      debugger.recordRequest(HttpMethod.GET, null, HttpStatusCode.OK.getStatusCode(), timeStarted);
+    }
+    debugger.recordRequest(HttpMethod.POST, null, HttpStatusCode.BAD_REQUEST.getStatusCode(), System.nanoTime());
+
+    final Map<String, Statistics> measurements = metrics.getMeasurements();
+    assertEquals(1, measurements.size());
+    final Statistics process = measurements.get("ODataHandler.process");
+    assertEquals(3, process.getCount());
+    assertTrue(process.getMedianNanoseconds() <= process.getMaxNanoseconds());
+    assertTrue(process.getMeanNanoseconds() <= process.getMaxNanoseconds());
+    assertEquals(3, metrics.getRequests().get("GET unknown").getCount());
+    assertEquals(1, metrics.getRequests().get("POST unknown").getCount());
+    assertEquals(Long.valueOf(3), metrics.getStatusCodes().get(HttpStatusCode.OK.getStatusCode()));
+    assertEquals(Long.valueOf(1), metrics.getStatusCodes().get(HttpStatusCode.BAD_REQUEST.getStatusCode()));
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName("org.apache.olingo:type=Metrics,name=ServerCoreDebuggerTest");
+    server.registerMBean(metrics, name);
+    try {
+      assertEquals(2, ((TabularData) server.getAttribute(name, "Requests")).size());
+      server.invoke(name, "reset", null, null);
+      assertTrue(metrics.getMeasurements().isEmpty());
+      assertTrue(metrics.getStatusCodes().isEmpty());
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
 }
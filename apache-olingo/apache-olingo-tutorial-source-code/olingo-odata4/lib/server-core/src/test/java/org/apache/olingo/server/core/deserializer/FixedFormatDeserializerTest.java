@@ -21,6 +21,13 @@ package org.apache.olingo.server.core.deserializer;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.EdmProperty;
@@ -55,6 +62,27 @@ public class FixedFormatDeserializerTest {
                 + "ABCDEFGHIJKLMNOPQRSTUVWXYZABCDEFGHIJKLMNOPQRSTUVWXYZABCDEFGHIJKLMNOPQRSTUVWXYZ")).length);
   }
 
+  @Test
+  public void binaryToChannel() throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    assertEquals(3, deserializer.binary(IOUtils.toInputStream("ABC"), Channels.newChannel(output)));
+    assertEquals("ABC", output.toString("UTF-8"));
+
+    final File file = File.createTempFile("binary", ".bin");
+    try {
+      FileUtils.writeStringToFile(file, "X", "UTF-8");
+      final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+      final FileChannel channel = randomAccessFile.getChannel();
+      channel.position(1);
+      assertEquals(3, deserializer.binary(IOUtils.toInputStream("ABC"), channel));
+      assertEquals(4, channel.position());
+      randomAccessFile.close();
+      assertEquals("XABC", FileUtils.readFileToString(file, "UTF-8"));
+    } finally {
+      file.delete();
+    }
+  }
+
   @Test
   public void primitiveValue() throws Exception {
     EdmProperty property = Mockito.mock(EdmProperty.class);
@@ -20,8 +20,9 @@ package org.apache.olingo.server.core.deserializer.batch;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
-import java.util.ArrayList;
+import java.nio.charset.Charset;
 import java.util.List;
 
 import org.apache.olingo.commons.api.http.HttpHeader;
@@ -39,7 +40,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchPartContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -59,7 +60,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchPartContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -78,7 +79,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchPartContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -101,7 +102,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchPartContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -120,7 +121,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchPartContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -138,7 +139,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchPartContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -156,7 +157,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchPartContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -167,61 +168,50 @@ public class BatchParserCommonTest {
   }
 
   @Test
-  public void testRemoveEndingCRLF() {
-    String line = "Test\r\n";
-    assertEquals("Test", BatchParserCommon.removeEndingCRLF(new Line(line, 1)).toString());
-  }
-
-  @Test
-  public void testRemoveLastEndingCRLF() {
-    String line = "Test\r\n\r\n";
-    assertEquals("Test\r\n", BatchParserCommon.removeEndingCRLF(new Line(line, 1)).toString());
-  }
-
-  @Test
-  public void testRemoveEndingCRLFWithWS() {
-    String line = "Test\r\n            ";
-    assertEquals("Test", BatchParserCommon.removeEndingCRLF(new Line(line, 1)).toString());
-  }
-
-  @Test
-  public void testRemoveEndingCRLFNothingToRemove() {
-    String line = "Hallo\r\nBla";
-    assertEquals("Hallo\r\nBla", BatchParserCommon.removeEndingCRLF(new Line(line, 1)).toString());
-  }
-
-  @Test
-  public void testRemoveEndingCRLFAll() {
-    String line = "\r\n";
-    assertEquals("", BatchParserCommon.removeEndingCRLF(new Line(line, 1)).toString());
-  }
+  public void testRemainingContentAfterHeader() throws Exception {
+    String[] messageRaw = new String[] {
+        "Content-Id: 1" + CRLF,
+        CRLF,
+        "GET ESAllPrim HTTP/1.1" + CRLF
+    };
+    BatchPartContent message = toContent(messageRaw);
 
-  @Test
-  public void testRemoveEndingCRLFSpace() {
-    String line = "\r\n                      ";
-    assertEquals("", BatchParserCommon.removeEndingCRLF(new Line(line, 1)).toString());
+    final Header header = BatchParserCommon.consumeHeaders(message);
+    assertEquals(1, header.getLineNumber());
+    assertEquals("1", header.getHeader(HttpHeader.CONTENT_ID));
+    assertEquals(CRLF, message.readLine().toString());
+    assertEquals("GET ESAllPrim HTTP/1.1" + CRLF, message.readLine().toString());
+    assertNull(message.readLine());
   }
 
   @Test
-  public void testRemoveLastEndingCRLFWithWS() {
-    String line = "Test            \r\n";
-    assertEquals("Test            ", BatchParserCommon.removeEndingCRLF(new Line(line, 1)).toString());
+  public void testCharset() throws Exception {
+    final Header header = BatchParserCommon.consumeHeaders(toContent(new String[] {
+        "Content-Type: multipart/mixed; charset=ISO-8859-1; boundary=changeset_1" + CRLF }));
+    assertEquals(Charset.forName("ISO-8859-1"), BatchParserCommon.getCharset(header, BatchPartContent.DEFAULT_CHARSET));
   }
 
   @Test
-  public void testRemoveLastEndingCRLFWithWSLong() {
-    String line = "Test            \r\nTest2    \r\n";
-    assertEquals("Test            \r\nTest2    ", BatchParserCommon.removeEndingCRLF(new Line(line, 1)).toString());
-  }
-
-  private List<Line> toLineList(final String[] messageRaw) {
-    final List<Line> lineList = new ArrayList<Line>();
-    int counter = 1;
-
+  public void testDefaultCharset() throws Exception {
+    final Charset defaultCharset = Charset.forName("UTF-16");
+    assertEquals(defaultCharset, BatchParserCommon.getCharset(
+        BatchParserCommon.consumeHeaders(toContent(new String[] { "Content-Type: application/http" + CRLF })),
+        defaultCharset));
+    assertEquals(defaultCharset, BatchParserCommon.getCharset(
+        BatchParserCommon.consumeHeaders(toContent(new String[] { "Content-Id: 1" + CRLF })),
+        defaultCharset));
+    assertEquals(defaultCharset, BatchParserCommon.getCharset(
+        BatchParserCommon.consumeHeaders(toContent(new String[] {
+            "Content-Type: application/http; charset=unknown" + CRLF })),
+        defaultCharset));
+  }
+
+  private BatchPartContent toContent(final String[] messageRaw) throws Exception {
+    final StringBuilder message = new StringBuilder();
     for (final String currentLine : messageRaw) {
-      lineList.add(new Line(currentLine, counter++));
+      message.append(currentLine);
     }
-
-    return lineList;
+    final byte[] data = message.toString().getBytes("UTF-8");
+    return new BatchPartContent(data, 0, data.length, 1);
   }
 }
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class BatchPartContentTest {
+
+  private static final String TEXT_COMBINED = "Test\r" +
+      "Test2\r\n" +
+      "Test3\n" +
+      "Test4\r" +
+      "\r" +
+      "\r\n" +
+      "\r\n" +
+      "Test5\n" +
+      "Test6\r\n" +
+      "Test7\n" +
+      "\n";
+
+  @Test
+  public void testSimpleText() throws Exception {
+    final String TEXT = "Test";
+    BatchPartContent content = create(TEXT);
+
+    assertEquals(TEXT, content.readLine().toString());
+    assertNull(content.readLine());
+    assertNull(content.readLine());
+  }
+
+  @Test
+  public void testNoText() throws Exception {
+    BatchPartContent content = create("");
+
+    assertFalse(content.hasRemaining());
+    assertNull(content.peekLine());
+    assertNull(content.readLine());
+    assertNull(content.readLine());
+  }
+
+  @Test
+  public void testCRLF() throws Exception {
+    final String TEXT = "Test\r\n" +
+        "Test2";
+
+    BatchPartContent content = create(TEXT);
+
+    assertEquals("Test\r\n", content.readLine().toString());
+    assertEquals("Test2", content.readLine().toString());
+    assertNull(content.readLine());
+    assertNull(content.readLine());
+  }
+
+  @Test
+  public void testLF() throws Exception {
+    final String TEXT = "Test\n" +
+        "Test2";
+
+    BatchPartContent content = create(TEXT);
+
+    assertEquals("Test\n", content.readLine().toString());
+    assertEquals("Test2", content.readLine().toString());
+    assertNull(content.readLine());
+    assertNull(content.readLine());
+  }
+
+  @Test
+  public void testCR() throws Exception {
+    final String TEXT = "Test\r" +
+        "Test2";
+
+    BatchPartContent content = create(TEXT);
+
+    assertEquals("Test\r", content.readLine().toString());
+    assertEquals("Test2", content.readLine().toString());
+    assertNull(content.readLine());
+    assertNull(content.readLine());
+  }
+
+  @Test
+  public void testCombined() throws Exception {
+    assertCombined(create(TEXT_COMBINED));
+  }
+
+  @Test
+  public void testDoubleLF() throws Exception {
+    final String TEXT = "Test\r" +
+        "\r";
+
+    BatchPartContent content = create(TEXT);
+
+    assertEquals("Test\r", content.readLine().toString());
+    assertEquals("\r", content.readLine().toString());
+    assertNull(content.readLine());
+  }
+
+  @Test
+  public void testPeekLine() throws Exception {
+    BatchPartContent content = create("Test\r\nTest2");
+
+    assertEquals(1, content.getLineNumber());
+    assertEquals("Test\r\n", content.peekLine().toString());
+    assertEquals("Test\r\n", content.peekLine().toString());
+    assertEquals(1, content.readLine().getLineNumber());
+    assertEquals(2, content.getLineNumber());
+    assertEquals("Test2", IOUtils.toString(content.getInputStream()));
+    assertEquals("Te", IOUtils.toString(content.getInputStream(2)));
+  }
+
+  @Test
+  public void testCharset() throws Exception {
+    final byte[] data = "\u00e4\r\n\u00e4".getBytes("ISO-8859-1");
+    BatchPartContent content = new BatchPartContent(data, 0, data.length, 1);
+    assertEquals("\ufffd\r\n", content.peekLine().toString());
+
+    content.setCharset(Charset.forName("ISO-8859-1"));
+    assertEquals("\u00e4\r\n", content.readLine().toString());
+    assertEquals("\u00e4", content.readLine().toString());
+  }
+
+  @Test
+  public void testDefaultCharset() throws Exception {
+    assertEquals("\u00e4 \u20ac\r\n", create("\u00e4 \u20ac\r\n").readLine().toString());
+  }
+
+  @Test
+  public void testIsEmptyOrBlankLine() throws Exception {
+    assertTrue(create("").isEmptyOrBlankLine());
+    assertTrue(create(" \t\r\n").isEmptyOrBlankLine());
+    assertFalse(create("\r\n\r\n").isEmptyOrBlankLine());
+    assertFalse(create("Test").isEmptyOrBlankLine());
+  }
+
+  @Test
+  public void testSplitCombinedReadByteByByte() throws Exception {
+    final BatchPartSplitter splitter = new BatchPartSplitter(new ByteByByteInputStream(
+        ("--boundary\r\n" + TEXT_COMBINED + "\r\n--boundary--").getBytes("UTF-8")), "boundary", 1);
+
+    final BatchPartContent content = splitter.nextPart();
+    assertEquals(2, content.getLineNumber());
+    assertCombined(content);
+    assertNull(splitter.nextPart());
+  }
+
+  @Test
+  public void testLineEqualsAndHashCode() {
+    Line l1 = new Line("The first line", 1);
+    Line l2 = new Line("The first line", 1);
+    Line l3 = new Line("The second line", 2);
+
+    assertEquals(l1, l2);
+    assertFalse(l1.equals(l3));
+    assertTrue(l1.hashCode() != l3.hashCode());
+  }
+
+  private void assertCombined(final BatchPartContent content) {
+    assertEquals("Test\r", content.readLine().toString());
+    assertEquals("Test2\r\n", content.readLine().toString());
+    assertEquals("Test3\n", content.readLine().toString());
+    assertEquals("Test4\r", content.readLine().toString());
+    assertEquals("\r", content.readLine().toString());
+    assertEquals("\r\n", content.readLine().toString());
+    assertEquals("\r\n", content.readLine().toString());
+    assertEquals("Test5\n", content.readLine().toString());
+    assertEquals("Test6\r\n", content.readLine().toString());
+    assertEquals("Test7\n", content.readLine().toString());
+    assertEquals("\n", content.readLine().toString());
+    assertNull(content.readLine());
+    assertNull(content.readLine());
+  }
+
+  private BatchPartContent create(final String inputString) throws Exception {
+    final byte[] data = inputString.getBytes("UTF-8");
+    return new BatchPartContent(data, 0, data.length, 1);
+  }
+
+  /** Returns at most one byte per read, like a slow network connection. */
+  private static class ByteByByteInputStream extends InputStream {
+    private final InputStream in;
+
+    public ByteByByteInputStream(final byte[] data) {
+      in = new ByteArrayInputStream(data);
+    }
+
+    @Override
+    public int read() throws IOException {
+      return in.read();
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      return in.read(b, off, Math.min(len, 1));
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
+import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.junit.Test;
+
+public class BatchRequestReaderTest {
+
+  private static final String SERVICE_ROOT = "http://localhost/odata";
+  private static final String CRLF = "\r\n";
+  private static final String BOUNDARY = "batch_8194-cf13-1f56";
+  private static final String GET_REQUEST = ""
+      + "Content-Type: application/http" + CRLF
+      + "Content-Transfer-Encoding: binary" + CRLF
+      + CRLF
+      + "GET ESAllPrim(32767) HTTP/1.1" + CRLF
+      + CRLF
+      + CRLF;
+
+  @Test
+  public void partIsReturnedBeforeFollowingPartsAreRead() throws Exception {
+    final RecordingInputStream rest = new RecordingInputStream(IOUtils.toInputStream(GET_REQUEST
+        + "--" + BOUNDARY + "--"));
+    final InputStream first = IOUtils.toInputStream("--" + BOUNDARY + CRLF + GET_REQUEST + "--" + BOUNDARY + CRLF);
+    final BatchRequestReaderImpl reader = new BatchRequestReaderImpl(new SequenceInputStream(first, rest), BOUNDARY,
+        BatchOptions.with().rawBaseUri(SERVICE_ROOT).build());
+
+    assertTrue(reader.hasNext());
+    assertEquals(HttpMethod.GET, reader.next().getRequests().get(0).getMethod());
+    assertFalse(rest.isRead);
+
+    assertTrue(reader.hasNext());
+    reader.next();
+    assertTrue(rest.isRead);
+    assertFalse(reader.hasNext());
+    reader.close();
+  }
+
+  @Test
+  public void binaryBody() throws Exception {
+    final byte[] content = new byte[256];
+    for (int index = 0; index < content.length; index++) {
+      content[index] = (byte) index;
+    }
+    final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    batch.write(("--" + BOUNDARY + CRLF
+        + "Content-Type: multipart/mixed; boundary=changeset_f980-1cb6-94dd" + CRLF
+        + CRLF
+        + "--changeset_f980-1cb6-94dd" + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + "Content-ID: 1" + CRLF
+        + CRLF
+        + "PUT ESMedia(1)/$value HTTP/1.1" + CRLF
+        + "Content-Type: application/octet-stream" + CRLF
+        + "Content-Length: " + content.length + CRLF
+        + CRLF).getBytes("ISO-8859-1"));
+    batch.write(content);
+    batch.write((CRLF
+        + "--changeset_f980-1cb6-94dd--" + CRLF
+        + CRLF
+        + "--" + BOUNDARY + "--").getBytes("ISO-8859-1"));
+
+    final BatchRequestReaderImpl reader = new BatchRequestReaderImpl(new ByteArrayInputStream(batch.toByteArray()),
+        BOUNDARY, BatchOptions.with().rawBaseUri(SERVICE_ROOT).build());
+    final BatchRequestPart part = reader.next();
+    assertTrue(part.isChangeSet());
+    final ODataRequest request = part.getRequests().get(0);
+    assertEquals(HttpMethod.PUT, request.getMethod());
+    assertArrayEquals(content, IOUtils.toByteArray(request.getBody()));
+    assertFalse(reader.hasNext());
+    reader.close();
+  }
+
+  @Test
+  public void nonAsciiQuery() throws Exception {
+    final String filter = "$filter=PropertyString%20eq%20'\u00e4'";
+    final BatchRequestReaderImpl reader = new BatchRequestReaderImpl(new ByteArrayInputStream(("--" + BOUNDARY + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + CRLF
+        + "GET ESAllPrim?" + filter + " HTTP/1.1" + CRLF
+        + "Custom-Header: \u00e4" + CRLF
+        + CRLF
+        + CRLF
+        + "--" + BOUNDARY + "--").getBytes("UTF-8")), BOUNDARY, BatchOptions.with().rawBaseUri(SERVICE_ROOT).build());
+    final ODataRequest request = reader.next().getRequests().get(0);
+    assertEquals(filter, request.getRawQueryPath());
+    assertEquals("\u00e4", request.getHeader("Custom-Header"));
+    assertFalse(reader.hasNext());
+    reader.close();
+  }
+
+  @Test
+  public void charsetOfChangeSet() throws Exception {
+    final String filter = "$filter=PropertyString%20eq%20'\u00e4'";
+    final BatchRequestReaderImpl reader = new BatchRequestReaderImpl(new ByteArrayInputStream(("--" + BOUNDARY + CRLF
+        + "Content-Type: multipart/mixed; charset=ISO-8859-1; boundary=changeset_f980-1cb6-94dd" + CRLF
+        + CRLF
+        + "--changeset_f980-1cb6-94dd" + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + "Content-ID: 1" + CRLF
+        + CRLF
+        + "DELETE ESAllPrim(1)?" + filter + " HTTP/1.1" + CRLF
+        + CRLF
+        + CRLF
+        + "--changeset_f980-1cb6-94dd--" + CRLF
+        + CRLF
+        + "--" + BOUNDARY + "--").getBytes("ISO-8859-1")), BOUNDARY,
+        BatchOptions.with().rawBaseUri(SERVICE_ROOT).build());
+    final BatchRequestPart part = reader.next();
+    assertTrue(part.isChangeSet());
+    assertEquals(filter, part.getRequests().get(0).getRawQueryPath());
+    assertFalse(reader.hasNext());
+    reader.close();
+  }
+
+  @Test
+  public void missingCloseDelimiterIsDetectedAtTheEnd() throws Exception {
+    final BatchRequestReaderImpl reader = new BatchRequestReaderImpl(
+        IOUtils.toInputStream("--" + BOUNDARY + CRLF + GET_REQUEST + "--" + BOUNDARY + CRLF + GET_REQUEST), BOUNDARY,
+        BatchOptions.with().rawBaseUri(SERVICE_ROOT).build());
+    assertEquals(HttpMethod.GET, reader.next().getRequests().get(0).getMethod());
+    try {
+      reader.hasNext();
+      fail("Expected exception not thrown.");
+    } catch (final BatchDeserializerException e) {
+      assertEquals(BatchDeserializerException.MessageKeys.MISSING_CLOSE_DELIMITER, e.getMessageKey());
+    }
+    reader.close();
+  }
+
+  private static class RecordingInputStream extends InputStream {
+    private final InputStream in;
+    private boolean isRead = false;
+
+    public RecordingInputStream(final InputStream in) {
+      this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+      isRead = true;
+      return in.read();
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      isRead = true;
+      return in.read(b, off, len);
+    }
+  }
+}
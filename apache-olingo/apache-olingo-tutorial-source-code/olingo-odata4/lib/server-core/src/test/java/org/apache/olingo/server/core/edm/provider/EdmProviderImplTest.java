@@ -28,6 +28,7 @@ import static org.mockito.Mockito.when;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.olingo.commons.api.ex.ODataException;
@@ -168,6 +169,23 @@ public class EdmProviderImplTest {
     localEdm.getEntityContainer(null);
   }
 
+  @Test
+  public void schemaWithoutAlias() throws Exception {
+    CsdlEdmProvider localProvider = mock(CsdlEdmProvider.class);
+    when(localProvider.getAliasInfos()).thenReturn(Arrays.asList(
+        new CsdlAliasInfo().setNamespace(FQN.getNamespace()),
+        new CsdlAliasInfo().setAlias("alias").setNamespace("namespace")));
+    when(localProvider.getEntityContainerInfo(null))
+        .thenReturn(new CsdlEntityContainerInfo().setContainerName(FQN));
+    when(localProvider.getEntityType(FQN))
+        .thenReturn(new CsdlEntityType().setName(FQN.getName()).setKey(new ArrayList<CsdlPropertyRef>()));
+
+    Edm localEdm = new EdmProviderImpl(localProvider);
+    assertNotNull(localEdm.getEntityContainer());
+    assertNotNull(localEdm.getEntityType(FQN));
+    assertNull(localEdm.getEntityType(new FullQualifiedName("alias", FQN.getName())));
+  }
+
   @Test
   public void getEntityContainer() {
     EdmEntityContainer entityContainer = edm.getEntityContainer(FQN);
@@ -23,6 +23,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -36,7 +37,7 @@ import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
-import org.apache.olingo.server.core.deserializer.batch.BatchLineReader;
+import org.apache.olingo.server.core.deserializer.batch.BatchPartContent;
 import org.junit.Test;
 
 public class BatchResponseSerializerTest {
@@ -67,10 +68,7 @@ public class BatchResponseSerializerTest {
     BatchResponseSerializer serializer = new BatchResponseSerializer();
     final InputStream content = serializer.serialize(parts, BOUNDARY);
     assertNotNull(content);
-    final BatchLineReader reader =
-        new BatchLineReader(content);
-    final List<String> body = reader.toList();
-    reader.close();
+    final List<String> body = readLines(content);
 
     int line = 0;
     assertEquals(24, body.size());
@@ -123,10 +121,7 @@ public class BatchResponseSerializerTest {
     BatchResponseSerializer serializer = new BatchResponseSerializer();
     final InputStream content = serializer.serialize(parts, BOUNDARY);
     assertNotNull(content);
-    final BatchLineReader reader =
-            new BatchLineReader(content);
-    final List<String> body = reader.toList();
-    reader.close();
+    final List<String> body = readLines(content);
 
     int line = 0;
     assertEquals(24, body.size());
@@ -182,10 +177,7 @@ public class BatchResponseSerializerTest {
     BatchResponseSerializer serializer = new BatchResponseSerializer();
     final InputStream content = serializer.serialize(parts, BOUNDARY);
     assertNotNull(content);
-    final BatchLineReader reader =
-        new BatchLineReader(content);
-    final List<String> body = reader.toList();
-    reader.close();
+    final List<String> body = readLines(content);
 
     int line = 0;
     assertEquals(25, body.size());
@@ -243,10 +235,7 @@ public class BatchResponseSerializerTest {
     BatchResponseSerializer serializer = new BatchResponseSerializer();
     final InputStream content = serializer.serialize(parts, BOUNDARY);
     assertNotNull(content);
-    final BatchLineReader reader =
-        new BatchLineReader(content);
-    final List<String> body = reader.toList();
-    reader.close();
+    final List<String> body = readLines(content);
 
     assertEquals(25, body.size());
     // TODO: check: with latest change in BatchResponseSerializer is not possible
@@ -279,10 +268,7 @@ public class BatchResponseSerializerTest {
     BatchResponseSerializer serializer = new BatchResponseSerializer();
     final InputStream content = serializer.serialize(parts, BOUNDARY);
     assertNotNull(content);
-    final BatchLineReader reader =
-            new BatchLineReader(content);
-    final List<String> body = reader.toList();
-    reader.close();
+    final List<String> body = readLines(content);
 
     int line = 0;
     assertEquals(24, body.size());
@@ -334,10 +320,7 @@ public class BatchResponseSerializerTest {
     BatchResponseSerializer serializer = new BatchResponseSerializer();
     final InputStream content = serializer.serialize(parts, BOUNDARY);
     assertNotNull(content);
-    final BatchLineReader reader =
-        new BatchLineReader(content);
-    final List<String> body = reader.toList();
-    reader.close();
+    final List<String> body = readLines(content);
 
     int line = 0;
     assertEquals(23, body.size());
@@ -382,10 +365,7 @@ public class BatchResponseSerializerTest {
     final InputStream content = serializer.serialize(parts, BOUNDARY);
 
     assertNotNull(content);
-    final BatchLineReader reader =
-        new BatchLineReader(content);
-    final List<String> body = reader.toList();
-    reader.close();
+    final List<String> body = readLines(content);
 
     int line = 0;
     assertEquals(10, body.size());
@@ -418,10 +398,7 @@ public class BatchResponseSerializerTest {
     final InputStream content = serializer.serialize(parts, BOUNDARY);
 
     assertNotNull(content);
-    final BatchLineReader reader =
-            new BatchLineReader(content);
-    final List<String> body = reader.toList();
-    reader.close();
+    final List<String> body = readLines(content);
 
     int line = 0;
     assertEquals(10, body.size());
@@ -453,10 +430,7 @@ public class BatchResponseSerializerTest {
 
     assertNotNull(content);
 
-    final BatchLineReader reader =
-        new BatchLineReader(content);
-    final List<String> body = reader.toList();
-    reader.close();
+    final List<String> body = readLines(content);
 
     int line = 0;
     assertEquals(14, body.size());
@@ -476,6 +450,33 @@ public class BatchResponseSerializerTest {
     assertTrue(body.get(line++).contains("--batch_"));
   }
 
+  /**
+   * Splits the serialized response into lines. Header lines are decoded as ISO-8859-1,
+   * bodies with the charset of the preceding Content-Type header (default UTF-8).
+   */
+  private List<String> readLines(final InputStream content) throws IOException {
+    final byte[] data = IOUtils.toByteArray(content);
+    final BatchPartContent message = new BatchPartContent(data, 0, data.length, 1);
+    final List<String> lines = new ArrayList<String>();
+    Charset bodyCharset = BatchPartContent.DEFAULT_CHARSET;
+    int blankLines = 0;
+    while (message.hasRemaining()) {
+      message.setCharset(blankLines >= 2 ? bodyCharset : CS_ISO_8859_1);
+      final String line = message.readLine().toString();
+      if (CRLF.equals(line)) {
+        blankLines++;
+      } else if (line.startsWith("--")) {
+        blankLines = 0;
+      } else if (blankLines < 2 && line.startsWith(HttpHeader.CONTENT_TYPE + ":")) {
+        final String charset = ContentType.create(line.substring(HttpHeader.CONTENT_TYPE.length() + 1).trim())
+            .getParameter(ContentType.PARAMETER_CHARSET);
+        bodyCharset = charset == null ? BatchPartContent.DEFAULT_CHARSET : Charset.forName(charset);
+      }
+      lines.add(line);
+    }
+    return lines;
+  }
+
   /**
    * Generates a string with given length containing random upper case characters ([A-Z]).
    * @param len length of the generated string
@@ -20,6 +20,13 @@ package org.apache.olingo.server.core.serializer;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.channels.Channels;
+
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
@@ -43,6 +50,28 @@ public class FixedFormatSerializerTest {
     assertEquals("ABC", IOUtils.toString(serializer.binary(new byte[] { 0x41, 0x42, 0x43 })));
   }
 
+  @Test
+  public void binaryChannel() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    serializer.binary(Channels.newChannel(new ByteArrayInputStream(new byte[] { 0x41, 0x42, 0x43 })))
+        .getODataContent().write(output);
+    assertEquals("ABC", output.toString("UTF-8"));
+
+    final File file = File.createTempFile("binary", ".bin");
+    try {
+      FileUtils.writeStringToFile(file, "ABCDEF", "UTF-8");
+      final FileInputStream input = new FileInputStream(file);
+      input.skip(2);
+      output = new ByteArrayOutputStream();
+      final BinaryContent content = (BinaryContent) serializer.binary(input.getChannel()).getODataContent();
+      assertEquals(4, content.getSize());
+      content.getRange(1, 2).write(output);
+      assertEquals("DE", output.toString("UTF-8"));
+    } finally {
+      file.delete();
+    }
+  }
+
   @Test
   public void count() throws Exception {
     assertEquals("42", IOUtils.toString(serializer.count(42)));
@@ -35,11 +35,13 @@ import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.debug.DefaultDebugSupport;
 import org.apache.olingo.server.api.edmx.EdmxReference;
 import org.apache.olingo.server.api.edmx.EdmxReferenceInclude;
+import org.apache.olingo.server.api.uri.UriInfoCache;
 import org.apache.olingo.server.tecsvc.data.DataProvider;
 import org.apache.olingo.server.tecsvc.processor.TechnicalActionProcessor;
 import org.apache.olingo.server.tecsvc.processor.TechnicalBatchProcessor;
 import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
 import org.apache.olingo.server.tecsvc.processor.TechnicalPrimitiveComplexProcessor;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.options.ParallelQueryOptions;
 import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,18 +61,64 @@ public class TechnicalServlet extends HttpServlet {
    */
   private static final String metadataETag = "W/\"" + UUID.randomUUID() + "\"";
 
+  /**
+   * Init parameter with the number of threads used to apply system query options to large collections;
+   * system query options are applied sequentially if it is not set.
+   */
+  public static final String QUERY_OPTIONS_PARALLELISM = "queryOptionsParallelism";
+  /** Init parameter with the minimal size of collections to which system query options are applied in parallel */
+  public static final String QUERY_OPTIONS_PARALLEL_THRESHOLD = "queryOptionsParallelThreshold";
+  private static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+
+  /** Whether this servlet has enabled the parallel execution of system query options. */
+  private boolean parallelQueryOptions = false;
+
+  /*
+   * The metadata and the cache of parsed URIs are shared by all requests;
+   * only the handler is created per request because its processors work on the data of the session.
+   */
+  private transient OData odata;
+  private transient ServiceMetadata serviceMetadata;
+  private transient UriInfoCache uriInfoCache;
+
+  @Override
+  public void init() throws ServletException {
+    odata = OData.newInstance();
+    EdmxReference reference = new EdmxReference(URI.create("../v4.0/cs02/vocabularies/Org.OData.Core.V1.xml"));
+    reference.addInclude(new EdmxReferenceInclude("Org.OData.Core.V1", "Core"));
+    serviceMetadata = odata.createServiceMetadata(
+        new EdmTechProvider(),
+        Collections.singletonList(reference),
+        new MetadataETagSupport(metadataETag));
+    uriInfoCache = new UriInfoCache();
+
+    final String parallelism = getInitParameter(QUERY_OPTIONS_PARALLELISM);
+    if (parallelism != null) {
+      final String threshold = getInitParameter(QUERY_OPTIONS_PARALLEL_THRESHOLD);
+      try {
+        ParallelQueryOptions.enable(Integer.parseInt(parallelism),
+            threshold == null ? DEFAULT_PARALLEL_THRESHOLD : Integer.parseInt(threshold));
+        parallelQueryOptions = true;
+      } catch (final IllegalArgumentException e) {
+        throw new ServletException("Invalid parallel query option configuration.", e);
+      }
+      LOG.info("System query options are applied in parallel with " + parallelism + " threads.");
+    }
+  }
+
+  @Override
+  public void destroy() {
+    // the thread pool is shared with other servlets and is shut down when the last one has disabled it
+    if (parallelQueryOptions) {
+      ParallelQueryOptions.disable();
+      parallelQueryOptions = false;
+    }
+  }
+
   @Override
   protected void service(final HttpServletRequest request, HttpServletResponse response)
       throws ServletException, IOException {
     try {
-      OData odata = OData.newInstance();
-      EdmxReference reference = new EdmxReference(URI.create("../v4.0/cs02/vocabularies/Org.OData.Core.V1.xml"));
-      reference.addInclude(new EdmxReferenceInclude("Org.OData.Core.V1", "Core"));
-      final ServiceMetadata serviceMetadata = odata.createServiceMetadata(
-          new EdmTechProvider(),
-          Collections.singletonList(reference),
-          new MetadataETagSupport(metadataETag));
-
       HttpSession session = request.getSession(true);
       DataProvider dataProvider = (DataProvider) session.getAttribute(DataProvider.class.getName());
       if (dataProvider == null) {
@@ -80,6 +128,7 @@ public class TechnicalServlet extends HttpServlet {
       }
 
       ODataHttpHandler handler = odata.createHandler(serviceMetadata);
+      handler.setUriInfoCache(uriInfoCache);
       // Register processors.
       handler.register(new TechnicalEntityProcessor(dataProvider, serviceMetadata));
       handler.register(new TechnicalPrimitiveComplexProcessor(dataProvider, serviceMetadata));
@@ -23,10 +23,13 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -67,6 +70,14 @@ public class DataProvider {
   private AtomicLong KEY_STRING = new AtomicLong(0);
 
   private Map<String, EntityCollection> data;
+  /** Key indexes of the entity sets in {@link #data}, built on first use; the value is null until then. */
+  private final Map<EntityCollection, KeyIndex> keyIndexes = new IdentityHashMap<EntityCollection, KeyIndex>();
+  /**
+   * Entities of the entity sets in {@link #data} linking to the entity used as map key, built on first use.
+   * Links are only added to this index, never removed; each referrer is checked again before its links are changed.
+   * Entities are compared by identity because their hash codes change whenever their content changes.
+   */
+  private Map<Entity, Set<Entity>> referrers;
   private final OData odata;
   private final Edm edm;
 
@@ -74,6 +85,9 @@ public class DataProvider {
     this.odata = odata;
     this.edm = edm;
     data = new DataCreator(odata, edm).getData();
+    for (final EntityCollection entityCollection : data.values()) {
+      keyIndexes.put(entityCollection, null);
+    }
   }
 
   public EntityCollection readAll(final EdmEntitySet edmEntitySet) throws DataProviderException {
@@ -89,6 +103,10 @@ public class DataProvider {
 
   public Entity read(final EdmEntityType edmEntityType, final EntityCollection entitySet,
       final List<UriParameter> keys) throws DataProviderException {
+    final KeyIndex index = getKeyIndex(edmEntityType, entitySet);
+    if (index != null && index.isUsable() && isComplete(index.getKeyNames(), keys)) {
+      return read(edmEntityType, index, keys);
+    }
     try {
       for (final Entity entity : entitySet.getEntities()) {
         boolean found = true;
@@ -115,38 +133,146 @@ public class DataProvider {
     }
   }
 
+  /** Looks up the entity with the given complete key in the key index. */
+  private Entity read(final EdmEntityType edmEntityType, final KeyIndex index, final List<UriParameter> keys)
+      throws DataProviderException {
+    final List<String> keyNames = index.getKeyNames();
+    final Object[] keyValues = new Object[keyNames.size()];
+    try {
+      for (final UriParameter key : keys) {
+        final int position = keyNames.indexOf(key.getName());
+        final Class<?> valueType = index.getValueType(position);
+        if (valueType == null) {
+          // The index is empty.
+          return null;
+        }
+        final EdmProperty property = (EdmProperty) edmEntityType.getProperty(key.getName());
+        final EdmPrimitiveType type = (EdmPrimitiveType) property.getType();
+        keyValues[position] = type.valueOfString(type.fromUriLiteral(key.getText()),
+            property.isNullable(), property.getMaxLength(), property.getPrecision(), property.getScale(),
+            property.isUnicode(), valueType);
+      }
+    } catch (final EdmPrimitiveTypeException e) {
+      throw new DataProviderException("Wrong key!", e);
+    }
+    return index.get(keyValues);
+  }
+
+  private static boolean isComplete(final List<String> keyNames, final List<UriParameter> keys) {
+    if (keys.size() != keyNames.size()) {
+      return false;
+    }
+    final Set<String> names = new HashSet<String>();
+    for (final UriParameter key : keys) {
+      if (!keyNames.contains(key.getName()) || !names.add(key.getName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the key index of the given entity set, building it if necessary,
+   * or <code>null</code> if the entity set is not one of the entity sets of this data provider.
+   */
+  private KeyIndex getKeyIndex(final EdmEntityType edmEntityType, final EntityCollection entitySet) {
+    KeyIndex index = keyIndexes.get(entitySet);
+    if (index == null && keyIndexes.containsKey(entitySet)) {
+      index = new KeyIndex(edmEntityType.getKeyPredicateNames(), entitySet.getEntities());
+      keyIndexes.put(entitySet, index);
+    }
+    return index;
+  }
+
   public void delete(final EdmEntitySet edmEntitySet, final Entity entity) throws DataProviderException {
     deleteLinksTo(entity);
-    readAll(edmEntitySet).getEntities().remove(entity);
+    final EntityCollection entitySet = readAll(edmEntitySet);
+    if (entitySet.getEntities().remove(entity)) {
+      final KeyIndex index = keyIndexes.get(entitySet);
+      if (index != null) {
+        index.remove(entity);
+      }
+      if (referrers != null) {
+        for (final Link link : entity.getNavigationLinks()) {
+          if (link.getInlineEntity() != null) {
+            removeReferrer(link.getInlineEntity(), entity);
+          } else if (link.getInlineEntitySet() != null) {
+            for (final Entity target : link.getInlineEntitySet().getEntities()) {
+              removeReferrer(target, entity);
+            }
+          }
+        }
+      }
+    }
   }
 
   public void deleteLinksTo(final Entity to) throws DataProviderException {
-    for (final String entitySetName : data.keySet()) {
-      for (final Entity entity : data.get(entitySetName).getEntities()) {
-        for (Iterator<Link> linkIterator = entity.getNavigationLinks().iterator(); linkIterator.hasNext();) {
-          final Link link = linkIterator.next();
-          if (to.equals(link.getInlineEntity())) {
+    final Set<Entity> entities = getReferrers().remove(to);
+    if (entities == null) {
+      return;
+    }
+    for (final Entity entity : entities) {
+      for (Iterator<Link> linkIterator = entity.getNavigationLinks().iterator(); linkIterator.hasNext();) {
+        final Link link = linkIterator.next();
+        if (link.getInlineEntity() == to) {
+          linkIterator.remove();
+        } else if (link.getInlineEntitySet() != null) {
+          for (Iterator<Entity> iterator = link.getInlineEntitySet().getEntities().iterator(); iterator.hasNext();) {
+            if (iterator.next() == to) {
+              iterator.remove();
+            }
+          }
+          if (link.getInlineEntitySet().getEntities().isEmpty()) {
             linkIterator.remove();
-          } else if (link.getInlineEntitySet() != null) {
-            for (Iterator<Entity> iterator = link.getInlineEntitySet().getEntities().iterator(); iterator.hasNext();) {
-              if (to.equals(iterator.next())) {
-                iterator.remove();
+          }
+        }
+      }
+    }
+  }
+
+  /** Returns the reverse link index, building it from the links of all entities if necessary. */
+  private Map<Entity, Set<Entity>> getReferrers() {
+    if (referrers == null) {
+      referrers = new IdentityHashMap<Entity, Set<Entity>>();
+      for (final EntityCollection entityCollection : data.values()) {
+        for (final Entity entity : entityCollection.getEntities()) {
+          for (final Link link : entity.getNavigationLinks()) {
+            if (link.getInlineEntity() != null) {
+              addReferrer(link.getInlineEntity(), entity);
+            } else if (link.getInlineEntitySet() != null) {
+              for (final Entity target : link.getInlineEntitySet().getEntities()) {
+                addReferrer(target, entity);
               }
             }
-            if (link.getInlineEntitySet().getEntities().isEmpty()) {
-              linkIterator.remove();
-            }
           }
         }
       }
     }
+    return referrers;
+  }
+
+  private void addReferrer(final Entity target, final Entity referrer) {
+    Set<Entity> entities = referrers.get(target);
+    if (entities == null) {
+      entities = Collections.newSetFromMap(new IdentityHashMap<Entity, Boolean>());
+      referrers.put(target, entities);
+    }
+    entities.add(referrer);
+  }
+
+  private void removeReferrer(final Entity target, final Entity referrer) {
+    final Set<Entity> entities = referrers.get(target);
+    if (entities != null) {
+      entities.remove(referrer);
+    }
   }
 
   public Entity create(final EdmEntitySet edmEntitySet) throws DataProviderException {
     final EdmEntityType edmEntityType = edmEntitySet.getEntityType();
     EntityCollection entitySet = readAll(edmEntitySet);
     final List<Entity> entities = entitySet.getEntities();
-    final Map<String, Object> newKey = findFreeComposedKey(entities, edmEntitySet.getEntityType());
+    final KeyIndex index = getKeyIndex(edmEntityType, entitySet);
+    final Map<String, Object> newKey = findFreeComposedKey(entities, index, edmEntitySet.getEntityType());
     Entity newEntity = new Entity();
     newEntity.setType(edmEntityType.getFullQualifiedName().getFullQualifiedNameAsString());
     for (final String keyName : edmEntityType.getKeyPredicateNames()) {
@@ -160,20 +286,25 @@ public class DataProvider {
       throw new DataProviderException("Unable to set entity ID!", e);
     }
     entities.add(newEntity);
+    if (index != null) {
+      index.add(newEntity);
+    }
 
     return newEntity;
   }
   
   private EntityCollection createEntityCollection(final EdmEntitySet edmEntitySet) {
     if(data.get(edmEntitySet.getName()) == null ) {
-      data.put(edmEntitySet.getName(), new EntityCollection());
+      final EntityCollection entityCollection = new EntityCollection();
+      data.put(edmEntitySet.getName(), entityCollection);
+      keyIndexes.put(entityCollection, null);
     }
     
     return data.get(edmEntitySet.getName());
   }
 
-  private Map<String, Object> findFreeComposedKey(final List<Entity> entities, final EdmEntityType entityType)
-      throws DataProviderException {
+  private Map<String, Object> findFreeComposedKey(final List<Entity> entities, final KeyIndex index,
+      final EdmEntityType entityType) throws DataProviderException {
     // Weak key construction
     final HashMap<String, Object> keys = new HashMap<String, Object>();
     for (final String keyName : entityType.getKeyPredicateNames()) {
@@ -183,27 +314,27 @@ public class DataProvider {
       if (EdmPrimitiveTypeKind.Int16.getFullQualifiedName().equals(typeName)) {
          newValue = (short) KEY_INT_16.incrementAndGet();
          
-         while(!isFree(newValue, keyName, entities)) {
+         while(!isFree(newValue, keyName, entities, index)) {
            newValue = (short) KEY_INT_16.incrementAndGet();
          }
       } else if (EdmPrimitiveTypeKind.Int32.getFullQualifiedName().equals(typeName)) {
         newValue = KEY_INT_32.incrementAndGet();
         
-        while(!isFree(newValue, keyName, entities)) {
+        while(!isFree(newValue, keyName, entities, index)) {
           newValue = KEY_INT_32.incrementAndGet();
         }
       } else if(EdmPrimitiveTypeKind.Int64.getFullQualifiedName().equals(typeName)) {
         // Integer keys
         newValue = KEY_INT_64.incrementAndGet();
 
-        while (!isFree(newValue, keyName, entities)) {
+        while (!isFree(newValue, keyName, entities, index)) {
           newValue = KEY_INT_64.incrementAndGet();
         }
       } else if (EdmPrimitiveTypeKind.String.getFullQualifiedName().equals(typeName)) {
         // String keys
         newValue = String.valueOf(KEY_STRING.incrementAndGet());
 
-        while (!isFree(newValue, keyName, entities)) {
+        while (!isFree(newValue, keyName, entities, index)) {
           newValue = String.valueOf(KEY_STRING.incrementAndGet());
         }
       } else {
@@ -216,7 +347,11 @@ public class DataProvider {
     return keys;
   }
 
-  private boolean isFree(final Object value, final String keyPropertyName, final List<Entity> entities) {
+  private boolean isFree(final Object value, final String keyPropertyName, final List<Entity> entities,
+      final KeyIndex index) {
+    if (index != null && index.isUsable()) {
+      return value == null || index.isFree(keyPropertyName, value);
+    }
     for (final Entity entity : entities) {
       if (value != null && value.equals(entity.getProperty(keyPropertyName).getValue())) {
         return false;
@@ -414,6 +549,9 @@ public class DataProvider {
     } else {
       DataCreator.setLink(srcEntity, navigationProperty.getName(), targetEntity);
     }
+    if (referrers != null) {
+      addReferrer(targetEntity, srcEntity);
+    }
   }
 
   @SuppressWarnings("unchecked")
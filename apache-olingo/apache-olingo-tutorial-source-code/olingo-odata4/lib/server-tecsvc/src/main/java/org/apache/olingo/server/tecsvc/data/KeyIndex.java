@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+
+/**
+ * Hash index of the entities of an entity set by their (possibly composite) key values.
+ * The index is only usable as long as all entities use the same Java types for their key values
+ * and no key is duplicated; otherwise the entity set has to be scanned.
+ */
+class KeyIndex {
+
+  private final List<String> keyNames;
+  private final Class<?>[] valueTypes;
+  private final Map<List<Object>, Entity> entities = new HashMap<List<Object>, Entity>();
+  /** Number of entities per value of each single key property */
+  private final List<Map<Object, Integer>> valueCounts = new ArrayList<Map<Object, Integer>>();
+  private boolean usable = true;
+
+  KeyIndex(final List<String> keyNames, final List<Entity> entities) {
+    this.keyNames = keyNames;
+    valueTypes = new Class<?>[keyNames.size()];
+    for (int position = 0; position < keyNames.size(); position++) {
+      valueCounts.add(new HashMap<Object, Integer>());
+    }
+    for (final Entity entity : entities) {
+      add(entity);
+    }
+  }
+
+  boolean isUsable() {
+    return usable;
+  }
+
+  List<String> getKeyNames() {
+    return keyNames;
+  }
+
+  /**
+   * Returns the Java type of the values of the key property at the given position,
+   * or <code>null</code> if the index is empty.
+   */
+  Class<?> getValueType(final int position) {
+    return valueTypes[position];
+  }
+
+  Entity get(final Object... keyValues) {
+    return entities.get(Arrays.asList(keyValues));
+  }
+
+  /** Determines whether no entity has the given value for the key property with the given name. */
+  boolean isFree(final String keyName, final Object value) {
+    return !valueCounts.get(keyNames.indexOf(keyName)).containsKey(value);
+  }
+
+  void add(final Entity entity) {
+    final List<Object> key = getKey(entity);
+    if (key == null || entities.containsKey(key)) {
+      usable = false;
+      return;
+    }
+    entities.put(key, entity);
+    for (int position = 0; position < key.size(); position++) {
+      final Map<Object, Integer> counts = valueCounts.get(position);
+      final Integer count = counts.get(key.get(position));
+      counts.put(key.get(position), count == null ? 1 : count + 1);
+    }
+  }
+
+  void remove(final Entity entity) {
+    final List<Object> key = getKey(entity);
+    if (key == null || entities.get(key) != entity) {
+      return;
+    }
+    entities.remove(key);
+    for (int position = 0; position < key.size(); position++) {
+      final Map<Object, Integer> counts = valueCounts.get(position);
+      final int count = counts.get(key.get(position));
+      if (count == 1) {
+        counts.remove(key.get(position));
+      } else {
+        counts.put(key.get(position), count - 1);
+      }
+    }
+  }
+
+  /**
+   * Returns the key values of the given entity and records their types.
+   * Returns <code>null</code> and marks the index as unusable if a value is missing
+   * or its type differs from the types recorded before.
+   */
+  private List<Object> getKey(final Entity entity) {
+    final Object[] key = new Object[keyNames.size()];
+    for (int position = 0; position < key.length; position++) {
+      final Property property = entity.getProperty(keyNames.get(position));
+      final Object value = property == null ? null : property.getValue();
+      if (value == null) {
+        usable = false;
+        return null;
+      }
+      final Class<?> type = value instanceof Calendar ? Calendar.class : value.getClass();
+      if (valueTypes[position] == null) {
+        valueTypes[position] = type;
+      } else if (valueTypes[position] != type) {
+        usable = false;
+        return null;
+      }
+      key[position] = value;
+    }
+    return Arrays.asList(key);
+  }
+}
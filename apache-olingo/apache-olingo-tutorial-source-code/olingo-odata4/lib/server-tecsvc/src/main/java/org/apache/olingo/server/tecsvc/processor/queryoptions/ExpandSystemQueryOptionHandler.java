@@ -47,6 +47,7 @@ import org.apache.olingo.server.api.uri.queryoption.TopOption;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.CountHandler;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.FilterHandler;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.OrderByHandler;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.options.ParallelQueryOptions;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.SkipHandler;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.TopHandler;
 
@@ -58,9 +59,7 @@ public class ExpandSystemQueryOptionHandler {
       return;
     }
 
-    for (final Entity entity : entitySet.getEntities()) {
-      applyExpandOptionToEntity(entity, edmEntitySet, expandOption);
-    }
+    applyExpandOptionToEntities(entitySet.getEntities(), edmEntitySet, expandOption);
   }
 
   public void applyExpandQueryOptions(final Entity entity, final EdmEntitySet edmEntitySet,
@@ -129,16 +128,38 @@ public class ExpandSystemQueryOptionHandler {
       throws ODataApplicationException {
 
     FilterHandler.applyFilterSystemQuery(filterOption, entitySet, edmBindingTarget);
-    OrderByHandler.applyOrderByOption(orderByOption, entitySet, edmBindingTarget);
+    // The count does not depend on the order but on all entities, so it is applied before they are limited.
     CountHandler.applyCountSystemQueryOption(countOption, entitySet);
+    OrderByHandler.applyOrderByOption(orderByOption, entitySet, edmBindingTarget,
+        TopHandler.getResultLimit(skipOption, topOption));
     SkipHandler.applySkipSystemQueryHandler(skipOption, entitySet);
     TopHandler.applyTopSystemQueryOption(topOption, entitySet);
 
     // Apply nested expand system query options to remaining entities
     if (expandOption != null) {
-      for (final Entity entity : entitySet.getEntities()) {
-        applyExpandOptionToEntity(entity, edmBindingTarget, expandOption);
+      applyExpandOptionToEntities(entitySet.getEntities(), edmBindingTarget, expandOption);
+    }
+  }
+
+  /**
+   * Applies the expand option to each of the entities. Each entity of the tree has its own navigation links,
+   * so the entities of large collections can be processed in parallel.
+   */
+  private void applyExpandOptionToEntities(final List<Entity> entities, final EdmBindingTarget edmBindingTarget,
+      final ExpandOption expandOption) throws ODataApplicationException {
+    final ParallelQueryOptions.ChunkTask expansion = new ParallelQueryOptions.ChunkTask() {
+      @Override
+      public void run(final int from, final int to) throws ODataApplicationException {
+        for (int i = from; i < to; i++) {
+          applyExpandOptionToEntity(entities.get(i), edmBindingTarget, expandOption);
+        }
       }
+    };
+    if (ParallelQueryOptions.isParallel(entities.size())) {
+      ParallelQueryOptions.forEachChunk(entities.size(), ParallelQueryOptions.getChunkCount(entities.size()),
+          expansion);
+    } else {
+      expansion.run(0, entities.size());
     }
   }
 
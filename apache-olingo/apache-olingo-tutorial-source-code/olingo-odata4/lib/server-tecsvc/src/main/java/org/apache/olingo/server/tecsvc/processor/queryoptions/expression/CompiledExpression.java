@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmEnumType;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitor;
+import org.apache.olingo.server.api.uri.queryoption.expression.Literal;
+import org.apache.olingo.server.api.uri.queryoption.expression.MethodKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.UnaryOperatorKind;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.UntypedOperand;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.VisitorOperand;
+
+/**
+ * An expression compiled once into a tree of evaluation steps, which can then be evaluated for many entities
+ * without visiting the expression tree again. It yields the same operands as {@link ExpressionVisitorImpl};
+ * member paths are resolved and literals are parsed only once, and subexpressions without members are
+ * evaluated only once.
+ * Errors like unsupported expressions are raised during evaluation, as with {@link ExpressionVisitorImpl}.
+ */
+public abstract class CompiledExpression {
+
+  public abstract VisitorOperand evaluate(Entity entity) throws ODataApplicationException;
+
+  /** Whether the result does not depend on the entity. */
+  protected boolean isConstant() {
+    return false;
+  }
+
+  public static CompiledExpression compile(final Expression expression)
+      throws ExpressionVisitException, ODataApplicationException {
+    return expression.accept(new Compiler());
+  }
+
+  private static class Compiler implements ExpressionVisitor<CompiledExpression> {
+
+    @Override
+    public CompiledExpression visitBinaryOperator(final BinaryOperatorKind operator, final CompiledExpression left,
+        final CompiledExpression right) {
+      return constantIfPossible(new CompiledExpression() {
+        @Override
+        public VisitorOperand evaluate(final Entity entity) throws ODataApplicationException {
+          return ExpressionVisitorImpl.applyBinaryOperator(operator, left.evaluate(entity), right.evaluate(entity));
+        }
+      }, left, right);
+    }
+
+    @Override
+    public CompiledExpression visitUnaryOperator(final UnaryOperatorKind operator,
+        final CompiledExpression operand) {
+      return constantIfPossible(new CompiledExpression() {
+        @Override
+        public VisitorOperand evaluate(final Entity entity) throws ODataApplicationException {
+          return ExpressionVisitorImpl.applyUnaryOperator(operator, operand.evaluate(entity));
+        }
+      }, operand);
+    }
+
+    @Override
+    public CompiledExpression visitMethodCall(final MethodKind methodCall,
+        final List<CompiledExpression> parameters) {
+      return constantIfPossible(new CompiledExpression() {
+        @Override
+        public VisitorOperand evaluate(final Entity entity) throws ODataApplicationException {
+          final List<VisitorOperand> operands = new ArrayList<VisitorOperand>(parameters.size());
+          for (final CompiledExpression parameter : parameters) {
+            operands.add(parameter.evaluate(entity));
+          }
+          return ExpressionVisitorImpl.applyMethodCall(methodCall, operands);
+        }
+      }, parameters.toArray(new CompiledExpression[parameters.size()]));
+    }
+
+    @Override
+    public CompiledExpression visitLambdaExpression(final String lambdaFunction, final String lambdaVariable,
+        final Expression expression) {
+      return NOT_IMPLEMENTED;
+    }
+
+    @Override
+    public CompiledExpression visitLiteral(final Literal literal) {
+      return new Constant(new UntypedOperand(literal.getText()));
+    }
+
+    @Override
+    public CompiledExpression visitMember(final UriInfoResource member) {
+      final EdmProperty[] path = ExpressionVisitorImpl.getMemberPath(member);
+      return path == null ? NOT_IMPLEMENTED : new CompiledExpression() {
+        @Override
+        public VisitorOperand evaluate(final Entity entity) {
+          return ExpressionVisitorImpl.readMember(entity, path);
+        }
+      };
+    }
+
+    @Override
+    public CompiledExpression visitAlias(final String aliasName) {
+      return NOT_IMPLEMENTED;
+    }
+
+    @Override
+    public CompiledExpression visitTypeLiteral(final EdmType type) {
+      return NOT_IMPLEMENTED;
+    }
+
+    @Override
+    public CompiledExpression visitLambdaReference(final String variableName) {
+      return NOT_IMPLEMENTED;
+    }
+
+    @Override
+    public CompiledExpression visitEnum(final EdmEnumType type, final List<String> enumValues) {
+      return NOT_IMPLEMENTED;
+    }
+
+    /** Replaces the expression by a cached one if all its operands are constant. */
+    private static CompiledExpression constantIfPossible(final CompiledExpression expression,
+        final CompiledExpression... operands) {
+      for (final CompiledExpression operand : operands) {
+        if (!operand.isConstant()) {
+          return expression;
+        }
+      }
+      return new CachedConstant(expression);
+    }
+  }
+
+  private static final CompiledExpression NOT_IMPLEMENTED = new CompiledExpression() {
+    @Override
+    public VisitorOperand evaluate(final Entity entity) throws ODataApplicationException {
+      return ExpressionVisitorImpl.throwNotImplemented();
+    }
+  };
+
+  private static class Constant extends CompiledExpression {
+    private final VisitorOperand operand;
+
+    Constant(final VisitorOperand operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public VisitorOperand evaluate(final Entity entity) {
+      return operand;
+    }
+
+    @Override
+    protected boolean isConstant() {
+      return true;
+    }
+  }
+
+  /** Evaluates the expression on first use, so that errors are still raised only during evaluation. */
+  private static class CachedConstant extends CompiledExpression {
+    private final CompiledExpression expression;
+    private volatile VisitorOperand operand;
+
+    CachedConstant(final CompiledExpression expression) {
+      this.expression = expression;
+    }
+
+    @Override
+    public VisitorOperand evaluate(final Entity entity) throws ODataApplicationException {
+      if (operand == null) {
+        operand = expression.evaluate(entity);
+      }
+      return operand;
+    }
+
+    @Override
+    protected boolean isConstant() {
+      return true;
+    }
+  }
+}
@@ -58,7 +58,11 @@ public class ExpressionVisitorImpl implements ExpressionVisitor<VisitorOperand>
   public VisitorOperand visitBinaryOperator(final BinaryOperatorKind operator, final VisitorOperand left,
       final VisitorOperand right)
       throws ExpressionVisitException, ODataApplicationException {
+    return applyBinaryOperator(operator, left, right);
+  }
 
+  static VisitorOperand applyBinaryOperator(final BinaryOperatorKind operator, final VisitorOperand left,
+      final VisitorOperand right) throws ODataApplicationException {
     final BinaryOperator binaryOperator = new BinaryOperator(left, right);
 
     switch (operator) {
@@ -92,7 +96,11 @@ public class ExpressionVisitorImpl implements ExpressionVisitor<VisitorOperand>
   @Override
   public VisitorOperand visitUnaryOperator(final UnaryOperatorKind operator, final VisitorOperand operand)
       throws ExpressionVisitException, ODataApplicationException {
+    return applyUnaryOperator(operator, operand);
+  }
 
+  static VisitorOperand applyUnaryOperator(final UnaryOperatorKind operator, final VisitorOperand operand)
+      throws ODataApplicationException {
     final UnaryOperator unaryOperator = new UnaryOperator(operand);
 
     switch (operator) {
@@ -109,7 +117,11 @@ public class ExpressionVisitorImpl implements ExpressionVisitor<VisitorOperand>
   @Override
   public VisitorOperand visitMethodCall(final MethodKind methodCall, final List<VisitorOperand> parameters)
       throws ExpressionVisitException, ODataApplicationException {
+    return applyMethodCall(methodCall, parameters);
+  }
 
+  static VisitorOperand applyMethodCall(final MethodKind methodCall, final List<VisitorOperand> parameters)
+      throws ODataApplicationException {
     final MethodCallOperator methodCallOperation = new MethodCallOperator(parameters);
 
     switch (methodCall) {
@@ -176,19 +188,38 @@ public class ExpressionVisitorImpl implements ExpressionVisitor<VisitorOperand>
   public VisitorOperand visitMember(final UriInfoResource member) throws ExpressionVisitException,
       ODataApplicationException {
 
+    final EdmProperty[] path = getMemberPath(member);
+    return path == null ? throwNotImplemented() : readMember(entity, path);
+  }
+
+  /**
+   * Gets the properties of the member's path.
+   * @return the properties or <code>null</code> if the member does not start with a property
+   */
+  static EdmProperty[] getMemberPath(final UriInfoResource member) {
     final List<UriResource> uriResourceParts = member.getUriResourceParts();
 
     // UriResourceParts contains at least one UriResource
     if (!(uriResourceParts.get(0) instanceof UriResourceProperty)) {
-      return throwNotImplemented();
+      return null;
+    }
+
+    final EdmProperty[] path = new EdmProperty[uriResourceParts.size()];
+    for (int i = 0; i < path.length; i++) {
+      path[i] = uriResourceParts.get(i) instanceof UriResourceProperty ?
+          ((UriResourceProperty) uriResourceParts.get(i)).getProperty() : null;
     }
+    return path;
+  }
 
-    EdmProperty currentEdmProperty = ((UriResourceProperty) uriResourceParts.get(0)).getProperty();
+  /** Reads the value of the (possibly complex) property path from the entity. */
+  static VisitorOperand readMember(final Entity entity, final EdmProperty[] path) {
+    EdmProperty currentEdmProperty = path[0];
     Property currentProperty = entity.getProperty(currentEdmProperty.getName());
 
-    for (int i = 1; i < uriResourceParts.size(); i++) {
+    for (int i = 1; i < path.length; i++) {
       if (currentProperty.isComplex()) {
-        currentEdmProperty = ((UriResourceProperty) uriResourceParts.get(i)).getProperty();
+        currentEdmProperty = path[i];
         final List<Property> complex = currentProperty.asComplex().getValue();
         for (final Property innerProperty : complex) {
           if (innerProperty.getName().equals(currentEdmProperty.getName())) {
@@ -226,7 +257,7 @@ public class ExpressionVisitorImpl implements ExpressionVisitor<VisitorOperand>
     return throwNotImplemented();
   }
 
-  private VisitorOperand throwNotImplemented() throws ODataApplicationException {
+  static VisitorOperand throwNotImplemented() throws ODataApplicationException {
     throw new ODataApplicationException("Not implemented", HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(),
         Locale.ROOT);
   }
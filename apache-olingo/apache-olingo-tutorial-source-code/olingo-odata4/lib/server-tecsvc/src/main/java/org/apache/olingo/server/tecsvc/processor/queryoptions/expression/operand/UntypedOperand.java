@@ -27,6 +27,9 @@ import org.apache.olingo.server.api.ODataApplicationException;
 
 public class UntypedOperand extends VisitorOperand {
 
+  /** The result of {@link #determineType()}; operands are immutable, so it is computed only once. */
+  private volatile TypedOperand determinedType;
+
   public UntypedOperand(final String literal) {
     super(literal);
   }
@@ -60,6 +63,13 @@ public class UntypedOperand extends VisitorOperand {
   }
 
   public TypedOperand determineType() throws ODataApplicationException {
+    if (determinedType == null) {
+      determinedType = determineTypeOfLiteral();
+    }
+    return determinedType;
+  }
+
+  private TypedOperand determineTypeOfLiteral() throws ODataApplicationException {
     final String literal = (String) value;
     Object newValue = null;
 
@@ -18,7 +18,7 @@
  */
 package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
 
-import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 
 import org.apache.olingo.commons.api.data.Entity;
@@ -31,9 +31,8 @@ import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.queryoption.FilterOption;
 import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.ExpressionVisitorImpl;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.CompiledExpression;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.VisitorOperand;
 
 public class FilterHandler {
 
@@ -52,27 +51,54 @@ public class FilterHandler {
       return;
     }
 
+    final List<Entity> entities = entitySet.getEntities();
+    if (entities.isEmpty()) {
+      return;
+    }
+
+    final CompiledExpression expression;
     try {
-      final Iterator<Entity> iter = entitySet.getEntities().iterator();
+      expression = CompiledExpression.compile(filterOption.getExpression());
+    } catch (ExpressionVisitException e) {
+      throw new ODataApplicationException("Exception in filter evaluation",
+          HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT);
+    }
 
-      while (iter.hasNext()) {
-        final VisitorOperand operand = filterOption.getExpression()
-            .accept(new ExpressionVisitorImpl(iter.next(), edmEntitySet));
-        final TypedOperand typedOperand = operand.asTypedOperand();
-        
-        if(typedOperand.is(primBoolean)) {
-          if(Boolean.FALSE.equals(typedOperand.getTypedValue(Boolean.class))) {
-            iter.remove();
-          }
-        } else {
-          throw new ODataApplicationException("Invalid filter expression. Filter expressions must return a value of " 
-                + "type Edm.Boolean", HttpStatusCode.BAD_REQUEST.getStatusCode(), Locale.ROOT);
+    final boolean[] matches = new boolean[entities.size()];
+    final ParallelQueryOptions.ChunkTask evaluation = new ParallelQueryOptions.ChunkTask() {
+      @Override
+      public void run(final int from, final int to) throws ODataApplicationException {
+        for (int i = from; i < to; i++) {
+          matches[i] = matches(expression, entities.get(i));
         }
       }
+    };
+    if (ParallelQueryOptions.isParallel(entities.size())) {
+      ParallelQueryOptions.forEachChunk(entities.size(), ParallelQueryOptions.getChunkCount(entities.size()),
+          evaluation);
+    } else {
+      evaluation.run(0, entities.size());
+    }
+
+    // Keep the matching entities in their order.
+    int size = 0;
+    for (int i = 0; i < matches.length; i++) {
+      if (matches[i]) {
+        entities.set(size++, entities.get(i));
+      }
+    }
+    entities.subList(size, entities.size()).clear();
+  }
 
-    } catch (ExpressionVisitException e) {
-      throw new ODataApplicationException("Exception in filter evaluation",
-          HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT);
+  private static boolean matches(final CompiledExpression expression, final Entity entity)
+      throws ODataApplicationException {
+    final TypedOperand typedOperand = expression.evaluate(entity).asTypedOperand();
+
+    if (typedOperand.is(primBoolean)) {
+      return !Boolean.FALSE.equals(typedOperand.getTypedValue(Boolean.class));
+    } else {
+      throw new ODataApplicationException("Invalid filter expression. Filter expressions must return a value of "
+          + "type Edm.Boolean", HttpStatusCode.BAD_REQUEST.getStatusCode(), Locale.ROOT);
     }
   }
 }
@@ -18,9 +18,13 @@
  */
 package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Locale;
+import java.util.PriorityQueue;
 
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
@@ -30,19 +34,31 @@ import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
 import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
 import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.ExpressionVisitorImpl;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.CompiledExpression;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
 
 public class OrderByHandler {
   public static void applyOrderByOption(final OrderByOption orderByOption, final EntityCollection entitySet,
       final EdmBindingTarget edmBindingTarget) throws ODataApplicationException {
+    applyOrderByOption(orderByOption, entitySet, edmBindingTarget, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Orders the entities and keeps only the first <code>limit</code> of them.
+   * If the limit is smaller than the number of entities, only the first entities are selected with a heap,
+   * instead of sorting all of them.
+   * @see TopHandler#getResultLimit(org.apache.olingo.server.api.uri.queryoption.SkipOption,
+   * org.apache.olingo.server.api.uri.queryoption.TopOption)
+   */
+  public static void applyOrderByOption(final OrderByOption orderByOption, final EntityCollection entitySet,
+      final EdmBindingTarget edmBindingTarget, final int limit) throws ODataApplicationException {
 
     if (orderByOption == null) {
       return;
     }
 
     try {
-      applyOrderByOptionInternal(orderByOption, entitySet, edmBindingTarget);
+      applyOrderByOptionInternal(orderByOption, entitySet, limit);
     } catch (SystemQueryOptionsRuntimeException e) {
       if (e.getCause() instanceof ODataApplicationException) {
         // Throw the nested exception, to send the correct HTTP status code in the HTTP response
@@ -55,50 +71,212 @@ public class OrderByHandler {
   }
 
   private static void applyOrderByOptionInternal(final OrderByOption orderByOption, final EntityCollection entitySet,
-      final EdmBindingTarget edmBindingTarget) throws ODataApplicationException {
-    Collections.sort(entitySet.getEntities(), new Comparator<Entity>() {
-      @Override
-      @SuppressWarnings({ "unchecked", "rawtypes" })
-      public int compare(final Entity e1, final Entity e2) {
-        // Evaluate the first order option for both entity
-        // If and only if the result of the previous order option is equals to 0
-        // evaluate the next order option until all options are evaluated or they are not equals
-        int result = 0;
-
-        for (int i = 0; i < orderByOption.getOrders().size() && result == 0; i++) {
-          try {
-            final OrderByItem item = orderByOption.getOrders().get(i);
-            final TypedOperand op1 =
-                item.getExpression().accept(new ExpressionVisitorImpl(e1, edmBindingTarget)).asTypedOperand();
-            final TypedOperand op2 =
-                item.getExpression().accept(new ExpressionVisitorImpl(e2, edmBindingTarget)).asTypedOperand();
-
-            if (op1.isNull() || op2.isNull()) {
-              if (op1.isNull() && op2.isNull()) {
-                result = 0; // null is equals to null
-              } else {
-                result = op1.isNull() ? -1 : 1;
-              }
-            } else {
-              Object o1 = op1.getValue();
-              Object o2 = op2.getValue();
+      final int limit) throws ODataApplicationException {
+    final List<Entity> entities = entitySet.getEntities();
+    if (entities.size() < 2) {
+      return;
+    }
+
+    final List<OrderByItem> items = orderByOption.getOrders();
+    final CompiledExpression[] expressions = new CompiledExpression[items.size()];
+    try {
+      for (int i = 0; i < expressions.length; i++) {
+        expressions[i] = CompiledExpression.compile(items.get(i).getExpression());
+      }
+    } catch (ExpressionVisitException e) {
+      throw new SystemQueryOptionsRuntimeException(e);
+    }
 
-              if (o1.getClass() == o2.getClass() && o1 instanceof Comparable) {
-                result = ((Comparable) o1).compareTo(o2);
-              } else {
-                result = 0;
+    // Decorate each entity with its sort keys, sort, and undecorate again.
+    final SortKeys[] sortKeys = new SortKeys[entities.size()];
+    for (int i = 0; i < sortKeys.length; i++) {
+      sortKeys[i] = new SortKeys(entities.get(i), i, expressions);
+    }
+    final Comparator<SortKeys> comparator = new SortKeysComparator(items);
+    final boolean parallel = ParallelQueryOptions.isParallel(sortKeys.length);
+    if (parallel) {
+      // The first sort key is needed for every entity, so it can be evaluated in advance.
+      ParallelQueryOptions.forEachChunk(sortKeys.length, ParallelQueryOptions.getChunkCount(sortKeys.length),
+          new ParallelQueryOptions.ChunkTask() {
+            @Override
+            public void run(final int from, final int to) throws ODataApplicationException {
+              for (int i = from; i < to; i++) {
+                sortKeys[i].get(0);
               }
             }
+          });
+    }
+
+    final SortKeys[] result;
+    if (limit < sortKeys.length) {
+      result = parallel ? selectFirstParallel(sortKeys, comparator, limit) :
+          selectFirst(sortKeys, 0, sortKeys.length, comparator, limit);
+    } else {
+      if (parallel) {
+        sortParallel(sortKeys, comparator);
+      } else {
+        Arrays.sort(sortKeys, comparator);
+      }
+      result = sortKeys;
+    }
+
+    entities.clear();
+    for (final SortKeys keys : result) {
+      entities.add(keys.entity);
+    }
+  }
+
+  /** Returns the first <code>limit</code> elements of the given range in order, using a bounded heap. */
+  private static SortKeys[] selectFirst(final SortKeys[] sortKeys, final int from, final int to,
+      final Comparator<SortKeys> comparator, final int limit) {
+    if (limit == 0) {
+      return new SortKeys[0];
+    }
+    // The head of the heap is the largest of the elements selected so far.
+    final PriorityQueue<SortKeys> heap = new PriorityQueue<SortKeys>(limit + 1, Collections.reverseOrder(comparator));
+    for (int i = from; i < to; i++) {
+      if (heap.size() < limit) {
+        heap.add(sortKeys[i]);
+      } else if (comparator.compare(sortKeys[i], heap.peek()) < 0) {
+        heap.poll();
+        heap.add(sortKeys[i]);
+      }
+    }
+    final SortKeys[] result = heap.toArray(new SortKeys[heap.size()]);
+    Arrays.sort(result, comparator);
+    return result;
+  }
 
-            result = item.isDescending() ? result * -1 : result;
-          } catch (ODataApplicationException e) {
-            throw new SystemQueryOptionsRuntimeException(e);
-          } catch (ExpressionVisitException e) {
-            throw new SystemQueryOptionsRuntimeException(e);
+  private static SortKeys[] selectFirstParallel(final SortKeys[] sortKeys, final Comparator<SortKeys> comparator,
+      final int limit) throws ODataApplicationException {
+    // The first elements overall are among the first elements of the chunks.
+    final List<SortKeys> candidates = Collections.synchronizedList(new ArrayList<SortKeys>());
+    ParallelQueryOptions.forEachChunk(sortKeys.length, ParallelQueryOptions.getChunkCount(sortKeys.length),
+        new ParallelQueryOptions.ChunkTask() {
+          @Override
+          public void run(final int from, final int to) {
+            candidates.addAll(Arrays.asList(selectFirst(sortKeys, from, to, comparator, limit)));
           }
-        }
-        return result;
+        });
+    final SortKeys[] all = candidates.toArray(new SortKeys[candidates.size()]);
+    return selectFirst(all, 0, all.length, comparator, limit);
+  }
+
+  /** Sorts the chunks in parallel and merges the sorted chunks. */
+  private static void sortParallel(final SortKeys[] sortKeys, final Comparator<SortKeys> comparator)
+      throws ODataApplicationException {
+    final int size = sortKeys.length;
+    final int chunkCount = ParallelQueryOptions.getChunkCount(size);
+    ParallelQueryOptions.forEachChunk(size, chunkCount, new ParallelQueryOptions.ChunkTask() {
+      @Override
+      public void run(final int from, final int to) {
+        Arrays.sort(sortKeys, from, to, comparator);
       }
     });
+
+    SortKeys[] source = sortKeys;
+    SortKeys[] target = new SortKeys[size];
+    for (int width = 1; width < chunkCount; width *= 2) {
+      for (int chunk = 0; chunk < chunkCount; chunk += 2 * width) {
+        final int from = ParallelQueryOptions.getChunkStart(size, chunkCount, chunk);
+        final int middle = ParallelQueryOptions.getChunkStart(size, chunkCount, Math.min(chunk + width, chunkCount));
+        final int to = ParallelQueryOptions.getChunkStart(size, chunkCount, Math.min(chunk + 2 * width, chunkCount));
+        merge(source, from, middle, to, target, comparator);
+      }
+      final SortKeys[] swap = source;
+      source = target;
+      target = swap;
+    }
+    if (source != sortKeys) {
+      System.arraycopy(source, 0, sortKeys, 0, size);
+    }
+  }
+
+  private static void merge(final SortKeys[] source, final int from, final int middle, final int to,
+      final SortKeys[] target, final Comparator<SortKeys> comparator) {
+    int left = from;
+    int right = middle;
+    for (int i = from; i < to; i++) {
+      if (right >= to || left < middle && comparator.compare(source[left], source[right]) <= 0) {
+        target[i] = source[left++];
+      } else {
+        target[i] = source[right++];
+      }
+    }
+  }
+
+  /**
+   * Compares the sort keys item by item; entities with equal sort keys keep their original order,
+   * as in a stable sort.
+   */
+  private static class SortKeysComparator implements Comparator<SortKeys> {
+    private final List<OrderByItem> items;
+
+    SortKeysComparator(final List<OrderByItem> items) {
+      this.items = items;
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public int compare(final SortKeys e1, final SortKeys e2) {
+      // Evaluate the first order option for both entity
+      // If and only if the result of the previous order option is equals to 0
+      // evaluate the next order option until all options are evaluated or they are not equals
+      int result = 0;
+
+      for (int i = 0; i < items.size() && result == 0; i++) {
+        try {
+          final OrderByItem item = items.get(i);
+          final TypedOperand op1 = e1.get(i);
+          final TypedOperand op2 = e2.get(i);
+
+          if (op1.isNull() || op2.isNull()) {
+            if (op1.isNull() && op2.isNull()) {
+              result = 0; // null is equals to null
+            } else {
+              result = op1.isNull() ? -1 : 1;
+            }
+          } else {
+            Object o1 = op1.getValue();
+            Object o2 = op2.getValue();
+
+            if (o1.getClass() == o2.getClass() && o1 instanceof Comparable) {
+              result = ((Comparable) o1).compareTo(o2);
+            } else {
+              result = 0;
+            }
+          }
+
+          result = item.isDescending() ? result * -1 : result;
+        } catch (ODataApplicationException e) {
+          throw new SystemQueryOptionsRuntimeException(e);
+        }
+      }
+      return result == 0 ? (e1.index < e2.index ? -1 : e1.index == e2.index ? 0 : 1) : result;
+    }
+  }
+
+  /**
+   * The sort keys of an entity, each evaluated at most once and only when the comparison needs it.
+   */
+  private static class SortKeys {
+    private final Entity entity;
+    private final int index;
+    private final CompiledExpression[] expressions;
+    private final TypedOperand[] values;
+
+    SortKeys(final Entity entity, final int index, final CompiledExpression[] expressions) {
+      this.entity = entity;
+      this.index = index;
+      this.expressions = expressions;
+      values = new TypedOperand[expressions.length];
+    }
+
+    TypedOperand get(final int item) throws ODataApplicationException {
+      if (values[item] == null) {
+        values[item] = expressions[item].evaluate(entity).asTypedOperand();
+      }
+      return values[item];
+    }
   }
 }
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+
+/**
+ * Opt-in parallel execution of the system query options on large entity collections.
+ * It is disabled by default; when enabled, collections with at least <code>threshold</code> entities
+ * are split into chunks which are processed by a shared thread pool.
+ * The results are the same as the ones of the sequential execution.
+ * Work started from within a chunk is always executed sequentially, so that the pool cannot run out of threads
+ * waiting for nested work.
+ * The thread pool is shared by all users, e.g., several servlets in the same class loader; it is shut down
+ * when the last of them has disabled the parallel execution.
+ */
+public final class ParallelQueryOptions {
+
+  private static final ThreadLocal<Boolean> IN_CHUNK = new ThreadLocal<Boolean>();
+
+  private static volatile ExecutorService executor;
+  private static volatile int parallelism;
+  private static volatile int threshold;
+  private static int users;
+
+  private ParallelQueryOptions() {}
+
+  /**
+   * Enables the parallel execution for one more user.
+   * The configuration of the first user applies until all users have disabled the parallel execution again.
+   * @param parallelism the number of threads and therefore of chunks
+   * @param threshold the minimal number of entities of a collection to be processed in parallel
+   */
+  public static synchronized void enable(final int parallelism, final int threshold) {
+    if (parallelism < 2 || threshold < 2) {
+      throw new IllegalArgumentException("Parallelism and threshold must be at least two.");
+    }
+    users++;
+    if (executor != null) {
+      return;
+    }
+    final AtomicInteger threadNumber = new AtomicInteger();
+    executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "tecsvc-query-options-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    ParallelQueryOptions.parallelism = parallelism;
+    ParallelQueryOptions.threshold = threshold;
+  }
+
+  /**
+   * Disables the parallel execution for one user;
+   * the thread pool is shut down when no user has the parallel execution enabled anymore.
+   */
+  public static synchronized void disable() {
+    if (users > 0 && --users == 0) {
+      executor.shutdown();
+      executor = null;
+    }
+  }
+
+  /** Determines whether a collection with the given number of entities is to be processed in parallel. */
+  public static boolean isParallel(final int size) {
+    return executor != null && size >= threshold && IN_CHUNK.get() == null;
+  }
+
+  /** Returns the number of chunks a collection with the given number of entities is split into. */
+  public static int getChunkCount(final int size) {
+    return Math.max(1, Math.min(parallelism, size));
+  }
+
+  /** Returns the start index of the chunk with the given number. */
+  public static int getChunkStart(final int size, final int chunkCount, final int chunk) {
+    return (int) ((long) size * chunk / chunkCount);
+  }
+
+  /**
+   * Runs the task for each chunk of the index range from zero to <code>size</code> and waits for all chunks.
+   * The first chunk is processed in the calling thread.
+   * If chunks fail, the exception of the first failing chunk is thrown, as in the sequential execution.
+   */
+  public static void forEachChunk(final int size, final int chunkCount, final ChunkTask task)
+      throws ODataApplicationException {
+    final ExecutorService currentExecutor = executor;
+    if (currentExecutor == null) {
+      // Disabled in the meantime
+      new Chunk(task, 0, size).call();
+      return;
+    }
+    final List<Future<Void>> futures = new ArrayList<Future<Void>>(chunkCount);
+    Throwable failure = null;
+    try {
+      for (int chunk = 1; chunk < chunkCount; chunk++) {
+        futures.add(currentExecutor.submit(new Chunk(task,
+            getChunkStart(size, chunkCount, chunk), getChunkStart(size, chunkCount, chunk + 1))));
+      }
+      try {
+        new Chunk(task, 0, getChunkStart(size, chunkCount, 1)).call();
+      } catch (final Exception e) {
+        failure = e;
+      } catch (final Error e) {
+        failure = e;
+      }
+    } finally {
+      for (final Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch (final ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          if (failure == null) {
+            failure = e;
+          }
+        }
+      }
+    }
+    if (failure instanceof ODataApplicationException) {
+      throw (ODataApplicationException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw new ODataApplicationException("Exception in parallel query option evaluation",
+          HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT, failure);
+    }
+  }
+
+  /** Work on one chunk of a collection. */
+  public interface ChunkTask {
+    /** Processes the entities from index <code>from</code> (inclusive) to index <code>to</code> (exclusive). */
+    void run(int from, int to) throws ODataApplicationException;
+  }
+
+  private static class Chunk implements Callable<Void> {
+    private final ChunkTask task;
+    private final int from;
+    private final int to;
+
+    Chunk(final ChunkTask task, final int from, final int to) {
+      this.task = task;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public Void call() throws ODataApplicationException {
+      IN_CHUNK.set(Boolean.TRUE);
+      try {
+        task.run(from, to);
+      } finally {
+        IN_CHUNK.remove();
+      }
+      return null;
+    }
+  }
+}
@@ -23,6 +23,7 @@ import java.util.Locale;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.SkipOption;
 import org.apache.olingo.server.api.uri.queryoption.TopOption;
 
 public class TopHandler {
@@ -39,6 +40,18 @@ public class TopHandler {
     }
   }
 
+  /**
+   * Returns the number of entities needed before $skip and $top are applied,
+   * or {@link Integer#MAX_VALUE} if all entities are needed.
+   */
+  public static int getResultLimit(final SkipOption skipOption, final TopOption topOption) {
+    if (topOption == null || topOption.getValue() < 0 || skipOption != null && skipOption.getValue() < 0) {
+      return Integer.MAX_VALUE;
+    }
+    final long limit = (long) topOption.getValue() + (skipOption == null ? 0 : skipOption.getValue());
+    return (int) Math.min(limit, Integer.MAX_VALUE);
+  }
+
   static void reduceToSize(final EntityCollection entitySet, final int n) {
     while (entitySet.getEntities().size() > n) {
       entitySet.getEntities().remove(entitySet.getEntities().size() - 1);
@@ -25,6 +25,7 @@ import java.util.List;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmEntityContainer;
@@ -175,6 +176,54 @@ public class DataProviderTest {
     Assert.assertEquals("x/y", entity.getMediaContentType());
   }
 
+  @Test
+  public void deleteAndCreateWithLinks() throws Exception {
+    final DataProvider dataProvider = new DataProvider(oData, edm);
+    final EdmEntitySet esTwoPrim = entityContainer.getEntitySet("ESTwoPrim");
+    final Entity target = dataProvider.readAll(esTwoPrim).getEntities().get(1);
+    final List<UriParameter> key = Arrays.asList(
+        mockParameter("PropertyInt16", target.getProperty("PropertyInt16").getValue().toString()));
+    Assert.assertEquals(target, dataProvider.read(esTwoPrim, key));
+
+    final Entity source = dataProvider.readAll(esAllPrim).getEntities().get(0);
+    Assert.assertNotNull(source.getNavigationLink("NavPropertyETTwoPrimMany"));
+    dataProvider.delete(esTwoPrim, target);
+    Assert.assertNull(dataProvider.read(esTwoPrim, key));
+    Assert.assertNull(source.getNavigationLink("NavPropertyETTwoPrimMany"));
+
+    final Entity entity = dataProvider.create(esTwoPrim);
+    Assert.assertEquals(entity, dataProvider.read(esTwoPrim, Arrays.asList(
+        mockParameter("PropertyInt16", entity.getProperty("PropertyInt16").getValue().toString()))));
+    dataProvider.setLink(esAllPrim.getEntityType().getNavigationProperty("NavPropertyETTwoPrimOne"),
+        source, entity);
+    dataProvider.delete(esTwoPrim, entity);
+    Assert.assertNull(source.getNavigationLink("NavPropertyETTwoPrimOne"));
+  }
+
+  @Test
+  public void deleteUpdatedEntityWithLinks() throws Exception {
+    final DataProvider dataProvider = new DataProvider(oData, edm);
+    final EdmEntitySet esTwoPrim = entityContainer.getEntitySet("ESTwoPrim");
+    // Deleting a new entity builds the reverse link index before the target below is changed.
+    dataProvider.delete(esTwoPrim, dataProvider.create(esTwoPrim));
+
+    final Entity target = dataProvider.readAll(esTwoPrim).getEntities().get(1);
+    dataProvider.updateETag(target);
+    dataProvider.updatePropertyValue(target.getProperty("PropertyString"), "changed");
+    dataProvider.delete(esTwoPrim, target);
+
+    for (final Entity entity : dataProvider.readAll(esAllPrim).getEntities()) {
+      for (final Link link : entity.getNavigationLinks()) {
+        Assert.assertNotSame(target, link.getInlineEntity());
+        if (link.getInlineEntitySet() != null) {
+          for (final Entity linked : link.getInlineEntitySet().getEntities()) {
+            Assert.assertNotSame(target, linked);
+          }
+        }
+      }
+    }
+  }
+
   private static UriParameter mockParameter(final String name, final String text) {
     UriParameter parameter = Mockito.mock(UriParameter.class);
     Mockito.when(parameter.getName()).thenReturn(name);
@@ -21,17 +21,23 @@ package org.apache.olingo.server.core;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.util.Collections;
 import java.util.Locale;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
@@ -80,6 +86,8 @@ import org.apache.olingo.server.core.debug.ServerCoreDebugger;
 import org.apache.olingo.server.tecsvc.provider.ContainerProvider;
 import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 public class ODataHandlerTest {
 
@@ -497,6 +505,87 @@ public class ODataHandlerTest {
     dispatchMethodNotAllowed(HttpMethod.PATCH, uri, processor);
   }
 
+  @Test
+  public void dispatchMediaRange() throws Exception {
+    final String uri = "ESMedia(1)/$value";
+    final File file = File.createTempFile("media", ".bin");
+    try {
+      FileUtils.writeStringToFile(file, "0123456789", "UTF-8");
+      final MediaEntityProcessor processor = mock(MediaEntityProcessor.class);
+      doAnswer(new Answer<Void>() {
+        @Override
+        public Void answer(final InvocationOnMock invocation) throws Throwable {
+          final ODataResponse response = (ODataResponse) invocation.getArguments()[1];
+          response.setODataContent(OData.newInstance().createFixedFormatSerializer()
+              .binary(new FileInputStream(file).getChannel()).getODataContent());
+          response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+          response.setHeader(HttpHeader.ETAG, "\"1\"");
+          response.setHeader(HttpHeader.CONTENT_LENGTH, "10");
+          return null;
+        }
+      }).when(processor).readMediaEntity(
+          any(ODataRequest.class), any(ODataResponse.class), any(UriInfo.class), any(ContentType.class));
+
+      ODataResponse response = dispatch(HttpMethod.GET, uri, processor);
+      assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+      assertEquals("bytes", response.getHeader(HttpHeader.ACCEPT_RANGES));
+      assertEquals("0123456789", write(response));
+
+      response = dispatch(HttpMethod.GET, uri, null, HttpHeader.RANGE, "bytes=2-4", processor);
+      assertEquals(HttpStatusCode.PARTIAL_CONTENT.getStatusCode(), response.getStatusCode());
+      assertEquals("bytes 2-4/10", response.getHeader(HttpHeader.CONTENT_RANGE));
+      assertEquals("3", response.getHeader(HttpHeader.CONTENT_LENGTH));
+      assertEquals("234", write(response));
+
+      response = dispatch(HttpMethod.GET, uri, null, HttpHeader.RANGE, "bytes=-3", processor);
+      assertEquals(HttpStatusCode.PARTIAL_CONTENT.getStatusCode(), response.getStatusCode());
+      assertEquals("789", write(response));
+
+      response = dispatch(HttpMethod.GET, uri, null, HttpHeader.RANGE, "bytes=7-", processor);
+      assertEquals("bytes 7-9/10", response.getHeader(HttpHeader.CONTENT_RANGE));
+      assertEquals("789", write(response));
+
+      response = dispatch(HttpMethod.GET, uri, null, HttpHeader.RANGE, "bytes=0-1,4-5", processor);
+      assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+      assertEquals("0123456789", write(response));
+
+      response = dispatch(HttpMethod.GET, uri, null, HttpHeader.RANGE, "bytes=10-", processor);
+      assertEquals(HttpStatusCode.RANGE_NOT_SATISFIABLE.getStatusCode(), response.getStatusCode());
+      assertEquals("bytes */10", response.getHeader(HttpHeader.CONTENT_RANGE));
+      assertNull(response.getHeader(HttpHeader.CONTENT_LENGTH));
+      assertNull(response.getODataContent());
+
+      // malformed ranges are ignored
+      response = dispatch(HttpMethod.GET, uri, null, HttpHeader.RANGE, "bytes=--5", processor);
+      assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+      assertEquals("0123456789", write(response));
+
+      // conditional range requests
+      ODataRequest request = new ODataRequest();
+      request.addHeader(HttpHeader.RANGE, Collections.singletonList("bytes=2-4"));
+      request.addHeader(HttpHeader.IF_RANGE, Collections.singletonList("\"1\""));
+      response = dispatch(HttpMethod.GET, uri, request, processor);
+      assertEquals(HttpStatusCode.PARTIAL_CONTENT.getStatusCode(), response.getStatusCode());
+      assertEquals("234", write(response));
+
+      request = new ODataRequest();
+      request.addHeader(HttpHeader.RANGE, Collections.singletonList("bytes=2-4"));
+      request.addHeader(HttpHeader.IF_RANGE, Collections.singletonList("\"0\""));
+      response = dispatch(HttpMethod.GET, uri, request, processor);
+      assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+      assertNull(response.getHeader(HttpHeader.CONTENT_RANGE));
+      assertEquals("0123456789", write(response));
+    } finally {
+      file.delete();
+    }
+  }
+
+  private String write(final ODataResponse response) throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    response.getODataContent().write(output);
+    return output.toString("UTF-8");
+  }
+
   @Test
   public void dispatchMediaDeleteIndirect() throws Exception {
     final MediaEntityProcessor processor = mock(MediaEntityProcessor.class);
@@ -718,19 +807,23 @@ public class ODataHandlerTest {
   private ODataResponse dispatch(final HttpMethod method, final String path, final String query,
       final String headerName, final String headerValue, final Processor processor) {
     ODataRequest request = new ODataRequest();
+    request.setRawQueryPath(query);
+    if (headerName != null) {
+      request.addHeader(headerName, Collections.singletonList(headerValue));
+    }
+    return dispatch(method, path, request, processor);
+  }
+
+  private ODataResponse dispatch(final HttpMethod method, final String path, final ODataRequest request,
+      final Processor processor) {
     request.setMethod(method);
     request.setRawBaseUri(BASE_URI);
     if (path.isEmpty()) {
       request.setRawRequestUri(BASE_URI);
     }
     request.setRawODataPath(path);
-    request.setRawQueryPath(query);
-
-    if (headerName != null) {
-      request.addHeader(headerName, Collections.singletonList(headerValue));
-    }
 
-    if (headerName != HttpHeader.CONTENT_TYPE) {
+    if (request.getHeaders(HttpHeader.CONTENT_TYPE) == null) {
       request.addHeader(HttpHeader.CONTENT_TYPE, Collections.singletonList(
           ContentType.JSON.toContentTypeString()));
     }
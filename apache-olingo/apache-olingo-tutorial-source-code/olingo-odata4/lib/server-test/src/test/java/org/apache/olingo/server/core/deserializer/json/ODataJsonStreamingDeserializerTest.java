@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.EdmAction;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.ODataLibraryException.MessageKey;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.api.deserializer.DeserializerResult;
+import org.apache.olingo.server.api.deserializer.ODataDeserializer;
+import org.junit.Test;
+
+/**
+ * Compares the token-streaming deserializer with the tree-based one.
+ */
+public class ODataJsonStreamingDeserializerTest extends AbstractODataDeserializerTest {
+
+  private static final EdmEntityType ET_ALL_PRIM =
+      edm.getEntityType(new FullQualifiedName("Namespace1_Alias", "ETAllPrim"));
+
+  private final ODataDeserializer tree = new ODataJsonDeserializer(CONTENT_TYPE_JSON);
+  private final ODataDeserializer streaming = new ODataJsonStreamingDeserializer(CONTENT_TYPE_JSON);
+
+  @Test
+  public void sameEntities() throws Exception {
+    for (final String file : new String[] {
+        "EntityESAllPrimExpandedNavPropertyETTwoPrimOne.json",
+        "EntityESAllPrimExpandedNavPropertyETTwoPrimOneWithODataAnnotations.json",
+        "EntityESAllPrimExpandedNavPropertyETTwoPrimMany.json",
+        "EntityESAllPrimExpandedNavPropertyETTwoPrimManyWithODataAnnotations.json" }) {
+      final String content = IOUtils.toString(getFileAsStream(file));
+      final DeserializerResult expected = tree.entity(stream(content), ET_ALL_PRIM);
+      final DeserializerResult actual = streaming.entity(stream(content), ET_ALL_PRIM);
+      assertEquals(file, expected.getEntity(), actual.getEntity());
+      assertEquals(file, expected.getExpandTree().getExpandItems().size(),
+          actual.getExpandTree().getExpandItems().size());
+    }
+
+    final EdmEntityType type = edm.getEntityType(new FullQualifiedName("Namespace1_Alias", "ETMixEnumDefCollComp"));
+    final String content = IOUtils.toString(getFileAsStream("EntityETMixEnumDefCollComp.json"));
+    assertEquals(tree.entity(stream(content), type).getEntity(), streaming.entity(stream(content), type).getEntity());
+  }
+
+  @Test
+  public void sameEntityCollections() throws Exception {
+    assertSameEntityCollection("ESAllPrim.json", ET_ALL_PRIM);
+    assertSameEntityCollection("ESAllPrimWithODataAnnotations.json", ET_ALL_PRIM);
+    assertSameEntityCollection("ESCompCollComp.json",
+        edm.getEntityType(new FullQualifiedName("Namespace1_Alias", "ETCompCollComp")));
+  }
+
+  @Test
+  public void sameBindingLinks() throws Exception {
+    final String content = "{\"PropertyInt16\":1,"
+        + "\"NavPropertyETTwoPrimOne@odata.bind\":\"ESTwoPrim(2)\","
+        + "\"NavPropertyETTwoPrimMany@odata.bind\":[\"ESTwoPrim(3)\",\"ESTwoPrim(4)\"]}";
+    assertEquals(tree.entity(stream(content), ET_ALL_PRIM).getEntity(),
+        streaming.entity(stream(content), ET_ALL_PRIM).getEntity());
+  }
+
+  @Test
+  public void sameActionParameters() throws Exception {
+    final EdmAction action = edm.getUnboundAction(new FullQualifiedName("Namespace1_Alias", "UARTTwoParam"));
+    final String content = "{\"ParameterInt16\":42,\"ParameterDuration\":\"P42DT11H22M33S\"}";
+    assertEquals(tree.actionParameters(stream(content), action).getActionParameters(),
+        streaming.actionParameters(stream(content), action).getActionParameters());
+  }
+
+  @Test
+  public void sameEntityErrors() throws Exception {
+    final String[] payloads = {
+        "",
+        "{",
+        "{\"PropertyInt16\":1,\"PropertyInt16\":2}",
+        "{\"PropertyInt16\":\"1\",\"PropertyInt16\":1}",
+        "{\"PropertyInt16\":\"1\",\"Unknown\":{\"a\":1,\"a\":2}}",
+        "{\"PropertyInt16\":\"1\",}",
+        "{\"PropertyInt16\":null}",
+        "{\"PropertyInt16\":\"1\"}",
+        "{\"PropertyInt16\":1.5}",
+        "{\"PropertyInt16\":{}}",
+        "{\"PropertyInt16\":[1]}",
+        "{\"PropertyInt16\":40000}",
+        "{\"PropertyString\":1}",
+        "{\"PropertyBoolean\":\"true\"}",
+        "{\"PropertyInt64\":\"1\"}",
+        "{\"PropertyDate\":\"2012-13-01\"}",
+        "{\"PropertyInt16\":1,\"Unknown\":1}",
+        "{\"PropertyInt16\":1,\"Custom@annotation\":1}",
+        "{\"PropertyInt16\":1,\"NavPropertyETTwoPrimOne\":[]}",
+        "{\"PropertyInt16\":1,\"NavPropertyETTwoPrimMany\":null}",
+        "{\"PropertyInt16\":1,\"NavPropertyETTwoPrimMany\":[1]}",
+        "{\"PropertyInt16\":1,\"NavPropertyETTwoPrimMany\":{}}",
+        "{\"PropertyInt16\":1,\"NavPropertyETTwoPrimMany@odata.bind\":\"ESTwoPrim(1)\"}",
+        "{\"PropertyInt16\":1,\"NavPropertyETTwoPrimMany@odata.bind\":[1]}",
+        "{\"PropertyInt16\":1,\"NavPropertyETTwoPrimMany@odata.bind\":[null]}",
+        "{\"PropertyInt16\":1,\"NavPropertyETTwoPrimOne@odata.bind\":null}",
+        "{\"PropertyInt16\":1,\"NavPropertyETTwoPrimOne@odata.bind\":{}}",
+        "{\"PropertyInt16\":1,\"Wrong@odata.bind\":\"ESTwoPrim(1)\"}" };
+    for (final String payload : payloads) {
+      assertEquals(payload, getEntityError(tree, payload, ET_ALL_PRIM),
+          getEntityError(streaming, payload, ET_ALL_PRIM));
+    }
+  }
+
+  @Test
+  public void sameEntityCollectionErrors() throws Exception {
+    final String[] payloads = {
+        "{}",
+        "{\"value\":{}}",
+        "{\"value\":[1]}",
+        "{\"value\":[[]]}",
+        "{\"value\":[],\"value\":[]}",
+        "{\"value\":[],\"Unknown\":1}",
+        "{\"value\":[],\"Custom@annotation\":1}",
+        "{\"value\":[{\"PropertyInt16\":\"1\"}]}",
+        "{\"value\":[{\"PropertyInt16\":1,\"PropertyInt16\":2}]}",
+        "{\"value\":[{\"PropertyInt16\":\"1\",\"PropertyInt16\":1}]}",
+        "{\"value\":[{\"PropertyInt16\":\"1\"}],\"value\":[]}" };
+    for (final String payload : payloads) {
+      assertEquals(payload, getEntityCollectionError(tree, payload), getEntityCollectionError(streaming, payload));
+    }
+  }
+
+  @Test
+  public void sameComplexErrors() throws Exception {
+    final EdmEntityType type = edm.getEntityType(new FullQualifiedName("Namespace1_Alias", "ETCompAllPrim"));
+    final String[] payloads = {
+        "{\"PropertyInt16\":1,\"PropertyComp\":1}",
+        "{\"PropertyInt16\":1,\"PropertyComp\":[]}",
+        "{\"PropertyInt16\":1,\"PropertyComp\":{\"Unknown\":1}}",
+        "{\"PropertyInt16\":1,\"PropertyComp\":{\"PropertyString\":1}}",
+        "{\"PropertyInt16\":1,\"PropertyComp\":{\"Custom@annotation\":1}}" };
+    for (final String payload : payloads) {
+      final MessageKey expected = getEntityError(tree, payload, type);
+      assertNotNull(payload, expected);
+      assertEquals(payload, expected, getEntityError(streaming, payload, type));
+    }
+  }
+
+  @Test
+  public void ieee754Compatible() throws Exception {
+    final ContentType contentType = CONTENT_TYPE_JSON_IEEE754Compatible;
+    final String content = "{\"PropertyInt16\":1,\"PropertyInt64\":\"9223372036854775807\","
+        + "\"PropertyDecimal\":\"34\"}";
+    assertEquals(new ODataJsonDeserializer(contentType).entity(stream(content), ET_ALL_PRIM).getEntity(),
+        new ODataJsonStreamingDeserializer(contentType).entity(stream(content), ET_ALL_PRIM).getEntity());
+  }
+
+  private void assertSameEntityCollection(final String file, final EdmEntityType type) throws Exception {
+    final String content = IOUtils.toString(getFileAsStream(file));
+    final EntityCollection expected = tree.entityCollection(stream(content), type).getEntityCollection();
+    final EntityCollection actual = streaming.entityCollection(stream(content), type).getEntityCollection();
+    assertEquals(file, expected.getEntities(), actual.getEntities());
+  }
+
+  private MessageKey getEntityError(final ODataDeserializer deserializer, final String payload,
+      final EdmEntityType type) {
+    try {
+      deserializer.entity(stream(payload), type);
+    } catch (final DeserializerException e) {
+      return e.getMessageKey();
+    }
+    return null;
+  }
+
+  private MessageKey getEntityCollectionError(final ODataDeserializer deserializer, final String payload) {
+    try {
+      deserializer.entityCollection(stream(payload), ET_ALL_PRIM);
+    } catch (final DeserializerException e) {
+      return e.getMessageKey();
+    }
+    return null;
+  }
+
+  private static InputStream stream(final String content) {
+    return new ByteArrayInputStream(content.getBytes());
+  }
+}
@@ -18,16 +18,23 @@
  */
 package org.apache.olingo.server.core.serializer.json;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.ContextURL.Suffix;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
@@ -132,6 +139,40 @@ public class ODataJsonSerializerTest {
     Assert.assertEquals(expectedResult, resultString);
   }
 
+  @Test
+  public void entitySetSharedSerializer() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final EntityCollection entitySet = data.readAll(edmEntitySet);
+    final EntityCollectionSerializerOptions options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+        .build();
+    final String expectedResult = IOUtils.toString(
+        serializer.entityCollection(metadata, edmEntitySet.getEntityType(), entitySet, options).getContent());
+
+    final Callable<String> task = new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        String result = null;
+        for (int i = 0; i < 50; i++) {
+          result = IOUtils.toString(
+              serializer.entityCollection(metadata, edmEntitySet.getEntityType(), entitySet, options).getContent());
+          if (!expectedResult.equals(result)) {
+            break;
+          }
+        }
+        return result;
+      }
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (final Future<String> result : executor.invokeAll(Collections.nCopies(8, task))) {
+        Assert.assertEquals(expectedResult, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Test(expected = SerializerException.class)
   public void entityAllPrimKeyNull() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
@@ -193,6 +234,75 @@ public class ODataJsonSerializerTest {
     Assert.assertEquals(8, count);
   }
 
+  @Test
+  public void entitySetCompAllPrimStreamed() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESCompAllPrim");
+    EntityCollection entitySet = data.readAll(edmEntitySet);
+    entitySet.setCount(entitySet.getEntities().size());
+    entitySet.setNext(URI.create("/next"));
+    CountOption countOption = Mockito.mock(CountOption.class);
+    Mockito.when(countOption.getValue()).thenReturn(true);
+    final EntityCollectionSerializerOptions options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+        .count(countOption)
+        .build();
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    serializer.entityCollectionStreamed(metadata, edmEntitySet.getEntityType(), entitySet, options)
+        .getODataContent().write(output);
+
+    final String expectedResult = IOUtils.toString(
+        serializer.entityCollection(metadata, edmEntitySet.getEntityType(), entitySet, options).getContent());
+    Assert.assertEquals(expectedResult, output.toString("UTF-8"));
+  }
+
+  @Test
+  public void entitySetTwoPrimIterator() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
+    final Iterator<Entity> entities = data.readAll(edmEntitySet).getEntities().iterator();
+    EntityIterator entityIterator = new EntityIterator() {
+      private int count = 0;
+
+      @Override
+      public boolean hasNext() {
+        return entities.hasNext();
+      }
+
+      @Override
+      public Entity next() {
+        count++;
+        return entities.next();
+      }
+
+      @Override
+      public Integer getCount() {
+        return hasNext() ? null : count;
+      }
+
+      @Override
+      public URI getNext() {
+        return hasNext() ? null : URI.create("/next");
+      }
+    };
+    CountOption countOption = Mockito.mock(CountOption.class);
+    Mockito.when(countOption.getValue()).thenReturn(true);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    serializer.entityCollectionStreamed(metadata, edmEntitySet.getEntityType(), entityIterator,
+        EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+            .count(countOption)
+            .build()).getODataContent().write(output);
+    final String expectedResult = "{\"@odata.context\":\"$metadata#ESTwoPrim\","
+        + "\"@odata.metadataEtag\":\"W/\\\"metadataETag\\\"\","
+        + "\"value\":["
+        + "{\"PropertyInt16\":32766,\"PropertyString\":\"Test String1\"},"
+        + "{\"PropertyInt16\":-365,\"PropertyString\":\"Test String2\"},"
+        + "{\"PropertyInt16\":-32766,\"PropertyString\":null},"
+        + "{\"PropertyInt16\":32767,\"PropertyString\":\"Test String4\"}],"
+        + "\"@odata.count\":4,"
+        + "\"@odata.nextLink\":\"/next\"}";
+    Assert.assertEquals(expectedResult, output.toString("UTF-8"));
+  }
+
   @Test
   public void entityCollAllPrim() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESCollAllPrim");
@@ -558,6 +668,44 @@ public class ODataJsonSerializerTest {
         resultString);
   }
 
+  @Test
+  public void serializationPlanIsReused() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
+    final EdmEntityType entityType = edmEntitySet.getEntityType();
+    final SelectOption innerSelect = ExpandSelectMock.mockSelectOption(Arrays.asList(
+        ExpandSelectMock.mockSelectItem(entityContainer.getEntitySet("ESAllPrim"), "PropertyDate")));
+    final ExpandItem expandItem = ExpandSelectMock.mockExpandItem(edmEntitySet, "NavPropertyETAllPrimOne");
+    Mockito.when(expandItem.getSelectOption()).thenReturn(innerSelect);
+    final SerializationPlan plan = ((ServiceMetadataImpl) metadata).getSerializationPlan(entityType,
+        ExpandSelectMock.mockSelectOption(Arrays.asList(
+            ExpandSelectMock.mockSelectItem(edmEntitySet, "PropertyString"))),
+        ExpandSelectMock.mockExpandOption(Arrays.asList(expandItem)));
+    Assert.assertEquals(1, plan.getProperties().size());
+    Assert.assertEquals("PropertyString", plan.getProperties().get(0).getEdmProperty().getName());
+    Assert.assertEquals(1, plan.getNavigationProperties().size());
+    Assert.assertEquals(1, plan.getNavigationProperties().get(0).getTargetPlan().getProperties().size());
+
+    // Equivalent options from another request get the same plan; other options get another one.
+    Assert.assertSame(plan, ((ServiceMetadataImpl) metadata).getSerializationPlan(entityType,
+        ExpandSelectMock.mockSelectOption(Arrays.asList(
+            ExpandSelectMock.mockSelectItem(edmEntitySet, "PropertyString"))),
+        ExpandSelectMock.mockExpandOption(Arrays.asList(expandItem))));
+    Assert.assertNotSame(plan, ((ServiceMetadataImpl) metadata).getSerializationPlan(entityType,
+        ExpandSelectMock.mockSelectOption(Arrays.asList(
+            ExpandSelectMock.mockSelectItem(edmEntitySet, "PropertyString"))),
+        null));
+  }
+
+  @Test
+  public void entityPropertiesInOtherOrder() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
+    final Entity entity = data.readAll(edmEntitySet).getEntities().get(3);
+    Collections.reverse(entity.getProperties());
+    Assert.assertEquals("{\"PropertyInt16\":32767,\"PropertyString\":\"Test String4\"}",
+        IOUtils.toString(serializerNoMetadata.entity(metadata, edmEntitySet.getEntityType(), entity, null)
+            .getContent()));
+  }
+
   @Test
   public void expandAll() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.server.core.serializer.json;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -30,6 +31,7 @@ import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.tecsvc.MetadataETagSupport;
 import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
@@ -83,4 +85,36 @@ public class ServiceDocumentTest {
     assertFalse(result.contains("odata.metadata"));
     assertTrue(result.contains("ESAllPrim"));
   }
+
+  @Test
+  public void cachedServiceDocument() throws Exception {
+    final String[] eTag = new String[] { "W/\"1\"" };
+    final ServiceMetadata localMetadata = OData.newInstance().createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList(),
+        new ServiceMetadataETagSupport() {
+          @Override
+          public String getMetadataETag() {
+            return eTag[0];
+          }
+
+          @Override
+          public String getServiceDocumentETag() {
+            return null;
+          }
+        });
+    final ODataSerializer serializer = OData.newInstance().createSerializer(ContentType.JSON);
+
+    final String first = IOUtils.toString(serializer.serviceDocument(localMetadata, null).getContent());
+    assertTrue(first.contains("ESAllPrim"));
+    assertEquals(first, IOUtils.toString(serializer.serviceDocument(localMetadata, null).getContent()));
+
+    final String noMetadata = IOUtils.toString(OData.newInstance().createSerializer(ContentType.JSON_NO_METADATA)
+        .serviceDocument(localMetadata, null).getContent());
+    assertFalse(noMetadata.contains("odata.context"));
+
+    eTag[0] = "W/\"2\"";
+    final String changed = IOUtils.toString(serializer.serviceDocument(localMetadata, null).getContent());
+    assertTrue(changed.contains("W/\\\"2\\\""));
+    assertFalse(changed.contains("W/\\\"1\\\""));
+  }
 }
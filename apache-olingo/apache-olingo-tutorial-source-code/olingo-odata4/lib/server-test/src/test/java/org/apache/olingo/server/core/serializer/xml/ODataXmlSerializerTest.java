@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.server.core.serializer.xml;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -26,12 +27,14 @@ import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.ContextURL.Suffix;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
@@ -288,6 +291,37 @@ public class ODataXmlSerializerTest {
     Assert.assertTrue(resultString.startsWith(prefix));
   }
 
+  @Test
+  public void entitySetTwoPrimIterator() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
+    final Iterator<Entity> entities = data.readAll(edmEntitySet).getEntities().iterator();
+    EntityIterator entityIterator = new EntityIterator() {
+      @Override
+      public boolean hasNext() {
+        return entities.hasNext();
+      }
+
+      @Override
+      public Entity next() {
+        return entities.next();
+      }
+
+      @Override
+      public URI getNext() {
+        return hasNext() ? null : URI.create("/next");
+      }
+    };
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    serializer.entityCollectionStreamed(metadata, edmEntitySet.getEntityType(), entityIterator,
+        EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+            .id("http://host/svc/ESTwoPrim")
+            .build()).getODataContent().write(output);
+    final String resultString = output.toString("UTF-8");
+    Assert.assertEquals(5, resultString.split("</a:entry>").length);
+    Assert.assertTrue(resultString.endsWith("</a:entry><a:link rel=\"next\" href=\"/next\"/></a:feed>"));
+  }
+
   @Test
   public void entityCollAllPrim() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESCollAllPrim");
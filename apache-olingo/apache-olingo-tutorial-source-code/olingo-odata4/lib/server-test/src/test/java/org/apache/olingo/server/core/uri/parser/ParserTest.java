@@ -18,14 +18,25 @@
  */
 package org.apache.olingo.server.core.uri.parser;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmEntityContainer;
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.core.edm.EdmProviderImpl;
 import org.apache.olingo.server.api.uri.UriInfoKind;
+import org.apache.olingo.server.core.uri.testutil.FilterTreeToText;
 import org.apache.olingo.server.core.uri.testutil.TestUriValidator;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
 import org.junit.Test;
 import org.mockito.Mockito;
 
@@ -124,4 +135,50 @@ public class ParserTest {
       assertEquals("NavigationProperty 'Category' not found in type 'NS.Products'", e.getMessage());
     }
   }
+
+  @Test
+  public void warmUp() throws Exception {
+    final Edm edm = new EdmProviderImpl(new EdmTechProvider());
+    assertEquals(2, Parser.warmUp(edm, Arrays.asList(
+        "ESAllPrim?$filter=PropertyInt16%20eq%201&$orderby=PropertyString",
+        "ESKeyNav(1)?$expand=NavPropertyETKeyNavMany($filter=PropertyInt16%20gt%201)",
+        "ESNotExisting")));
+  }
+
+  /** Tests that the re-used grammar parsers do not leak state from one input to the next. */
+  @Test
+  public void consecutiveAndConcurrentParsing() throws Exception {
+    final Edm edm = new EdmProviderImpl(new EdmTechProvider());
+    final Parser parser = new Parser();
+    try {
+      parser.parseUri("ESAllPrim", "$filter=PropertyInt16 eq", null, edm);
+      fail("Expected exception was not thrown.");
+    } catch (final UriParserSyntaxException e) {
+      assertEquals(UriParserSyntaxException.MessageKeys.SYNTAX, e.getMessageKey());
+    }
+    assertEquals("<<PropertyString> eq <'a'>>", FilterTreeToText.Serialize(
+        parser.parseUri("ESAllPrim", "$filter=PropertyString eq 'a'", null, edm).getFilterOption()));
+
+    final Callable<String> task = new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        String result = null;
+        for (int i = 0; i < 100; i++) {
+          result = FilterTreeToText.Serialize(new Parser().parseUri("ESTwoKeyNav",
+              "$filter=PropertyComp/PropertyInt16 eq " + i + " and PropertyString eq 'x'", null, edm)
+              .getFilterOption());
+        }
+        return result;
+      }
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<String>> results = executor.invokeAll(Collections.nCopies(8, task));
+      for (final Future<String> result : results) {
+        assertEquals(results.get(0).get(), result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.core.edm.EdmProviderImpl;
+import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriParameter;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceEntitySet;
+import org.apache.olingo.server.api.uri.UriResourceNavigation;
+import org.apache.olingo.server.api.uri.UriResourcePartTyped;
+import org.apache.olingo.server.api.uri.queryoption.expression.Literal;
+import org.apache.olingo.server.core.uri.testutil.FilterTreeToText;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+/**
+ * Differential tests ensuring that the {@link SimplePathParser} gives the same results as the grammar.
+ */
+public class SimplePathParserTest {
+
+  private static final Edm edm = new EdmProviderImpl(new EdmTechProvider());
+
+  @Test
+  public void entitySet() throws Exception {
+    testSupported("ESAllPrim", null);
+    testSupported("ESAllPrim", "$filter=PropertyInt16 eq 1&$top=2&$select=PropertyString");
+    testSupported("SI", null);
+    testSupported("ESAllPrim/$count", null);
+    testSupported("ESAllPrim/$count", "$filter=PropertyInt16 eq 1");
+  }
+
+  @Test
+  public void keyPredicate() throws Exception {
+    testSupported("ESAllPrim(1)", null);
+    testSupported("ESAllPrim(-32768)", null);
+    testSupported("ESAllPrim(32767)", "$select=PropertyString");
+    testSupported("ESAllPrim(200)", null);
+    testSupported("ESAllPrim(2147483648)", null);
+    testSupported("ESAllPrim(PropertyInt16=1)", null);
+    testSupported("ESTwoPrim('a')", null);
+    testSupported("ESMixEnumDefCollComp('it''s')", null);
+    testSupported("ESTwoKeyNav(PropertyInt16=1,PropertyString='2')", null);
+    testSupported("ESTwoKeyNav(PropertyString='2',PropertyInt16=1)", null);
+  }
+
+  @Test
+  public void navigation() throws Exception {
+    testSupported("ESKeyNav(1)/NavPropertyETKeyNavOne", null);
+    testSupported("ESKeyNav(1)/NavPropertyETKeyNavMany", "$filter=PropertyInt16 gt 1");
+    testSupported("ESKeyNav(1)/NavPropertyETKeyNavMany(2)", null);
+    testSupported("ESKeyNav(1)/NavPropertyETKeyNavMany(2)/NavPropertyETKeyNavOne", null);
+    testSupported("ESKeyNav(1)/NavPropertyETKeyNavMany/$count", null);
+    testSupported("ESKeyNav(1)/NavPropertyETTwoKeyNavMany(PropertyInt16=1,PropertyString='2')", null);
+    testSupported("SINav/NavPropertyETKeyNavOne", null);
+  }
+
+  @Test
+  public void fallback() throws Exception {
+    testFallback("ESKeyNav(1)/NavPropertyETTwoKeyNavMany('2')");
+    testFallback("ESKeyNav(PropertyInt16=1)/NavPropertyETTwoKeyNavMany(PropertyString='2')");
+    testFallback("ESKeyNav(1)/PropertyInt16");
+    testFallback("ESKeyNav(1)/NavPropertyETKeyNavMany(2)/$ref");
+    testFallback("ESAllPrim(1)/$value");
+    testFallback("ESTwoKeyNav/olingo.odata.test1.ETBaseTwoKeyNav");
+    testFallback("ESAllKey(PropertyDate=2012-12-03)");
+    testFallback("ESAllPrim(1.5)");
+    testFallback("ESAllPrim(12345678901234567890)");
+    testFallback("FICRTString()");
+  }
+
+  @Test
+  public void errors() throws Exception {
+    testFallback("ESAllPrim/$count/$count");
+    testFallback("ESAllPrim(1)/$count");
+    testFallback("ESNotExisting");
+    testFallback("ESAllPrim/NavPropertyETKeyNavOne");
+    testFallback("ESAllPrim(1)/NotExisting");
+    testFallback("ESAllPrim()");
+    testFallback("ESAllPrim(1)(2)");
+    testFallback("ESAllPrim(1");
+    testFallback("ESAllPrim('1)");
+    testFallback("ESTwoKeyNav(1)");
+    testFallback("ESTwoKeyNav(PropertyInt16=1)");
+    testFallback("SI(1)");
+    testFallback("ESKeyNav(1)/NavPropertyETKeyNavOne(1)");
+    testFallback("ESAllPrim/");
+  }
+
+  private void testSupported(final String path, final String query) throws Exception {
+    assertNotNull(path, new SimplePathParser(edm).parse(Arrays.asList(path.split("/"))));
+    compare(path, query);
+  }
+
+  private void testFallback(final String path) throws Exception {
+    assertNull(path, new SimplePathParser(edm).parse(Arrays.asList(path.split("/", -1))));
+    compare(path, null);
+  }
+
+  private void compare(final String path, final String query) {
+    assertEquals(path, parse(path, query, false), parse(path, query, true));
+  }
+
+  private String parse(final String path, final String query, final boolean fastPathEnabled) {
+    Parser parser = new Parser();
+    parser.fastPathEnabled = fastPathEnabled;
+    try {
+      return toText(parser.parseUri(path, query, null, edm));
+    } catch (final ODataLibraryException e) {
+      return e.getClass().getSimpleName() + ' ' + e.getMessageKey();
+    } catch (final Exception e) {
+      return e.toString();
+    }
+  }
+
+  private String toText(final UriInfo uriInfo) throws Exception {
+    StringBuilder result = new StringBuilder(uriInfo.getKind().name());
+    for (final UriResource part : uriInfo.getUriResourceParts()) {
+      result.append(" / ").append(part.getClass().getSimpleName())
+          .append(' ').append(part.getKind())
+          .append(' ').append(part.getSegmentValue());
+      if (part instanceof UriResourcePartTyped) {
+        result.append(' ').append(((UriResourcePartTyped) part).getType().getFullQualifiedName())
+            .append(((UriResourcePartTyped) part).isCollection() ? " collection" : "");
+      }
+      if (part instanceof UriResourceEntitySet) {
+        appendKeys(result, ((UriResourceEntitySet) part).getKeyPredicates());
+      } else if (part instanceof UriResourceNavigation) {
+        appendKeys(result, ((UriResourceNavigation) part).getKeyPredicates());
+      }
+    }
+    if (uriInfo.getFilterOption() != null) {
+      result.append(" filter ").append(FilterTreeToText.Serialize(uriInfo.getFilterOption()));
+    }
+    if (uriInfo.getSelectOption() != null) {
+      result.append(" select ").append(uriInfo.getSelectOption().getSelectItems().size());
+    }
+    if (uriInfo.getTopOption() != null) {
+      result.append(" top ").append(uriInfo.getTopOption().getValue());
+    }
+    return result.toString();
+  }
+
+  private void appendKeys(StringBuilder result, final List<UriParameter> keys) {
+    for (final UriParameter key : keys) {
+      result.append(" (").append(key.getName())
+          .append(' ').append(key.getText())
+          .append(' ').append(key.getAlias())
+          .append(' ').append(key.getReferencedProperty());
+      if (key.getExpression() != null) {
+        result.append(' ').append(key.getExpression().getClass().getSimpleName());
+        if (key.getExpression() instanceof Literal) {
+          final Literal literal = (Literal) key.getExpression();
+          result.append(' ').append(literal.getText())
+              .append(' ').append(literal.getType() == null ? null : literal.getType().getFullQualifiedName());
+        }
+      }
+      result.append(')');
+    }
+  }
+}
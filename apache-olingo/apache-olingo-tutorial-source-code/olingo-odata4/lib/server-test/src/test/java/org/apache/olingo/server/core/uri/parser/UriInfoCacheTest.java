@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.core.edm.EdmProviderImpl;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class UriInfoCacheTest {
+
+  private static final Edm edm = new EdmProviderImpl(new EdmTechProvider());
+
+  @Test
+  public void cachedResultIsReused() throws Exception {
+    final UriInfoCache cache = new UriInfoCache();
+    final Parser parser = new Parser(cache);
+    final UriInfo first = parser.parseUri("ESAllPrim", "$top=1", null, edm);
+    final UriInfo second = parser.parseUri("ESAllPrim", "$top=1", null, edm);
+    assertSame(first, second);
+    assertNotSame(first, parser.parseUri("ESAllPrim", "$top=2", null, edm));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void keyContainsEdmIdentity() throws Exception {
+    final UriInfoCache cache = new UriInfoCache();
+    final Parser parser = new Parser(cache);
+    final Edm otherEdm = new EdmProviderImpl(new EdmTechProvider());
+    assertNotSame(parser.parseUri("ESAllPrim", null, null, edm),
+        parser.parseUri("ESAllPrim", null, null, otherEdm));
+    assertEquals(0, cache.getHitCount());
+    assertEquals(2, cache.size());
+
+    cache.invalidate(otherEdm);
+    assertEquals(1, cache.size());
+    assertNull(cache.get("ESAllPrim", null, null, otherEdm));
+
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void leastRecentlyUsedEntryIsRemoved() throws Exception {
+    final UriInfoCache cache = new UriInfoCache(2);
+    final Parser parser = new Parser(cache);
+    final UriInfo allPrim = parser.parseUri("ESAllPrim", null, null, edm);
+    parser.parseUri("ESTwoPrim", null, null, edm);
+    assertSame(allPrim, parser.parseUri("ESAllPrim", null, null, edm));
+    parser.parseUri("ESMixPrimCollComp", null, null, edm);
+
+    assertEquals(2, cache.size());
+    assertNull(cache.get("ESTwoPrim", null, null, edm));
+    assertSame(allPrim, cache.get("ESAllPrim", null, null, edm));
+  }
+
+  @Test
+  public void failedParsingIsNotCached() throws Exception {
+    final UriInfoCache cache = new UriInfoCache();
+    try {
+      new Parser(cache).parseUri("ESNotExisting", null, null, edm);
+      fail("Expected UriParserException");
+    } catch (final UriParserException e) {
+      assertEquals(0, cache.size());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidSize() {
+    new UriInfoCache(0);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions.expression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.core.edm.EdmProviderImpl;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.UntypedOperand;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.VisitorOperand;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class CompiledExpressionTest {
+
+  private static final Edm edm = new EdmProviderImpl(new EdmTechProvider());
+  private static final EdmEntitySet esAllPrim = edm.getEntityContainer().getEntitySet("ESAllPrim");
+
+  @Test
+  public void filterSameAsInterpreted() throws Exception {
+    final String[] filters = {
+        "PropertyInt16 gt 100 and PropertyString ne 'S7'",
+        "PropertyInt16 add 5 mul 2 le 300 or not (PropertyInt16 lt 0)",
+        "PropertyInt16 mod 3 eq 1",
+        "contains(PropertyString,'1') or length(PropertyString) eq 2",
+        "startswith(tolower(PropertyString),'s1') and endswith(PropertyString,'3')",
+        "1 add 2 eq PropertyInt16",
+        "-PropertyInt16 ge 10" };
+    for (final String filter : filters) {
+      assertSameAsInterpreted(filter, parse("$filter=" + filter).getFilterOption().getExpression());
+    }
+  }
+
+  @Test
+  public void orderBySameAsInterpreted() throws Exception {
+    final String[] orders = { "PropertyString", "PropertyInt16 sub 10", "concat(PropertyString,'x')" };
+    for (final String order : orders) {
+      assertSameAsInterpreted(order, parse("$orderby=" + order).getOrderByOption().getOrders().get(0).getExpression());
+    }
+  }
+
+  @Test
+  public void constantSubexpressionsAreEvaluatedOnce() throws Exception {
+    final CompiledExpression compiled = CompiledExpression.compile(
+        parse("$filter=2 add 3 gt 4").getFilterOption().getExpression());
+    final List<Entity> entities = createEntities();
+    final VisitorOperand first = compiled.evaluate(entities.get(0));
+    assertEquals(Boolean.TRUE, first.getValue());
+    assertSame(first, compiled.evaluate(entities.get(1)));
+  }
+
+  @Test
+  public void untypedOperandCachesItsType() throws Exception {
+    final UntypedOperand operand = new UntypedOperand("42");
+    final TypedOperand typed = operand.determineType();
+    assertSame(typed, operand.determineType());
+    assertEquals(new UntypedOperand("42").determineType().getValue(), typed.getValue());
+    assertEquals(new UntypedOperand("42").determineType().getType(), typed.getType());
+  }
+
+  private static void assertSameAsInterpreted(final String message, final Expression expression)
+      throws Exception {
+    final CompiledExpression compiled = CompiledExpression.compile(expression);
+    for (final Entity entity : createEntities()) {
+      final VisitorOperand interpreted = expression.accept(new ExpressionVisitorImpl(entity, esAllPrim));
+      final VisitorOperand evaluated = compiled.evaluate(entity);
+      assertEquals(message, interpreted.getValue(), evaluated.getValue());
+      assertEquals(message, interpreted.asTypedOperand().getType(), evaluated.asTypedOperand().getType());
+    }
+  }
+
+  private static UriInfo parse(final String query) throws Exception {
+    return new Parser().parseUri("ESAllPrim", query, null, edm);
+  }
+
+  private static List<Entity> createEntities() {
+    final List<Entity> entities = new ArrayList<Entity>();
+    for (int i = -20; i <= 400; i += 7) {
+      entities.add(new Entity()
+          .addProperty(new Property(null, "PropertyInt16", ValueType.PRIMITIVE, (short) i))
+          .addProperty(new Property(null, "PropertyString", ValueType.PRIMITIVE, "S" + (i % 20))));
+    }
+    return entities;
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.core.edm.EdmProviderImpl;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelQueryOptionsTest {
+
+  private static final Edm edm = new EdmProviderImpl(new EdmTechProvider());
+  private static final EdmEntitySet esAllPrim = edm.getEntityContainer().getEntitySet("ESAllPrim");
+
+  @After
+  public void disable() {
+    ParallelQueryOptions.disable();
+  }
+
+  @Test
+  public void sameResultsAsSequential() throws Exception {
+    final List<Entity> entities = createEntities(5000);
+    final String[] queries = {
+        "$filter=PropertyInt16 gt 100 and PropertyString ne 'S7'",
+        "$orderby=PropertyString desc,PropertyInt16",
+        "$orderby=PropertyString&$skip=10&$top=25",
+        "$filter=PropertyInt16 lt 0&$orderby=PropertyInt16 desc&$top=100&$count=true",
+        "$orderby=PropertyInt16&$skip=4990&$top=20" };
+
+    for (final String query : queries) {
+      final EntityCollection sequential = apply(query, entities);
+      ParallelQueryOptions.enable(4, 100);
+      final EntityCollection parallel = apply(query, entities);
+      ParallelQueryOptions.disable();
+      assertEquals(query, sequential.getEntities(), parallel.getEntities());
+      assertEquals(query, sequential.getCount(), parallel.getCount());
+    }
+  }
+
+  @Test
+  public void topAfterOrderByKeepsFirstEntities() throws Exception {
+    final List<Entity> entities = createEntities(1000);
+    final EntityCollection all = apply("$orderby=PropertyString,PropertyInt16 desc", entities);
+    final EntityCollection page = apply("$orderby=PropertyString,PropertyInt16 desc&$skip=5&$top=10", entities);
+    assertEquals(all.getEntities().subList(5, 15), page.getEntities());
+  }
+
+  @Test
+  public void threshold() {
+    assertFalse(ParallelQueryOptions.isParallel(1000));
+    ParallelQueryOptions.enable(2, 1000);
+    assertFalse(ParallelQueryOptions.isParallel(999));
+    assertTrue(ParallelQueryOptions.isParallel(1000));
+  }
+
+  @Test
+  public void sharedByUsers() {
+    ParallelQueryOptions.enable(2, 1000);
+    ParallelQueryOptions.enable(4, 1000);
+    ParallelQueryOptions.disable();
+    assertTrue(ParallelQueryOptions.isParallel(1000));
+    ParallelQueryOptions.disable();
+    assertFalse(ParallelQueryOptions.isParallel(1000));
+    ParallelQueryOptions.disable();
+    assertFalse(ParallelQueryOptions.isParallel(1000));
+  }
+
+  private static EntityCollection apply(final String query, final List<Entity> entities) throws Exception {
+    final UriInfo uriInfo = new Parser().parseUri("ESAllPrim", query, null, edm);
+    final EntityCollection entitySet = new EntityCollection();
+    entitySet.getEntities().addAll(entities);
+    FilterHandler.applyFilterSystemQuery(uriInfo.getFilterOption(), entitySet, esAllPrim);
+    CountHandler.applyCountSystemQueryOption(uriInfo.getCountOption(), entitySet);
+    OrderByHandler.applyOrderByOption(uriInfo.getOrderByOption(), entitySet, esAllPrim,
+        TopHandler.getResultLimit(uriInfo.getSkipOption(), uriInfo.getTopOption()));
+    SkipHandler.applySkipSystemQueryHandler(uriInfo.getSkipOption(), entitySet);
+    TopHandler.applyTopSystemQueryOption(uriInfo.getTopOption(), entitySet);
+    return entitySet;
+  }
+
+  private static List<Entity> createEntities(final int count) {
+    final Random random = new Random(42);
+    final List<Entity> entities = new ArrayList<Entity>(count);
+    for (int i = 0; i < count; i++) {
+      entities.add(new Entity()
+          .addProperty(new Property(null, "PropertyInt16", ValueType.PRIMITIVE, (short) (random.nextInt(2000) - 1000)))
+          .addProperty(new Property(null, "PropertyString", ValueType.PRIMITIVE, "S" + random.nextInt(20))));
+    }
+    return entities;
+  }
+}